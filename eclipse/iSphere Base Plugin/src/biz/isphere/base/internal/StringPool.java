@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.base.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of strings, that returns one shared instance per distinct value. It is
+ * used for sharing values, that repeat across a large number of objects, such
+ * as the object and program names of journal entries or the procedure names
+ * of job trace entries.
+ * <p>
+ * Only values with a low number of distinct values should be pooled. Values
+ * that are unique for most objects, such as thread IDs or addresses, only
+ * increase the size of the pool.
+ * <p>
+ * Unlike {@link String#intern()}, the values are referenced weakly. A value is
+ * removed from the pool, when it is no longer used. This class is
+ * thread-safe.
+ */
+public final class StringPool {
+
+    private Map<String, WeakReference<String>> pool;
+
+    public StringPool() {
+        this.pool = new WeakHashMap<String, WeakReference<String>>();
+    }
+
+    /**
+     * Returns the pooled instance of a given string. The string is added to
+     * the pool, if it is not yet pooled.
+     * 
+     * @param value - string value, may be <code>null</code>
+     * @return pooled string or <code>null</code>
+     */
+    public synchronized String intern(String value) {
+
+        if (value == null) {
+            return null;
+        }
+
+        WeakReference<String> reference = pool.get(value);
+        if (reference != null) {
+            String pooledValue = reference.get();
+            if (pooledValue != null) {
+                return pooledValue;
+            }
+        }
+
+        pool.put(value, new WeakReference<String>(value));
+
+        return value;
+    }
+
+    /**
+     * Returns the number of pooled strings.
+     * 
+     * @return number of strings
+     */
+    public synchronized int size() {
+        return pool.size();
+    }
+}
@@ -368,6 +368,16 @@ public class Messages extends NLS {
 
     public static String Current_page;
 
+    public static String Page_length;
+
+    public static String Page_width;
+
+    public static String Lines_per_inch;
+
+    public static String Characters_per_inch;
+
+    public static String Job_ccsid;
+
     public static String Diagnostic;
 
     public static String Escape;
@@ -1084,6 +1094,9 @@ public class Messages extends NLS {
 
     public static String Loading_message_descriptions;
 
+    public static String Could_not_load_message_descriptions_of_message_file_A_B;
+    public static String Host_round_trips_A_bytes_received_B;
+
     public static String Left_message_description;
 
     public static String Right_message_description;
@@ -1368,6 +1381,10 @@ public class Messages extends NLS {
 
     public static String Tooltip_Maximum_number_of_sppoled_files_to_load;
 
+    public static String Spooled_file_conversion_connections_colon;
+
+    public static String Spooled_file_conversion_threads_colon;
+
     public static String Number_of_spooled_files_exceeds_maximum_number_of_spooled_files_to_load_A;
 
     public static String Valid_of_field_a_is_invalid;
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.internal.api.retrievemessagedescription;
+
+import java.util.List;
+
+import biz.isphere.core.messagefileeditor.MessageDescription;
+
+/**
+ * Listener that is notified about each block of message descriptions that has
+ * been retrieved by {@link IQMHRTVM}. The blocks are returned in the order of
+ * the message identifiers.
+ */
+public interface IMessageDescriptionsReceivedListener {
+
+    public void messageDescriptionsReceived(List<MessageDescription> messageDescriptions);
+
+}
@@ -10,7 +10,9 @@ package biz.isphere.core.internal.api.retrievemessagedescription;
 
 import java.beans.PropertyVetoException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -23,6 +25,7 @@ import biz.isphere.core.ibmi.contributions.extension.handler.IBMiHostContributio
 import biz.isphere.core.internal.api.APIErrorCode;
 import biz.isphere.core.internal.api.APIProgramCallDocument;
 import biz.isphere.core.messagefileeditor.MessageDescription;
+import biz.isphere.core.messagefileeditor.QMHRTVM;
 
 /**
  * The Retrieve Message (QMHRTVM) API retrieves the message description of a
@@ -31,6 +34,13 @@ import biz.isphere.core.messagefileeditor.MessageDescription;
  * other information, such as the message help and the default reply for the
  * message. You can use the QMHRTVM API to copy the text of predefined messages
  * into a program.
+ * <p>
+ * The iSphere IQMHRTVM API returns a block of message descriptions per call.
+ * The size of the block grows with each call of
+ * {@link #retrieveAllMessageDescriptions(IProgressMonitor)}, to reduce the
+ * number of round trips for large message files. When the iSphere API fails,
+ * the message descriptions are retrieved one by one with the system QMHRTVM
+ * API.
  * 
  * @author Thomas Raddatz
  */
@@ -45,11 +55,17 @@ public class IQMHRTVM extends APIProgramCallDocument {
     public static final String RETRIEVE_NEXT = "*NEXT";
     public static final String RETRIEVE_MSGID = "*MSGID";
 
+    private static final int INITIAL_BUFFER_SIZE = Buffer.size("512 kByte");
+    private static final int MAXIMUM_BUFFER_SIZE = Buffer.size("4 mb");
+
     private String connectionName;
     private String messageFile;
     private String library;
     private String format;
 
+    private int numberOfCalls;
+    private long numberOfBytesReturned;
+
     /**
      * Constructs a IQMHRTVM object for a system and connection.
      * 
@@ -133,33 +149,45 @@ public class IQMHRTVM extends APIProgramCallDocument {
      * @return array of message descriptions
      */
     public MessageDescription[] retrieveAllMessageDescriptions(IProgressMonitor monitor) {
+        return retrieveAllMessageDescriptions(monitor, null);
+    }
+
+    /**
+     * Retrieves all message descriptions of the message file. The listener is
+     * notified about each block of message descriptions as soon as it has
+     * been retrieved.
+     * 
+     * @param monitor - monitor
+     * @param listener - listener that is notified about retrieved blocks or
+     *        <code>null</code>
+     * @return array of message descriptions
+     */
+    public MessageDescription[] retrieveAllMessageDescriptions(IProgressMonitor monitor, IMessageDescriptionsReceivedListener listener) {
 
         List<MessageDescription> messages = new ArrayList<MessageDescription>();
 
         try {
 
-            // long startTime = System.currentTimeMillis();
-            // long numCalls = 0;
-
-            // int bufferSize = 1024 * 1024 * 1 / 2;
-            int bufferSize = Buffer.size("512 kByte");
+            int bufferSize = INITIAL_BUFFER_SIZE;
             IQMHRTVMResult result = retrieveMessageDescriptions(IQMHRTVM.RETRIEVE_FIRST, "", ALL_MESSAGES, bufferSize);
 
+            if (result == null) {
+                return retrieveAllMessageDescriptionsOneByOne(messages, listener);
+            }
+
             while (result != null && result.getBytesAvailable() > 0 && result.getNumberOfMessagesReturned() > 0) {
-                // numCalls++;
-                messages.addAll(result.getMessages());
+                List<MessageDescription> block = result.getMessages();
+                messages.addAll(block);
+                if (listener != null) {
+                    listener.messageDescriptionsReceived(block);
+                }
                 if (monitor != null && monitor.isCanceled()) {
                     break;
                 }
+                bufferSize = Math.min(bufferSize * 2, MAXIMUM_BUFFER_SIZE);
                 result = retrieveMessageDescriptions(IQMHRTVM.RETRIEVE_NEXT, result.getLastMessageIdReturned(), ALL_MESSAGES, bufferSize);
             }
 
-            // Xystem.out.println("mSecs for " + messageFile +
-            // " and buffer size " + (bufferSize / 1024) + "KB: "
-            // + (System.currentTimeMillis() - startTime));
-            // Xystem.out.println("Loaded " + messages.size() +
-            // " messages. Called the API " + numCalls + " times.");
-
         } catch (Exception e) {
 
             // Xystem.out.println(e.getLocalizedMessage());
@@ -168,11 +196,76 @@ public class IQMHRTVM extends APIProgramCallDocument {
             // return null;
             ISpherePlugin.logError("Failed calling the iSphere IQMHRTVM API.", e);
 
+            return retrieveAllMessageDescriptionsOneByOne(messages, listener);
         }
 
         return messages.toArray(new MessageDescription[messages.size()]);
     }
 
+    /**
+     * Retrieves all message descriptions of the message file with one call of
+     * the QMHRTVM API per message. The listener is only notified about the
+     * message descriptions, that have not yet been received from the iSphere
+     * IQMHRTVM API.
+     * 
+     * @param receivedMessages - message descriptions already received
+     * @param listener - listener that is notified about retrieved blocks or
+     *        <code>null</code>
+     * @return array of message descriptions
+     */
+    private MessageDescription[] retrieveAllMessageDescriptionsOneByOne(List<MessageDescription> receivedMessages,
+        IMessageDescriptionsReceivedListener listener) {
+
+        QMHRTVM qmhrtvm = new QMHRTVM();
+        MessageDescription[] messages = qmhrtvm.run(getSystem(), connectionName, library, messageFile, "*ALL"); //$NON-NLS-1$
+        numberOfCalls += qmhrtvm.getNumberOfCalls();
+
+        if (messages == null) {
+            return receivedMessages.toArray(new MessageDescription[receivedMessages.size()]);
+        }
+
+        if (listener != null) {
+
+            Set<String> receivedMessageIds = new HashSet<String>();
+            for (MessageDescription message : receivedMessages) {
+                receivedMessageIds.add(message.getMessageId());
+            }
+
+            List<MessageDescription> block = new ArrayList<MessageDescription>();
+            for (MessageDescription message : messages) {
+                if (!receivedMessageIds.contains(message.getMessageId())) {
+                    block.add(message);
+                }
+            }
+
+            if (!block.isEmpty()) {
+                listener.messageDescriptionsReceived(block);
+            }
+        }
+
+        return messages;
+    }
+
+    /**
+     * Returns the number of API calls, that is the number of round trips to
+     * the host, since this object has been created.
+     * 
+     * @return number of API calls
+     */
+    public int getNumberOfCalls() {
+        return numberOfCalls;
+    }
+
+    /**
+     * Returns the number of bytes returned by the iSphere IQMHRTVM API since
+     * this object has been created.
+     * 
+     * @return number of bytes returned
+     */
+    public long getNumberOfBytesReturned() {
+        return numberOfBytesReturned;
+    }
+
     /**
      * Checks whether or not the message description that is associated to a
      * given message ID exists.
@@ -214,8 +307,13 @@ public class IQMHRTVM extends APIProgramCallDocument {
      */
     private IQMHRTVMResult retrieveMessageDescriptions(String retrieveOption, String messageID, int numMessages, int bufferSize) throws Exception {
 
+        numberOfCalls++;
+
         if (execute(createParameterList(retrieveOption, messageID, numMessages, bufferSize))) {
-            return new IQMHRTVMResult(getSystem(), connectionName, messageFile, library, getParameterList()[0].getOutputData(), format);
+            IQMHRTVMResult result = new IQMHRTVMResult(getSystem(), connectionName, messageFile, library, getParameterList()[0].getOutputData(),
+                format);
+            numberOfBytesReturned += result.getBytesReturned();
+            return result;
         }
 
         // AS400Message[] msgList = getMessageList();
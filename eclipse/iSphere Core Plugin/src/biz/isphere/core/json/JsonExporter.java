@@ -8,7 +8,7 @@
 
 package biz.isphere.core.json;
 
-import java.io.FileWriter;
+import java.io.Writer;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Shell;
@@ -19,7 +19,6 @@ import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSerializer;
 
 public class JsonExporter<M extends JsonSerializable> {
 
@@ -47,21 +46,13 @@ public class JsonExporter<M extends JsonSerializable> {
 
     private String performExportToJson(M elements, String file) {
 
-        JsonSerializer<java.sql.Date> sqlDateSerializer = new SQLDateSerializer();
-
-        JsonSerializer<java.sql.Time> sqlTimeSerializer = new SQLTimeSerializer();
-
-        JsonSerializer<java.sql.Timestamp> sqlTimestampSerializer = new SQLTimestampSerializer();
-
         GsonBuilder gsonBuilder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation();
-        gsonBuilder.registerTypeAdapter(java.sql.Date.class, sqlDateSerializer);
-        gsonBuilder.registerTypeAdapter(java.sql.Time.class, sqlTimeSerializer);
-        gsonBuilder.registerTypeAdapter(java.sql.Timestamp.class, sqlTimestampSerializer);
+        JsonFileHelper.registerSqlSerializers(gsonBuilder);
         // gsonBuilder.setPrettyPrinting();
 
         try {
             Gson gson = gsonBuilder.create();
-            FileWriter writer = new FileWriter(file);
+            Writer writer = JsonFileHelper.openWriter(file);
             gson.toJson(elements, writer);
             writer.flush();
             writer.close();
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Team
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Helper class for reading and writing Json files. Files, whose name end with
+ * <code>.gz</code> are written gzip compressed. Compressed files are detected
+ * by their content when they are read.
+ */
+public final class JsonFileHelper {
+
+    public static final String GZIP_FILE_EXTENSION = ".gz"; //$NON-NLS-1$
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private JsonFileHelper() {
+    }
+
+    /**
+     * Registers the serializers for the java.sql date and time types.
+     * 
+     * @param gsonBuilder - Gson builder the serializers are registered at
+     * @return the Gson builder
+     */
+    public static GsonBuilder registerSqlSerializers(GsonBuilder gsonBuilder) {
+
+        gsonBuilder.registerTypeAdapter(java.sql.Date.class, new SQLDateSerializer());
+        gsonBuilder.registerTypeAdapter(java.sql.Time.class, new SQLTimeSerializer());
+        gsonBuilder.registerTypeAdapter(java.sql.Timestamp.class, new SQLTimestampSerializer());
+
+        return gsonBuilder;
+    }
+
+    /**
+     * Returns <code>true</code>, when a given file is written gzip compressed.
+     * 
+     * @param file - path of the file
+     * @return <code>true</code> for compressed files
+     */
+    public static boolean isCompressed(String file) {
+        return file.toLowerCase().endsWith(GZIP_FILE_EXTENSION);
+    }
+
+    /**
+     * Opens a buffered writer for a given Json file. The file is compressed,
+     * when its name ends with <code>.gz</code>.
+     * 
+     * @param file - path of the file
+     * @return writer
+     * @throws IOException
+     */
+    public static Writer openWriter(String file) throws IOException {
+        return openWriter(file, isCompressed(file));
+    }
+
+    /**
+     * Opens a buffered writer for a given Json file, e.g. for a temporary
+     * file, whose name does not tell whether it is compressed.
+     * 
+     * @param file - path of the file
+     * @param isCompressed - specifies whether the file is compressed
+     * @return writer
+     * @throws IOException
+     */
+    public static Writer openWriter(String file, boolean isCompressed) throws IOException {
+
+        OutputStream outputStream = new FileOutputStream(file);
+        if (isCompressed) {
+            outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        } else {
+            outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        }
+
+        return new BufferedWriter(new OutputStreamWriter(outputStream), BUFFER_SIZE);
+    }
+
+    /**
+     * Opens a buffered reader for a given Json file. Gzip compressed files are
+     * decompressed on the fly.
+     * 
+     * @param file - the file
+     * @return reader
+     * @throws IOException
+     */
+    public static Reader openReader(File file) throws IOException {
+
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+
+        try {
+            if (isGzipStream(inputStream)) {
+                inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+
+        return new BufferedReader(new InputStreamReader(inputStream), BUFFER_SIZE);
+    }
+
+    private static boolean isGzipStream(InputStream inputStream) throws IOException {
+
+        inputStream.mark(2);
+        int byte1 = inputStream.read();
+        int byte2 = inputStream.read();
+        inputStream.reset();
+
+        return byte1 == GZIP_MAGIC_1 && byte2 == GZIP_MAGIC_2;
+    }
+}
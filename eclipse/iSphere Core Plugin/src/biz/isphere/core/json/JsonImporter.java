@@ -9,8 +9,8 @@
 package biz.isphere.core.json;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Shell;
@@ -22,7 +22,6 @@ import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSerializer;
 
 public class JsonImporter<M extends JsonSerializable> {
 
@@ -60,21 +59,17 @@ public class JsonImporter<M extends JsonSerializable> {
 
     private M performImportFromJson(File jsonFile) throws IOException {
 
-        JsonSerializer<java.sql.Date> sqlDateSerializer = new SQLDateSerializer();
-
-        JsonSerializer<java.sql.Time> sqlTimeSerializer = new SQLTimeSerializer();
-
-        JsonSerializer<java.sql.Timestamp> sqlTimestampSerializer = new SQLTimestampSerializer();
-
         GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(java.sql.Date.class, sqlDateSerializer);
-        gsonBuilder.registerTypeAdapter(java.sql.Time.class, sqlTimeSerializer);
-        gsonBuilder.registerTypeAdapter(java.sql.Timestamp.class, sqlTimestampSerializer);
+        JsonFileHelper.registerSqlSerializers(gsonBuilder);
 
         Gson gson = gsonBuilder.create();
-        FileReader reader = new FileReader(jsonFile);
-        M journalEntries = gson.fromJson(reader, getClazz());
-        reader.close();
+        Reader reader = JsonFileHelper.openReader(jsonFile);
+        M journalEntries;
+        try {
+            journalEntries = gson.fromJson(reader, getClazz());
+        } finally {
+            reader.close();
+        }
 
         return journalEntries;
     }
@@ -8,6 +8,8 @@
 
 package biz.isphere.core.messagefilecompare;
 
+import java.util.List;
+
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.IEditorInput;
@@ -28,6 +30,8 @@ public class MessageFileCompareEditorInput implements IEditorInput {
     private IMessageFileCompareEditorConfiguration configuration;
     private MessageDescription[] leftMessageDescriptions;
     private MessageDescription[] rightMessageDescriptions;
+    private boolean isLeftLoading;
+    private boolean isRightLoading;
 
     public MessageFileCompareEditorInput(RemoteObject leftMessageFile, RemoteObject rightMessageFile,
         IMessageFileCompareEditorConfiguration configuration) {
@@ -89,22 +93,138 @@ public class MessageFileCompareEditorInput implements IEditorInput {
         return rightMessageFile.getAbsoluteName();
     }
 
-    public MessageDescription[] getLeftMessageDescriptions() {
+    public synchronized MessageDescription[] getLeftMessageDescriptions() {
         return this.leftMessageDescriptions;
     }
 
-    public void setLeftMessageDescriptions(MessageDescription[] leftMessageDescriptions) {
+    public synchronized void setLeftMessageDescriptions(MessageDescription[] leftMessageDescriptions) {
         this.leftMessageDescriptions = leftMessageDescriptions;
     }
 
-    public MessageDescription[] getRightMessageDescriptions() {
+    public synchronized void addLeftMessageDescriptions(List<MessageDescription> messageDescriptions) {
+        this.leftMessageDescriptions = append(leftMessageDescriptions, messageDescriptions);
+    }
+
+    public synchronized MessageDescription[] getRightMessageDescriptions() {
         return this.rightMessageDescriptions;
     }
 
-    public void setRightMessageDescriptions(MessageDescription[] rightMessageDescriptions) {
+    public synchronized void setRightMessageDescriptions(MessageDescription[] rightMessageDescriptions) {
         this.rightMessageDescriptions = rightMessageDescriptions;
     }
 
+    public synchronized void addRightMessageDescriptions(List<MessageDescription> messageDescriptions) {
+        this.rightMessageDescriptions = append(rightMessageDescriptions, messageDescriptions);
+    }
+
+    public synchronized void setLeftLoading(boolean isLoading) {
+        this.isLeftLoading = isLoading;
+    }
+
+    public synchronized void setRightLoading(boolean isLoading) {
+        this.isRightLoading = isLoading;
+    }
+
+    /**
+     * Returns the identifier of the last message that has been loaded on both
+     * sides, while the message descriptions are loaded. The message
+     * descriptions are loaded in the order of the message identifiers,
+     * therefore the compare status of all messages up to that identifier is
+     * final.
+     * 
+     * @return last comparable message identifier or <code>null</code>, when
+     *         all message descriptions have been loaded
+     */
+    public synchronized String getLastComparableMessageId() {
+
+        String lastMessageId = null;
+
+        if (isLeftLoading) {
+            lastMessageId = getLastMessageId(leftMessageDescriptions);
+        }
+
+        if (isRightLoading) {
+            String lastRightMessageId = getLastMessageId(rightMessageDescriptions);
+            if (lastMessageId == null || compareMessageIds(lastRightMessageId, lastMessageId) < 0) {
+                lastMessageId = lastRightMessageId;
+            }
+        }
+
+        return lastMessageId;
+    }
+
+    /**
+     * Compares two message identifiers in the order of the message file, that
+     * is the order of the EBCDIC characters. Letters sort before digits.
+     * 
+     * @param messageId1 - first message identifier
+     * @param messageId2 - second message identifier
+     * @return a negative integer, zero, or a positive integer as the first
+     *         identifier is less than, equal to, or greater than the second
+     *         identifier
+     */
+    public static int compareMessageIds(String messageId1, String messageId2) {
+
+        int length = Math.min(messageId1.length(), messageId2.length());
+        for (int i = 0; i < length; i++) {
+            int result = getEbcdicOrder(messageId1.charAt(i)) - getEbcdicOrder(messageId2.charAt(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return messageId1.length() - messageId2.length();
+    }
+
+    private static int getEbcdicOrder(char character) {
+
+        if (character >= 'A' && character <= 'I') {
+            return 0xC1 + (character - 'A');
+        } else if (character >= 'J' && character <= 'R') {
+            return 0xD1 + (character - 'J');
+        } else if (character >= 'S' && character <= 'Z') {
+            return 0xE2 + (character - 'S');
+        } else if (character >= '0' && character <= '9') {
+            return 0xF0 + (character - '0');
+        } else if (character == '$') {
+            return 0x5B;
+        } else if (character == '#') {
+            return 0x7B;
+        } else if (character == '@') {
+            return 0x7C;
+        }
+
+        return character;
+    }
+
+    private String getLastMessageId(MessageDescription[] messageDescriptions) {
+
+        if (messageDescriptions == null || messageDescriptions.length == 0) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return messageDescriptions[messageDescriptions.length - 1].getMessageId();
+    }
+
+    private MessageDescription[] append(MessageDescription[] messageDescriptions, List<MessageDescription> newMessageDescriptions) {
+
+        int length = 0;
+        if (messageDescriptions != null) {
+            length = messageDescriptions.length;
+        }
+
+        MessageDescription[] allMessageDescriptions = new MessageDescription[length + newMessageDescriptions.size()];
+        if (messageDescriptions != null) {
+            System.arraycopy(messageDescriptions, 0, allMessageDescriptions, 0, length);
+        }
+
+        for (int i = 0; i < newMessageDescriptions.size(); i++) {
+            allMessageDescriptions[length + i] = newMessageDescriptions.get(i);
+        }
+
+        return allMessageDescriptions;
+    }
+
     public String getName() {
 
         if (StringHelper.isNullOrEmpty(getLeftMessageFileName())) {
@@ -124,10 +244,12 @@ public class MessageFileCompareEditorInput implements IEditorInput {
         return titleImage;
     }
 
-    public MessageFileCompareEditorInput clearAll() {
+    public synchronized MessageFileCompareEditorInput clearAll() {
 
         leftMessageDescriptions = new MessageDescription[0];
         rightMessageDescriptions = new MessageDescription[0];
+        isLeftLoading = false;
+        isRightLoading = false;
 
         return this;
     }
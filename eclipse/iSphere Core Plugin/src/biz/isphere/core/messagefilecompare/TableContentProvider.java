@@ -8,8 +8,10 @@
 
 package biz.isphere.core.messagefilecompare;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jface.viewers.IStructuredContentProvider;
@@ -20,12 +22,19 @@ import biz.isphere.core.messagefileeditor.MessageDescription;
 
 /**
  * Class to provide the content of the table viewer.
+ * <p>
+ * While the message descriptions are loaded, the compare items are built
+ * incrementally with each refresh of the viewer. Only items, whose message
+ * identifier has been reached on both sides, are returned, because the compare
+ * status of the other items is not yet final.
  */
 public class TableContentProvider implements IStructuredContentProvider {
 
     private TableStatistics tableStatistics;
     private MessageFileCompareEditorInput editorInput;
     private Map<String, MessageFileCompareItem> compareItems;
+    private int numLeftMessageDescriptions;
+    private int numRightMessageDescriptions;
 
     public TableContentProvider(TableStatistics tableStatistics) {
 
@@ -44,25 +53,54 @@ public class TableContentProvider implements IStructuredContentProvider {
 
             tableStatistics.clearStatistics();
             compareItems = new LinkedHashMap<String, MessageFileCompareItem>();
-            
-            if (editorInput != null) {
+            numLeftMessageDescriptions = 0;
+            numRightMessageDescriptions = 0;
+        }
+
+        String lastComparableMessageId = null;
+
+        if (editorInput != null) {
+
+            lastComparableMessageId = editorInput.getLastComparableMessageId();
 
-                for (MessageDescription leftMessageDescription : editorInput.getLeftMessageDescriptions()) {
+            MessageDescription[] leftMessageDescriptions = editorInput.getLeftMessageDescriptions();
+            for (int i = numLeftMessageDescriptions; i < leftMessageDescriptions.length; i++) {
+                MessageDescription leftMessageDescription = leftMessageDescriptions[i];
+                MessageFileCompareItem item = compareItems.get(leftMessageDescription.getMessageId());
+                if (item == null) {
                     compareItems.put(leftMessageDescription.getMessageId(), new MessageFileCompareItem(leftMessageDescription, null));
+                } else {
+                    item.setLeftMessageDescription(leftMessageDescription);
                 }
+            }
+            numLeftMessageDescriptions = leftMessageDescriptions.length;
+
+            MessageDescription[] rightMessageDescriptions = editorInput.getRightMessageDescriptions();
+            for (int i = numRightMessageDescriptions; i < rightMessageDescriptions.length; i++) {
+                MessageDescription rightMessageDescription = rightMessageDescriptions[i];
+                MessageFileCompareItem item = compareItems.get(rightMessageDescription.getMessageId());
+                if (item == null) {
+                    compareItems.put(rightMessageDescription.getMessageId(), new MessageFileCompareItem(null, rightMessageDescription));
+                } else {
+                    item.setRightMessageDescription(rightMessageDescription);
+                }
+            }
+            numRightMessageDescriptions = rightMessageDescriptions.length;
+        }
 
-                for (MessageDescription rightMessageDescription : editorInput.getRightMessageDescriptions()) {
-                    MessageFileCompareItem item = compareItems.get(rightMessageDescription.getMessageId());
-                    if (item == null) {
-                        compareItems.put(rightMessageDescription.getMessageId(), new MessageFileCompareItem(null, rightMessageDescription));
-                    } else {
-                        item.setRightMessageDescription(rightMessageDescription);
-                    }
+        List<MessageFileCompareItem> comparableItems;
+        if (lastComparableMessageId == null) {
+            comparableItems = new ArrayList<MessageFileCompareItem>(compareItems.values());
+        } else {
+            comparableItems = new ArrayList<MessageFileCompareItem>();
+            for (MessageFileCompareItem item : compareItems.values()) {
+                if (MessageFileCompareEditorInput.compareMessageIds(item.getMessageId(), lastComparableMessageId) <= 0) {
+                    comparableItems.add(item);
                 }
             }
         }
 
-        MessageFileCompareItem[] compareItemsArray = compareItems.values().toArray(new MessageFileCompareItem[compareItems.size()]);
+        MessageFileCompareItem[] compareItemsArray = comparableItems.toArray(new MessageFileCompareItem[comparableItems.size()]);
         Arrays.sort(compareItemsArray);
 
         return compareItemsArray;
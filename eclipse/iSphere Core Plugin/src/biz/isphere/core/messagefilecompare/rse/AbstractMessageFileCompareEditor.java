@@ -56,6 +56,7 @@ import org.eclipse.ui.progress.UIJob;
 import com.ibm.as400.access.AS400;
 
 import biz.isphere.base.internal.DialogSettingsManager;
+import biz.isphere.base.internal.ExceptionHelper;
 import biz.isphere.base.internal.StringHelper;
 import biz.isphere.base.internal.UIHelper;
 import biz.isphere.base.swt.events.TableAutoSizeControlListener;
@@ -69,6 +70,7 @@ import biz.isphere.core.internal.ISphereHelper;
 import biz.isphere.core.internal.MessageDescriptionHelper;
 import biz.isphere.core.internal.RemoteObject;
 import biz.isphere.core.internal.Size;
+import biz.isphere.core.internal.api.retrievemessagedescription.IMessageDescriptionsReceivedListener;
 import biz.isphere.core.internal.api.retrievemessagedescription.IQMHRTVM;
 import biz.isphere.core.messagefilecompare.MessageFileCompareEditorInput;
 import biz.isphere.core.messagefilecompare.TableContentProvider;
@@ -91,6 +93,10 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
     private static final String BUTTON_DUPLICATES = "BUTTON_DUPLICATES"; //$NON-NLS-1$
     private static final String BUTTON_COMPARE_AFTER_SYNC = "BUTTON_COMPARE_AFTER_SYNC"; //$NON-NLS-1$
 
+    private static final int LEFT_SIDE = 1;
+    private static final int RIGHT_SIDE = 2;
+    private static final long PROGRESSIVE_REFRESH_DELAY = 250;
+
     private MessageFileCompareEditorInput input;
 
     private boolean selectionChanged;
@@ -128,10 +134,12 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
 
     private boolean isComparing;
     private boolean isSynchronizing;
+    private boolean isRefreshPending;
 
     private StatusLine statusLine;
     private String statusMessage;
     private int numFilteredItems;
+    private String loadStatistics;
 
     public AbstractMessageFileCompareEditor() {
 
@@ -747,6 +755,9 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
         } else {
             TableStatistics tableStatistics = getTableStatistics();
             statusMessage = tableStatistics.toString();
+            if (loadStatistics != null) {
+                statusMessage = statusMessage + " - " + loadStatistics; //$NON-NLS-1$
+            }
             numFilteredItems = tableStatistics.getFilteredElements();
         }
 
@@ -828,6 +839,7 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
         }
 
         tableViewer.setInput(getEditorInput().clearAll());
+        loadStatistics = null;
 
         setIsComparing(true);
         setButtonEnablementAndDisplayCompareStatus();
@@ -851,22 +863,50 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
 
                     monitor.beginTask("", 2);
 
-                    MessageDescription[] leftMessageDescriptions = getMessageDescriptions(editorInput.getLeftMessageFile(), monitor);
-                    getEditorInput().setLeftMessageDescriptions(leftMessageDescriptions);
+                    /*
+                     * Both message files are loaded concurrently. The left
+                     * message file is loaded by this job, the right message
+                     * file is loaded by a separate thread. The table is
+                     * refreshed, while the message descriptions arrive.
+                     */
+                    getEditorInput().setLeftLoading(true);
+                    getEditorInput().setRightLoading(true);
+
+                    RemoteObject leftMessageFile = editorInput.getLeftMessageFile();
+                    RemoteObject rightMessageFile = editorInput.getRightMessageFile();
+                    boolean isSameConnection = leftMessageFile.getConnectionName().equals(rightMessageFile.getConnectionName());
+
+                    MessageFileLoader rightLoader = new MessageFileLoader(rightMessageFile, RIGHT_SIDE, isSameConnection, monitor);
+                    Thread rightThread = new Thread(rightLoader, "Loading right message file"); //$NON-NLS-1$
+                    rightThread.start();
+
+                    MessageFileLoader leftLoader = new MessageFileLoader(leftMessageFile, LEFT_SIDE, false, monitor);
+                    leftLoader.run();
+                    monitor.worked(1);
+
+                    try {
+                        rightThread.join();
+                    } catch (InterruptedException e) {
+                        monitor.setCanceled(true);
+                    }
                     monitor.worked(1);
 
                     if (monitor.isCanceled()) {
                         return cancelOperation();
                     }
 
-                    MessageDescription[] rightMessageDescriptions = getMessageDescriptions(editorInput.getRightMessageFile(), monitor);
-                    getEditorInput().setRightMessageDescriptions(rightMessageDescriptions);
-                    monitor.worked(2);
-
-                    if (monitor.isCanceled()) {
+                    if (leftLoader.getErrorMessage() != null || rightLoader.getErrorMessage() != null) {
+                        displayLoadErrors(leftLoader.getErrorMessage(), rightLoader.getErrorMessage());
                         return cancelOperation();
                     }
 
+                    getEditorInput().setLeftMessageDescriptions(leftLoader.getMessageDescriptions());
+                    getEditorInput().setRightMessageDescriptions(rightLoader.getMessageDescriptions());
+
+                    loadStatistics = Messages.bind(Messages.Host_round_trips_A_bytes_received_B,
+                        leftLoader.getNumberOfCalls() + rightLoader.getNumberOfCalls(),
+                        leftLoader.getNumberOfBytesReturned() + rightLoader.getNumberOfBytesReturned());
+
                 } finally {
                     monitor.done();
 
@@ -894,22 +934,185 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
 
                 getEditorInput().setLeftMessageDescriptions(new MessageDescription[0]);
                 getEditorInput().setRightMessageDescriptions(new MessageDescription[0]);
+                getEditorInput().setLeftLoading(false);
+                getEditorInput().setRightLoading(false);
 
                 return Status.OK_STATUS;
             }
 
-            private MessageDescription[] getMessageDescriptions(RemoteObject messageFile, IProgressMonitor monitor) {
+            private void displayLoadErrors(String leftErrorMessage, String rightErrorMessage) {
+
+                StringBuilder errorMessage = new StringBuilder();
+                if (leftErrorMessage != null) {
+                    errorMessage.append(leftErrorMessage);
+                }
+                if (rightErrorMessage != null) {
+                    if (errorMessage.length() > 0) {
+                        errorMessage.append("\n\n"); //$NON-NLS-1$
+                    }
+                    errorMessage.append(rightErrorMessage);
+                }
+
+                final String message = errorMessage.toString();
+
+                UIJob job = new UIJob("") { //$NON-NLS-1$
+                    @Override
+                    public IStatus runInUIThread(IProgressMonitor monitor) {
+                        if (!tableViewer.getTable().isDisposed()) {
+                            MessageDialog.openError(getShell(), Messages.E_R_R_O_R, message);
+                        }
+                        return Status.OK_STATUS;
+                    }
+                };
+                job.schedule();
+            }
+        };
+        job.schedule();
+    }
+
+    /**
+     * Schedules a refresh of the table, unless a refresh is already pending.
+     * Called by the message file loaders each time a block of message
+     * descriptions has been received.
+     */
+    private void scheduleProgressiveRefresh() {
+
+        synchronized (this) {
+            if (isRefreshPending) {
+                return;
+            }
+            isRefreshPending = true;
+        }
+
+        UIJob job = new UIJob("") { //$NON-NLS-1$
+            @Override
+            public IStatus runInUIThread(IProgressMonitor monitor) {
+                synchronized (AbstractMessageFileCompareEditor.this) {
+                    isRefreshPending = false;
+                }
+                if (tableViewer.getTable().isDisposed() || !isWorking()) {
+                    return Status.OK_STATUS;
+                }
+                clearTableStatistics();
+                tableViewer.refresh();
+                displayCompareStatus();
+                return Status.OK_STATUS;
+            }
+        };
+        job.schedule(PROGRESSIVE_REFRESH_DELAY);
+    }
+
+    /**
+     * Class that loads the message descriptions of a message file and adds
+     * them to the editor input as they arrive. When both message files are
+     * loaded from the same connection, one of the loaders uses a copy of the
+     * connection, because the connection cannot be used by both loaders at
+     * the same time.
+     */
+    private class MessageFileLoader implements Runnable, IMessageDescriptionsReceivedListener {
+
+        private RemoteObject messageFile;
+        private int side;
+        private boolean isCopyOfConnection;
+        private IProgressMonitor monitor;
+        private MessageDescription[] messageDescriptions;
+        private String errorMessage;
+        private int numberOfCalls;
+        private long numberOfBytesReturned;
+
+        public MessageFileLoader(RemoteObject messageFile, int side, boolean isCopyOfConnection, IProgressMonitor monitor) {
+            this.messageFile = messageFile;
+            this.side = side;
+            this.isCopyOfConnection = isCopyOfConnection;
+            this.monitor = monitor;
+            this.messageDescriptions = new MessageDescription[0];
+            this.errorMessage = null;
+        }
+
+        public MessageDescription[] getMessageDescriptions() {
+            return messageDescriptions;
+        }
+
+        /**
+         * Returns the error message, when the message descriptions could not
+         * be loaded.
+         * 
+         * @return error message or <code>null</code>
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Returns the number of API calls that were needed to load the message
+         * descriptions.
+         * 
+         * @return number of API calls
+         */
+        public int getNumberOfCalls() {
+            return numberOfCalls;
+        }
+
+        /**
+         * Returns the number of bytes returned by the API calls.
+         * 
+         * @return number of bytes returned
+         */
+        public long getNumberOfBytesReturned() {
+            return numberOfBytesReturned;
+        }
+
+        public void run() {
+
+            AS400 copyOfSystem = null;
+
+            try {
 
                 String connectionName = messageFile.getConnectionName();
                 AS400 system = IBMiHostContributionsHandler.getSystem(connectionName);
+                if (isCopyOfConnection) {
+                    copyOfSystem = new AS400(system);
+                    system = copyOfSystem;
+                }
 
                 IQMHRTVM iqmhrtvm = new IQMHRTVM(system, connectionName);
                 iqmhrtvm.setMessageFile(messageFile.getName(), messageFile.getLibrary());
 
-                return iqmhrtvm.retrieveAllMessageDescriptions(monitor);
+                MessageDescription[] result = iqmhrtvm.retrieveAllMessageDescriptions(monitor, this);
+                if (result != null) {
+                    messageDescriptions = result;
+                }
+
+                numberOfCalls = iqmhrtvm.getNumberOfCalls();
+                numberOfBytesReturned = iqmhrtvm.getNumberOfBytesReturned();
+
+            } catch (Throwable e) {
+                ISpherePlugin.logError("*** Could not load message descriptions of message file " + messageFile.getAbsoluteName() + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+                errorMessage = Messages.bind(Messages.Could_not_load_message_descriptions_of_message_file_A_B, messageFile.getAbsoluteName(),
+                    ExceptionHelper.getLocalizedMessage(e));
+            } finally {
+                if (copyOfSystem != null) {
+                    copyOfSystem.disconnectAllServices();
+                }
+                if (side == LEFT_SIDE) {
+                    getEditorInput().setLeftLoading(false);
+                } else {
+                    getEditorInput().setRightLoading(false);
+                }
+                scheduleProgressiveRefresh();
             }
-        };
-        job.schedule();
+        }
+
+        public void messageDescriptionsReceived(List<MessageDescription> messageDescriptions) {
+
+            if (side == LEFT_SIDE) {
+                getEditorInput().addLeftMessageDescriptions(messageDescriptions);
+            } else {
+                getEditorInput().addRightMessageDescriptions(messageDescriptions);
+            }
+
+            scheduleProgressiveRefresh();
+        }
     }
 
     private void performSynchronizeMessageFiles() {
@@ -1286,6 +1489,7 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
 
                 getTableStatistics().removeElement(compareItem, filterData);
                 MessageDescriptionHelper.refreshMessageDescription(messageDescription);
+                compareItem.clearContentHashes();
                 tableViewer.update(compareItem, null);
 
                 String mode;
@@ -1298,6 +1502,7 @@ public abstract class AbstractMessageFileCompareEditor extends EditorPart {
                 MessageDescriptionDetailDialog messageDescriptionDetailDialog = new MessageDescriptionDetailDialog(getShell(),
                     DialogActionTypes.getSubEditorActionType(mode), messageDescription);
                 if (messageDescriptionDetailDialog.open() == Dialog.OK) {
+                    compareItem.clearContentHashes();
                     tableViewer.update(compareItem, null);
                 }
 
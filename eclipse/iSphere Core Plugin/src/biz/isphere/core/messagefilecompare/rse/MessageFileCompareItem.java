@@ -24,6 +24,9 @@ public class MessageFileCompareItem implements Comparable<MessageFileCompareItem
     private MessageDescription rightMessageDescription;
     private int overridenCompareStatus;
 
+    private String leftContentHash;
+    private String rightContentHash;
+
     private String messageId;
 
     public MessageFileCompareItem(MessageDescription leftMessageDescription, MessageDescription rightMessageDescription) {
@@ -58,6 +61,7 @@ public class MessageFileCompareItem implements Comparable<MessageFileCompareItem
         }
 
         this.leftMessageDescription = messageDescription;
+        this.leftContentHash = null;
     }
 
     public MessageDescription getRightMessageDescription() {
@@ -71,6 +75,7 @@ public class MessageFileCompareItem implements Comparable<MessageFileCompareItem
         }
 
         this.rightMessageDescription = messageDescription;
+        this.rightContentHash = null;
     }
 
     public int getCompareStatus() {
@@ -110,6 +115,15 @@ public class MessageFileCompareItem implements Comparable<MessageFileCompareItem
         overridenCompareStatus = OVERRIDE_STATUS_NULL;
     }
 
+    /**
+     * Clears the cached content hashes of the message descriptions. Must be
+     * called, when a message description has been changed in place.
+     */
+    public void clearContentHashes() {
+        leftContentHash = null;
+        rightContentHash = null;
+    }
+
     public boolean isSingle() {
 
         if (getLeftMessageDescription() == null || getRightMessageDescription() == null) {
@@ -170,10 +184,15 @@ public class MessageFileCompareItem implements Comparable<MessageFileCompareItem
 
     private boolean leftEqualsRight(MessageDescription left, MessageDescription right) {
 
-        String leftText = leftMessageDescription.asComparableText(-1);
-        String rightText = rightMessageDescription.asComparableText(-1);
+        if (leftContentHash == null) {
+            leftContentHash = left.getContentHash();
+        }
+
+        if (rightContentHash == null) {
+            rightContentHash = right.getContentHash();
+        }
 
-        return compareText(leftText, rightText);
+        return compareText(leftContentHash, rightContentHash);
     }
 
     private boolean compareText(String string1, String string2) {
@@ -9,6 +9,8 @@
 package biz.isphere.core.messagefileeditor;
 
 import java.io.Serializable;
+import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 
 import biz.isphere.base.internal.StringHelper;
@@ -287,6 +289,25 @@ public class MessageDescription implements Serializable {
         return buffer.toString();
     }
 
+    /**
+     * Returns a hash of the comparable text of this message description. Two
+     * message descriptions with the same comparable text have the same hash.
+     * 
+     * @return content hash
+     */
+    public String getContentHash() {
+
+        String comparableText = asComparableText(-1);
+
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+            byte[] digest = messageDigest.digest(comparableText.getBytes("UTF-8")); //$NON-NLS-1$
+            return new BigInteger(1, digest).toString(16);
+        } catch (Exception e) {
+            return comparableText;
+        }
+    }
+
     private void addFormattedTextItem(StringBuilder buffer, String name, String... values) {
 
         buffer.append(name);
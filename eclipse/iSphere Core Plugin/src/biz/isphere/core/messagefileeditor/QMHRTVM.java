@@ -19,6 +19,8 @@ import com.ibm.as400.data.ProgramCallDocument;
 
 public class QMHRTVM {
 
+    private int numberOfCalls;
+
     public MessageDescription[] run(AS400 _as400, String _connection, String _library, String _messageFile, String _messageId) {
 
         ArrayList<Object> messages = new ArrayList<Object>();
@@ -48,6 +50,7 @@ public class QMHRTVM {
                 pcml.setValue("QMHRTVM.retrieveOption", retrieveOption);
                 pcml.setValue("QMHRTVM.messageId", messageId);
 
+                numberOfCalls++;
                 boolean rc = pcml.callProgram("QMHRTVM");
 
                 if (rc == false) {
@@ -136,6 +139,16 @@ public class QMHRTVM {
 
     }
 
+    /**
+     * Returns the number of calls of the QMHRTVM API, that is the number of
+     * round trips to the host.
+     * 
+     * @return number of API calls
+     */
+    public int getNumberOfCalls() {
+        return numberOfCalls;
+    }
+
     public String getStringWithFixLength(String oldString, int length) {
         StringBuffer newString = new StringBuffer(oldString);
         while (newString.length() < length) {
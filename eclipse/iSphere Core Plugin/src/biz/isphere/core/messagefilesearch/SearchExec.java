@@ -10,7 +10,6 @@ package biz.isphere.core.messagefilesearch;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 
@@ -27,6 +26,7 @@ import biz.isphere.core.annotations.CMOne;
 import biz.isphere.core.internal.ISphereHelper;
 import biz.isphere.core.internal.MessageDialogAsync;
 import biz.isphere.core.search.SearchOptions;
+import biz.isphere.core.search.SearchStatusMonitor;
 
 import com.ibm.as400.access.AS400;
 
@@ -105,38 +105,46 @@ public class SearchExec {
 
                             monitor.beginTask("Searching", _numberOfSearchElements);
 
-                            // Start the search job on the host.
-                            new DoSearch(_as400, _handle, _searchOptions).start();
+                            // Progress channel between the search job on the host
+                            // and this job.
+                            SearchStatusMonitor statusMonitor = new SearchStatusMonitor(_jdbcConnection, new SqlHelper(_jdbcConnection).getObjectName(
+                                iSphereLibrary, "XFNDSTRS"), _handle);
 
-                            int _lastCounter = 0;
+                            try {
 
-                            // Wait for the end of the search job.
-                            // Read XFNDSTRS to update '_counter'
-                            getStatus(monitor);
+                                // Start the search job on the host.
+                                new DoSearch(_as400, _handle, _searchOptions, statusMonitor).start();
 
-                            while (_counter != -1) {
+                                int _lastCounter = 0;
 
-                                monitor.worked(_counter - _lastCounter);
+                                // Wait for the end of the search job.
+                                // Read XFNDSTRS to update '_counter'
+                                getStatus(monitor, statusMonitor);
 
-                                _lastCounter = _counter;
+                                while (_counter != -1) {
 
-                                if (monitor.isCanceled()) {
-                                    cancelJob();
-                                    _status = Status.CANCEL_STATUS;
-                                    break;
-                                }
+                                    monitor.worked(_counter - _lastCounter);
+
+                                    _lastCounter = _counter;
+
+                                    if (monitor.isCanceled()) {
+                                        cancelJob();
+                                        _status = Status.CANCEL_STATUS;
+                                        break;
+                                    }
+
+                                    statusMonitor.waitForProgress(monitor);
+
+                                    getStatus(monitor, statusMonitor);
 
-                                try {
-                                    Thread.sleep(500);
-                                } catch (InterruptedException e) {
                                 }
 
-                                getStatus(monitor);
+                                monitor.worked(_numberOfSearchElements - _lastCounter);
 
+                            } finally {
+                                statusMonitor.close();
                             }
 
-                            monitor.worked(_numberOfSearchElements - _lastCounter);
-
                             monitor.done();
 
                             if (!monitor.isCanceled()) {
@@ -168,61 +176,22 @@ public class SearchExec {
 
         }
 
-        private void getStatus(IProgressMonitor monitor) {
-
-            Throwable error = null;
-
-            // String _separator;
-            // try {
-            // _separator = _jdbcConnection.getMetaData().getCatalogSeparator();
-            // } catch (SQLException e) {
-            //                _separator = "."; //$NON-NLS-1$
-            // ISpherePlugin.logError("*** Message file search (1): Could not get JDBC meta data. Using '.' as SQL separator ***",
-            // e);
-            // }
-
-            SqlHelper sqlHelper = new SqlHelper(_jdbcConnection);
+        private void getStatus(IProgressMonitor monitor, SearchStatusMonitor statusMonitor) {
 
-            PreparedStatement preparedStatementSelect = null;
-            ResultSet resultSet = null;
             try {
-
-                preparedStatementSelect = _jdbcConnection.prepareStatement("SELECT XSCNT, XSCNL FROM "
-                    + sqlHelper.getObjectName(iSphereLibrary, "XFNDSTRS") + " WHERE XSHDL = ?");
-                preparedStatementSelect.setInt(1, _handle);
-                resultSet = preparedStatementSelect.executeQuery();
-                if (resultSet.next()) {
-                    _counter = resultSet.getInt("XSCNT");
+                Integer counter = statusMonitor.getCounter();
+                if (counter != null) {
+                    _counter = counter.intValue();
                 } else {
-                    ISpherePlugin.logError("*** Message file search: Could not read status record (" + _handle + ") from file XFNDSTRS ***", error);
+                    ISpherePlugin.logError("*** Message file search: Could not read status record (" + _handle + ") from file XFNDSTRS ***", null);
                     monitor.setCanceled(true);
                     MessageDialogAsync.displayError(Messages.bind(Messages.Could_not_read_status_from_file_B_A_for_search_job_handle_C, new Object[] {
                         "XFNDSTRS", iSphereLibrary, new Integer(_handle) }));
                 }
             } catch (SQLException e) {
-                error = e;
-            }
-
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (preparedStatementSelect != null) {
-                try {
-                    preparedStatementSelect.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (error != null) {
                 monitor.setCanceled(true);
-                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(error));
-                ISpherePlugin.logError("*** Message file search: Unexpected connection error. ***", error);
+                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(e));
+                ISpherePlugin.logError("*** Message file search: Unexpected connection error. ***", e);
             }
 
         }
@@ -265,16 +234,22 @@ public class SearchExec {
         private AS400 _as400;
         private int _handle;
         private SearchOptions _searchOptions;
+        private SearchStatusMonitor _statusMonitor;
 
-        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions) {
+        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions, SearchStatusMonitor _statusMonitor) {
             this._as400 = _as400;
             this._handle = _handle;
             this._searchOptions = _searchOptions;
+            this._statusMonitor = _statusMonitor;
         }
 
         @Override
         public void run() {
-            new XFNDSTR_search().run(_as400, _handle, _searchOptions);
+            try {
+                new XFNDSTR_search().run(_as400, _handle, _searchOptions);
+            } finally {
+                _statusMonitor.searchEnded();
+            }
         }
 
     }
@@ -113,6 +113,10 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
     private boolean isLoadAsynchronously;
     private Text textMaxNumSpooledFiles;
     private int maxNumSpooledFiles;
+    private Text textConversionMaxConnections;
+    private int conversionMaxConnections;
+    private Text textConversionMaxThreads;
+    private int conversionMaxThreads;
     private Combo comboSuggestedFileName;
     private String suggestedFileName;
     private Text textRSEDescription;
@@ -182,6 +186,30 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
         textMaxNumSpooledFiles.setLayoutData(createLayoutData());
         textMaxNumSpooledFiles.setTextLimit(6);
 
+        new Label(container, SWT.NONE).setText(Messages.Spooled_file_conversion_connections_colon);
+
+        textConversionMaxConnections = WidgetFactory.createIntegerText(container);
+        textConversionMaxConnections.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyReleased(KeyEvent e) {
+                checkError();
+            }
+        });
+        textConversionMaxConnections.setLayoutData(createLayoutData());
+        textConversionMaxConnections.setTextLimit(2);
+
+        new Label(container, SWT.NONE).setText(Messages.Spooled_file_conversion_threads_colon);
+
+        textConversionMaxThreads = WidgetFactory.createIntegerText(container);
+        textConversionMaxThreads.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyReleased(KeyEvent e) {
+                checkError();
+            }
+        });
+        textConversionMaxThreads.setLayoutData(createLayoutData());
+        textConversionMaxThreads.setTextLimit(2);
+
         Label labelSuggestedFileName = new Label(container, SWT.NONE);
         labelSuggestedFileName.setText(Messages.Suggested_file_name);
 
@@ -746,6 +774,20 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
             return;
         }
 
+        conversionMaxConnections = IntHelper.tryParseInt(textConversionMaxConnections.getText(), -1);
+        if (conversionMaxConnections <= 0) {
+            setErrorMessage(Messages.bind(Messages.Valid_of_field_a_is_invalid, Messages.Spooled_file_conversion_connections_colon));
+            setValid(false);
+            return;
+        }
+
+        conversionMaxThreads = IntHelper.tryParseInt(textConversionMaxThreads.getText(), -1);
+        if (conversionMaxThreads <= 0) {
+            setErrorMessage(Messages.bind(Messages.Valid_of_field_a_is_invalid, Messages.Spooled_file_conversion_threads_colon));
+            setValid(false);
+            return;
+        }
+
         setErrorMessage(null);
         setValid(true);
         return;
@@ -794,6 +836,8 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
         Preferences.getInstance().setSpooledFileAdjustFontSize(adjustFontSize);
         Preferences.getInstance().setSpooledFilesSuggestedFileName(suggestedFileName);
         Preferences.getInstance().setSpooledFileMaxFilesToLoad(maxNumSpooledFiles);
+        Preferences.getInstance().setSpooledFileConversionMaxConnections(conversionMaxConnections);
+        Preferences.getInstance().setSpooledFileConversionMaxThreads(conversionMaxThreads);
 
         Preferences.getInstance().setSpooledFileRSEDescription(rseDescription);
     }
@@ -822,6 +866,8 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
         adjustFontSize = Preferences.getInstance().getSpooledFileAdjustFontSize();
         suggestedFileName = Preferences.getInstance().getSpooledFilesSuggestedFileName();
         maxNumSpooledFiles = Preferences.getInstance().getSpooledFilesMaxFilesToLoad();
+        conversionMaxConnections = Preferences.getInstance().getSpooledFileConversionMaxConnections();
+        conversionMaxThreads = Preferences.getInstance().getSpooledFileConversionMaxThreads();
 
         rseDescription = Preferences.getInstance().getSpooledFileRSEDescription();
 
@@ -853,6 +899,8 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
         adjustFontSize = Preferences.getInstance().getDefaultSpooledFileAdjustFontSize();
         suggestedFileName = Preferences.getInstance().getDefaultSpooledFilesSuggestedFileName();
         maxNumSpooledFiles = Preferences.getInstance().getDefaultSpooledFileMaxFilesToLoad();
+        conversionMaxConnections = Preferences.getInstance().getDefaultSpooledFileConversionMaxConnections();
+        conversionMaxThreads = Preferences.getInstance().getDefaultSpooledFileConversionMaxThreads();
 
         rseDescription = Preferences.getInstance().getDefaultSpooledFileRSEDescription();
 
@@ -978,6 +1026,8 @@ public class ISphereSpooledFiles extends PreferencePage implements IWorkbenchPre
 
         comboSuggestedFileName.setText(suggestedFileName);
         textMaxNumSpooledFiles.setText(Integer.toString(maxNumSpooledFiles));
+        textConversionMaxConnections.setText(Integer.toString(conversionMaxConnections));
+        textConversionMaxThreads.setText(Integer.toString(conversionMaxThreads));
 
         textRSEDescription.setText(rseDescription);
     }
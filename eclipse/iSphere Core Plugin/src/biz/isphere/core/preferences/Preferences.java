@@ -101,6 +101,8 @@ public final class Preferences {
     private static final String SPOOLED_FILES_DEFAULT_FORMAT = DOMAIN + "SPOOLED_FILES.DEFAULT_FORMAT"; //$NON-NLS-1$
     private static final String SPOOLED_FILES_MAX_FILES_TO_LOAD = DOMAIN + "MAX_FILES_TO_LOAD"; //$NON-NLS-1$
     private static final String SPOOLED_FILES_RSE_DESCRIPTION = DOMAIN + "RSE_DESCRIPTION"; //$NON-NLS-1$
+    private static final String SPOOLED_FILES_CONVERSION_MAX_CONNECTIONS = DOMAIN + "SPOOLED_FILES.CONVERSION.MAX_CONNECTIONS"; //$NON-NLS-1$
+    private static final String SPOOLED_FILES_CONVERSION_MAX_THREADS = DOMAIN + "SPOOLED_FILES.CONVERSION.MAX_THREADS"; //$NON-NLS-1$
 
     private static final String BACKUP_MEMBER_NAME_CURRENT_RULE = DOMAIN + "BACKUP_MEMBER_NAME.CURRENT_RULE"; //$NON-NLS-1$
     private static final String BACKUP_MEMBER_NAME_ENABLE_MEMBER_PRECHECK = DOMAIN + "BACKUP_MEMBER_NAME.ENABLE_MEMBER_PRECHECK"; //$NON-NLS-1$
@@ -324,6 +326,14 @@ public final class Preferences {
         return preferenceStore.getString(SPOOLED_FILES_RSE_DESCRIPTION);
     }
 
+    public int getSpooledFileConversionMaxConnections() {
+        return preferenceStore.getInt(SPOOLED_FILES_CONVERSION_MAX_CONNECTIONS);
+    }
+
+    public int getSpooledFileConversionMaxThreads() {
+        return preferenceStore.getInt(SPOOLED_FILES_CONVERSION_MAX_THREADS);
+    }
+
     public IMemberRenamingRule getMemberRenamingRule() {
 
         IMemberRenamingRule rule = null;
@@ -844,6 +854,14 @@ public final class Preferences {
         preferenceStore.setValue(SPOOLED_FILES_RSE_DESCRIPTION, description);
     }
 
+    public void setSpooledFileConversionMaxConnections(int count) {
+        preferenceStore.setValue(SPOOLED_FILES_CONVERSION_MAX_CONNECTIONS, count);
+    }
+
+    public void setSpooledFileConversionMaxThreads(int count) {
+        preferenceStore.setValue(SPOOLED_FILES_CONVERSION_MAX_THREADS, count);
+    }
+
     public void setMemberRenamingRule(IMemberRenamingRule rule) {
         preferenceStore.setValue(BACKUP_MEMBER_NAME_CURRENT_RULE, rule.getClass().getName());
     }
@@ -1092,6 +1110,8 @@ public final class Preferences {
 
         preferenceStore.setDefault(SPOOLED_FILES_MAX_FILES_TO_LOAD, getDefaultSpooledFileMaxFilesToLoad());
         preferenceStore.setDefault(SPOOLED_FILES_RSE_DESCRIPTION, getDefaultSpooledFileRSEDescription());
+        preferenceStore.setDefault(SPOOLED_FILES_CONVERSION_MAX_CONNECTIONS, getDefaultSpooledFileConversionMaxConnections());
+        preferenceStore.setDefault(SPOOLED_FILES_CONVERSION_MAX_THREADS, getDefaultSpooledFileConversionMaxThreads());
 
         preferenceStore.setDefault(SPOOLED_FILES_CONVERSION_TEXT, getDefaultSpooledFileConversionText());
         preferenceStore.setDefault(SPOOLED_FILES_CONVERSION_TEXT_COMMAND, getDefaultSpooledFileConversionTextCommand());
@@ -1302,6 +1322,26 @@ public final class Preferences {
         return 5000;
     }
 
+    /**
+     * Returns the default number of host connections used for converting
+     * spooled files to a directory.
+     * 
+     * @return default number of host connections
+     */
+    public int getDefaultSpooledFileConversionMaxConnections() {
+        return 2;
+    }
+
+    /**
+     * Returns the default number of threads used for converting spooled files
+     * to a directory.
+     * 
+     * @return default number of threads
+     */
+    public int getDefaultSpooledFileConversionMaxThreads() {
+        return 4;
+    }
+
     /**
      * Returns the default spooled file description.
      * 
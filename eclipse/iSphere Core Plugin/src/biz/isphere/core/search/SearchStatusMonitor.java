@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Progress channel between a search job on the host and the Eclipse job that
+ * waits for the end of the search. The thread that calls the host search
+ * program reports the end of the search with {@link #searchEnded()}, which
+ * immediately wakes up the waiting job. In between, the job reads the search
+ * counter from the status file (FNDSTRS, XFNDSTRS, ZFNDSTRS) with a single
+ * prepared statement, that is reused for the whole search. The interval
+ * between two reads is doubled, while the counter does not change.
+ * <p>
+ * A canceled progress monitor is noticed within
+ * {@value #CANCEL_CHECK_INTERVAL} milliseconds without accessing the host.
+ */
+public class SearchStatusMonitor {
+
+    public static final int SEARCH_ENDED = -1;
+
+    private static final long CANCEL_CHECK_INTERVAL = 100;
+    private static final long MIN_POLL_INTERVAL = 500;
+    private static final long MAX_POLL_INTERVAL = 4000;
+
+    private Connection jdbcConnection;
+    private String statusFile;
+    private int handle;
+
+    private PreparedStatement preparedStatementSelect;
+    private boolean isSearchEnded;
+    private long pollInterval;
+    private int lastCounter;
+
+    /**
+     * Constructs a new search status monitor.
+     *
+     * @param jdbcConnection - JDBC connection used for reading the status
+     * @param statusFile - qualified SQL name of the status file
+     * @param handle - handle of the search job
+     */
+    public SearchStatusMonitor(Connection jdbcConnection, String statusFile, int handle) {
+        this.jdbcConnection = jdbcConnection;
+        this.statusFile = statusFile;
+        this.handle = handle;
+        this.isSearchEnded = false;
+        this.pollInterval = MIN_POLL_INTERVAL;
+        this.lastCounter = 0;
+    }
+
+    /**
+     * Reports the end of the search job. Called by the thread that called the
+     * host search program, when the program returned.
+     */
+    public synchronized void searchEnded() {
+        isSearchEnded = true;
+        notifyAll();
+    }
+
+    /**
+     * Returns whether the search job has ended.
+     *
+     * @return <code>true</code>, when the search job has ended
+     */
+    public synchronized boolean isSearchEnded() {
+        return isSearchEnded;
+    }
+
+    /**
+     * Waits until the search job has ended, the progress monitor has been
+     * canceled or the current poll interval has elapsed.
+     *
+     * @param monitor - progress monitor of the search
+     */
+    public synchronized void waitForProgress(IProgressMonitor monitor) {
+
+        long endTime = System.currentTimeMillis() + pollInterval;
+        long waitTime;
+
+        while (!isSearchEnded && !monitor.isCanceled() && (waitTime = endTime - System.currentTimeMillis()) > 0) {
+            try {
+                wait(Math.min(waitTime, CANCEL_CHECK_INTERVAL));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the search counter of the search job. Returns
+     * {@link #SEARCH_ENDED} without accessing the host, when the end of the
+     * search job has been reported.
+     *
+     * @return number of processed search elements, {@link #SEARCH_ENDED} or
+     *         <code>null</code>, if the status record could not be found
+     * @throws SQLException
+     */
+    public Integer getCounter() throws SQLException {
+
+        if (isSearchEnded()) {
+            return new Integer(SEARCH_ENDED);
+        }
+
+        if (preparedStatementSelect == null) {
+            preparedStatementSelect = jdbcConnection.prepareStatement("SELECT XSCNT, XSCNL FROM " + statusFile + " WHERE XSHDL = ?");
+            preparedStatementSelect.setInt(1, handle);
+        }
+
+        ResultSet resultSet = preparedStatementSelect.executeQuery();
+
+        try {
+
+            if (!resultSet.next()) {
+                return null;
+            }
+
+            int counter = resultSet.getInt("XSCNT"); //$NON-NLS-1$
+            updatePollInterval(counter);
+
+            return new Integer(counter);
+
+        } finally {
+            resultSet.close();
+        }
+    }
+
+    /**
+     * Closes the prepared statement of the monitor.
+     */
+    public void close() {
+
+        if (preparedStatementSelect != null) {
+            try {
+                preparedStatementSelect.close();
+            } catch (SQLException e) {
+            }
+            preparedStatementSelect = null;
+        }
+    }
+
+    private synchronized void updatePollInterval(int counter) {
+
+        if (counter != lastCounter) {
+            pollInterval = MIN_POLL_INTERVAL;
+        } else {
+            pollInterval = Math.min(pollInterval * 2, MAX_POLL_INTERVAL);
+        }
+
+        lastCounter = counter;
+    }
+}
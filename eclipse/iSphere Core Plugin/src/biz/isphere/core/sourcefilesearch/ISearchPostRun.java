@@ -12,6 +12,24 @@ import biz.isphere.core.search.SearchOptions;
 
 public interface ISearchPostRun {
 
+    /**
+     * Called while the search job is running with the search results, that
+     * have been found since the previous call.
+     * 
+     * @param _searchResults - new search results
+     * @param searchOptions - search options
+     */
+    public void addSearchResults(SearchResult[] _searchResults, SearchOptions searchOptions);
+
+    /**
+     * Called at the end of the search job with all search results. The
+     * search results start with the results passed to
+     * {@link #addSearchResults(SearchResult[], SearchOptions)}.
+     * 
+     * @param _searchResults - all search results or <code>null</code>, if
+     *        the search has been canceled
+     * @param searchOptions - search options
+     */
     public void run(SearchResult[] _searchResults, SearchOptions searchOptions);
 
 }
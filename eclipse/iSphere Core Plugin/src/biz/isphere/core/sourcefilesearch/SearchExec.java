@@ -10,9 +10,7 @@ package biz.isphere.core.sourcefilesearch;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.util.ArrayList;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -24,7 +22,6 @@ import com.ibm.as400.access.AS400;
 
 import biz.isphere.base.internal.ExceptionHelper;
 import biz.isphere.base.internal.SqlHelper;
-import biz.isphere.base.internal.StringHelper;
 import biz.isphere.core.ISpherePlugin;
 import biz.isphere.core.Messages;
 import biz.isphere.core.annotations.CMOne;
@@ -32,6 +29,7 @@ import biz.isphere.core.ibmi.contributions.extension.handler.IBMiHostContributio
 import biz.isphere.core.internal.ISphereHelper;
 import biz.isphere.core.internal.MessageDialogAsync;
 import biz.isphere.core.search.SearchOptions;
+import biz.isphere.core.search.SearchStatusMonitor;
 
 public class SearchExec {
 
@@ -118,42 +116,59 @@ public class SearchExec {
 
                             monitor.beginTask(Messages.Searching, _numberOfSearchElements); //$NON-NLS-1$
 
-                            // Start the search job on the host.
-                            new DoSearch(_as400, _handle, _searchOptions, monitor).start();
+                            // Progress channel between the search job on the host
+                            // and this job.
+                            SearchStatusMonitor statusMonitor = new SearchStatusMonitor(_jdbcConnection, new SqlHelper(_jdbcConnection).getObjectName(
+                                iSphereLibrary, "FNDSTRS"), _handle);
 
-                            int _lastCounter = 0;
+                            // Read FNDSTRO while the search job is running.
+                            SearchResultReader resultReader = new SearchResultReader(_jdbcConnection, iSphereLibrary, _handle);
 
-                            // Wait for the end of the search job.
-                            // Read FNDSTRS to update '_counter'
-                            getStatus(monitor);
+                            try {
 
-                            while (_counter != -1) {
+                                // Start the search job on the host.
+                                new DoSearch(_as400, _handle, _searchOptions, monitor, statusMonitor).start();
 
-                                monitor.worked(_counter - _lastCounter);
+                                int _lastCounter = 0;
 
-                                _lastCounter = _counter;
+                                // Wait for the end of the search job.
+                                // Read FNDSTRS to update '_counter'
+                                getStatus(monitor, statusMonitor);
 
-                                if (monitor.isCanceled()) {
-                                    cancelJob();
-                                    _status = Status.CANCEL_STATUS;
-                                    break;
-                                }
+                                while (_counter != -1) {
 
-                                try {
-                                    Thread.sleep(500);
-                                } catch (InterruptedException e) {
-                                }
+                                    monitor.worked(_counter - _lastCounter);
 
-                                getStatus(monitor);
+                                    if (_counter > _lastCounter && _searchPostRun != null) {
+                                        readSearchResults(resultReader, false);
+                                    }
 
-                            }
+                                    _lastCounter = _counter;
 
-                            monitor.worked(_numberOfSearchElements - _lastCounter);
+                                    if (monitor.isCanceled()) {
+                                        cancelJob();
+                                        _status = Status.CANCEL_STATUS;
+                                        break;
+                                    }
 
-                            monitor.done();
+                                    statusMonitor.waitForProgress(monitor);
+
+                                    getStatus(monitor, statusMonitor);
+
+                                }
 
-                            if (!monitor.isCanceled()) {
-                                _searchResults = getSearchResults(iSphereLibrary, _jdbcConnection, _handle);
+                                monitor.worked(_numberOfSearchElements - _lastCounter);
+
+                                monitor.done();
+
+                                if (!monitor.isCanceled()) {
+                                    readSearchResults(resultReader, true);
+                                    _searchResults = resultReader.getSearchResults();
+                                }
+
+                            } finally {
+                                resultReader.close();
+                                statusMonitor.close();
                             }
 
                             new FNDSTR_clear().run(_as400, _handle);
@@ -181,178 +196,35 @@ public class SearchExec {
 
         }
 
-        private SearchResult[] getSearchResults(String iSphereLibrary, Connection jdbcConnection, int handle) {
-
-            // String _separator;
-            // try {
-            // _separator = jdbcConnection.getMetaData().getCatalogSeparator();
-            // } catch (SQLException e) {
-            //                _separator = "."; //$NON-NLS-1$
-            // ISpherePlugin.logError("*** Source file search (1): Could not get JDBC meta data. Using '.' as SQL separator ***",
-            // e);
-            // }
-
-            SqlHelper sqlHelper = new SqlHelper(jdbcConnection);
-
-            ArrayList<SearchResult> arrayListSearchResults = new ArrayList<SearchResult>();
-
-            PreparedStatement preparedStatementSelect = null;
-            ResultSet resultSet = null;
+        private void readSearchResults(SearchResultReader resultReader, boolean isSearchEnded) {
 
             try {
-
-                preparedStatementSelect = jdbcConnection.prepareStatement("SELECT * FROM " + sqlHelper.getObjectName(iSphereLibrary, "FNDSTRO")
-                    + " WHERE XOHDL = ? ORDER BY XOHDL, XOLIB, XOFILE, XOMBR, XOFLCD", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-                preparedStatementSelect.setString(1, Integer.toString(handle));
-                resultSet = preparedStatementSelect.executeQuery();
-
-                String _library = ""; //$NON-NLS-1$
-                String _file = ""; //$NON-NLS-1$
-                String _member = ""; //$NON-NLS-1$
-
-                String library;
-                String file;
-                String member;
-                String srcType;
-                Timestamp lastChangedDate;
-
-                SearchResult _searchResult = null;
-                ArrayList<SearchResultStatement> alStatements = null;
-
-                while (resultSet.next()) {
-
-                    library = resultSet.getString("XOLIB").trim(); //$NON-NLS-1$
-                    file = resultSet.getString("XOFILE").trim(); //$NON-NLS-1$
-                    member = resultSet.getString("XOMBR").trim(); //$NON-NLS-1$
-                    srcType = resultSet.getString("XOTYPE").trim(); //$NON-NLS-1$
-                    lastChangedDate = resultSet.getTimestamp("XOFLCD"); //$NON-NLS-1$
-
-                    if (!_library.equals(library) || !_file.equals(file) || !_member.equals(member)) {
-
-                        if (_searchResult != null) {
-
-                            SearchResultStatement[] _statements = new SearchResultStatement[alStatements.size()];
-                            alStatements.toArray(_statements);
-
-                            _searchResult.setStatements(_statements);
-
-                            arrayListSearchResults.add(_searchResult);
-
-                        }
-
-                        _library = library;
-                        _file = file;
-                        _member = member;
-
-                        _searchResult = new SearchResult();
-                        _searchResult.setLibrary(library);
-                        _searchResult.setFile(file);
-                        _searchResult.setMember(member);
-                        _searchResult.setSrcType(srcType);
-                        _searchResult.setLastChangedDate(lastChangedDate);
-
-                        alStatements = new ArrayList<SearchResultStatement>();
-
-                    }
-
-                    SearchResultStatement statement = new SearchResultStatement();
-                    statement.setStatement(resultSet.getInt("XOSTMT")); //$NON-NLS-1$
-                    statement.setLine(StringHelper.trimR(resultSet.getString("XOLINE"))); //$NON-NLS-1$
-                    alStatements.add(statement);
-
-                }
-
-                if (_searchResult != null) {
-
-                    SearchResultStatement[] _statements = new SearchResultStatement[alStatements.size()];
-                    alStatements.toArray(_statements);
-
-                    _searchResult.setStatements(_statements);
-
-                    arrayListSearchResults.add(_searchResult);
-
+                SearchResult[] searchResults = resultReader.readIncrement(isSearchEnded);
+                if (!isSearchEnded && searchResults.length > 0) {
+                    _searchPostRun.addSearchResults(searchResults, _searchOptions);
                 }
-
             } catch (SQLException e) {
                 ISpherePlugin.logError("*** Could not load source file search result ***", e);
             }
 
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e) {
-                    ISpherePlugin.logError("*** Could not close source file search result set ***", e);
-                }
-            }
-
-            if (preparedStatementSelect != null) {
-                try {
-                    preparedStatementSelect.close();
-                } catch (SQLException e) {
-                    ISpherePlugin.logError("*** Could not close prepared statement of source file search ***", e);
-                }
-            }
-
-            SearchResult[] _searchResults = new SearchResult[arrayListSearchResults.size()];
-            arrayListSearchResults.toArray(_searchResults);
-            return _searchResults;
-
         }
 
-        private void getStatus(IProgressMonitor monitor) {
+        private void getStatus(IProgressMonitor monitor, SearchStatusMonitor statusMonitor) {
 
-            Throwable error = null;
-
-            // String _separator;
-            // try {
-            // _separator = _jdbcConnection.getMetaData().getCatalogSeparator();
-            // } catch (SQLException e) {
-            //                _separator = "."; //$NON-NLS-1$
-            // ISpherePlugin.logError("*** Source file search (2): Could not get JDBC meta data. Using '.' as SQL separator ***",
-            // e);
-            // }
-
-            SqlHelper sqlHelper = new SqlHelper(_jdbcConnection);
-
-            PreparedStatement preparedStatementSelect = null;
-            ResultSet resultSet = null;
             try {
-                preparedStatementSelect = _jdbcConnection.prepareStatement("SELECT XSCNT, XSCNL FROM "
-                    + sqlHelper.getObjectName(iSphereLibrary, "FNDSTRS") + " WHERE XSHDL = ?");
-                preparedStatementSelect.setInt(1, _handle);
-                resultSet = preparedStatementSelect.executeQuery();
-                if (resultSet.next()) {
-                    _counter = resultSet.getInt("XSCNT"); //$NON-NLS-1$
+                Integer counter = statusMonitor.getCounter();
+                if (counter != null) {
+                    _counter = counter.intValue();
                 } else {
-                    ISpherePlugin.logError("*** Source file search: Could not read status record (" + _handle + ") from file FNDSTRS ***", error);
+                    ISpherePlugin.logError("*** Source file search: Could not read status record (" + _handle + ") from file FNDSTRS ***", null);
                     monitor.setCanceled(true);
                     MessageDialogAsync.displayError(Messages.bind(Messages.Could_not_read_status_from_file_B_A_for_search_job_handle_C, new Object[] {
                         "FNDSTRS", iSphereLibrary, new Integer(_handle) }));
                 }
             } catch (SQLException e) {
-                error = e;
-            }
-
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (preparedStatementSelect != null) {
-                try {
-                    preparedStatementSelect.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (error != null) {
                 monitor.setCanceled(true);
-                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(error));
-                ISpherePlugin.logError("*** Source file search: Unexpected connection error. ***", error);
+                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(e));
+                ISpherePlugin.logError("*** Source file search: Unexpected connection error. ***", e);
             }
 
         }
@@ -396,19 +268,25 @@ public class SearchExec {
         private AS400 _as400;
         private int _handle;
         private SearchOptions _searchOptions;
+        private SearchStatusMonitor _statusMonitor;
         private IProgressMonitor _monitor;
 
-        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions, IProgressMonitor _monitor) {
+        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions, IProgressMonitor _monitor, SearchStatusMonitor _statusMonitor) {
             this._as400 = _as400;
             this._handle = _handle;
             this._searchOptions = _searchOptions;
+            this._statusMonitor = _statusMonitor;
             this._monitor = _monitor;
         }
 
         @Override
         public void run() {
-            if (new FNDSTR_search().run(_as400, _handle, _searchOptions) < 0) {
-                _monitor.setCanceled(true);
+            try {
+                if (new FNDSTR_search().run(_as400, _handle, _searchOptions) < 0) {
+                    _monitor.setCanceled(true);
+                }
+            } finally {
+                _statusMonitor.searchEnded();
             }
         }
 
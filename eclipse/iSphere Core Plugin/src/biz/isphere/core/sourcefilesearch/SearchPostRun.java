@@ -10,6 +10,7 @@ package biz.isphere.core.sourcefilesearch;
 
 import java.util.Map;
 
+import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PartInitException;
 
@@ -17,6 +18,8 @@ import biz.isphere.core.search.SearchOptions;
 
 public class SearchPostRun implements ISearchPostRun {
 
+    private static final String VIEW_ID = "biz.isphere.core.sourcefilesearch.ViewSearchResults"; //$NON-NLS-1$
+
     private class ShowView extends Thread {
 
         private IWorkbenchWindow _workbenchWindow;
@@ -41,9 +44,16 @@ public class SearchPostRun implements ISearchPostRun {
             _workbenchWindow.getShell().getDisplay().asyncExec(new Runnable() {
                 public void run() {
                     try {
-                        ViewSearchResults viewSearchResults = (ViewSearchResults)(_workbenchWindow.getActivePage()
-                            .showView("biz.isphere.core.sourcefilesearch.ViewSearchResults")); //$NON-NLS-1$
-                        viewSearchResults.addTabItem(_connectionName, _searchString, _searchResults, _searchOptions);
+                        if (searchResultViewer == null) {
+                            ViewSearchResults viewSearchResults = (ViewSearchResults)(_workbenchWindow.getActivePage().showView(VIEW_ID));
+                            searchResultViewer = viewSearchResults.addTabItem(_connectionName, _searchString, _searchResults, _searchOptions);
+                        } else {
+                            // Append to the tab of the previous results.
+                            IViewPart viewPart = _workbenchWindow.getActivePage().findView(VIEW_ID);
+                            if (viewPart instanceof ViewSearchResults) {
+                                ((ViewSearchResults)viewPart).addSearchResults(searchResultViewer, _searchResults);
+                            }
+                        }
                     } catch (PartInitException e) {
                         e.printStackTrace();
                     }
@@ -58,6 +68,12 @@ public class SearchPostRun implements ISearchPostRun {
     private Map<String, SearchElement> _searchElements;
     private IWorkbenchWindow _workbenchWindow;
 
+    // Number of search results passed to addSearchResults().
+    private int _numSearchResultsAdded;
+
+    // Viewer of the search results. Accessed by the UI thread only.
+    private SearchResultViewer searchResultViewer;
+
     public Object getConnection() {
         return _connection;
     }
@@ -98,24 +114,54 @@ public class SearchPostRun implements ISearchPostRun {
         this._workbenchWindow = _workbenchWindow;
     }
 
+    public void addSearchResults(SearchResult[] _searchResults, SearchOptions _searchOptions) {
+
+        setDescriptions(_searchResults);
+
+        _numSearchResultsAdded = _numSearchResultsAdded + _searchResults.length;
+
+        // Post the results from the calling thread, in order to keep the
+        // order of the increments.
+        new ShowView(_workbenchWindow, _connectionName, _searchString, _searchResults, _searchOptions).run();
+
+    }
+
     public void run(SearchResult[] _searchResults, SearchOptions _searchOptions) {
 
         if (_searchResults != null) {
 
-            for (int idx = 0; idx < _searchResults.length; idx++) {
+            if (_numSearchResultsAdded > 0) {
 
-                String key = _searchResults[idx].getLibrary() + "-" + _searchResults[idx].getFile() + "-" + _searchResults[idx].getMember(); //$NON-NLS-1$ //$NON-NLS-2$
-                SearchElement _searchElement = _searchElements.get(key);
-                if (_searchElement != null) {
-                    _searchResults[idx].setDescription(_searchElement.getDescription());
+                // Show only the results, that have not yet been added.
+                SearchResult[] _remainingResults = new SearchResult[_searchResults.length - _numSearchResultsAdded];
+                System.arraycopy(_searchResults, _numSearchResultsAdded, _remainingResults, 0, _remainingResults.length);
+                if (_remainingResults.length > 0) {
+                    addSearchResults(_remainingResults, _searchOptions);
                 }
 
+                return;
             }
 
+            setDescriptions(_searchResults);
+
             new ShowView(_workbenchWindow, _connectionName, _searchString, _searchResults, _searchOptions).start();
 
         }
 
     }
 
+    private void setDescriptions(SearchResult[] _searchResults) {
+
+        for (int idx = 0; idx < _searchResults.length; idx++) {
+
+            String key = _searchResults[idx].getLibrary() + "-" + _searchResults[idx].getFile() + "-" + _searchResults[idx].getMember(); //$NON-NLS-1$ //$NON-NLS-2$
+            SearchElement _searchElement = _searchElements.get(key);
+            if (_searchElement != null) {
+                _searchResults[idx].setDescription(_searchElement.getDescription());
+            }
+
+        }
+
+    }
+
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.sourcefilesearch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import biz.isphere.base.internal.SqlHelper;
+import biz.isphere.base.internal.StringHelper;
+
+/**
+ * Reads the search results of a source file search from file FNDSTRO
+ * incrementally, while the search job is still running.
+ * <p>
+ * The host search program processes the members in the order of library,
+ * file and member name. Therefore the reader keeps the key of the last member
+ * it returned as watermark and reads only the rows of the following members.
+ * The rows of the last member of an increment may still be incomplete. That
+ * member is returned with the next increment, unless the search job has
+ * ended.
+ * <p>
+ * The final search result is made up of the increments and does not need to
+ * be read again at the end of the search.
+ */
+public class SearchResultReader {
+
+    private Connection jdbcConnection;
+    private String iSphereLibrary;
+    private int handle;
+
+    private PreparedStatement preparedStatementSelect;
+
+    private String lastLibrary;
+    private String lastFile;
+    private String lastMember;
+
+    private List<SearchResult> searchResults;
+
+    /**
+     * Constructs a new search result reader.
+     *
+     * @param jdbcConnection - JDBC connection used for reading the search
+     *        results
+     * @param iSphereLibrary - name of the iSphere library
+     * @param handle - handle of the search job
+     */
+    public SearchResultReader(Connection jdbcConnection, String iSphereLibrary, int handle) {
+        this.jdbcConnection = jdbcConnection;
+        this.iSphereLibrary = iSphereLibrary;
+        this.handle = handle;
+
+        this.lastLibrary = ""; //$NON-NLS-1$
+        this.lastFile = ""; //$NON-NLS-1$
+        this.lastMember = ""; //$NON-NLS-1$
+
+        this.searchResults = new ArrayList<SearchResult>();
+    }
+
+    /**
+     * Reads the search results of the members behind the watermark.
+     *
+     * @param isSearchEnded - specifies whether the search job has ended.
+     *        When <code>true</code>, the last member is returned, too.
+     * @return search results, that have been added since the previous call
+     * @throws SQLException
+     */
+    public SearchResult[] readIncrement(boolean isSearchEnded) throws SQLException {
+
+        if (preparedStatementSelect == null) {
+            SqlHelper sqlHelper = new SqlHelper(jdbcConnection);
+            preparedStatementSelect = jdbcConnection.prepareStatement("SELECT * FROM " + sqlHelper.getObjectName(iSphereLibrary, "FNDSTRO")
+                + " WHERE XOHDL = ? AND (XOLIB > ? OR (XOLIB = ? AND (XOFILE > ? OR (XOFILE = ? AND XOMBR > ?))))"
+                + " ORDER BY XOHDL, XOLIB, XOFILE, XOMBR, XOSTMT");
+        }
+
+        preparedStatementSelect.setInt(1, handle);
+        preparedStatementSelect.setString(2, lastLibrary);
+        preparedStatementSelect.setString(3, lastLibrary);
+        preparedStatementSelect.setString(4, lastFile);
+        preparedStatementSelect.setString(5, lastFile);
+        preparedStatementSelect.setString(6, lastMember);
+
+        List<SearchResult> increment = new ArrayList<SearchResult>();
+
+        SearchResult searchResult = null;
+        List<SearchResultStatement> statements = null;
+
+        ResultSet resultSet = preparedStatementSelect.executeQuery();
+
+        try {
+
+            while (resultSet.next()) {
+
+                String library = resultSet.getString("XOLIB").trim(); //$NON-NLS-1$
+                String file = resultSet.getString("XOFILE").trim(); //$NON-NLS-1$
+                String member = resultSet.getString("XOMBR").trim(); //$NON-NLS-1$
+
+                if (searchResult == null || !searchResult.getLibrary().equals(library) || !searchResult.getFile().equals(file)
+                    || !searchResult.getMember().equals(member)) {
+
+                    if (searchResult != null) {
+                        addSearchResult(increment, searchResult, statements);
+                    }
+
+                    searchResult = new SearchResult();
+                    searchResult.setLibrary(library);
+                    searchResult.setFile(file);
+                    searchResult.setMember(member);
+                    searchResult.setSrcType(resultSet.getString("XOTYPE").trim()); //$NON-NLS-1$
+                    searchResult.setLastChangedDate(resultSet.getTimestamp("XOFLCD")); //$NON-NLS-1$
+
+                    statements = new ArrayList<SearchResultStatement>();
+                }
+
+                SearchResultStatement statement = new SearchResultStatement();
+                statement.setStatement(resultSet.getInt("XOSTMT")); //$NON-NLS-1$
+                statement.setLine(StringHelper.trimR(resultSet.getString("XOLINE"))); //$NON-NLS-1$
+                statements.add(statement);
+            }
+
+        } finally {
+            resultSet.close();
+        }
+
+        if (searchResult != null && isSearchEnded) {
+            addSearchResult(increment, searchResult, statements);
+        }
+
+        return increment.toArray(new SearchResult[increment.size()]);
+    }
+
+    /**
+     * Returns all search results, that have been read so far.
+     *
+     * @return search results
+     */
+    public SearchResult[] getSearchResults() {
+        return searchResults.toArray(new SearchResult[searchResults.size()]);
+    }
+
+    /**
+     * Closes the prepared statement of the reader.
+     */
+    public void close() {
+
+        if (preparedStatementSelect != null) {
+            try {
+                preparedStatementSelect.close();
+            } catch (SQLException e) {
+            }
+            preparedStatementSelect = null;
+        }
+    }
+
+    private void addSearchResult(List<SearchResult> increment, SearchResult searchResult, List<SearchResultStatement> statements) {
+
+        searchResult.setStatements(statements.toArray(new SearchResultStatement[statements.size()]));
+
+        increment.add(searchResult);
+        searchResults.add(searchResult);
+
+        lastLibrary = searchResult.getLibrary();
+        lastFile = searchResult.getFile();
+        lastMember = searchResult.getMember();
+    }
+}
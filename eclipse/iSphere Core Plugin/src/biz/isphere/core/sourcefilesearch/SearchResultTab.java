@@ -41,6 +41,14 @@ public class SearchResultTab implements ISearchResultTab, Serializable {
         return searchResult;
     }
 
+    public void addSearchResults(SearchResult[] searchResults) {
+
+        SearchResult[] newSearchResult = new SearchResult[searchResult.length + searchResults.length];
+        System.arraycopy(searchResult, 0, newSearchResult, 0, searchResult.length);
+        System.arraycopy(searchResults, 0, newSearchResult, searchResult.length, searchResults.length);
+        searchResult = newSearchResult;
+    }
+
     public SearchOptions getSearchOptions() {
         return searchOptions;
     }
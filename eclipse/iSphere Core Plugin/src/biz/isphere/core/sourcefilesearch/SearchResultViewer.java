@@ -991,6 +991,18 @@ public class SearchResultViewer implements IResizableTableColumnsViewer {
         return _searchResults;
     }
 
+    public void addSearchResults(SearchResult[] searchResults) {
+
+        SearchResult[] _newSearchResults = new SearchResult[_searchResults.length + searchResults.length];
+        System.arraycopy(_searchResults, 0, _newSearchResults, 0, _searchResults.length);
+        System.arraycopy(searchResults, 0, _newSearchResults, _searchResults.length, searchResults.length);
+        _searchResults = _newSearchResults;
+
+        if (tableViewerMembers != null) {
+            tableViewerMembers.add(searchResults);
+        }
+    }
+
     public SearchOptions getSearchOptions() {
         return _searchOptions;
     }
@@ -274,7 +274,7 @@ public class ViewSearchResults extends ViewPart implements ISelectionChangedList
     public void setFocus() {
     }
 
-    public void addTabItem(String connectionName, String searchString, SearchResult[] searchResults, SearchOptions searchOptions) {
+    public SearchResultViewer addTabItem(String connectionName, String searchString, SearchResult[] searchResults, SearchOptions searchOptions) {
         Composite compositeSearchResult = new Composite(tabFolderSearchResults, SWT.NONE);
         compositeSearchResult.setLayout(new FillLayout());
 
@@ -297,6 +297,30 @@ public class ViewSearchResults extends ViewPart implements ISelectionChangedList
         searchResultTabFolder.addTab(searchResultTab);
         tabItemSearchResult.setData(TAB_PERSISTENCE_DATA, searchResultTab);
         tabItemSearchResult.setToolTipText(searchResultTab.toText());
+
+        return _searchResultViewer;
+    }
+
+    /**
+     * Appends search results to the tab of a given search result viewer.
+     * Does nothing, when the tab has been closed.
+     * 
+     * @param searchResultViewer - viewer returned by
+     *        {@link #addTabItem(String, String, SearchResult[], SearchOptions)}
+     * @param searchResults - search results that are appended
+     */
+    public void addSearchResults(SearchResultViewer searchResultViewer, SearchResult[] searchResults) {
+
+        CTabItem[] tabItems = tabFolderSearchResults.getItems();
+        for (CTabItem tabItem : tabItems) {
+            if (getViewer(tabItem) == searchResultViewer) {
+                searchResultViewer.addSearchResults(searchResults);
+                SearchResultTab searchResultTab = (SearchResultTab)tabItem.getData(TAB_PERSISTENCE_DATA);
+                searchResultTab.addSearchResults(searchResults);
+                setActionEnablement();
+                return;
+            }
+        }
     }
 
     private void exportToMemberFilter() {
@@ -119,10 +119,52 @@ public abstract class AbstractSpooledFileProperties extends PropertyPage {
         Label _currentPage = new Label(propGroup, SWT.NONE);
         _currentPage.setText(Integer.toString(spooledFile.getCurrentPage()));
 
+        CachedSpooledFileAttributes attributes = spooledFile.getCachedAttributes();
+        if (attributes != null) {
+
+            Label pageLength = new Label(propGroup, SWT.NONE);
+            pageLength.setText(Messages.Page_length + ":");
+            Label _pageLength = new Label(propGroup, SWT.NONE);
+            _pageLength.setText(getText(attributes.getPageLength()));
+
+            Label pageWidth = new Label(propGroup, SWT.NONE);
+            pageWidth.setText(Messages.Page_width + ":");
+            Label _pageWidth = new Label(propGroup, SWT.NONE);
+            _pageWidth.setText(getText(attributes.getPageWidth()));
+
+            Label lpi = new Label(propGroup, SWT.NONE);
+            lpi.setText(Messages.Lines_per_inch + ":");
+            Label _lpi = new Label(propGroup, SWT.NONE);
+            _lpi.setText(getText(attributes.getLPI()));
+
+            Label cpi = new Label(propGroup, SWT.NONE);
+            cpi.setText(Messages.Characters_per_inch + ":");
+            Label _cpi = new Label(propGroup, SWT.NONE);
+            _cpi.setText(getText(attributes.getCPI()));
+
+            Label jobCcsid = new Label(propGroup, SWT.NONE);
+            jobCcsid.setText(Messages.Job_ccsid + ":");
+            Label _jobCcsid = new Label(propGroup, SWT.NONE);
+            _jobCcsid.setText(getText(attributes.getJobCcsid()));
+        }
+
         return propGroup;
 
     }
 
+    private String getText(Number value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        if (value instanceof Float && value.floatValue() == value.intValue()) {
+            return Integer.toString(value.intValue());
+        }
+
+        return value.toString();
+    }
+
     public abstract SpooledFile getSpooledFile();
 
 }
@@ -8,14 +8,14 @@
 
 package biz.isphere.core.spooledfiles;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.text.DecimalFormat;
 
-import biz.isphere.base.internal.StringHelper;
 import biz.isphere.core.ISpherePlugin;
 import biz.isphere.core.ccsid.CcsidUtil;
+import biz.isphere.core.internal.exception.CanceledByUserException;
 
 import com.ibm.as400.access.PrintObject;
 import com.ibm.as400.access.PrintParameterList;
@@ -24,10 +24,6 @@ import com.ibm.as400.access.SpooledFile;
 
 public abstract class AbstractSpooledFileTransformer implements ISpooledFileTransformer {
 
-    private static final String SPACE = " "; //$NON-NLS-1$
-
-    private static final String UNDERSCORE = "_"; //$NON-NLS-1$
-
     protected static final String CR_LF = "\r\n"; //$NON-NLS-1$
 
     protected static final String FF = "\f"; //$NON-NLS-1$
@@ -35,7 +31,7 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
     /**
      * Replacement value for carriage return (CR). The *WSCST objects transform
      * CR to DC1 in order to let the spooled file transformer detect CR.
-     * Otherwise the CR gets lost due to the BufferedReader.
+     * Otherwise the CR would end the line.
      * <p>
      * The spooled file transformer needs to know about CR to strip the
      * additional "bold" and "underline" lines of *SCS sppoled files.
@@ -51,12 +47,37 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
     private Float pageWidth;
     private Float pageHeight;
 
+    private SpooledFileConversionContext context;
+    private CachedSpooledFileAttributes attributes;
+
     public AbstractSpooledFileTransformer(String connectionName, SpooledFile spooledFile) {
         this.connectionName = connectionName;
         this.spooledFile = spooledFile;
         this.jobNumberFormat = new DecimalFormat("000000");
     }
 
+    /**
+     * Sets the context of a batch conversion. The context caches the *WSCST
+     * path and the job CCSID for the other transformers of the batch and
+     * carries the cancel indicator.
+     * 
+     * @param context - context of the batch conversion
+     */
+    public void setConversionContext(SpooledFileConversionContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Sets the cached attributes of the spooled file. When set, the
+     * transformer takes the attributes from the cache instead of retrieving
+     * them one by one from the host.
+     * 
+     * @param attributes - cached attributes of the spooled file
+     */
+    public void setAttributes(CachedSpooledFileAttributes attributes) {
+        this.attributes = attributes;
+    }
+
     protected String getISphereLibrary() {
         return ISpherePlugin.getISphereLibrary(connectionName);
     }
@@ -72,10 +93,14 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
     protected String getUserData() {
 
         String userdata;
-        try {
-            userdata = spooledFile.getStringAttribute(PrintObject.ATTR_USERDATA);
-        } catch (Exception e) {
-            userdata = null;
+        if (attributes != null) {
+            userdata = attributes.getUserData();
+        } else {
+            try {
+                userdata = spooledFile.getStringAttribute(PrintObject.ATTR_USERDATA);
+            } catch (Exception e) {
+                userdata = null;
+            }
         }
 
         if (userdata == null) {
@@ -91,10 +116,14 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
             return pageHeight;
         }
 
-        try {
-            pageHeight = spooledFile.getFloatAttribute(PrintObject.ATTR_PAGELEN);
-        } catch (Exception e) {
-            pageHeight = null;
+        if (attributes != null) {
+            pageHeight = attributes.getPageLength();
+        } else {
+            try {
+                pageHeight = spooledFile.getFloatAttribute(PrintObject.ATTR_PAGELEN);
+            } catch (Exception e) {
+                pageHeight = null;
+            }
         }
 
         if (pageHeight == null) {
@@ -110,10 +139,14 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
             return pageWidth;
         }
 
-        try {
-            pageWidth = spooledFile.getFloatAttribute(PrintObject.ATTR_PAGEWIDTH);
-        } catch (Exception e) {
-            pageWidth = null;
+        if (attributes != null) {
+            pageWidth = attributes.getPageWidth();
+        } else {
+            try {
+                pageWidth = spooledFile.getFloatAttribute(PrintObject.ATTR_PAGEWIDTH);
+            } catch (Exception e) {
+                pageWidth = null;
+            }
         }
 
         if (pageWidth == null) {
@@ -129,10 +162,14 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
             return lpi;
         }
 
-        try {
-            lpi = spooledFile.getIntegerAttribute(PrintObject.ATTR_LPI);
-        } catch (Exception e) {
-            lpi = null;
+        if (attributes != null) {
+            lpi = attributes.getLPI();
+        } else {
+            try {
+                lpi = spooledFile.getIntegerAttribute(PrintObject.ATTR_LPI);
+            } catch (Exception e) {
+                lpi = null;
+            }
         }
 
         if (lpi == null) {
@@ -148,10 +185,14 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
             return cpi;
         }
 
-        try {
-            cpi = spooledFile.getFloatAttribute(PrintObject.ATTR_CPI);
-        } catch (Exception e) {
-            cpi = null;
+        if (attributes != null) {
+            cpi = attributes.getCPI();
+        } else {
+            try {
+                cpi = spooledFile.getFloatAttribute(PrintObject.ATTR_CPI);
+            } catch (Exception e) {
+                cpi = null;
+            }
         }
 
         if (cpi == null) {
@@ -163,7 +204,7 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
 
     public boolean transformSpooledFile(String target) throws Exception {
 
-        BufferedReader reader = null;
+        Reader reader = null;
 
         boolean cleanUp = false;
 
@@ -175,51 +216,50 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
             transformParameters.setParameter(PrintObject.ATTR_WORKSTATION_CUST_OBJECT, wscst.getPath());
             transformParameters.setParameter(PrintObject.ATTR_MFGTYPE, "*WSCST");
 
-            InputStream in = spooledFile.getTransformedInputStream(transformParameters);
+            InputStream in = openTransformedInputStream(transformParameters);
 
             // TODO: check CcsidUtil and ebcdicAsciiMapping.txt
-            int ccsid = spooledFile.getIntegerAttribute(PrintObject.ATTR_JOBCCSID).intValue();
+            int ccsid = getJobCcsid();
 
             CcsidUtil util = new CcsidUtil();
             String ascii = util.getAsciiCodepage(ccsid);
 
             if (ascii != null) {
-                reader = new BufferedReader(new InputStreamReader(in, ascii));
+                reader = new InputStreamReader(in, ascii);
             } else {
-                reader = new BufferedReader(new InputStreamReader(in));
+                reader = new InputStreamReader(in);
             }
 
             openPrinter(target);
             initPrinter();
 
-            String line;
+            SpooledFileLineTokenizer tokenizer = new SpooledFileLineTokenizer(reader);
             boolean isDelayedFormfeed = false;
-            while ((line = reader.readLine()) != null) {
+            while (tokenizer.nextLine()) {
+                if (context != null && context.isCanceled()) {
+                    throw new CanceledByUserException();
+                }
+
                 if (isDelayedFormfeed) {
                     formfeed();
                     isDelayedFormfeed = false;
                 }
 
-                if (line.startsWith(FF)) {
-                    line = line.substring(1);
+                if (tokenizer.isFormfeedBefore()) {
                     formfeed();
-                    line = handleDC1(line);
-                    if (line.length() > 1) {
-                        print(line);
+                    if (tokenizer.getLineLength() > 1) {
+                        print(tokenizer.getLine(), 0, tokenizer.getLineLength());
                         newLine();
                     }
-                } else if (line.endsWith(FF)) {
-                    line = line.substring(0, line.length() - 1);
-                    line = handleDC1(line);
-                    if (line.length() > 1) {
-                        print(line);
+                } else if (tokenizer.isFormfeedAfter()) {
+                    if (tokenizer.getLineLength() > 1) {
+                        print(tokenizer.getLine(), 0, tokenizer.getLineLength());
                         newLine();
                     }
                     // Delay FF until the next line printed.
                     isDelayedFormfeed = true;
                 } else {
-                    line = handleDC1(line);
-                    print(line);
+                    print(tokenizer.getLine(), 0, tokenizer.getLineLength());
                     newLine();
                 }
             }
@@ -240,103 +280,42 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
     }
 
     /**
-     * Strips that special "fake" lines used by *SCS printer files for BOLD and
-     * UNDERLINED printing.
+     * Opens the transformed input stream of the spooled file.
      * 
-     * @param line - current print data
+     * @param transformParameters - parameters of the host print transform
+     * @return transformed spooled file data
+     * @throws Exception
      */
-    protected String handleDC1(String line) {
-
-        if (line.length() <= 0) {
-            return line;
-        }
-
-        StringBuilder buffer = new StringBuilder();
-
-        int start = 0;
-        int end = line.indexOf(DC1, start);
-        int linePartCount = 0;
-
-        while ((end = line.indexOf(DC1, start)) >= 0) {
-
-            linePartCount++;
-            String linePart = StringHelper.trimR(line.substring(start, end));
-
-            if (linePartCount == 1) {
-                buffer.append(linePart);
-            } else {
-
-                if (linePart.length() == 0) {
-                    // Ignore empty line parts
-                } else if (isUnderlineDoublePrinting(linePart)) {
-                    // Ignore underline printing
-                } else {
-                    // Perform double printing
-                    int length = Math.min(buffer.length(), linePart.length());
-
-                    // Overlay double printing characters
-                    for (int offset = 0; offset < length; offset++) {
-                        String linePartChar = linePart.substring(offset, offset + 1);
-                        if (canReplaceLineChar(buffer, linePart, offset)) {
-                            buffer.replace(offset, offset + 1, linePartChar);
-                        }
-                    }
-
-                    // Append remaining double printing characters
-                    if (length < linePart.length()) {
-                        buffer.append(linePart.substring(length));
-                    }
-                }
-            }
-
-            start = start + linePart.length();
-            start = start + 1; // DC1
-            end = line.indexOf(DC1, start);
-        }
-
-        return buffer.toString();
+    protected InputStream openTransformedInputStream(PrintParameterList transformParameters) throws Exception {
+        return spooledFile.getTransformedInputStream(transformParameters);
     }
 
     /**
-     * Checks, whether a given double printing line contains only underline
-     * characters.
+     * Returns the CCSID of the job that created the spooled file. The CCSID is
+     * taken from the cached attributes, if available. In a batch conversion
+     * the CCSID is retrieved only once per job.
      * 
-     * @param linePart - line that is checked for underline characters
-     * @return <code>true</code> when the line contains only underline
-     *         characters
+     * @return CCSID of the job
+     * @throws Exception
      */
-    private boolean isUnderlineDoublePrinting(String linePart) {
+    protected int getJobCcsid() throws Exception {
 
-        if (linePart.trim().replaceAll(UNDERSCORE, "").length() == 0) {
-            return true;
+        if (attributes != null && attributes.getJobCcsid() != null) {
+            return attributes.getJobCcsid().intValue();
         }
 
-        return false;
-    }
-
-    /**
-     * Checks whether or not a character at a given position can be replaced or
-     * not.
-     * 
-     * @param buffer - buffer that is checked
-     * @param linePart - source of the new character
-     * @param offset - offset of the old and new character
-     * @return <code>true</code> when the character can be replaced else
-     *         <code>false</code>.
-     */
-    private boolean canReplaceLineChar(StringBuilder buffer, String linePart, int offset) {
-
-        // Replace spaces only
-        if (!SPACE.equals(buffer.substring(offset, offset + 1))) {
-            return false;
+        if (context == null) {
+            return spooledFile.getIntegerAttribute(PrintObject.ATTR_JOBCCSID).intValue();
         }
 
-        // Ignore spaces
-        if (SPACE.equals(linePart.substring(offset, offset + 1))) {
-            return false;
+        String key = spooledFile.getSystem().getSystemName() + ":" + getJob(); //$NON-NLS-1$
+        Integer ccsid = context.getJobCcsid(key);
+        if (ccsid == null) {
+            ccsid = spooledFile.getIntegerAttribute(PrintObject.ATTR_JOBCCSID);
+            context.putJobCcsid(key, ccsid);
         }
 
-        return true;
+        return ccsid.intValue();
     }
 
     /**
@@ -404,4 +383,21 @@ public abstract class AbstractSpooledFileTransformer implements ISpooledFileTran
      * @throws Exception
      */
     abstract protected void print(String text) throws Exception;
+
+    /**
+     * Prints a given part of a character buffer. The buffer is reused for the
+     * next line, therefore the characters must be consumed or copied.
+     * <p>
+     * The default implementation creates a string and calls
+     * {@link #print(String)}. Transformers that write to a character stream
+     * should override this method to avoid creating the string.
+     * 
+     * @param buffer - buffer that contains the text
+     * @param offset - offset of the text
+     * @param length - length of the text
+     * @throws Exception
+     */
+    protected void print(char[] buffer, int offset, int length) throws Exception {
+        print(new String(buffer, offset, length));
+    }
 }
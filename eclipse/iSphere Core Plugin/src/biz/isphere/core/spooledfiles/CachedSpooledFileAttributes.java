@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+import com.ibm.as400.access.PrintObject;
+
+/**
+ * Snapshot of the attributes of a spooled file, that are used by the spooled
+ * file transformers and the property pages. The snapshot is taken from the
+ * local attributes of a toolbox spooled file, after these attributes have
+ * been retrieved from the host with a single <code>update()</code> request.
+ * <p>
+ * Attributes that are not available are returned as <code>null</code>.
+ */
+public class CachedSpooledFileAttributes {
+
+    private String status;
+    private String outputQueue;
+    private String outputPriority;
+    private String userData;
+    private String formType;
+    private Integer copies;
+    private Integer pages;
+    private Integer currentPage;
+    private Float pageLength;
+    private Float pageWidth;
+    private Integer lpi;
+    private Float cpi;
+    private Integer jobCcsid;
+
+    CachedSpooledFileAttributes(com.ibm.as400.access.SpooledFile spooledFile) {
+        this.status = getStringAttribute(spooledFile, PrintObject.ATTR_SPLFSTATUS);
+        this.outputQueue = getStringAttribute(spooledFile, PrintObject.ATTR_OUTPUT_QUEUE);
+        this.outputPriority = getStringAttribute(spooledFile, PrintObject.ATTR_OUTPTY);
+        this.userData = getStringAttribute(spooledFile, PrintObject.ATTR_USERDATA);
+        this.formType = getStringAttribute(spooledFile, PrintObject.ATTR_FORMTYPE);
+        this.copies = getIntegerAttribute(spooledFile, PrintObject.ATTR_COPIES);
+        this.pages = getIntegerAttribute(spooledFile, PrintObject.ATTR_PAGES);
+        this.currentPage = getIntegerAttribute(spooledFile, PrintObject.ATTR_CURPAGE);
+        this.pageLength = getFloatAttribute(spooledFile, PrintObject.ATTR_PAGELEN);
+        this.pageWidth = getFloatAttribute(spooledFile, PrintObject.ATTR_PAGEWIDTH);
+        this.lpi = getIntegerAttribute(spooledFile, PrintObject.ATTR_LPI);
+        this.cpi = getFloatAttribute(spooledFile, PrintObject.ATTR_CPI);
+        this.jobCcsid = getIntegerAttribute(spooledFile, PrintObject.ATTR_JOBCCSID);
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the output queue as an IFS path, such as
+     * <code>/QSYS.LIB/QUSRSYS.LIB/PRT01.OUTQ</code>.
+     *
+     * @return path of the output queue
+     */
+    public String getOutputQueue() {
+        return outputQueue;
+    }
+
+    public String getOutputPriority() {
+        return outputPriority;
+    }
+
+    public String getUserData() {
+        return userData;
+    }
+
+    public String getFormType() {
+        return formType;
+    }
+
+    public Integer getCopies() {
+        return copies;
+    }
+
+    public Integer getPages() {
+        return pages;
+    }
+
+    public Integer getCurrentPage() {
+        return currentPage;
+    }
+
+    public Float getPageLength() {
+        return pageLength;
+    }
+
+    public Float getPageWidth() {
+        return pageWidth;
+    }
+
+    public Integer getLPI() {
+        return lpi;
+    }
+
+    public Float getCPI() {
+        return cpi;
+    }
+
+    public Integer getJobCcsid() {
+        return jobCcsid;
+    }
+
+    private String getStringAttribute(com.ibm.as400.access.SpooledFile spooledFile, int attributeId) {
+        try {
+            return spooledFile.getStringAttribute(attributeId);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Integer getIntegerAttribute(com.ibm.as400.access.SpooledFile spooledFile, int attributeId) {
+        try {
+            return spooledFile.getIntegerAttribute(attributeId);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Float getFloatAttribute(com.ibm.as400.access.SpooledFile spooledFile, int attributeId) {
+        try {
+            return spooledFile.getFloatAttribute(attributeId);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Team
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+/**
+ * Listener, that receives the spooled files in batches, while they are loaded
+ * from the host.
+ */
+public interface ISpooledFilesReceivedListener {
+
+    /**
+     * Called, when a batch of spooled files has been loaded.
+     *
+     * @param spooledFiles - spooled files that have been loaded
+     */
+    public void spooledFilesReceived(SpooledFile[] spooledFiles);
+
+}
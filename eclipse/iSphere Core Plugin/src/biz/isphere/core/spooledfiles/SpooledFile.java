@@ -10,7 +10,6 @@ package biz.isphere.core.spooledfiles;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.IOException;
 import java.sql.Time;
 import java.util.Date;
 
@@ -53,15 +52,10 @@ import biz.isphere.core.swt.widgets.extension.handler.WidgetFactoryContributions
 import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 
 import com.ibm.as400.access.AS400;
-import com.ibm.as400.access.AS400Exception;
 import com.ibm.as400.access.AS400Message;
-import com.ibm.as400.access.AS400SecurityException;
 import com.ibm.as400.access.CommandCall;
-import com.ibm.as400.access.ErrorCompletingRequestException;
 import com.ibm.as400.access.IFSFile;
 import com.ibm.as400.access.IFSFileInputStream;
-import com.ibm.as400.access.PrintObject;
-import com.ibm.as400.access.RequestNotSupportedException;
 
 public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
@@ -379,6 +373,65 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         return connectionName;
     }
 
+    /**
+     * Copies the attributes that can change during the life of a spooled file
+     * from a given spooled file, which has been loaded more recently.
+     * 
+     * @param spooledFile - spooled file, whose attributes are copied
+     * @return <code>true</code>, if at least one attribute has changed
+     */
+    public boolean updateAttributes(SpooledFile spooledFile) {
+
+        boolean isChanged = false;
+
+        if (!isEqual(status, spooledFile.getStatus())) {
+            status = spooledFile.getStatus();
+            isChanged = true;
+        }
+
+        if (!isEqual(outputQueue, spooledFile.getOutputQueue()) || !isEqual(outputQueueLibrary, spooledFile.getOutputQueueLibrary())) {
+            outputQueue = spooledFile.getOutputQueue();
+            outputQueueLibrary = spooledFile.getOutputQueueLibrary();
+            isChanged = true;
+        }
+
+        if (!isEqual(outputPriority, spooledFile.getOutputPriority())) {
+            outputPriority = spooledFile.getOutputPriority();
+            isChanged = true;
+        }
+
+        if (!isEqual(userData, spooledFile.getUserData())) {
+            userData = spooledFile.getUserData();
+            isChanged = true;
+        }
+
+        if (!isEqual(formType, spooledFile.getFormType())) {
+            formType = spooledFile.getFormType();
+            isChanged = true;
+        }
+
+        if (copies != spooledFile.getCopies()) {
+            copies = spooledFile.getCopies();
+            isChanged = true;
+        }
+
+        if (pages != spooledFile.getPages()) {
+            pages = spooledFile.getPages();
+            isChanged = true;
+        }
+
+        return isChanged;
+    }
+
+    private boolean isEqual(String value1, String value2) {
+
+        if (value1 == null) {
+            return value2 == null;
+        }
+
+        return value1.equals(value2);
+    }
+
     public void setConnectionName(String connectionName) {
         this.connectionName = connectionName;
     }
@@ -425,7 +478,11 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
     }
 
     private com.ibm.as400.access.SpooledFile getToolboxSpooledFile() {
-        return new com.ibm.as400.access.SpooledFile(as400, file, fileNumber, jobName, jobUser, jobNumber, jobSystem, getCreationDate(),
+        return getToolboxSpooledFile(as400);
+    }
+
+    private com.ibm.as400.access.SpooledFile getToolboxSpooledFile(AS400 system) {
+        return new com.ibm.as400.access.SpooledFile(system, file, fileNumber, jobName, jobUser, jobNumber, jobSystem, getCreationDate(),
             getCreationTime());
     }
 
@@ -461,6 +518,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         }
         try {
             toolboxSpooledFile.delete();
+            SpooledFileAttributeCache.getInstance().invalidate(toolboxSpooledFile);
             return null;
         } catch (Exception e) {
             return e.getMessage();
@@ -516,26 +574,45 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         refreshSpooledFile();
     }
 
+    /**
+     * Returns the attributes of the spooled file from the attribute cache. The
+     * attributes are retrieved from the host, when they are not cached or when
+     * the status of the spooled file has changed.
+     * 
+     * @return attributes of the spooled file or <code>null</code>, if the
+     *         attributes could not be retrieved
+     */
+    public CachedSpooledFileAttributes getCachedAttributes() {
+        return getCachedAttributes(as400);
+    }
+
+    private CachedSpooledFileAttributes getCachedAttributes(AS400 system) {
+        try {
+            return SpooledFileAttributeCache.getInstance().getAttributes(getToolboxSpooledFile(system), status);
+        } catch (Exception e) {
+            ISpherePlugin.logError("*** Could not retrieve attributes of spooled file " + getQualifiedName() + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
     private void refreshSpooledFile() {
         if (toolboxSpooledFile == null) {
             toolboxSpooledFile = getToolboxSpooledFile();
-        } else {
-            try {
-                toolboxSpooledFile.update();
-            } catch (AS400Exception e) {
-            } catch (AS400SecurityException e) {
-            } catch (ErrorCompletingRequestException e) {
-            } catch (IOException e) {
-            } catch (InterruptedException e) {
-            } catch (RequestNotSupportedException e) {
-            }
         }
+
+        CachedSpooledFileAttributes attributes;
         try {
-            status = toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_SPLFSTATUS);
+            attributes = SpooledFileAttributeCache.getInstance().load(toolboxSpooledFile);
         } catch (Exception e) {
+            SpooledFileAttributeCache.getInstance().invalidate(toolboxSpooledFile);
+            return;
+        }
+
+        if (attributes.getStatus() != null) {
+            status = attributes.getStatus();
         }
         try {
-            String outqdev = toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_OUTPUT_QUEUE);
+            String outqdev = attributes.getOutputQueue();
             if (outqdev.endsWith(".OUTQ")) {
                 outqdev = outqdev.substring(10);
                 int slash = outqdev.indexOf("/");
@@ -549,29 +626,23 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
             }
         } catch (Exception e) {
         }
-        try {
-            outputPriority = toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_OUTPTY);
-        } catch (Exception e) {
+        if (attributes.getOutputPriority() != null) {
+            outputPriority = attributes.getOutputPriority();
         }
-        try {
-            userData = toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_USERDATA);
-        } catch (Exception e) {
+        if (attributes.getUserData() != null) {
+            userData = attributes.getUserData();
         }
-        try {
-            formType = toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_FORMTYPE);
-        } catch (Exception e) {
+        if (attributes.getFormType() != null) {
+            formType = attributes.getFormType();
         }
-        try {
-            copies = toolboxSpooledFile.getIntegerAttribute(PrintObject.ATTR_COPIES);
-        } catch (Exception e) {
+        if (attributes.getCopies() != null) {
+            copies = attributes.getCopies();
         }
-        try {
-            pages = toolboxSpooledFile.getIntegerAttribute(PrintObject.ATTR_PAGES);
-        } catch (Exception e) {
+        if (attributes.getPages() != null) {
+            pages = attributes.getPages();
         }
-        try {
-            currentPage = toolboxSpooledFile.getIntegerAttribute(PrintObject.ATTR_CURPAGE);
-        } catch (Exception e) {
+        if (attributes.getCurrentPage() != null) {
+            currentPage = attributes.getCurrentPage();
         }
     }
 
@@ -694,7 +765,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
                     if (hasSpooledFile) {
                         try {
-                            deleteStreamFile(source);
+                            deleteStreamFile(source, as400);
                         } catch (Exception e) {
                             MessageDialogAsync.displayError(shell, ExceptionHelper.getLocalizedMessage(e));
                         }
@@ -735,7 +806,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
             if (hasSpooledFile) {
                 try {
-                    deleteStreamFile(source);
+                    deleteStreamFile(source, as400);
                 } catch (Exception e) {
                     return ExceptionHelper.getLocalizedMessage(e);
                 }
@@ -810,13 +881,13 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
         boolean hasSpooledFile = false;
 
-        if (doTransformSpooledFile(format)) {
+        if (doTransformSpooledFile(format, as400)) {
             // CHANGED: Rz, 29.05.2018
-            hasSpooledFile = transformSpooledFile(format, target.getLocation().toOSString());
+            hasSpooledFile = transformSpooledFile(format, target.getLocation().toOSString(), as400, null);
         } else {
-            if (createStreamFile(format)) {
+            if (createStreamFile(format, as400)) {
                 // CHANGED: Rz, 29.05.2018
-                hasSpooledFile = uploadStreamFile(source, target.getLocation().toOSString());
+                hasSpooledFile = uploadStreamFile(source, target.getLocation().toOSString(), as400);
             }
         }
 
@@ -841,7 +912,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         return target;
     }
 
-    private boolean doTransformSpooledFile(String format) {
+    private boolean doTransformSpooledFile(String format, AS400 system) {
         Preferences store = Preferences.getInstance();
 
         boolean doTransformSpooledFile = false;
@@ -853,14 +924,14 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
             doTransformSpooledFile = store.getSpooledFileConversionPDF().equals(IPreferences.SPLF_CONVERSION_TRANSFORM);
         }
 
-        if (doTransformSpooledFile && !ISphereHelper.canTransformSpooledFile(getAS400())) {
+        if (doTransformSpooledFile && !ISphereHelper.canTransformSpooledFile(system)) {
             doTransformSpooledFile = false;
         }
 
         return doTransformSpooledFile;
     }
 
-    private boolean createStreamFile(String format) throws Exception {
+    private boolean createStreamFile(String format, AS400 system) throws Exception {
         Preferences store = Preferences.getInstance();
 
         boolean _default = true;
@@ -909,15 +980,15 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
         try {
 
-            currentLibrary = ISphereHelper.getCurrentLibrary(as400);
+            currentLibrary = ISphereHelper.getCurrentLibrary(system);
 
             if (currentLibrary != null) {
 
-                if (ISphereHelper.setCurrentLibrary(as400, library)) {
+                if (ISphereHelper.setCurrentLibrary(system, library)) {
 
                     cleanUp = true;
 
-                    String messageId = ISphereHelper.executeCommand(as400, command);
+                    String messageId = ISphereHelper.executeCommand(system, command);
 
                     if (messageId != null && messageId.equals("")) {
                         return true;
@@ -931,7 +1002,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
             if (cleanUp) {
 
-                ISphereHelper.setCurrentLibrary(as400, currentLibrary);
+                ISphereHelper.setCurrentLibrary(system, currentLibrary);
 
             }
 
@@ -995,25 +1066,28 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         return mask.replaceAll(variable, value.replaceAll("\\$", "\\\\\\$"));
     }
 
-    private boolean transformSpooledFile(String format, String target) throws Exception {
+    private boolean transformSpooledFile(String format, String target, AS400 system, SpooledFileConversionContext context) throws Exception {
 
-        ISpooledFileTransformer transformer = null;
+        AbstractSpooledFileTransformer transformer = null;
 
         if (IPreferences.OUTPUT_FORMAT_TEXT.equals(format)) {
-            transformer = new SpooledFileTransformerText(connectionName, getToolboxSpooledFile());
+            transformer = new SpooledFileTransformerText(connectionName, getToolboxSpooledFile(system));
         } else if (IPreferences.OUTPUT_FORMAT_HTML.equals(format)) {
-            transformer = new SpooledFileTransformerHTML(connectionName, getToolboxSpooledFile());
+            transformer = new SpooledFileTransformerHTML(connectionName, getToolboxSpooledFile(system));
         } else if (IPreferences.OUTPUT_FORMAT_PDF.equals(format)) {
-            transformer = new SpooledFileTransformerPDF(connectionName, getToolboxSpooledFile());
+            transformer = new SpooledFileTransformerPDF(connectionName, getToolboxSpooledFile(system));
         } else {
             return false;
         }
 
+        transformer.setConversionContext(context);
+        transformer.setAttributes(getCachedAttributes(system));
+
         return transformer.transformSpooledFile(target);
 
     }
 
-    private boolean uploadStreamFile(String source, String target) throws Exception {
+    private boolean uploadStreamFile(String source, String target, AS400 system) throws Exception {
 
         IFSFileInputStream in = null;
         FileOutputStream out = null;
@@ -1022,7 +1096,7 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
 
         try {
 
-            in = new IFSFileInputStream(as400, source);
+            in = new IFSFileInputStream(system, source);
             out = new FileOutputStream(new File(target));
 
             // byte[] buffer = new byte[8 * 1024];
@@ -1053,8 +1127,8 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         return cleanUp;
     }
 
-    private void deleteStreamFile(String streamFile) throws Exception {
-        IFSFile file = new IFSFile(as400, streamFile);
+    private void deleteStreamFile(String streamFile, AS400 system) throws Exception {
+        IFSFile file = new IFSFile(system, streamFile);
         if (file.exists()) {
             file.delete();
         }
@@ -1147,6 +1221,22 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
     }
 
     public String saveToDirectory(String format, String directory) {
+        return saveToDirectory(format, directory, as400, null);
+    }
+
+    /**
+     * Saves the spooled file to a given directory. This method is used by the
+     * {@link SpooledFileBatchConverter} for converting spooled files in
+     * parallel.
+     * 
+     * @param format - format of the PC file (IPreferences.OUTPUT_FORMAT_TEXT,
+     *        IPreferences.OUTPUT_FORMAT_HTML, IPreferences.OUTPUT_FORMAT_PDF)
+     * @param directory - directory where to store the spooled file
+     * @param system - host connection used for the conversion
+     * @param context - context of the batch conversion or <code>null</code>
+     * @return error message or <code>null</code>
+     */
+    public String saveToDirectory(String format, String directory, AS400 system, SpooledFileConversionContext context) {
 
         String fileExtension = "";
         if (format.equals(IPreferences.OUTPUT_FORMAT_TEXT)) {
@@ -1160,29 +1250,35 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
         String file = new File(directory, replaceVariables(Preferences.getInstance().getQualifiedSpooledFileName() + fileExtension, format))
             .getPath();
 
-        return saveInternally(format, file);
+        return saveInternally(format, file, system, context);
 
     }
 
     private String saveInternally(String format, String file) {
+        return saveInternally(format, file, as400, null);
+    }
+
+    private String saveInternally(String format, String file, AS400 system, SpooledFileConversionContext context) {
 
         if (file != null) {
 
-            storeSaveDirectory(file);
+            if (context == null) {
+                storeSaveDirectory(file);
+            }
 
             String source = ISPHERE_IFS_TMP_DIRECTORY + IBMI_FILE_SEPARATOR + getTemporaryName(format);
             String target = file;
 
-            boolean doTransformSpooledFile = doTransformSpooledFile(format);
+            boolean doTransformSpooledFile = doTransformSpooledFile(format, system);
             boolean hasSpooledFile = false;
 
             try {
 
                 if (doTransformSpooledFile) {
-                    hasSpooledFile = transformSpooledFile(format, target);
+                    hasSpooledFile = transformSpooledFile(format, target, system, context);
                 } else {
-                    if (createStreamFile(format)) {
-                        hasSpooledFile = uploadStreamFile(source, target);
+                    if (createStreamFile(format, system)) {
+                        hasSpooledFile = uploadStreamFile(source, target, system);
                     }
                 }
 
@@ -1190,13 +1286,16 @@ public class SpooledFile implements ISpooledFileBrief, IPropertySource {
                     return Messages.Could_not_create_stream_file_for_spooled_file_on_host;
                 }
 
+            } catch (CanceledByUserException e) {
+                new File(target).delete();
+                return Messages.Operation_has_been_canceled_by_the_user;
             } catch (Exception e) {
                 return e.getMessage();
             } finally {
 
                 if (hasSpooledFile) {
                     try {
-                        deleteStreamFile(source);
+                        deleteStreamFile(source, system);
                     } catch (Exception e) {
                         return e.getMessage();
                     }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ibm.as400.access.AS400Exception;
+import com.ibm.as400.access.AS400SecurityException;
+import com.ibm.as400.access.ErrorCompletingRequestException;
+import com.ibm.as400.access.RequestNotSupportedException;
+
+/**
+ * Cache of the attributes of spooled files. The attributes of a spooled file
+ * are retrieved with a single host request and shared by the spooled file
+ * transformers, the property pages and the spooled file factory.
+ * <p>
+ * The entries are identified by the system name and the unique identity of
+ * the spooled file, that is the qualified job name, the spooled file name and
+ * number, the job system name and the creation date and time. An entry
+ * expires, when the status of the spooled file changes. The least recently
+ * used entries are discarded when the cache is full.
+ * <p>
+ * The methods of this class are thread-safe. The host is accessed without
+ * holding the lock of the cache.
+ */
+public final class SpooledFileAttributeCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    /**
+     * The instance of this Singleton class.
+     */
+    private static SpooledFileAttributeCache instance;
+
+    private Map<String, CachedSpooledFileAttributes> entries;
+
+    /**
+     * Private constructor to ensure the Singleton pattern.
+     */
+    private SpooledFileAttributeCache() {
+        this.entries = new LinkedHashMap<String, CachedSpooledFileAttributes>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5713018290573126425L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSpooledFileAttributes> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    /**
+     * Thread-safe method that returns the instance of this Singleton class.
+     */
+    public synchronized static SpooledFileAttributeCache getInstance() {
+        if (instance == null) {
+            instance = new SpooledFileAttributeCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the attributes of a given spooled file. The attributes are
+     * retrieved from the host, when they are not cached or when the status of
+     * the cached attributes differs from the known status of the spooled file.
+     *
+     * @param spooledFile - toolbox spooled file
+     * @param status - known status of the spooled file or <code>null</code>,
+     *        if any cached status is accepted
+     * @return attributes of the spooled file
+     * @throws AS400Exception
+     * @throws AS400SecurityException
+     * @throws ErrorCompletingRequestException
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws RequestNotSupportedException
+     */
+    public CachedSpooledFileAttributes getAttributes(com.ibm.as400.access.SpooledFile spooledFile, String status) throws AS400Exception,
+        AS400SecurityException, ErrorCompletingRequestException, IOException, InterruptedException, RequestNotSupportedException {
+
+        String key = produceKey(spooledFile);
+
+        CachedSpooledFileAttributes attributes;
+        synchronized (entries) {
+            attributes = entries.get(key);
+        }
+
+        if (attributes != null && (status == null || status.equals(attributes.getStatus()))) {
+            return attributes;
+        }
+
+        return load(spooledFile);
+    }
+
+    /**
+     * Retrieves the attributes of a given spooled file from the host and
+     * replaces the cached attributes.
+     *
+     * @param spooledFile - toolbox spooled file
+     * @return attributes of the spooled file
+     * @throws AS400Exception
+     * @throws AS400SecurityException
+     * @throws ErrorCompletingRequestException
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws RequestNotSupportedException
+     */
+    public CachedSpooledFileAttributes load(com.ibm.as400.access.SpooledFile spooledFile) throws AS400Exception, AS400SecurityException,
+        ErrorCompletingRequestException, IOException, InterruptedException, RequestNotSupportedException {
+
+        spooledFile.update();
+
+        CachedSpooledFileAttributes attributes = new CachedSpooledFileAttributes(spooledFile);
+
+        String key = produceKey(spooledFile);
+        synchronized (entries) {
+            entries.put(key, attributes);
+        }
+
+        return attributes;
+    }
+
+    /**
+     * Removes the attributes of a given spooled file from the cache.
+     *
+     * @param spooledFile - toolbox spooled file
+     */
+    public void invalidate(com.ibm.as400.access.SpooledFile spooledFile) {
+
+        String key = produceKey(spooledFile);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private String produceKey(com.ibm.as400.access.SpooledFile spooledFile) {
+
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(spooledFile.getSystem().getSystemName());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getJobNumber());
+        buffer.append("/"); //$NON-NLS-1$
+        buffer.append(spooledFile.getJobUser());
+        buffer.append("/"); //$NON-NLS-1$
+        buffer.append(spooledFile.getJobName());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getName());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getNumber());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getJobSysName());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getCreateDate());
+        buffer.append(":"); //$NON-NLS-1$
+        buffer.append(spooledFile.getCreateTime());
+
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+
+import biz.isphere.core.ISpherePlugin;
+import biz.isphere.core.preferences.Preferences;
+
+import com.ibm.as400.access.AS400;
+
+/**
+ * This class converts a batch of spooled files to PC files in parallel. The
+ * spooled files are converted by a bounded pool of worker threads, that share
+ * a bounded pool of host connections per system. The connections are copies of
+ * the connection of the spooled files, because the conversion changes the
+ * current library of the host job. The connection of the spooled files is
+ * shared with the views and must not be changed without the lock of the host
+ * job.
+ * <p>
+ * The conversion parameters, that are the same for many spooled files, are
+ * cached in a {@link SpooledFileConversionContext} for the duration of the
+ * batch.
+ */
+public class SpooledFileBatchConverter {
+
+    private static final long POLL_INTERVAL = 100;
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    private int maxConnections;
+    private int maxThreads;
+
+    /**
+     * Constructs a batch converter with the number of connections and threads
+     * taken from the preferences.
+     */
+    public SpooledFileBatchConverter() {
+        this(Preferences.getInstance().getSpooledFileConversionMaxConnections(), Preferences.getInstance().getSpooledFileConversionMaxThreads());
+    }
+
+    /**
+     * Constructs a batch converter.
+     *
+     * @param maxConnections - maximum number of host connections per system
+     * @param maxThreads - maximum number of worker threads
+     */
+    public SpooledFileBatchConverter(int maxConnections, int maxThreads) {
+        this.maxConnections = Math.max(1, maxConnections);
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    /**
+     * Saves the spooled files to a given directory.
+     *
+     * @param spooledFiles - spooled files that are saved
+     * @param format - format of the PC file (IPreferences.OUTPUT_FORMAT_TEXT,
+     *        IPreferences.OUTPUT_FORMAT_HTML, IPreferences.OUTPUT_FORMAT_PDF)
+     * @param directory - directory where to store the spooled files
+     * @param monitor - progress monitor for reporting the progress and for
+     *        canceling the conversion
+     * @return status of the conversion
+     */
+    public IStatus saveToDirectory(SpooledFile[] spooledFiles, String format, String directory, IProgressMonitor monitor) {
+
+        monitor.beginTask("", spooledFiles.length); //$NON-NLS-1$
+
+        SpooledFileConversionContext context = new SpooledFileConversionContext();
+        ConnectionPool connectionPool = new ConnectionPool();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxThreads, Math.max(1, spooledFiles.length)), new WorkerThreadFactory());
+
+        List<String> errors = new ArrayList<String>();
+
+        try {
+
+            CompletionService<ConversionResult> completionService = new ExecutorCompletionService<ConversionResult>(executor);
+            for (SpooledFile spooledFile : spooledFiles) {
+                completionService.submit(new ConversionTask(spooledFile, format, directory, connectionPool, context));
+            }
+
+            int pending = spooledFiles.length;
+            while (pending > 0) {
+
+                if (monitor.isCanceled()) {
+                    context.cancel();
+                }
+
+                Future<ConversionResult> future = completionService.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    pending--;
+                    ConversionResult result = getResult(future);
+                    if (result.errorMessage != null && !context.isCanceled()) {
+                        errors.add(result.spooledFile.getQualifiedName() + ": " + result.errorMessage); //$NON-NLS-1$
+                    }
+                    monitor.subTask(result.spooledFile.getQualifiedName());
+                    monitor.worked(1);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            context.cancel();
+            Thread.currentThread().interrupt();
+        } finally {
+            shutdown(executor);
+            connectionPool.close();
+            monitor.done();
+        }
+
+        if (context.isCanceled()) {
+            return Status.CANCEL_STATUS;
+        }
+
+        if (errors.isEmpty()) {
+            return Status.OK_STATUS;
+        }
+
+        MultiStatus status = new MultiStatus(ISpherePlugin.PLUGIN_ID, IStatus.ERROR, "*** Could not save spooled files ***", null); //$NON-NLS-1$
+        for (String error : errors) {
+            status.add(new Status(IStatus.ERROR, ISpherePlugin.PLUGIN_ID, error));
+        }
+
+        return status;
+    }
+
+    /**
+     * Converts a given spooled file. Overridden by the benchmark for replacing
+     * the host with a local stand-in.
+     *
+     * @param spooledFile - spooled file that is converted
+     * @param format - format of the PC file
+     * @param directory - directory where to store the spooled file
+     * @param system - host connection used for the conversion
+     * @param context - context of the batch conversion
+     * @return error message or <code>null</code>
+     */
+    protected String convert(SpooledFile spooledFile, String format, String directory, AS400 system, SpooledFileConversionContext context) {
+        return spooledFile.saveToDirectory(format, directory, system, context);
+    }
+
+    /**
+     * Creates an additional connection to the host of a given system.
+     *
+     * @param system - system that is copied
+     * @return new connection
+     */
+    protected AS400 createConnection(AS400 system) {
+        return new AS400(system);
+    }
+
+    /**
+     * Closes a connection that has been created by
+     * {@link #createConnection(AS400)}.
+     *
+     * @param connection - connection that is closed
+     */
+    protected void closeConnection(AS400 connection) {
+        connection.disconnectAllServices();
+    }
+
+    /**
+     * Stops the worker threads and waits until the running conversions have
+     * ended, so that the connections are not closed while they are in use.
+     */
+    private void shutdown(ExecutorService executor) {
+
+        executor.shutdownNow();
+
+        boolean isInterrupted = Thread.interrupted();
+
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                ISpherePlugin.logError("*** Spooled file conversion threads did not end in time ***", null); //$NON-NLS-1$
+            }
+        } catch (InterruptedException e) {
+            isInterrupted = true;
+        } finally {
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ConversionResult getResult(Future<ConversionResult> future) throws InterruptedException {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Never thrown, because ConversionTask catches all exceptions.
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Task that converts one spooled file.
+     */
+    private class ConversionTask implements Callable<ConversionResult> {
+
+        private SpooledFile spooledFile;
+        private String format;
+        private String directory;
+        private ConnectionPool connectionPool;
+        private SpooledFileConversionContext context;
+
+        public ConversionTask(SpooledFile spooledFile, String format, String directory, ConnectionPool connectionPool,
+            SpooledFileConversionContext context) {
+            this.spooledFile = spooledFile;
+            this.format = format;
+            this.directory = directory;
+            this.connectionPool = connectionPool;
+            this.context = context;
+        }
+
+        public ConversionResult call() {
+
+            if (context.isCanceled()) {
+                return new ConversionResult(spooledFile, null);
+            }
+
+            try {
+
+                AS400 connection = connectionPool.acquire(spooledFile.getAS400());
+
+                try {
+                    return new ConversionResult(spooledFile, convert(spooledFile, format, directory, connection, context));
+                } finally {
+                    connectionPool.release(spooledFile.getAS400(), connection);
+                }
+
+            } catch (Throwable e) {
+                ISpherePlugin.logError("*** Could not save spooled file " + spooledFile.getQualifiedName() + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+                return new ConversionResult(spooledFile, e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Result of the conversion of one spooled file.
+     */
+    private static class ConversionResult {
+
+        private SpooledFile spooledFile;
+        private String errorMessage;
+
+        public ConversionResult(SpooledFile spooledFile, String errorMessage) {
+            this.spooledFile = spooledFile;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    /**
+     * Pool of host connections. A worker thread waits, when all connections of
+     * a system are in use.
+     */
+    private class ConnectionPool {
+
+        private Map<AS400, HostConnections> hosts = new HashMap<AS400, HostConnections>();
+
+        public AS400 acquire(AS400 system) throws InterruptedException {
+
+            HostConnections connections;
+            synchronized (this) {
+                connections = hosts.get(system);
+                if (connections == null) {
+                    connections = new HostConnections(system);
+                    hosts.put(system, connections);
+                }
+            }
+
+            return connections.acquire();
+        }
+
+        public void release(AS400 system, AS400 connection) {
+
+            HostConnections connections;
+            synchronized (this) {
+                connections = hosts.get(system);
+            }
+
+            connections.release(connection);
+        }
+
+        public synchronized void close() {
+
+            for (HostConnections connections : hosts.values()) {
+                connections.close();
+            }
+
+            hosts.clear();
+        }
+    }
+
+    /**
+     * Connections of one system.
+     */
+    private class HostConnections {
+
+        private AS400 system;
+        private LinkedList<AS400> idleConnections;
+        private List<AS400> createdConnections;
+        private int numConnections;
+
+        public HostConnections(AS400 system) {
+            this.system = system;
+            this.idleConnections = new LinkedList<AS400>();
+            this.createdConnections = new ArrayList<AS400>();
+            this.numConnections = 0;
+        }
+
+        public synchronized AS400 acquire() throws InterruptedException {
+
+            while (idleConnections.isEmpty() && numConnections >= maxConnections) {
+                wait();
+            }
+
+            if (!idleConnections.isEmpty()) {
+                return idleConnections.removeFirst();
+            }
+
+            numConnections++;
+
+            try {
+                AS400 connection = createConnection(system);
+                createdConnections.add(connection);
+                return connection;
+            } catch (RuntimeException e) {
+                numConnections--;
+                notifyAll();
+                throw e;
+            }
+        }
+
+        public synchronized void release(AS400 connection) {
+            idleConnections.addLast(connection);
+            notifyAll();
+        }
+
+        public synchronized void close() {
+
+            for (AS400 connection : createdConnections) {
+                try {
+                    closeConnection(connection);
+                } catch (Throwable e) {
+                    ISpherePlugin.logError("*** Could not close spooled file conversion connection ***", e); //$NON-NLS-1$
+                }
+            }
+
+            createdConnections.clear();
+            idleConnections.clear();
+        }
+    }
+
+    /**
+     * Factory that produces daemon threads for the worker pool.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private int count = 0;
+
+        public synchronized Thread newThread(Runnable runnable) {
+
+            count++;
+
+            Thread thread = new Thread(runnable, "iSphere Spooled File Conversion " + count); //$NON-NLS-1$
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that is shared by the spooled file transformers of a batch conversion.
+ * It caches the conversion parameters, that are the same for many spooled
+ * files, such as the CCSIDs of the jobs that created the spooled files. It also
+ * carries the cancel indicator of the batch.
+ * <p>
+ * The methods of this class are thread-safe.
+ */
+public class SpooledFileConversionContext {
+
+    private Map<String, Integer> jobCcsids;
+    private volatile boolean isCanceled;
+
+    public SpooledFileConversionContext() {
+        this.jobCcsids = new ConcurrentHashMap<String, Integer>();
+        this.isCanceled = false;
+    }
+
+    /**
+     * Returns the cached CCSID of a given job.
+     *
+     * @param key - qualified job name including the system name
+     * @return CCSID of the job or <code>null</code>, if the CCSID has not yet
+     *         been cached
+     */
+    public Integer getJobCcsid(String key) {
+        return jobCcsids.get(key);
+    }
+
+    /**
+     * Caches the CCSID of a given job.
+     *
+     * @param key - qualified job name including the system name
+     * @param ccsid - CCSID of the job
+     */
+    public void putJobCcsid(String key, Integer ccsid) {
+        jobCcsids.put(key, ccsid);
+    }
+
+    /**
+     * Cancels the batch conversion. Running transformers stop at the next
+     * line of the spooled file.
+     */
+    public void cancel() {
+        isCanceled = true;
+    }
+
+    /**
+     * Returns whether the batch conversion has been canceled.
+     *
+     * @return <code>true</code>, when canceled, else <code>false</code>
+     */
+    public boolean isCanceled() {
+        return isCanceled;
+    }
+}
@@ -16,7 +16,10 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 
@@ -36,12 +39,15 @@ import com.ibm.as400.access.AS400;
 import com.ibm.as400.access.AS400Exception;
 import com.ibm.as400.access.AS400SecurityException;
 import com.ibm.as400.access.ErrorCompletingRequestException;
-import com.ibm.as400.access.PrintObject;
 import com.ibm.as400.access.QSYSObjectPathName;
 import com.ibm.as400.access.RequestNotSupportedException;
 
 public class SpooledFileFactory {
 
+    private static final int STREAMING_BATCH_SIZE = 500;
+
+    private static Map<AS400, Object> hostJobLocks = new WeakHashMap<AS400, Object>();
+
     public SpooledFile getSpooledFile(String connectionName, String splfName, int splfNumber, String jobName, String userName, String jobNumber)
         throws AS400Exception, AS400SecurityException, ErrorCompletingRequestException, IOException, InterruptedException,
         RequestNotSupportedException {
@@ -68,6 +74,8 @@ public class SpooledFileFactory {
             return null;
         }
 
+        CachedSpooledFileAttributes attributes = SpooledFileAttributeCache.getInstance().load(toolboxSpooledFile);
+
         SpooledFile spooledFile = new SpooledFile();
         spooledFile.setAS400(toolboxSpooledFile.getSystem());
         spooledFile.setFile(toolboxSpooledFile.getName());
@@ -77,19 +85,19 @@ public class SpooledFileFactory {
         spooledFile.setJobNumber(toolboxSpooledFile.getJobNumber());
         spooledFile.setJobSystem(toolboxSpooledFile.getJobSysName());
         spooledFile.setCreationTimestamp(getCreationDate(toolboxSpooledFile), getCreationTime(toolboxSpooledFile));
-        spooledFile.setStatus(toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_SPLFSTATUS));
-        spooledFile.setOutputQueue(toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_OUTPUT_QUEUE));
+        spooledFile.setStatus(attributes.getStatus());
+        spooledFile.setOutputQueue(attributes.getOutputQueue());
 
-        QSYSObjectPathName outQPathName = getOutputQueue(toolboxSpooledFile);
+        QSYSObjectPathName outQPathName = getOutputQueue(attributes);
         if (outQPathName != null) {
             spooledFile.setOutputQueue(outQPathName.getObjectName());
             spooledFile.setOutputQueueLibrary(outQPathName.getLibraryName());
         }
-        spooledFile.setOutputPriority(toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_OUTPTY));
-        spooledFile.setUserData(toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_USERDATA));
-        spooledFile.setFormType(toolboxSpooledFile.getStringAttribute(PrintObject.ATTR_FORMTYPE));
-        spooledFile.setCopies(toolboxSpooledFile.getIntegerAttribute(PrintObject.ATTR_COPIES));
-        spooledFile.setPages(toolboxSpooledFile.getIntegerAttribute(PrintObject.ATTR_PAGES));
+        spooledFile.setOutputPriority(attributes.getOutputPriority());
+        spooledFile.setUserData(attributes.getUserData());
+        spooledFile.setFormType(attributes.getFormType());
+        spooledFile.setCopies(getIntValue(attributes.getCopies()));
+        spooledFile.setPages(getIntValue(attributes.getPages()));
         spooledFile.setCurrentPage(0);
         spooledFile.setConnectionName(connectionName);
 
@@ -108,207 +116,376 @@ public class SpooledFileFactory {
     /**
      * Loads and returns an unsorted list of spooled files as provided by the
      * IBM API.
+     * <p>
+     * The SPLF_* programs keep their state in the host job of the
+     * <code>AS400</code> object, which also holds the current library that is
+     * temporarily changed to the iSphere library. Therefore building and
+     * clearing the list of spooled files is serialized per host job. Loads for
+     * different connections run in parallel. Reading the spooled files of a
+     * given handle with JDBC does not lock the host job.
      * 
      * @param connectionName - name of the RSE connection
      * @param jdbcConnection - Jdbc connection for loading the spooled files
      * @param filter - filter data that is passed to the API
      * @return unsorted but filtered list of spooled files
      */
-    public static synchronized SpooledFile[] getSpooledFiles(String connectionName, Connection jdbcConnection, SpooledFileFilter filter) {
+    public static SpooledFile[] getSpooledFiles(String connectionName, Connection jdbcConnection, SpooledFileFilter filter) {
+
+        int maxNumSpooledFilesToLoad = Preferences.getInstance().getSpooledFilesMaxFilesToLoad();
+
+        return getSpooledFiles(connectionName, jdbcConnection, filter, maxNumSpooledFilesToLoad, false, null, null);
+    }
+
+    /**
+     * Loads the spooled files as provided by the IBM API and passes them to a
+     * listener in batches, while they are read from the host. The number of
+     * spooled files is not limited by the
+     * <i>maximum number of spooled files to load</i> preference.
+     * 
+     * @param connectionName - name of the RSE connection
+     * @param jdbcConnection - Jdbc connection for loading the spooled files
+     * @param filter - filter data that is passed to the API
+     * @param listener - listener that receives the spooled files
+     * @param monitor - progress monitor for canceling the operation or
+     *        <code>null</code>
+     */
+    public static void getSpooledFiles(String connectionName, Connection jdbcConnection, SpooledFileFilter filter,
+        ISpooledFilesReceivedListener listener, IProgressMonitor monitor) {
+
+        getSpooledFiles(connectionName, jdbcConnection, filter, 0, false, listener, monitor);
+    }
+
+    /**
+     * Loads the key and the status of the spooled files and passes them to a
+     * listener in batches, while they are read from the host. The other
+     * attributes of the spooled files are not read, which is much cheaper
+     * than loading the complete spooled files. Used for detecting removed
+     * spooled files and status changes of the spooled files of a view.
+     * 
+     * @param connectionName - name of the RSE connection
+     * @param jdbcConnection - Jdbc connection for loading the spooled files
+     * @param filter - filter data that is passed to the API
+     * @param listener - listener that receives the spooled files
+     * @param monitor - progress monitor for canceling the operation or
+     *        <code>null</code>
+     */
+    public static void getSpooledFileKeysAndStatus(String connectionName, Connection jdbcConnection, SpooledFileFilter filter,
+        ISpooledFilesReceivedListener listener, IProgressMonitor monitor) {
+
+        getSpooledFiles(connectionName, jdbcConnection, filter, 0, true, listener, monitor);
+    }
+
+    private static SpooledFile[] getSpooledFiles(String connectionName, Connection jdbcConnection, SpooledFileFilter filter,
+        int maxNumSpooledFilesToLoad, boolean isKeyAndStatusOnly, ISpooledFilesReceivedListener listener, IProgressMonitor monitor) {
 
         AS400 as400 = IBMiHostContributionsHandler.getSystem(connectionName);
         String iSphereLibrary = ISpherePlugin.getISphereLibrary(connectionName);
 
-        String currentLibrary = null;
-        try {
-            currentLibrary = ISphereHelper.getCurrentLibrary(as400);
-        } catch (Exception e) {
-            ISpherePlugin.logError("*** Could not retrieve current library ***", e);
+        Object hostJobLock = getHostJobLock(as400);
+
+        int handle;
+        synchronized (hostJobLock) {
+            handle = buildSpooledFiles(as400, iSphereLibrary, filter, maxNumSpooledFilesToLoad);
         }
 
-        if (currentLibrary != null) {
+        if (handle <= 0) {
+            return new SpooledFile[0];
+        }
 
-            boolean ok = false;
-            try {
-                ok = ISphereHelper.setCurrentLibrary(as400, iSphereLibrary);
-            } catch (Exception e1) {
-                ISpherePlugin.logError("*** Could not set current library to: " + iSphereLibrary + " ***", e1);
+        try {
+
+            return readSpooledFiles(connectionName, as400, jdbcConnection, iSphereLibrary, handle, maxNumSpooledFilesToLoad, isKeyAndStatusOnly,
+                listener, monitor);
+
+        } finally {
+
+            synchronized (hostJobLock) {
+                clearSpooledFiles(as400, iSphereLibrary, handle);
             }
+        }
+    }
 
-            if (ok) {
+    /**
+     * Returns the object that serializes the calls of the SPLF_* programs in
+     * the host job of a given system.
+     * 
+     * @param as400 - system whose host job is used
+     * @return lock object of the host job
+     */
+    private static Object getHostJobLock(AS400 as400) {
 
-                SpooledFile[] _spooledFiles = null;
+        synchronized (hostJobLocks) {
+            Object hostJobLock = hostJobLocks.get(as400);
+            if (hostJobLock == null) {
+                hostJobLock = new Object();
+                hostJobLocks.put(as400, hostJobLock);
+            }
+            return hostJobLock;
+        }
+    }
 
-                try {
+    /**
+     * Builds the list of spooled files on the host. Must be called while
+     * holding the host job lock.
+     * 
+     * @return handle of the list of spooled files or a value &lt;= 0, if the
+     *         list could not be built
+     */
+    private static int buildSpooledFiles(AS400 as400, String iSphereLibrary, SpooledFileFilter filter, int maxNumSpooledFilesToLoad) {
 
-                    new SPLF_prepare().run(as400);
+        String currentLibrary = changeCurrentLibrary(as400, iSphereLibrary);
+        if (currentLibrary == null) {
+            return -1;
+        }
 
-                    final int maxNumSpooledFilesToLoad = Preferences.getInstance().getSpooledFilesMaxFilesToLoad();
-                    new SPLF_setMaxNumSplF().run(as400, maxNumSpooledFilesToLoad);
+        try {
 
-                    if (filter.getJobName() != null) {
-                        new SPLF_setJob().run(as400, filter.getJobName(), filter.getUser(), filter.getJobNumber());
-                    } else {
+            new SPLF_prepare().run(as400);
 
-                        /*
-                         * IBM documentation link:
-                         * https://www.ibm.com/support/knowledgecenter
-                         * /ssw_ibm_i_74/apis/QUSLSPL.htm
-                         */
+            new SPLF_setMaxNumSplF().run(as400, maxNumSpooledFilesToLoad);
 
-                        // not allowed with qualified job name
-                        if (filter.getUser() != null) {
-                            new SPLF_setUser().run(as400, filter.getUser());
-                        }
+            if (filter.getJobName() != null) {
+                new SPLF_setJob().run(as400, filter.getJobName(), filter.getUser(), filter.getJobNumber());
+            } else {
 
-                        // not allowed with qualified job name
-                        if (filter.getOutputQueue() != null) {
-                            String library;
-                            if ("*ALL".equals(filter.getOutputQueue())) {
-                                library = "";
-                            } else {
-                                if (filter.getOutputQueueLibrary() != null) {
-                                    library = filter.getOutputQueueLibrary();
-                                } else {
-                                    library = "*LIBL";
-                                }
-                            }
-                            new SPLF_setOutputQueue().run(as400, filter.getOutputQueue(), library);
-                        }
+                /*
+                 * IBM documentation link:
+                 * https://www.ibm.com/support/knowledgecenter
+                 * /ssw_ibm_i_74/apis/QUSLSPL.htm
+                 */
 
-                        // not allowed with qualified job name
-                        if (filter.getUserData() != null) {
-                            new SPLF_setUserData().run(as400, filter.getUserData());
-                        }
+                // not allowed with qualified job name
+                if (filter.getUser() != null) {
+                    new SPLF_setUser().run(as400, filter.getUser());
+                }
 
-                        // not allowed with qualified job name
-                        if (filter.getFormType() != null) {
-                            new SPLF_setFormType().run(as400, filter.getFormType());
+                // not allowed with qualified job name
+                if (filter.getOutputQueue() != null) {
+                    String library;
+                    if ("*ALL".equals(filter.getOutputQueue())) {
+                        library = "";
+                    } else {
+                        if (filter.getOutputQueueLibrary() != null) {
+                            library = filter.getOutputQueueLibrary();
+                        } else {
+                            library = "*LIBL";
                         }
                     }
+                    new SPLF_setOutputQueue().run(as400, filter.getOutputQueue(), library);
+                }
 
-                    if (filter.getName() != null) {
-                        new SPLF_setName().run(as400, filter.getName());
-                    }
+                // not allowed with qualified job name
+                if (filter.getUserData() != null) {
+                    new SPLF_setUserData().run(as400, filter.getUserData());
+                }
 
-                    if (filter.getStartingDate() != null || filter.getEndingDate() != null) {
-                        int startDate = filter.getStartingDateIntValue();
-                        int startTime = filter.getStartingTimeIntValue();
-                        int endDate = filter.getEndingDateIntValue();
-                        int endTime = filter.getEndingTimeIntValue();
-                        new SPLF_setDateTime().run(as400, startDate, startTime, endDate, endTime);
-                    }
+                // not allowed with qualified job name
+                if (filter.getFormType() != null) {
+                    new SPLF_setFormType().run(as400, filter.getFormType());
+                }
+            }
+
+            if (filter.getName() != null) {
+                new SPLF_setName().run(as400, filter.getName());
+            }
 
-                    int handle = new SPLF_build().run(as400);
+            if (filter.getStartingDate() != null || filter.getEndingDate() != null) {
+                int startDate = filter.getStartingDateIntValue();
+                int startTime = filter.getStartingTimeIntValue();
+                int endDate = filter.getEndingDateIntValue();
+                int endTime = filter.getEndingTimeIntValue();
+                new SPLF_setDateTime().run(as400, startDate, startTime, endDate, endTime);
+            }
 
-                    if (handle > 0) {
+            int handle = new SPLF_build().run(as400);
 
-                        SqlHelper sqlHelper = new SqlHelper(jdbcConnection);
+            if (handle <= 0) {
+                String message = new SPLF_getErrorMessage().run(as400);
+                if (!StringHelper.isNullOrEmpty(message)) {
+                    MessageDialogAsync.displayError(message);
+                }
+            }
 
-                        ArrayList<SpooledFile> arrayListSpooledFiles = new ArrayList<SpooledFile>();
+            return handle;
 
-                        PreparedStatement preparedStatementSelect = null;
-                        ResultSet resultSet = null;
+        } finally {
+            restoreCurrentLibrary(as400, currentLibrary);
+        }
+    }
 
-                        try {
+    /**
+     * Reads the spooled files of a given handle. Does not require the host job
+     * lock. If a listener is specified, the spooled files are passed to the
+     * listener in batches and an empty array is returned. If only the key and
+     * the status are requested, the other attributes of the spooled files are
+     * not read.
+     */
+    private static SpooledFile[] readSpooledFiles(String connectionName, AS400 as400, Connection jdbcConnection, String iSphereLibrary, int handle,
+        final int maxNumSpooledFilesToLoad, boolean isKeyAndStatusOnly, ISpooledFilesReceivedListener listener, IProgressMonitor monitor) {
 
-                            preparedStatementSelect = jdbcConnection.prepareStatement(
-                                "SELECT * FROM " + sqlHelper.getObjectName(iSphereLibrary, "SPLF") + " WHERE SFHDL = ? ORDER BY SFHDL, SFCNT",
-                                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-                            preparedStatementSelect.setString(1, Integer.toString(handle));
-                            resultSet = preparedStatementSelect.executeQuery();
+        SqlHelper sqlHelper = new SqlHelper(jdbcConnection);
 
-                            while (resultSet.next()) {
+        ArrayList<SpooledFile> arrayListSpooledFiles = new ArrayList<SpooledFile>();
 
-                                if (maxNumSpooledFilesToLoad > 0 && arrayListSpooledFiles.size() >= maxNumSpooledFilesToLoad) {
+        PreparedStatement preparedStatementSelect = null;
+        ResultSet resultSet = null;
 
-                                    Display.getDefault().syncExec(new Runnable() {
-                                        public void run() {
-                                            DoNotAskMeAgainDialog.openInformation(Display.getDefault().getActiveShell(),
-                                                DoNotAskMeAgain.TOO_MANY_SPOOLED_FILES_WARNING, Messages.bind(
-                                                    Messages.Number_of_spooled_files_exceeds_maximum_number_of_spooled_files_to_load_A,
-                                                    maxNumSpooledFilesToLoad));
-                                        }
-                                    });
+        String columns;
+        if (isKeyAndStatusOnly) {
+            columns = "SFSPLF, SFSPLFNBR, SFJOBNAME, SFJOBUSR, SFJOBNBR, SFJOBSYS, SFSTS";
+        } else {
+            columns = "*";
+        }
 
-                                    break;
-                                }
+        try {
 
-                                SpooledFile _spooledFile = new SpooledFile();
-                                _spooledFile.setAS400(as400);
-                                _spooledFile.setFile(resultSet.getString("SFSPLF").trim());
-                                _spooledFile.setFileNumber(resultSet.getInt("SFSPLFNBR"));
-                                _spooledFile.setJobName(resultSet.getString("SFJOBNAME").trim());
-                                _spooledFile.setJobUser(resultSet.getString("SFJOBUSR").trim());
-                                _spooledFile.setJobNumber(resultSet.getString("SFJOBNBR").trim());
-                                _spooledFile.setJobSystem(resultSet.getString("SFJOBSYS").trim());
-                                _spooledFile.setCreationTimestamp(resultSet.getDate("SFCRTDATE"), resultSet.getTime("SFCRTTIME"));
-                                _spooledFile.setStatus(resultSet.getString("SFSTS").trim());
-                                _spooledFile.setOutputQueue(resultSet.getString("SFOUTQ").trim());
-                                _spooledFile.setOutputQueueLibrary(resultSet.getString("SFOUTQLIB").trim());
-                                _spooledFile.setOutputPriority(resultSet.getString("SFOUTPTY").trim());
-                                _spooledFile.setUserData(resultSet.getString("SFUSRDTA").trim());
-                                _spooledFile.setFormType(resultSet.getString("SFFORMTYPE").trim());
-                                _spooledFile.setCopies(resultSet.getInt("SFCOPIES"));
-                                _spooledFile.setPages(resultSet.getInt("SFPAGES"));
-                                _spooledFile.setCurrentPage(0);
-                                _spooledFile.setConnectionName(connectionName);
+            preparedStatementSelect = jdbcConnection.prepareStatement(
+                "SELECT " + columns + " FROM " + sqlHelper.getObjectName(iSphereLibrary, "SPLF") + " WHERE SFHDL = ? ORDER BY SFHDL, SFCNT",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatementSelect.setFetchSize(STREAMING_BATCH_SIZE);
+            preparedStatementSelect.setString(1, Integer.toString(handle));
+            resultSet = preparedStatementSelect.executeQuery();
 
-                                arrayListSpooledFiles.add(_spooledFile);
+            while (resultSet.next()) {
 
-                            }
+                if (monitor != null && monitor.isCanceled()) {
+                    break;
+                }
 
-                        } catch (SQLException e) {
-                            e.printStackTrace();
-                        }
+                if (maxNumSpooledFilesToLoad > 0 && arrayListSpooledFiles.size() >= maxNumSpooledFilesToLoad) {
 
-                        if (resultSet != null) {
-                            try {
-                                resultSet.close();
-                            } catch (SQLException e) {
-                                e.printStackTrace();
-                            }
+                    Display.getDefault().syncExec(new Runnable() {
+                        public void run() {
+                            DoNotAskMeAgainDialog.openInformation(Display.getDefault().getActiveShell(),
+                                DoNotAskMeAgain.TOO_MANY_SPOOLED_FILES_WARNING, Messages.bind(
+                                    Messages.Number_of_spooled_files_exceeds_maximum_number_of_spooled_files_to_load_A, maxNumSpooledFilesToLoad));
                         }
+                    });
 
-                        if (preparedStatementSelect != null) {
-                            try {
-                                preparedStatementSelect.close();
-                            } catch (SQLException e) {
-                                e.printStackTrace();
-                            }
-                        }
+                    break;
+                }
 
-                        _spooledFiles = new SpooledFile[arrayListSpooledFiles.size()];
-                        arrayListSpooledFiles.toArray(_spooledFiles);
+                SpooledFile _spooledFile = new SpooledFile();
+                _spooledFile.setAS400(as400);
+                _spooledFile.setFile(resultSet.getString("SFSPLF").trim());
+                _spooledFile.setFileNumber(resultSet.getInt("SFSPLFNBR"));
+                _spooledFile.setJobName(resultSet.getString("SFJOBNAME").trim());
+                _spooledFile.setJobUser(resultSet.getString("SFJOBUSR").trim());
+                _spooledFile.setJobNumber(resultSet.getString("SFJOBNBR").trim());
+                _spooledFile.setJobSystem(resultSet.getString("SFJOBSYS").trim());
+                _spooledFile.setStatus(resultSet.getString("SFSTS").trim());
+                _spooledFile.setConnectionName(connectionName);
+
+                if (!isKeyAndStatusOnly) {
+                    _spooledFile.setCreationTimestamp(resultSet.getDate("SFCRTDATE"), resultSet.getTime("SFCRTTIME"));
+                    _spooledFile.setOutputQueue(resultSet.getString("SFOUTQ").trim());
+                    _spooledFile.setOutputQueueLibrary(resultSet.getString("SFOUTQLIB").trim());
+                    _spooledFile.setOutputPriority(resultSet.getString("SFOUTPTY").trim());
+                    _spooledFile.setUserData(resultSet.getString("SFUSRDTA").trim());
+                    _spooledFile.setFormType(resultSet.getString("SFFORMTYPE").trim());
+                    _spooledFile.setCopies(resultSet.getInt("SFCOPIES"));
+                    _spooledFile.setPages(resultSet.getInt("SFPAGES"));
+                    _spooledFile.setCurrentPage(0);
+                }
 
-                        new SPLF_clear().run(as400, handle);
+                arrayListSpooledFiles.add(_spooledFile);
 
-                    } else {
-                        String message = new SPLF_getErrorMessage().run(as400);
-                        if (!StringHelper.isNullOrEmpty(message)) {
-                            MessageDialogAsync.displayError(message);
-                        }
-                    }
+                if (listener != null && arrayListSpooledFiles.size() >= STREAMING_BATCH_SIZE) {
+                    listener.spooledFilesReceived(arrayListSpooledFiles.toArray(new SpooledFile[arrayListSpooledFiles.size()]));
+                    arrayListSpooledFiles.clear();
+                }
 
-                } finally {
+            }
 
-                    try {
-                        ISphereHelper.setCurrentLibrary(as400, currentLibrary);
-                    } catch (Exception e) {
-                        ISpherePlugin.logError("*** Could not restore current library to: " + currentLibrary + " ***", e);
-                    }
-                }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
 
-                if (_spooledFiles != null) {
-                    return _spooledFiles;
-                }
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
 
+        if (preparedStatementSelect != null) {
+            try {
+                preparedStatementSelect.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
+        }
 
+        if (listener != null && !arrayListSpooledFiles.isEmpty()) {
+            listener.spooledFilesReceived(arrayListSpooledFiles.toArray(new SpooledFile[arrayListSpooledFiles.size()]));
+            arrayListSpooledFiles.clear();
         }
 
-        return new SpooledFile[0];
+        SpooledFile[] _spooledFiles = new SpooledFile[arrayListSpooledFiles.size()];
+        arrayListSpooledFiles.toArray(_spooledFiles);
+
+        return _spooledFiles;
+    }
+
+    /**
+     * Removes the spooled files of a given handle from the host. Must be
+     * called while holding the host job lock.
+     */
+    private static void clearSpooledFiles(AS400 as400, String iSphereLibrary, int handle) {
+
+        String currentLibrary = changeCurrentLibrary(as400, iSphereLibrary);
+        if (currentLibrary == null) {
+            return;
+        }
+
+        try {
+            new SPLF_clear().run(as400, handle);
+        } finally {
+            restoreCurrentLibrary(as400, currentLibrary);
+        }
+    }
+
+    /**
+     * Changes the current library of the host job to the iSphere library.
+     * 
+     * @return previous current library or <code>null</code>, if the current
+     *         library could not be changed
+     */
+    private static String changeCurrentLibrary(AS400 as400, String iSphereLibrary) {
+
+        String currentLibrary = null;
+        try {
+            currentLibrary = ISphereHelper.getCurrentLibrary(as400);
+        } catch (Exception e) {
+            ISpherePlugin.logError("*** Could not retrieve current library ***", e);
+        }
+
+        if (currentLibrary == null) {
+            return null;
+        }
 
+        boolean ok = false;
+        try {
+            ok = ISphereHelper.setCurrentLibrary(as400, iSphereLibrary);
+        } catch (Exception e1) {
+            ISpherePlugin.logError("*** Could not set current library to: " + iSphereLibrary + " ***", e1);
+        }
+
+        if (!ok) {
+            return null;
+        }
+
+        return currentLibrary;
+    }
+
+    private static void restoreCurrentLibrary(AS400 as400, String currentLibrary) {
+
+        try {
+            ISphereHelper.setCurrentLibrary(as400, currentLibrary);
+        } catch (Exception e) {
+            ISpherePlugin.logError("*** Could not restore current library to: " + currentLibrary + " ***", e);
+        }
     }
 
     private Date getCreationDate(com.ibm.as400.access.SpooledFile spooledFile) {
@@ -325,14 +502,23 @@ public class SpooledFileFactory {
         return new Time(IBMiHelper.hhmmssToTime(splfTime).getTime());
     }
 
-    private QSYSObjectPathName getOutputQueue(com.ibm.as400.access.SpooledFile spooledFile) {
+    private QSYSObjectPathName getOutputQueue(CachedSpooledFileAttributes attributes) {
 
         try {
-            QSYSObjectPathName outQPathName = new QSYSObjectPathName(spooledFile.getStringAttribute(PrintObject.ATTR_OUTPUT_QUEUE));
+            QSYSObjectPathName outQPathName = new QSYSObjectPathName(attributes.getOutputQueue());
             return outQPathName;
         } catch (Throwable e) {
             return null;
         }
     }
 
+    private int getIntValue(Integer value) {
+
+        if (value == null) {
+            return 0;
+        }
+
+        return value.intValue();
+    }
+
 }
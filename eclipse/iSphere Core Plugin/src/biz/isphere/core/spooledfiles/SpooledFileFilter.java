@@ -10,6 +10,7 @@ package biz.isphere.core.spooledfiles;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 
 import biz.isphere.base.internal.IntHelper;
@@ -294,6 +295,36 @@ public class SpooledFileFilter {
         return timeToInt(getEndingTimeValue(endingTime));
     }
 
+    /**
+     * Restricts the filter to spooled files that have been created at or after
+     * a given timestamp. The filter is not changed, if its starting date and
+     * time are later than the timestamp.
+     * 
+     * @param timestamp - earliest creation timestamp of the spooled files
+     * @return <code>false</code>, if the ending date and time of the filter
+     *         are before the timestamp, else <code>true</code>
+     */
+    public boolean restrictStartingTimestamp(Date timestamp) {
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(timestamp);
+
+        long restrictedStartingTimestamp = dateToInt(calendar) * 1000000L + timeToInt(calendar);
+        long startingTimestamp = getStartingDateIntValue() * 1000000L + getStartingTimeIntValue();
+        long endingTimestamp = getEndingDateIntValue() * 1000000L + getEndingTimeIntValue();
+
+        if (restrictedStartingTimestamp > endingTimestamp) {
+            return false;
+        }
+
+        if (restrictedStartingTimestamp > startingTimestamp) {
+            setStartingDate(Integer.toString(dateToInt(calendar)));
+            setStartingTime(Integer.toString(timeToInt(calendar)));
+        }
+
+        return true;
+    }
+
     private int dateToInt(Calendar calendar) {
         SimpleDateFormat formatter = new SimpleDateFormat("yyyyMMdd");
         return IntHelper.tryParseInt(formatter.format(calendar.getTime()), MIN_STARTING_DATE);
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.core.spooledfiles;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Tokenizer that splits the transformed data stream of a spooled file into
+ * print lines in a single pass.
+ * <p>
+ * Lines end with LF, CR or CR/LF. A form feed (FF) at the beginning or at the
+ * end of a line is reported as a flag. The *WSCST objects transform CR to DC1,
+ * which splits a line into segments. The first segment is the print line.
+ * The following segments are used for double printing ("bold") and are
+ * overlaid on the print line. Segments that contain only underline characters
+ * and the data after the last DC1 are ignored.
+ * <p>
+ * The tokenizer reuses its buffers. The data returned by {@link #getLine()} is
+ * valid until the next call of {@link #nextLine()}.
+ */
+public class SpooledFileLineTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LINE_SIZE = 256;
+
+    private static final char LF = '\n';
+    private static final char CR = '\r';
+    private static final char FF = '\f';
+    private static final char DC1 = 0x11;
+    private static final char SPACE = ' ';
+    private static final char UNDERSCORE = '_';
+
+    private Reader reader;
+    private char[] input;
+    private int inputOffset;
+    private int inputLength;
+    private boolean isSkipLF;
+
+    private char[] line;
+    private int lineLength;
+    private char[] segment;
+    private int segmentLength;
+    private int segmentCount;
+
+    private boolean isFormfeedBefore;
+    private boolean isFormfeedAfter;
+
+    public SpooledFileLineTokenizer(Reader reader) {
+        this.reader = reader;
+        this.input = new char[BUFFER_SIZE];
+        this.inputOffset = 0;
+        this.inputLength = 0;
+        this.isSkipLF = false;
+
+        this.line = new char[LINE_SIZE];
+        this.segment = new char[LINE_SIZE];
+    }
+
+    /**
+     * Reads the next line of the data stream.
+     *
+     * @return <code>true</code>, if a line has been read, <code>false</code>
+     *         at the end of the data stream
+     * @throws IOException
+     */
+    public boolean nextLine() throws IOException {
+
+        lineLength = 0;
+        segmentLength = 0;
+        segmentCount = 0;
+        isFormfeedBefore = false;
+        isFormfeedAfter = false;
+
+        int rawLength = 0;
+        char lastChar = 0;
+
+        while (true) {
+
+            if (inputOffset >= inputLength) {
+                inputLength = reader.read(input, 0, input.length);
+                inputOffset = 0;
+                if (inputLength <= 0) {
+                    inputLength = 0;
+                    if (rawLength == 0) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+
+            char c = input[inputOffset++];
+
+            if (isSkipLF) {
+                isSkipLF = false;
+                if (c == LF) {
+                    continue;
+                }
+            }
+
+            if (c == LF) {
+                break;
+            } else if (c == CR) {
+                isSkipLF = true;
+                break;
+            }
+
+            rawLength++;
+            lastChar = c;
+
+            if (c == DC1) {
+                endSegment();
+            } else if (rawLength == 1 && c == FF) {
+                isFormfeedBefore = true;
+            } else {
+                appendSegment(c);
+            }
+        }
+
+        isFormfeedAfter = !isFormfeedBefore && lastChar == FF;
+
+        return true;
+    }
+
+    /**
+     * Returns the buffer that contains the current print line.
+     *
+     * @return print line buffer
+     */
+    public char[] getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the length of the current print line.
+     *
+     * @return length of the print line
+     */
+    public int getLineLength() {
+        return lineLength;
+    }
+
+    /**
+     * Returns whether the current line started with a form feed.
+     *
+     * @return <code>true</code>, if the line started with a form feed
+     */
+    public boolean isFormfeedBefore() {
+        return isFormfeedBefore;
+    }
+
+    /**
+     * Returns whether the current line ended with a form feed. Not set, when
+     * the line started with a form feed.
+     *
+     * @return <code>true</code>, if the line ended with a form feed
+     */
+    public boolean isFormfeedAfter() {
+        return isFormfeedAfter;
+    }
+
+    private void appendSegment(char c) {
+
+        if (segmentLength >= segment.length) {
+            segment = grow(segment, segmentLength + 1);
+        }
+
+        segment[segmentLength++] = c;
+    }
+
+    private void endSegment() {
+
+        segmentCount++;
+
+        int length = segmentLength;
+        while (length > 0 && isWhitespace(segment[length - 1])) {
+            length--;
+        }
+
+        if (segmentCount == 1) {
+            ensureLineCapacity(length);
+            System.arraycopy(segment, 0, line, 0, length);
+            lineLength = length;
+        } else if (length == 0) {
+            // Ignore empty line parts
+        } else if (isUnderlineDoublePrinting(length)) {
+            // Ignore underline printing
+        } else {
+            overlayDoublePrinting(length);
+        }
+
+        segmentLength = 0;
+    }
+
+    /**
+     * Overlays the current segment on the print line. Spaces of the print line
+     * are replaced with the characters of the segment. Characters exceeding
+     * the print line are appended.
+     *
+     * @param length - length of the segment
+     */
+    private void overlayDoublePrinting(int length) {
+
+        int overlayLength = Math.min(lineLength, length);
+
+        for (int offset = 0; offset < overlayLength; offset++) {
+            if (line[offset] == SPACE && segment[offset] != SPACE) {
+                line[offset] = segment[offset];
+            }
+        }
+
+        if (overlayLength < length) {
+            ensureLineCapacity(length);
+            System.arraycopy(segment, overlayLength, line, lineLength, length - overlayLength);
+            lineLength = lineLength + length - overlayLength;
+        }
+    }
+
+    /**
+     * Checks, whether the current segment contains only underline characters,
+     * ignoring leading and trailing control characters and spaces.
+     *
+     * @param length - length of the segment
+     * @return <code>true</code> when the segment contains only underline
+     *         characters
+     */
+    private boolean isUnderlineDoublePrinting(int length) {
+
+        int start = 0;
+        while (start < length && segment[start] <= SPACE) {
+            start++;
+        }
+
+        int end = length;
+        while (end > start && segment[end - 1] <= SPACE) {
+            end--;
+        }
+
+        for (int offset = start; offset < end; offset++) {
+            if (segment[offset] != UNDERSCORE) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void ensureLineCapacity(int length) {
+
+        if (length > line.length) {
+            line = grow(line, length);
+        }
+    }
+
+    private char[] grow(char[] buffer, int minLength) {
+
+        char[] newBuffer = new char[Math.max(buffer.length * 2, minLength)];
+        System.arraycopy(buffer, 0, newBuffer, 0, buffer.length);
+
+        return newBuffer;
+    }
+
+    /**
+     * Returns whether a character is a whitespace character as defined by the
+     * <code>\s</code> character class of regular expressions.
+     */
+    private boolean isWhitespace(char c) {
+        return c == SPACE || c == '\t' || c == LF || c == 0x0B || c == FF || c == CR;
+    }
+}
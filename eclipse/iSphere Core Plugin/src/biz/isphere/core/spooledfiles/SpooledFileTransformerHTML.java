@@ -65,4 +65,9 @@ public class SpooledFileTransformerHTML extends AbstractSpooledFileTransformer {
         writer.write(text);
     }
 
+    @Override
+    protected void print(char[] buffer, int offset, int length) throws IOException {
+        writer.write(buffer, offset, length);
+    }
+
 }
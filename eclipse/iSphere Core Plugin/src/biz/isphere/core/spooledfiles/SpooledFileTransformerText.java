@@ -64,4 +64,9 @@ public class SpooledFileTransformerText extends AbstractSpooledFileTransformer {
         writer.write(text);
     }
 
+    @Override
+    protected void print(char[] buffer, int offset, int length) throws IOException {
+        writer.write(buffer, offset, length);
+    }
+
 }
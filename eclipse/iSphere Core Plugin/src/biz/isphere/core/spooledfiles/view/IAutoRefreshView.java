@@ -18,5 +18,10 @@ public interface IAutoRefreshView extends IJobFinishedListener {
 
     public void refreshData();
 
+    /**
+     * Refreshes the view data with the changes since the last refresh.
+     */
+    public void refreshDataIncrementally();
+
     public Shell getShell();
 }
@@ -13,6 +13,28 @@ import biz.isphere.core.spooledfiles.view.rse.AbstractWorkWithSpooledFilesInputD
 
 public interface ILoadSpooledFilesPostRun {
 
-    public void setLoadSpooledFilesPostRunData(AbstractWorkWithSpooledFilesInputData inputData, SpooledFile[] spooledFiles);
+    /**
+     * Called, when a batch of spooled files has been loaded, while the spooled
+     * files are streamed from the host.
+     * 
+     * @param inputData - input data of the view
+     * @param spooledFiles - spooled files that have been loaded
+     */
+    public void addLoadSpooledFilesPostRunData(AbstractWorkWithSpooledFilesInputData inputData, SpooledFile[] spooledFiles);
+
+    /**
+     * Called, when the spooled files have been loaded.
+     * 
+     * @param inputData - input data of the view
+     * @param spooledFiles - spooled files that have been loaded
+     * @param isComplete - <code>true</code>, if all spooled files of the input
+     *        data have been loaded, <code>false</code>, if only the spooled
+     *        files created since the last refresh have been loaded
+     * @param spooledFileKeys - key and status of all spooled files of the
+     *        input data or <code>null</code>. Only loaded together with the
+     *        spooled files created since the last refresh.
+     */
+    public void setLoadSpooledFilesPostRunData(AbstractWorkWithSpooledFilesInputData inputData, SpooledFile[] spooledFiles, boolean isComplete,
+        SpooledFile[] spooledFileKeys);
 
 }
@@ -8,33 +8,73 @@
 
 package biz.isphere.core.spooledfiles.view;
 
+import java.util.Date;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 import biz.isphere.core.Messages;
+import biz.isphere.core.spooledfiles.ISpooledFilesReceivedListener;
 import biz.isphere.core.spooledfiles.SpooledFile;
 import biz.isphere.core.spooledfiles.view.rse.AbstractWorkWithSpooledFilesInputData;
 
-public class LoadSpooledFilesJob extends Job {
+public class LoadSpooledFilesJob extends Job implements ISpooledFilesReceivedListener {
 
     private AbstractWorkWithSpooledFilesInputData inputData;
     private ILoadSpooledFilesPostRun postRun;
+    private Date createdSince;
+    private boolean isStreaming;
 
     public LoadSpooledFilesJob(AbstractWorkWithSpooledFilesInputData inputData, ILoadSpooledFilesPostRun postRun) {
+        this(inputData, postRun, null, false);
+    }
+
+    /**
+     * Produces a job, that loads the spooled files that have been created at or
+     * after a given timestamp. Removed spooled files and status changes of
+     * older spooled files are detected by loading only the key and the status
+     * of all spooled files.
+     * 
+     * @param inputData - input data of the view
+     * @param postRun - object, that receives the loaded spooled files
+     * @param createdSince - earliest creation timestamp or <code>null</code>
+     *        to load all spooled files
+     * @param isStreaming - specifies whether the spooled files are passed to
+     *        the post-run object in batches, while they are loaded
+     */
+    public LoadSpooledFilesJob(AbstractWorkWithSpooledFilesInputData inputData, ILoadSpooledFilesPostRun postRun, Date createdSince,
+        boolean isStreaming) {
         super(Messages.Loading_spooled_file);
 
         this.inputData = inputData;
         this.postRun = postRun;
+        this.createdSince = createdSince;
+        this.isStreaming = isStreaming;
     }
 
     @Override
     protected IStatus run(IProgressMonitor monitor) {
 
-        SpooledFile[] spooledFiles = inputData.load(monitor);
-        postRun.setLoadSpooledFilesPostRunData(inputData, spooledFiles);
+        ISpooledFilesReceivedListener listener = null;
+        if (isStreaming) {
+            listener = this;
+        }
+
+        SpooledFile[] spooledFiles = inputData.load(monitor, createdSince, listener);
+
+        SpooledFile[] spooledFileKeys = null;
+        if (createdSince != null && !monitor.isCanceled()) {
+            spooledFileKeys = inputData.loadKeysAndStatus(monitor);
+        }
+
+        postRun.setLoadSpooledFilesPostRunData(inputData, spooledFiles, createdSince == null, spooledFileKeys);
 
         return Status.OK_STATUS;
     }
+
+    public void spooledFilesReceived(SpooledFile[] spooledFiles) {
+        postRun.addLoadSpooledFilesPostRunData(inputData, spooledFiles);
+    }
 }
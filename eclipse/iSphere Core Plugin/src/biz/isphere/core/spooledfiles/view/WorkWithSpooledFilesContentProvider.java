@@ -21,6 +21,39 @@ public class WorkWithSpooledFilesContentProvider implements IStructuredContentPr
         return spooledFiles;
     }
 
+    public SpooledFile[] getSpooledFiles() {
+        return spooledFiles;
+    }
+
+    /**
+     * Replaces the spooled files without changing the input of the viewer.
+     * Used, when the viewer is updated incrementally.
+     * 
+     * @param spooledFiles - spooled files that are displayed
+     */
+    public void setSpooledFiles(SpooledFile[] spooledFiles) {
+        this.spooledFiles = spooledFiles;
+    }
+
+    /**
+     * Appends spooled files without changing the input of the viewer. Used,
+     * when the spooled files are streamed into the viewer.
+     * 
+     * @param newSpooledFiles - spooled files that are appended
+     */
+    public void addSpooledFiles(SpooledFile[] newSpooledFiles) {
+
+        if (spooledFiles == null) {
+            spooledFiles = newSpooledFiles;
+            return;
+        }
+
+        SpooledFile[] allSpooledFiles = new SpooledFile[spooledFiles.length + newSpooledFiles.length];
+        System.arraycopy(spooledFiles, 0, allSpooledFiles, 0, spooledFiles.length);
+        System.arraycopy(newSpooledFiles, 0, allSpooledFiles, spooledFiles.length, newSpooledFiles.length);
+        spooledFiles = allSpooledFiles;
+    }
+
     public void dispose() {
     }
 
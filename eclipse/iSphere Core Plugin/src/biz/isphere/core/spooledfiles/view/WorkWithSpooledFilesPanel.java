@@ -20,6 +20,7 @@ import org.eclipse.jface.viewers.IDoubleClickListener;
 import org.eclipse.jface.viewers.IPostSelectionProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.swt.SWT;
@@ -36,7 +37,6 @@ import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
-import org.eclipse.swt.widgets.TableItem;
 
 import biz.isphere.base.internal.DialogSettingsManager;
 import biz.isphere.base.internal.IResizableTableColumnsViewer;
@@ -151,7 +151,7 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
      */
     public void setInput(String connectionName, SpooledFile[] spooledFiles) {
 
-        SpooledFile[] oldInput = (SpooledFile[])this.tableViewer.getInput();
+        SpooledFile[] oldInput = getContentProvider().getSpooledFiles();
 
         this.tableViewer.setInput(spooledFiles);
 
@@ -190,6 +190,139 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
         workWithSpooledFilesHelper.addChangedListener(listener);
     }
 
+    /**
+     * Returns <code>true</code>, if spooled files have been set with
+     * {@link #setInput(String, SpooledFile[])}.
+     * 
+     * @return <code>true</code>, if the panel has an input
+     */
+    public boolean hasInput() {
+        return getContentProvider().getSpooledFiles() != null;
+    }
+
+    /**
+     * Appends spooled files to the list. Used, when the spooled files are
+     * streamed into the list, while they are loaded from the host.
+     * 
+     * @param spooledFiles - spooled files that are appended
+     */
+    public void add(SpooledFile[] spooledFiles) {
+
+        getContentProvider().addSpooledFiles(spooledFiles);
+        tableViewer.add(spooledFiles);
+    }
+
+    /**
+     * Merges a list of reloaded spooled files into the displayed spooled files.
+     * Only the table rows of new, removed and changed spooled files are
+     * updated. New spooled files are selected.
+     * 
+     * @param spooledFiles - spooled files that have been reloaded
+     * @param isComplete - <code>true</code>, if the list contains all spooled
+     *        files of the view. Spooled files that are not contained in a
+     *        complete list are removed.
+     */
+    public void merge(SpooledFile[] spooledFiles, boolean isComplete) {
+
+        SpooledFile[] currentSpooledFiles = getContentProvider().getSpooledFiles();
+        if (currentSpooledFiles == null) {
+            return;
+        }
+
+        Map<SpooledFile, SpooledFile> currentSet = new HashMap<SpooledFile, SpooledFile>();
+        for (SpooledFile spooledFile : currentSpooledFiles) {
+            currentSet.put(spooledFile, spooledFile);
+        }
+
+        Set<SpooledFile> reloadedSet = new HashSet<SpooledFile>();
+        List<SpooledFile> newSpooledFiles = new ArrayList<SpooledFile>();
+        List<SpooledFile> changedSpooledFiles = new ArrayList<SpooledFile>();
+
+        for (SpooledFile spooledFile : spooledFiles) {
+            reloadedSet.add(spooledFile);
+            SpooledFile currentSpooledFile = currentSet.get(spooledFile);
+            if (currentSpooledFile == null) {
+                newSpooledFiles.add(spooledFile);
+            } else if (currentSpooledFile.updateAttributes(spooledFile)) {
+                changedSpooledFiles.add(currentSpooledFile);
+            }
+        }
+
+        List<SpooledFile> mergedSpooledFiles = new ArrayList<SpooledFile>();
+        List<SpooledFile> removedSpooledFiles = new ArrayList<SpooledFile>();
+
+        for (SpooledFile spooledFile : currentSpooledFiles) {
+            if (isComplete && !reloadedSet.contains(spooledFile)) {
+                removedSpooledFiles.add(spooledFile);
+            } else {
+                mergedSpooledFiles.add(spooledFile);
+            }
+        }
+
+        mergedSpooledFiles.addAll(newSpooledFiles);
+        getContentProvider().setSpooledFiles(mergedSpooledFiles.toArray(new SpooledFile[mergedSpooledFiles.size()]));
+
+        if (!removedSpooledFiles.isEmpty()) {
+            tableViewer.remove(removedSpooledFiles.toArray());
+        }
+
+        if (!newSpooledFiles.isEmpty()) {
+            tableViewer.add(newSpooledFiles.toArray());
+            tableViewer.setSelection(new StructuredSelection(newSpooledFiles));
+        }
+
+        if (!changedSpooledFiles.isEmpty()) {
+            tableViewer.update(changedSpooledFiles.toArray(), null);
+        }
+    }
+
+    /**
+     * Merges the key and the status of all spooled files of the view into the
+     * displayed spooled files. Spooled files that are not contained in the
+     * list are removed. The status of the other spooled files is updated.
+     * Spooled files that are not yet displayed are ignored.
+     * 
+     * @param spooledFileKeys - key and status of all spooled files of the view
+     */
+    public void mergeKeysAndStatus(SpooledFile[] spooledFileKeys) {
+
+        SpooledFile[] currentSpooledFiles = getContentProvider().getSpooledFiles();
+        if (currentSpooledFiles == null) {
+            return;
+        }
+
+        Map<SpooledFile, SpooledFile> keysSet = new HashMap<SpooledFile, SpooledFile>();
+        for (SpooledFile spooledFile : spooledFileKeys) {
+            keysSet.put(spooledFile, spooledFile);
+        }
+
+        List<SpooledFile> mergedSpooledFiles = new ArrayList<SpooledFile>();
+        List<SpooledFile> removedSpooledFiles = new ArrayList<SpooledFile>();
+        List<SpooledFile> changedSpooledFiles = new ArrayList<SpooledFile>();
+
+        for (SpooledFile spooledFile : currentSpooledFiles) {
+            SpooledFile spooledFileKey = keysSet.get(spooledFile);
+            if (spooledFileKey == null) {
+                removedSpooledFiles.add(spooledFile);
+            } else {
+                mergedSpooledFiles.add(spooledFile);
+                if (!spooledFileKey.getStatus().equals(spooledFile.getStatus())) {
+                    spooledFile.setStatus(spooledFileKey.getStatus());
+                    changedSpooledFiles.add(spooledFile);
+                }
+            }
+        }
+
+        if (!removedSpooledFiles.isEmpty()) {
+            getContentProvider().setSpooledFiles(mergedSpooledFiles.toArray(new SpooledFile[mergedSpooledFiles.size()]));
+            tableViewer.remove(removedSpooledFiles.toArray());
+        }
+
+        if (!changedSpooledFiles.isEmpty()) {
+            tableViewer.update(changedSpooledFiles.toArray(), null);
+        }
+    }
+
     /**
      * Returns the number of spooled files contained in the list.
      * 
@@ -207,13 +340,12 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
      */
     public SpooledFile[] getItems() {
 
-        SpooledFile[] spooledFiles = new SpooledFile[tableViewer.getTable().getItemCount()];
-        TableItem[] tableItems = tableViewer.getTable().getItems();
-        for (int i = 0; i < tableItems.length; i++) {
-            spooledFiles[i] = (SpooledFile)tableItems[i].getData();
+        SpooledFile[] spooledFiles = getContentProvider().getSpooledFiles();
+        if (spooledFiles == null) {
+            return new SpooledFile[0];
         }
 
-        return spooledFiles;
+        return spooledFiles.clone();
     }
 
     /**
@@ -232,13 +364,13 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
      */
     public SpooledFile[] getSelectedItems() {
 
-        SpooledFile[] spooledFiles = new SpooledFile[tableViewer.getTable().getSelectionCount()];
-        TableItem[] tableItems = tableViewer.getTable().getSelection();
-        for (int i = 0; i < tableItems.length; i++) {
-            spooledFiles[i] = (SpooledFile)tableItems[i].getData();
-        }
+        /*
+         * Do not use the table items, because the items of a virtual table do
+         * not have data until they have been displayed.
+         */
+        List<?> selectedItems = ((IStructuredSelection)tableViewer.getSelection()).toList();
 
-        return spooledFiles;
+        return selectedItems.toArray(new SpooledFile[selectedItems.size()]);
     }
 
     /**
@@ -256,6 +388,14 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
      * @param spooledFiles - spooled files that are removed from the list
      */
     public void remove(SpooledFile[] spooledFiles) {
+
+        SpooledFile[] currentSpooledFiles = getContentProvider().getSpooledFiles();
+        if (currentSpooledFiles != null) {
+            List<SpooledFile> remainingSpooledFiles = new ArrayList<SpooledFile>(Arrays.asList(currentSpooledFiles));
+            remainingSpooledFiles.removeAll(new HashSet<SpooledFile>(Arrays.asList(spooledFiles)));
+            getContentProvider().setSpooledFiles(remainingSpooledFiles.toArray(new SpooledFile[remainingSpooledFiles.size()]));
+        }
+
         tableViewer.remove(spooledFiles);
         table.update();
     }
@@ -390,7 +530,7 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
 
     private void createTableViewer(Composite parent) {
 
-        tableViewer = new TableViewer(parent, SWT.MULTI | SWT.FULL_SELECTION | SWT.BORDER);
+        tableViewer = new TableViewer(parent, SWT.MULTI | SWT.FULL_SELECTION | SWT.BORDER | SWT.VIRTUAL);
         table = tableViewer.getTable();
         table.setLinesVisible(true);
         table.setHeaderVisible(true);
@@ -503,6 +643,10 @@ public class WorkWithSpooledFilesPanel implements IResizableTableColumnsViewer,
         return this.shell;
     }
 
+    private WorkWithSpooledFilesContentProvider getContentProvider() {
+        return (WorkWithSpooledFilesContentProvider)tableViewer.getContentProvider();
+    }
+
     /*
      * ISelectionProvider methods
      */
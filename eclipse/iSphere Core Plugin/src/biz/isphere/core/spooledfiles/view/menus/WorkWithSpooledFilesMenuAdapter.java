@@ -8,9 +8,12 @@
 
 package biz.isphere.core.spooledfiles.view.menus;
 
+import java.util.List;
+
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IDoubleClickListener;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.MenuAdapter;
@@ -278,13 +281,9 @@ public class WorkWithSpooledFilesMenuAdapter extends MenuAdapter implements IDou
 
     private SpooledFile[] getSelectedItems() {
 
-        SpooledFile[] spooledFiles = new SpooledFile[tableViewer.getTable().getSelectionCount()];
-        TableItem[] tableItems = table.getSelection();
-        for (int i = 0; i < tableItems.length; i++) {
-            spooledFiles[i] = (SpooledFile)tableItems[i].getData();
-        }
+        List<?> selectedItems = ((IStructuredSelection)tableViewer.getSelection()).toList();
 
-        return spooledFiles;
+        return selectedItems.toArray(new SpooledFile[selectedItems.size()]);
     }
 
     public void doubleClick(DoubleClickEvent e) {
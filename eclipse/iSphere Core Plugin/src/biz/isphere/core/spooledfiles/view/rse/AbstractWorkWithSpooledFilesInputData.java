@@ -9,7 +9,10 @@
 package biz.isphere.core.spooledfiles.view.rse;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Vector;
 
@@ -19,6 +22,7 @@ import org.eclipse.osgi.util.NLS;
 import biz.isphere.base.internal.StringHelper;
 import biz.isphere.core.ISpherePlugin;
 import biz.isphere.core.ibmi.contributions.extension.handler.IBMiHostContributionsHandler;
+import biz.isphere.core.spooledfiles.ISpooledFilesReceivedListener;
 import biz.isphere.core.spooledfiles.SpooledFile;
 import biz.isphere.core.spooledfiles.SpooledFileFactory;
 import biz.isphere.core.spooledfiles.SpooledFileFilter;
@@ -77,23 +81,94 @@ public abstract class AbstractWorkWithSpooledFilesInputData {
     public abstract String getContentId();
 
     public SpooledFile[] load(IProgressMonitor monitor) {
+        return load(monitor, null, null);
+    }
+
+    /**
+     * Loads the spooled files that have been created at or after a given
+     * timestamp.
+     * 
+     * @param monitor - progress monitor
+     * @param createdSince - earliest creation timestamp or <code>null</code>
+     *        to load all spooled files
+     * @return spooled files
+     */
+    public SpooledFile[] load(IProgressMonitor monitor, Date createdSince) {
+        return load(monitor, createdSince, null);
+    }
+
+    /**
+     * Loads the spooled files that have been created at or after a given
+     * timestamp. The spooled files are passed to the listener in batches,
+     * while they are loaded. Spooled files that are selected by more than one
+     * filter string are passed only once.
+     * 
+     * @param monitor - progress monitor
+     * @param createdSince - earliest creation timestamp or <code>null</code>
+     *        to load all spooled files
+     * @param listener - listener that receives the spooled files or
+     *        <code>null</code>
+     * @return all spooled files
+     */
+    public SpooledFile[] load(IProgressMonitor monitor, Date createdSince, ISpooledFilesReceivedListener listener) {
+        return load(monitor, createdSince, false, listener);
+    }
+
+    /**
+     * Loads the key and the status of all spooled files. The other attributes
+     * of the spooled files are not loaded. Used for detecting removed spooled
+     * files and status changes without reloading the spooled files.
+     * 
+     * @param monitor - progress monitor
+     * @return key and status of all spooled files or <code>null</code>, if the
+     *         operation has been canceled
+     */
+    public SpooledFile[] loadKeysAndStatus(IProgressMonitor monitor) {
+
+        SpooledFile[] spooledFiles = load(monitor, null, true, null);
+        if (monitor.isCanceled()) {
+            return null;
+        }
+
+        return spooledFiles;
+    }
+
+    private SpooledFile[] load(final IProgressMonitor monitor, Date createdSince, boolean isKeyAndStatusOnly,
+        final ISpooledFilesReceivedListener listener) {
 
         Connection jdbcConnection = getToolboxJDBCConnection(getConnectionName());
 
-        Set<SpooledFile> spooledFilesSet = new HashSet<SpooledFile>();
-        Vector<SpooledFile> spooledFilesList = new Vector<SpooledFile>();
+        final Set<SpooledFile> spooledFilesSet = new HashSet<SpooledFile>();
+        final Vector<SpooledFile> spooledFilesList = new Vector<SpooledFile>();
+
+        ISpooledFilesReceivedListener collector = new ISpooledFilesReceivedListener() {
+            public void spooledFilesReceived(SpooledFile[] spooledFiles) {
+                List<SpooledFile> newSpooledFiles = new ArrayList<SpooledFile>();
+                for (SpooledFile spooledFile : spooledFiles) {
+                    if (!spooledFilesSet.contains(spooledFile)) {
+                        spooledFilesSet.add(spooledFile);
+                        spooledFilesList.add(spooledFile);
+                        newSpooledFiles.add(spooledFile);
+                    }
+                }
+                if (listener != null && !newSpooledFiles.isEmpty()) {
+                    listener.spooledFilesReceived(newSpooledFiles.toArray(new SpooledFile[newSpooledFiles.size()]));
+                }
+            }
+        };
 
         for (String filterString : getFilterStrings()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
             SpooledFileFilter spooledFileFilter = new SpooledFileFilter(filterString);
-            SpooledFile[] spooledFiles = SpooledFileFactory.getSpooledFiles(getConnectionName(), jdbcConnection, spooledFileFilter);
-            for (SpooledFile spooledFile : spooledFiles) {
-                if (monitor.isCanceled()) {
-                    break;
-                }
-                if (!spooledFilesSet.contains(spooledFile)) {
-                    spooledFilesSet.add(spooledFile);
-                    spooledFilesList.add(spooledFile);
-                }
+            if (createdSince != null && !spooledFileFilter.restrictStartingTimestamp(createdSince)) {
+                continue;
+            }
+            if (isKeyAndStatusOnly) {
+                SpooledFileFactory.getSpooledFileKeysAndStatus(getConnectionName(), jdbcConnection, spooledFileFilter, collector, monitor);
+            } else {
+                SpooledFileFactory.getSpooledFiles(getConnectionName(), jdbcConnection, spooledFileFilter, collector, monitor);
             }
         }
 
@@ -8,8 +8,12 @@
 
 package biz.isphere.core.spooledfiles.view.rse;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -78,12 +82,20 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
     private static final String FILTER_STRING = "filterString"; //$NON-NLS-1$
     private static final String FILTER_STRING_DELIMITER = "\\|"; //$NON-NLS-1$
 
+    /*
+     * Delay for adding streamed spooled files to the viewer, so that the
+     * batches are added in bulk.
+     */
+    private static final long STREAMING_UPDATE_DELAY = 100;
+
     private Composite mainArea;
     private Label labelHeadline;
     private WorkWithSpooledFilesPanel workWithSpooledFilesPanel;
 
     private AbstractWorkWithSpooledFilesInputData inputData;
     private LoadSpooledFilesJob loadSpooledFilesJob;
+    private Date refreshWatermark;
+    private List<SpooledFile> pendingSpooledFiles;
 
     private RefreshViewAction refreshViewAction;
     private DisableAutoRefreshViewAction disableAutoRefreshViewAction;
@@ -104,6 +116,7 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
         this.workWithSpooledFilesHelper = new WorkWithSpooledFilesHelper(null, null);
         this.workWithSpooledFilesHelper.addChangedListener(this);
         this.pinProperties = new HashMap<String, String>();
+        this.pendingSpooledFiles = new ArrayList<SpooledFile>();
 
         getViewManager().add(this);
     }
@@ -357,7 +370,31 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
          * Do not clear input data to automatically select new spooled files.
          */
 
-        setInputDataInternally(getShell(), this.inputData);
+        setInputDataInternally(getShell(), this.inputData, null);
+    }
+
+    /**
+     * Loads the spooled files that have been created since the last refresh
+     * and merges them into the view. Spooled files that have been removed and
+     * status changes are detected by loading only the key and the status of
+     * all spooled files. All spooled files are loaded, when the view does not
+     * yet display any spooled files.
+     * <br>
+     * Must be called from the UI thread to get the 'Shell' for displaying error
+     * messages.
+     */
+    public void refreshDataIncrementally() {
+
+        if (refreshWatermark == null) {
+            refreshData();
+            return;
+        }
+
+        if (!ISphereHelper.checkISphereLibrary(getShell(), inputData.getConnectionName())) {
+            return;
+        }
+
+        setInputDataInternally(getShell(), this.inputData, refreshWatermark);
     }
 
     /**
@@ -385,8 +422,9 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
          * "WorkWithSpooledFilesPanel".
          */
         workWithSpooledFilesPanel.setInput(null, null);
+        refreshWatermark = null;
 
-        setInputDataInternally(getShell(), inputData);
+        setInputDataInternally(getShell(), inputData, null);
     }
 
     /**
@@ -394,8 +432,10 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
      * 
      * @param shell - Shell for displaying messages
      * @param inputData - WorkWithSpooledFilesInputData
+     * @param createdSince - earliest creation timestamp of the spooled files
+     *        that are loaded or <code>null</code> to load all spooled files
      */
-    private synchronized void setInputDataInternally(Shell shell, AbstractWorkWithSpooledFilesInputData inputData) {
+    private synchronized void setInputDataInternally(Shell shell, AbstractWorkWithSpooledFilesInputData inputData, Date createdSince) {
 
         if (!inputData.isValid()) {
             setPinned(false);
@@ -418,21 +458,84 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
             autoRefreshJob.resetInterval();
         }
 
-        loadSpooledFilesJob = new LoadSpooledFilesJob(inputData, this);
+        /*
+         * Stream the spooled files into the viewer, when the viewer is empty.
+         * Otherwise the spooled files are merged into the viewer, when all
+         * spooled files have been loaded.
+         */
+        boolean isStreaming = createdSince == null && !workWithSpooledFilesPanel.hasInput();
+
+        loadSpooledFilesJob = new LoadSpooledFilesJob(inputData, this, createdSince, isStreaming);
         loadSpooledFilesJob.schedule();
     }
 
+    /**
+     * Called, when a batch of spooled files has been streamed from the host.
+     * This method starts a UI job for adding the spooled files to the viewer,
+     * unless a job is already pending.
+     */
+    public void addLoadSpooledFilesPostRunData(final AbstractWorkWithSpooledFilesInputData inputData, SpooledFile[] spooledFiles) {
+
+        boolean isUpdatePending;
+        synchronized (pendingSpooledFiles) {
+            isUpdatePending = !pendingSpooledFiles.isEmpty();
+            pendingSpooledFiles.addAll(Arrays.asList(spooledFiles));
+        }
+
+        if (isUpdatePending) {
+            return;
+        }
+
+        new UIJob(Messages.EMPTY) {
+
+            @Override
+            public IStatus runInUIThread(IProgressMonitor monitor) {
+
+                addPendingSpooledFiles(inputData);
+
+                return Status.OK_STATUS;
+            }
+        }.schedule(STREAMING_UPDATE_DELAY);
+    }
+
+    /**
+     * Adds the spooled files, that have been streamed from the host, to the
+     * viewer. Must be called from the UI thread.
+     */
+    private void addPendingSpooledFiles(AbstractWorkWithSpooledFilesInputData inputData) {
+
+        SpooledFile[] spooledFiles;
+        synchronized (pendingSpooledFiles) {
+            spooledFiles = pendingSpooledFiles.toArray(new SpooledFile[pendingSpooledFiles.size()]);
+            pendingSpooledFiles.clear();
+        }
+
+        if (spooledFiles.length == 0 || workWithSpooledFilesPanel.isDisposed()) {
+            return;
+        }
+
+        if (!workWithSpooledFilesPanel.hasInput()) {
+            workWithSpooledFilesPanel.setInput(inputData.getConnectionName(), spooledFiles);
+        } else {
+            workWithSpooledFilesPanel.add(spooledFiles);
+        }
+
+        updateStatusLine();
+    }
+
     /**
      * Called, when the spooled files have been loaded. This method starts a UI
      * job for loading the spooled files into the viewer.
      */
-    public void setLoadSpooledFilesPostRunData(final AbstractWorkWithSpooledFilesInputData inputData, final SpooledFile[] spooledFiles) {
+    public void setLoadSpooledFilesPostRunData(final AbstractWorkWithSpooledFilesInputData inputData, final SpooledFile[] spooledFiles,
+        final boolean isComplete, final SpooledFile[] spooledFileKeys) {
 
         new UIJob(Messages.EMPTY) {
 
             @Override
             public IStatus runInUIThread(IProgressMonitor monitor) {
 
+                addPendingSpooledFiles(inputData);
                 setInputDataChecked();
                 setSubTitleChecked();
 
@@ -462,7 +565,17 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
                     return;
                 }
 
-                workWithSpooledFilesPanel.setInput(inputData.getConnectionName(), spooledFiles);
+                if (isComplete && !workWithSpooledFilesPanel.hasInput()) {
+                    workWithSpooledFilesPanel.setInput(inputData.getConnectionName(), spooledFiles);
+                } else {
+                    workWithSpooledFilesPanel.merge(spooledFiles, isComplete);
+                    if (spooledFileKeys != null) {
+                        workWithSpooledFilesPanel.mergeKeysAndStatus(spooledFileKeys);
+                    }
+                }
+
+                updateRefreshWatermark();
+
                 workWithSpooledFilesHelper.setShell(getShell());
                 workWithSpooledFilesHelper.setConnection(inputData.getConnectionName());
                 refreshActionsEnablement();
@@ -481,6 +594,16 @@ public abstract class AbstractWorkWithSpooledFilesView extends XViewPart impleme
                 return widget.isDisposed();
             }
 
+            private void updateRefreshWatermark() {
+
+                for (SpooledFile spooledFile : spooledFiles) {
+                    Date creationTimestamp = spooledFile.getCreationTimestamp();
+                    if (creationTimestamp != null && (refreshWatermark == null || creationTimestamp.after(refreshWatermark))) {
+                        refreshWatermark = creationTimestamp;
+                    }
+                }
+            }
+
         }.schedule();
 
     }
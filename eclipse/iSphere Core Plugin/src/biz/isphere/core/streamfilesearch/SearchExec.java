@@ -32,6 +32,7 @@ import biz.isphere.core.ibmi.contributions.extension.handler.IBMiHostContributio
 import biz.isphere.core.internal.ISphereHelper;
 import biz.isphere.core.internal.MessageDialogAsync;
 import biz.isphere.core.search.SearchOptions;
+import biz.isphere.core.search.SearchStatusMonitor;
 
 public class SearchExec {
 
@@ -118,38 +119,46 @@ public class SearchExec {
 
                             monitor.beginTask(Messages.Searching, _numberOfSearchElements); //$NON-NLS-1$
 
-                            // Start the search job on the host.
-                            new DoSearch(_as400, _handle, _searchOptions, monitor).start();
+                            // Progress channel between the search job on the host
+                            // and this job.
+                            SearchStatusMonitor statusMonitor = new SearchStatusMonitor(_jdbcConnection, new SqlHelper(_jdbcConnection).getObjectName(
+                                iSphereLibrary, "ZFNDSTRS"), _handle);
 
-                            int _lastCounter = 0;
+                            try {
 
-                            // Wait for the end of the search job.
-                            // Read ZFNDSTRS to update '_counter'
-                            getStatus(monitor);
+                                // Start the search job on the host.
+                                new DoSearch(_as400, _handle, _searchOptions, monitor, statusMonitor).start();
 
-                            while (_counter != -1) {
+                                int _lastCounter = 0;
 
-                                monitor.worked(_counter - _lastCounter);
+                                // Wait for the end of the search job.
+                                // Read ZFNDSTRS to update '_counter'
+                                getStatus(monitor, statusMonitor);
 
-                                _lastCounter = _counter;
+                                while (_counter != -1) {
 
-                                if (monitor.isCanceled()) {
-                                    cancelJob();
-                                    _status = Status.CANCEL_STATUS;
-                                    break;
-                                }
+                                    monitor.worked(_counter - _lastCounter);
+
+                                    _lastCounter = _counter;
+
+                                    if (monitor.isCanceled()) {
+                                        cancelJob();
+                                        _status = Status.CANCEL_STATUS;
+                                        break;
+                                    }
+
+                                    statusMonitor.waitForProgress(monitor);
+
+                                    getStatus(monitor, statusMonitor);
 
-                                try {
-                                    Thread.sleep(500);
-                                } catch (InterruptedException e) {
                                 }
 
-                                getStatus(monitor);
+                                monitor.worked(_numberOfSearchElements - _lastCounter);
 
+                            } finally {
+                                statusMonitor.close();
                             }
 
-                            monitor.worked(_numberOfSearchElements - _lastCounter);
-
                             monitor.done();
 
                             if (!monitor.isCanceled()) {
@@ -294,60 +303,22 @@ public class SearchExec {
 
         }
 
-        private void getStatus(IProgressMonitor monitor) {
-
-            Throwable error = null;
+        private void getStatus(IProgressMonitor monitor, SearchStatusMonitor statusMonitor) {
 
-            // String _separator;
-            // try {
-            // _separator = _jdbcConnection.getMetaData().getCatalogSeparator();
-            // } catch (SQLException e) {
-            //                _separator = "."; //$NON-NLS-1$
-            // ISpherePlugin.logError("*** Stream file search (2): Could not get JDBC meta data. Using '.' as SQL separator ***",
-            // e);
-            // }
-
-            SqlHelper sqlHelper = new SqlHelper(_jdbcConnection);
-
-            PreparedStatement preparedStatementSelect = null;
-            ResultSet resultSet = null;
             try {
-                preparedStatementSelect = _jdbcConnection.prepareStatement("SELECT XSCNT, XSCNL FROM "
-                    + sqlHelper.getObjectName(iSphereLibrary, "ZFNDSTRS") + " WHERE XSHDL = ?");
-                preparedStatementSelect.setInt(1, _handle);
-                resultSet = preparedStatementSelect.executeQuery();
-                if (resultSet.next()) {
-                    _counter = resultSet.getInt("XSCNT"); //$NON-NLS-1$
+                Integer counter = statusMonitor.getCounter();
+                if (counter != null) {
+                    _counter = counter.intValue();
                 } else {
-                    ISpherePlugin.logError("*** Stream file search: Could not read status record (" + _handle + ") from file ZFNDSTRS ***", error);
+                    ISpherePlugin.logError("*** Stream file search: Could not read status record (" + _handle + ") from file ZFNDSTRS ***", null);
                     monitor.setCanceled(true);
                     MessageDialogAsync.displayError(Messages.bind(Messages.Could_not_read_status_from_file_B_A_for_search_job_handle_C, new Object[] {
                         "ZFNDSTRS", iSphereLibrary, new Integer(_handle) }));
                 }
             } catch (SQLException e) {
-                error = e;
-            }
-
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (preparedStatementSelect != null) {
-                try {
-                    preparedStatementSelect.close();
-                } catch (SQLException e1) {
-                    error = e1;
-                }
-            }
-
-            if (error != null) {
                 monitor.setCanceled(true);
-                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(error));
-                ISpherePlugin.logError("*** Stream file search: Unexpected connection error. ***", error);
+                MessageDialogAsync.displayError(ExceptionHelper.getLocalizedMessage(e));
+                ISpherePlugin.logError("*** Stream file search: Unexpected connection error. ***", e);
             }
 
         }
@@ -391,19 +362,25 @@ public class SearchExec {
         private AS400 _as400;
         private int _handle;
         private SearchOptions _searchOptions;
+        private SearchStatusMonitor _statusMonitor;
         private IProgressMonitor _monitor;
 
-        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions, IProgressMonitor _monitor) {
+        public DoSearch(AS400 _as400, int _handle, SearchOptions _searchOptions, IProgressMonitor _monitor, SearchStatusMonitor _statusMonitor) {
             this._as400 = _as400;
             this._handle = _handle;
             this._searchOptions = _searchOptions;
+            this._statusMonitor = _statusMonitor;
             this._monitor = _monitor;
         }
 
         @Override
         public void run() {
-            if (new ZFNDSTR_search().run(_as400, _handle, _searchOptions) < 0) {
-                _monitor.setCanceled(true);
+            try {
+                if (new ZFNDSTR_search().run(_as400, _handle, _searchOptions) < 0) {
+                    _monitor.setCanceled(true);
+                }
+            } finally {
+                _statusMonitor.searchEnded();
             }
         }
 
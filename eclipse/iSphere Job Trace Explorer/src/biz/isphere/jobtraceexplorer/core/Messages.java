@@ -30,6 +30,12 @@ public class Messages extends NLS {
     public static String GroupLabel_Limitation_Properties;
     public static String ButtonLabel_Maximum_number_of_rows_to_fetch;
     public static String ButtonTooltip_Maximum_number_of_rows_to_fetch_tooltip;
+    public static String ButtonLabel_Maximum_number_of_cached_sessions;
+    public static String ButtonTooltip_Maximum_number_of_cached_sessions;
+    public static String ButtonLabel_Clear_cache;
+    public static String ButtonTooltip_Clear_cache;
+    public static String Session_cache_has_been_cleared;
+    public static String Session_cache_could_not_be_cleared;
     public static String ButtonLabel_Exclude_IBM_data_SQL_WHERE_clause;
     public static String ButtonTooltip_Exclude_IBM_data_SQL_WHERE_clause;
 
@@ -83,6 +89,8 @@ public class Messages extends NLS {
     public static String Status_Receiving_job_trace_entries;
     public static String Status_Searching_for_procedure_exit;
     public static String Status_Searching_for_procedure_entry;
+    public static String Status_Searching_job_trace_entries;
+    public static String Status_Computing_procedure_statistics;
     public static String Status_Exporting_to_Json;
     public static String Status_Importing_from_Json;
 
@@ -98,11 +106,13 @@ public class Messages extends NLS {
     public static String MenuItem_Edit_sql;
     public static String MenuItem_Exclude_procedure;
     public static String MenuItem_Include_procedure;
+    public static String MenuItem_Procedure_statistics;
 
     // Dialog titles
     public static String MessageDialog_Open_Job_Trace_Session_Title;
     public static String MessageDialog_Load_Job_Trace_Entries_Title;
     public static String MessageDialog_Information;
+    public static String MessageDialog_Procedure_Statistics_Title;
 
     // Open Job Trace Session Dialog
     public static String OpenJobTraceSessionDialog_Connection;
@@ -110,11 +120,26 @@ public class Messages extends NLS {
     public static String OpenJobTraceSessionDialog_Library;
     public static String OpenJobTraceSessionDialog_Exclude_IBM_Data;
 
+    // Procedure Statistics Dialog
+    public static String ProcedureStatisticsDialog_Hot_spots;
+    public static String ProcedureStatisticsDialog_Call_paths;
+    public static String ProcedureStatisticsDialog_Aggregate_by;
+    public static String ProcedureStatisticsDialog_Program;
+    public static String ProcedureStatisticsDialog_Module;
+    public static String ProcedureStatisticsDialog_Procedure;
+    public static String ProcedureStatisticsDialog_Calls;
+    public static String ProcedureStatisticsDialog_Inclusive_time;
+    public static String ProcedureStatisticsDialog_Inclusive_percent;
+    public static String ProcedureStatisticsDialog_Exclusive_time;
+    public static String ProcedureStatisticsDialog_Exclusive_percent;
+    public static String ProcedureStatisticsDialog_Total_time_A_entries_B;
+
     // Filter panel
     public static String Label_Text;
     public static String ButtonTooltip_Text_tooltip;
     public static String ButtonTooltip_Search_up;
     public static String ButtonTooltip_Search_down;
+    public static String Label_A_of_B_matches;
 
     public static String Tooltip_OpenJobTraceSessionDialog_Connection;
     public static String Tooltip_OpenJobTraceSessionDialog_SessionID;
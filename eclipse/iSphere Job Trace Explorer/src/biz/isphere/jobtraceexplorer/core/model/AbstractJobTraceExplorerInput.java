@@ -40,4 +40,18 @@ public abstract class AbstractJobTraceExplorerInput {
 
     public abstract JobTraceSession load(IProgressMonitor arg0) throws Exception;
 
+    /**
+     * Loads the job trace session and passes the loaded entries to a given
+     * listener. The default implementation loads all entries at once and does
+     * not use the listener.
+     * 
+     * @param monitor - progress monitor
+     * @param listener - listener, that adds the loaded entries to the session
+     * @return job trace session
+     * @throws Exception
+     */
+    public JobTraceSession load(IProgressMonitor monitor, IJobTraceEntriesLoadListener listener) throws Exception {
+        return load(monitor);
+    }
+
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model;
+
+import java.util.List;
+
+/**
+ * Index of the call stack of a list of job trace entries. For each entry the
+ * index stores the position of the previous and of the next entry with the
+ * same call level. These are the matching procedure <b>ENTRY</b> and
+ * <b>EXIT</b> entries of a procedure.
+ * <p>
+ * The index is built incrementally, while the entries are added to the list.
+ * The positions are stored in primitive int arrays.
+ */
+public class CallStackIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NOT_FOUND = -1;
+
+    private int[] previous;
+    private int[] next;
+    private int size;
+
+    private int[] lastPositionOfCallLevel;
+
+    public CallStackIndex() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public CallStackIndex(int capacity) {
+        this.previous = new int[Math.max(1, capacity)];
+        this.next = new int[Math.max(1, capacity)];
+        this.size = 0;
+        this.lastPositionOfCallLevel = new int[16];
+        clearLastPositions(0);
+    }
+
+    /**
+     * Builds the index of a given list of job trace entries.
+     *
+     * @param jobTraceEntries - job trace entries
+     * @return call stack index
+     */
+    public static CallStackIndex build(List<JobTraceEntry> jobTraceEntries) {
+
+        CallStackIndex callStackIndex = new CallStackIndex(jobTraceEntries.size());
+        for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
+            callStackIndex.add(jobTraceEntry.getCallLevel());
+        }
+
+        return callStackIndex;
+    }
+
+    /**
+     * Adds the call level of the next job trace entry to the index.
+     *
+     * @param callLevel - call level of the job trace entry
+     */
+    public void add(int callLevel) {
+
+        ensureCapacity(size + 1);
+
+        int position = size;
+        previous[position] = NOT_FOUND;
+        next[position] = NOT_FOUND;
+
+        if (callLevel >= 0) {
+
+            ensureCallLevelCapacity(callLevel + 1);
+
+            int previousPosition = lastPositionOfCallLevel[callLevel];
+            if (previousPosition != NOT_FOUND) {
+                previous[position] = previousPosition;
+                next[previousPosition] = position;
+            }
+
+            lastPositionOfCallLevel[callLevel] = position;
+        }
+
+        size++;
+    }
+
+    /**
+     * Returns the position of the previous entry with the same call level.
+     *
+     * @param position - position of the job trace entry
+     * @return position of the previous entry or -1, if not found
+     */
+    public int getPrevious(int position) {
+
+        if (position < 0 || position >= size) {
+            return NOT_FOUND;
+        }
+
+        return previous[position];
+    }
+
+    /**
+     * Returns the position of the next entry with the same call level.
+     *
+     * @param position - position of the job trace entry
+     * @return position of the next entry or -1, if not found
+     */
+    public int getNext(int position) {
+
+        if (position < 0 || position >= size) {
+            return NOT_FOUND;
+        }
+
+        return next[position];
+    }
+
+    /**
+     * Returns the number of indexed entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int capacity) {
+
+        if (capacity <= previous.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(previous.length * 2, capacity);
+
+        int[] newPrevious = new int[newCapacity];
+        System.arraycopy(previous, 0, newPrevious, 0, size);
+        previous = newPrevious;
+
+        int[] newNext = new int[newCapacity];
+        System.arraycopy(next, 0, newNext, 0, size);
+        next = newNext;
+    }
+
+    private void ensureCallLevelCapacity(int capacity) {
+
+        if (capacity <= lastPositionOfCallLevel.length) {
+            return;
+        }
+
+        int oldCapacity = lastPositionOfCallLevel.length;
+        int[] newLastPositions = new int[Math.max(oldCapacity * 2, capacity)];
+        System.arraycopy(lastPositionOfCallLevel, 0, newLastPositions, 0, oldCapacity);
+        lastPositionOfCallLevel = newLastPositions;
+
+        clearLastPositions(oldCapacity);
+    }
+
+    private void clearLastPositions(int fromCallLevel) {
+
+        for (int i = fromCallLevel; i < lastPositionOfCallLevel.length; i++) {
+            lastPositionOfCallLevel[i] = NOT_FOUND;
+        }
+    }
+}
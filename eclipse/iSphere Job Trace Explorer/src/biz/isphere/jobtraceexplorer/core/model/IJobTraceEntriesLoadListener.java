@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model;
+
+import java.util.List;
+
+public interface IJobTraceEntriesLoadListener {
+
+    /**
+     * Called for each page of job trace entries, that has been retrieved from
+     * the host. This method is not called in the UI thread.
+     * <p>
+     * The listener is responsible for adding the entries to the job trace
+     * entries of the session. Therefore it can add the entries in the UI
+     * thread, while the first pages are already displayed.
+     *
+     * @param jobTraceSession - job trace session that is loaded
+     * @param jobTraceEntries - job trace entries of the page
+     */
+    public void entriesLoaded(JobTraceSession jobTraceSession, List<JobTraceEntry> jobTraceEntries);
+}
@@ -9,10 +9,11 @@
 package biz.isphere.jobtraceexplorer.core.model;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 
 import org.medfoster.sqljep.ParseException;
@@ -44,6 +45,8 @@ public class JobTraceEntries {
     private ExcludedEntries excludedEntries;
 
     private transient List<JobTraceEntry> filteredJobTraceEntries;
+    private transient CallStackIndex callStackIndex;
+    private transient int modificationCount;
 
     public JobTraceEntries() {
         initialize();
@@ -66,7 +69,9 @@ public class JobTraceEntries {
         int count = jobTraceEntries.size();
 
         this.excludedEntries.addAll(nanosSinceStarted, excludedJobTraceEntries);
-        this.jobTraceEntries.removeAll(excludedJobTraceEntries);
+        this.jobTraceEntries.removeAll(new HashSet<JobTraceEntry>(excludedJobTraceEntries));
+        this.callStackIndex = null;
+        this.modificationCount++;
 
         count = count - jobTraceEntries.size();
 
@@ -80,6 +85,8 @@ public class JobTraceEntries {
         JobTraceEntry[] excludedJobTraceEntries = excludedEntries.getAll(nanonsSinceStarted);
         jobTraceEntries.addAll(index, Arrays.asList(excludedJobTraceEntries));
         excludedEntries.removeAll(nanonsSinceStarted);
+        callStackIndex = null;
+        modificationCount++;
 
         count = jobTraceEntries.size() - count;
 
@@ -144,7 +151,9 @@ public class JobTraceEntries {
         RowJEP sqljep = new RowJEP(filterWhereClause);
         sqljep.parseExpression(columnMapping);
 
-        filteredJobTraceEntries = new LinkedList<JobTraceEntry>();
+        filteredJobTraceEntries = new ArrayList<JobTraceEntry>();
+        callStackIndex = null;
+        modificationCount++;
 
         for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
             Comparable<?>[] row = jobTraceEntry.getRow();
@@ -162,6 +171,8 @@ public class JobTraceEntries {
 
     public void removeFilter() {
         this.filteredJobTraceEntries = null;
+        this.callStackIndex = null;
+        this.modificationCount++;
     }
 
     public boolean isCanceled() {
@@ -181,6 +192,46 @@ public class JobTraceEntries {
         getItems().add(jobTraceEntry);
         jobTraceEntry.setParent(this);
         jobTraceEntry.setId(jobTraceEntries.size());
+        modificationCount++;
+
+        if (callStackIndex != null && callStackIndex.size() == jobTraceEntries.size() - 1) {
+            callStackIndex.add(jobTraceEntry.getCallLevel());
+        } else {
+            callStackIndex = null;
+        }
+    }
+
+    /**
+     * Returns the index of the procedure <b>EXIT</b> entry, that belongs to
+     * the procedure <b>ENTRY</b> entry at a given index.
+     *
+     * @param index - index of the procedure entry
+     * @return index of the procedure exit or -1, if not found
+     */
+    public int findProcExit(int index) {
+        return getCallStackIndex().getNext(index);
+    }
+
+    /**
+     * Returns the index of the procedure <b>ENTRY</b> entry, that belongs to
+     * the procedure <b>EXIT</b> entry at a given index.
+     *
+     * @param index - index of the procedure exit
+     * @return index of the procedure entry or -1, if not found
+     */
+    public int findProcEntry(int index) {
+        return getCallStackIndex().getPrevious(index);
+    }
+
+    private CallStackIndex getCallStackIndex() {
+
+        CallStackIndex index = callStackIndex;
+        if (index == null || index.size() != getItems().size()) {
+            index = CallStackIndex.build(getItems());
+            callStackIndex = index;
+        }
+
+        return index;
     }
 
     public List<JobTraceEntry> getItems() {
@@ -225,6 +276,16 @@ public class JobTraceEntries {
         return jobTraceEntries.size();
     }
 
+    /**
+     * Returns a counter that is incremented, whenever the list of entries
+     * returned by {@link #getItems()} changes.
+     * 
+     * @return modification counter
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     public void reset() {
         reset(false);
     }
@@ -235,8 +296,10 @@ public class JobTraceEntries {
 
     private void reset(boolean fullReset) {
 
-        this.jobTraceEntries = new LinkedList<JobTraceEntry>();
+        this.jobTraceEntries = new ArrayList<JobTraceEntry>();
         this.filteredJobTraceEntries = null;
+        this.callStackIndex = new CallStackIndex();
+        this.modificationCount++;
         this.isOverflow = false;
         this.numAvailableRows = -1;
         this.messages = null;
@@ -17,6 +17,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 
+import biz.isphere.base.internal.StringPool;
 import biz.isphere.core.swt.widgets.ContentAssistProposal;
 import biz.isphere.jobtraceexplorer.core.Messages;
 import biz.isphere.jobtraceexplorer.core.model.dao.ColumnsDAO;
@@ -72,7 +73,7 @@ public class JobTraceEntry {
     @Expose(serialize = true, deserialize = true)
     private int id;
     @Expose(serialize = true, deserialize = true)
-    private BigInteger nanosSinceStarted;
+    private long nanosSinceStarted;
     @Expose(serialize = true, deserialize = true)
     private Timestamp timestamp;
     @Expose(serialize = true, deserialize = true)
@@ -106,19 +107,32 @@ public class JobTraceEntry {
     // Transient values, set on demand
 
     private transient JobTraceEntries parent;
-    private transient DecimalFormat bin8Formatter;
-    private transient SimpleDateFormat timestampFormatter;
+
+    /*
+     * Formatters are shared by all entries, because a job trace may have
+     * millions of entries. The formatters are not thread-safe, therefore each
+     * thread, such as the threads of a parallel search, gets its own
+     * formatters.
+     */
+    private static final ThreadLocal<DecimalFormat> bin8Formatter = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("00000000000000000000"); //$NON-NLS-1$
+        }
+    };
+
+    private static final ThreadLocal<SimpleDateFormat> timestampFormatter = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd-HH.mm.ss.SSS"); //$NON-NLS-1$
+        }
+    };
 
     /**
      * Produces a new TraceEntry. This constructor is used when loading job
      * trace entries from a Job Trace session.
-     * 
-     * @param outputFile
      */
     public JobTraceEntry() {
-
-        this.bin8Formatter = new DecimalFormat("00000000000000000000");
-        this.timestampFormatter = new SimpleDateFormat("yyyy-MM-dd-HH.mm.ss.SSS"); //$NON-NLS-1$
     }
 
     public static HashMap<String, Integer> getColumnMapping() {
@@ -214,14 +228,22 @@ public class JobTraceEntry {
     // //////////////////////////////////////////////////////////
 
     public BigInteger getNanosSinceStarted() {
+        return BigInteger.valueOf(nanosSinceStarted);
+    }
+
+    public long getNanosSinceStartedAsLong() {
         return nanosSinceStarted;
     }
 
     public void setNanosSinceStarted(BigInteger nanosSinceStarted) {
+        this.nanosSinceStarted = nanosSinceStarted.longValue();
+    }
+
+    public void setNanosSinceStarted(long nanosSinceStarted) {
         this.nanosSinceStarted = nanosSinceStarted;
     }
 
-    private java.sql.Timestamp getTimestamp() {
+    public java.sql.Timestamp getTimestamp() {
         return timestamp;
     }
 
@@ -328,7 +350,7 @@ public class JobTraceEntry {
     public void setHighlighted(boolean isHighlighted) {
         this.isHighlighted = isHighlighted;
         if (isExcluded()) {
-            getParent().setHighlightedExcludedEntries(nanosSinceStarted, this.isHighlighted);
+            getParent().setHighlightedExcludedEntries(getNanosSinceStarted(), this.isHighlighted);
         }
     }
 
@@ -404,6 +426,25 @@ public class JobTraceEntry {
         }
     }
 
+    /**
+     * Replaces the strings of this entry with the equal strings of a given
+     * string pool, so that repeated program, module and procedure names are
+     * stored only once.
+     * 
+     * @param stringPool - string pool that is shared by the entries of a job
+     *        trace session
+     */
+    public void internStrings(StringPool stringPool) {
+
+        programName = stringPool.intern(programName);
+        programLibrary = stringPool.intern(programLibrary);
+        moduleName = stringPool.intern(moduleName);
+        moduleLibrary = stringPool.intern(moduleLibrary);
+        procedureName = stringPool.intern(procedureName);
+        eventSubType = stringPool.intern(eventSubType);
+        callerProcedureName = stringPool.intern(callerProcedureName);
+    }
+
     private String nullSave(String value) {
 
         if (value == null) {
@@ -414,7 +455,7 @@ public class JobTraceEntry {
     }
 
     private String toString(BigInteger unsignedBin8Value) {
-        return bin8Formatter.format(unsignedBin8Value);
+        return bin8Formatter.get().format(unsignedBin8Value);
     }
 
     private String toString(int intValue) {
@@ -431,7 +472,7 @@ public class JobTraceEntry {
             return ""; //$NON-NLS-1$
         }
 
-        return timestampFormatter.format(timestampValue);
+        return timestampFormatter.get().format(timestampValue);
     }
 
     @Override
@@ -449,7 +490,7 @@ public class JobTraceEntry {
         result = prime * result + (isHighlighted ? 1231 : 1237);
         result = prime * result + ((moduleLibrary == null) ? 0 : moduleLibrary.hashCode());
         result = prime * result + ((moduleName == null) ? 0 : moduleName.hashCode());
-        result = prime * result + ((nanosSinceStarted == null) ? 0 : nanosSinceStarted.hashCode());
+        result = prime * result + (int)(nanosSinceStarted ^ (nanosSinceStarted >>> 32));
         result = prime * result + ((procedureName == null) ? 0 : procedureName.hashCode());
         result = prime * result + ((programLibrary == null) ? 0 : programLibrary.hashCode());
         result = prime * result + ((programName == null) ? 0 : programName.hashCode());
@@ -484,9 +525,7 @@ public class JobTraceEntry {
         if (moduleName == null) {
             if (other.moduleName != null) return false;
         } else if (!moduleName.equals(other.moduleName)) return false;
-        if (nanosSinceStarted == null) {
-            if (other.nanosSinceStarted != null) return false;
-        } else if (!nanosSinceStarted.equals(other.nanosSinceStarted)) return false;
+        if (nanosSinceStarted != other.nanosSinceStarted) return false;
         if (procedureName == null) {
             if (other.procedureName != null) return false;
         } else if (!procedureName.equals(other.procedureName)) return false;
@@ -507,7 +546,7 @@ public class JobTraceEntry {
 
         StringBuilder buffer = new StringBuilder();
 
-        buffer.append(getNanosSinceStarted().toString());
+        buffer.append(nanosSinceStarted);
         buffer.append(":");
         buffer.append(getProcedureName());
 
@@ -66,10 +66,15 @@ public class JobTraceExplorerSessionInput extends AbstractJobTraceExplorerInput
 
     @Override
     public JobTraceSession load(IProgressMonitor monitor) throws SQLException {
+        return load(monitor, null);
+    }
+
+    @Override
+    public JobTraceSession load(IProgressMonitor monitor, IJobTraceEntriesLoadListener listener) throws SQLException {
 
         JobTraceSQLDAO loader = new JobTraceSQLDAO(connectionName, libraryName, sessionID, isIBMDataExcluded);
         JobTraceSession traceData;
-        traceData = loader.load(monitor);
+        traceData = loader.load(monitor, listener);
 
         return traceData;
     }
@@ -13,6 +13,7 @@ import java.util.Date;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import biz.isphere.base.internal.StringPool;
 import biz.isphere.core.json.JsonImporter;
 import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
 import biz.isphere.jobtraceexplorer.core.Messages;
@@ -47,8 +48,10 @@ public class JobTraceJsonDAO {
             jobTraceSession = importer.execute(null, fileName);
             jobTraceSession.updateFileName(fileName);
 
+            StringPool stringPool = new StringPool();
             for (JobTraceEntry jobTraceEntry : jobTraceSession.getJobTraceEntries().getItems()) {
                 jobTraceEntry.setParent(jobTraceSession.getJobTraceEntries());
+                jobTraceEntry.internStrings(stringPool);
             }
 
         } finally {
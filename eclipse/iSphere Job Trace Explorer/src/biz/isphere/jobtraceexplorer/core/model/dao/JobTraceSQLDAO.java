@@ -12,15 +12,19 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import biz.isphere.base.internal.SqlHelper;
+import biz.isphere.base.internal.StringPool;
 import biz.isphere.core.ibmi.contributions.extension.handler.IBMiHostContributionsHandler;
 import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
 import biz.isphere.jobtraceexplorer.core.Messages;
+import biz.isphere.jobtraceexplorer.core.model.IJobTraceEntriesLoadListener;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceEntries;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceSession;
@@ -33,6 +37,9 @@ import biz.isphere.jobtraceexplorer.core.preferences.Preferences;
  */
 public class JobTraceSQLDAO {
 
+    private static final int PAGE_SIZE = 5000;
+    private static final String RECORD_NUMBER = "RECORD_NUMBER"; //$NON-NLS-1$
+
     /**
      * SQL statement for querying the job trace session data. Tables and their
      * descriptions:
@@ -53,6 +60,10 @@ public class JobTraceSQLDAO {
      * Table, that stores the event types. This table is used to retrieve the
      * relation between the caller and the callee.
      * <p>
+     * The entries are retrieved in pages of {@link #PAGE_SIZE} rows. Each page
+     * starts behind the key (QTITIMN, QRECN) of the last row of the previous
+     * page.
+     * <p>
      * 
      * @see biz.isphere.jobtraceexplorer.core.model.dao.JobTraceSQLDAO
      */
@@ -72,6 +83,12 @@ public class JobTraceSQLDAO {
     private static final String SQL_COUNT_STATEMENT = 
         "SELECT COUNT(x.QTITIMN) " +
          SQL_FROM_CLAUSE;      
+
+    private static final String SQL_COUNT_ALL_STATEMENT = 
+        "SELECT COUNT(*) FROM QAYPETIDX";
+
+    private static final String SQL_SESSION_STAMP_STATEMENT = 
+        "SELECT COUNT(*), MAX(QTITSP) FROM QAYPETIDX";
         
     private static final String SQL_STATEMENT = 
         "SELECT 0              as \"ID\"                  , " +
@@ -86,9 +103,13 @@ public class JobTraceSQLDAO {
                "t.QTBCLL       as \"CALL_LEVEL\"          , " +
                "v.QEVSSN       as \"EVENT_SUB_TYPE\"      , " +
                "t.QTBCHL       as \"CALLER_HLL_STMT_NBR\" , " +
-               "ci.QPRPNM      as \"CALLER_PROC_NAME\"      " +
+               "ci.QPRPNM      as \"CALLER_PROC_NAME\"    , " +
+               "x.QRECN        as \"RECORD_NUMBER\"         " +
          SQL_FROM_CLAUSE;      
 
+    private static final String SQL_WHERE_KEYSET = 
+        "(x.QTITIMN > ? OR (x.QTITIMN = ? AND x.QRECN > ?))";
+
     public static final String SQL_WHERE_NO_IBM_DATA = 
         "i.QPRPQL not in ('QSYS', 'QTCP', 'QPDA') "     +                           /* Exclude IBM Libraries */
         "AND i.QPRPQL  not like 'QXMLLIB%' "                  +                     /* Exclude IBM Xerces Parser */
@@ -96,7 +117,10 @@ public class JobTraceSQLDAO {
         "AND i.QPRPNM not in ('*ccsidConvProc') ";                                  /* Exclude Special RPG Procedures */ 
 
     private static final String SQL_ORDER_BY =
-        " ORDER BY x.QTITIMN";
+        " ORDER BY x.QTITIMN, x.QRECN";
+
+    private static final String SQL_FETCH_FIRST =
+        " FETCH FIRST " + PAGE_SIZE + " ROWS ONLY";
 
     private static final String[] OVRDBF_CMD =
       { "OVRDBF FILE(QAYPETIDX)  TOFILE(%S/QAYPETIDX ) MBR(%S) SECURE(*YES) OVRSCOPE(*JOB)" ,
@@ -141,6 +165,19 @@ public class JobTraceSQLDAO {
     }
 
     public JobTraceSession load(IProgressMonitor monitor) throws SQLException {
+        return load(monitor, null);
+    }
+
+    /**
+     * Loads the job trace entries of the session page by page.
+     * 
+     * @param monitor - progress monitor
+     * @param listener - listener, that adds the pages to the session or
+     *        <code>null</code>, to add the entries here
+     * @return job trace session
+     * @throws SQLException
+     */
+    public JobTraceSession load(IProgressMonitor monitor, IJobTraceEntriesLoadListener listener) throws SQLException {
 
         JobTraceSession jobTraceSession = new JobTraceSession(connectionName, libraryName, sessionID);
         jobTraceSession.setExcludeIBMData(isIBMDataExcluded);
@@ -148,8 +185,6 @@ public class JobTraceSQLDAO {
         List<IBMiMessage> messages = null;
 
         Connection jdbcConnection = null;
-        PreparedStatement preparedStatement = null;
-        ResultSet resultSet = null;
         SqlHelper sqlHelper = null;
 
         boolean isTableOverWrite = false;
@@ -168,31 +203,30 @@ public class JobTraceSQLDAO {
 
             int maxNumRows = Preferences.getInstance().getMaximumNumberOfRowsToFetch();
 
-            int numRowsAvailable = getNumRowsAvailable(sqlHelper);
-
-            preparedStatement = jdbcConnection.prepareStatement(getSQLStatement());
-
-            monitor.setTaskName(Messages.Status_Executing_query);
-
-            resultSet = preparedStatement.executeQuery();
-
-            monitor.beginTask(Messages.Status_Receiving_job_trace_entries, numRowsAvailable);
+            SessionStamp sessionStamp = getSessionStamp(sqlHelper);
+            int maxNumCachedSessions = Preferences.getInstance().getMaximumNumberOfCachedSessions();
+            JobTraceSessionCache sessionCache = new JobTraceSessionCache(connectionName, libraryName, sessionID, isIBMDataExcluded,
+                sqlWhereNoIBMData, maxNumCachedSessions);
 
-            JobTraceEntries jobTraceEntries = jobTraceSession.getJobTraceEntries();
+            List<JobTraceEntry> cachedEntries = null;
+            if (sessionStamp != null) {
+                cachedEntries = sessionCache.load(sessionStamp.numRows, sessionStamp.lastTimestamp, maxNumRows);
+            }
 
-            while (resultSet.next() && !isDataOverflow && !isCanceled(monitor, jobTraceEntries)) {
+            if (cachedEntries != null) {
 
-                monitor.worked(1);
+                ISphereJobTraceExplorerCorePlugin.debug("Loading job trace entries from local cache: " + sessionID); //$NON-NLS-1$
 
-                if (jobTraceEntries.getNumberOfRowsDownloaded() < maxNumRows) {
+                addCachedJobTraceEntries(jobTraceSession, cachedEntries, monitor, listener);
+                isDataOverflow = sessionCache.isOverflow();
 
-                    JobTraceEntry jobTraceEntry = new JobTraceEntry();
+            } else {
 
-                    JobTraceEntry populatedJobTraceEntry = populateJobTraceEntry(resultSet, jobTraceEntry);
-                    jobTraceEntries.add(populatedJobTraceEntry);
+                List<JobTraceEntry> downloadedEntries = new ArrayList<JobTraceEntry>();
+                isDataOverflow = downloadJobTraceEntries(jobTraceSession, sqlHelper, maxNumRows, downloadedEntries, monitor, listener);
 
-                } else {
-                    isDataOverflow = true;
+                if (sessionStamp != null && !jobTraceSession.getJobTraceEntries().isCanceled()) {
+                    sessionCache.save(sessionStamp.numRows, sessionStamp.lastTimestamp, downloadedEntries, isDataOverflow);
                 }
             }
 
@@ -203,9 +237,6 @@ public class JobTraceSQLDAO {
             if (isTableOverWrite) {
                 deleteTableOverWrites(sqlHelper);
             }
-
-            sqlHelper.close(resultSet);
-            sqlHelper.close(preparedStatement);
         }
 
         ISphereJobTraceExplorerCorePlugin.debug("mSecs total: " + timeElapsed(startTime)); //$NON-NLS-1$
@@ -219,6 +250,120 @@ public class JobTraceSQLDAO {
         return jobTraceSession;
     }
 
+    private boolean downloadJobTraceEntries(JobTraceSession jobTraceSession, SqlHelper sqlHelper, int maxNumRows,
+        List<JobTraceEntry> downloadedEntries, IProgressMonitor monitor, IJobTraceEntriesLoadListener listener) throws SQLException {
+
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+
+        boolean isDataOverflow = false;
+
+        try {
+
+            int numRowsAvailable = getNumRowsAvailable(sqlHelper);
+
+            preparedStatement = sqlHelper.getConnection().prepareStatement(getSQLStatement());
+            preparedStatement.setFetchSize(PAGE_SIZE);
+
+            monitor.setTaskName(Messages.Status_Executing_query);
+
+            monitor.beginTask(Messages.Status_Receiving_job_trace_entries, numRowsAvailable);
+
+            JobTraceEntries jobTraceEntries = jobTraceSession.getJobTraceEntries();
+            StringPool stringPool = new StringPool();
+
+            long lastNanosSinceStarted = -1;
+            long lastRecordNumber = -1;
+            int numRowsDownloaded = 0;
+            boolean isLastPage = false;
+
+            while (!isLastPage && !isDataOverflow && !isCanceled(monitor, jobTraceEntries)) {
+
+                preparedStatement.setLong(1, lastNanosSinceStarted);
+                preparedStatement.setLong(2, lastNanosSinceStarted);
+                preparedStatement.setLong(3, lastRecordNumber);
+
+                resultSet = preparedStatement.executeQuery();
+
+                List<JobTraceEntry> page = new ArrayList<JobTraceEntry>();
+
+                while (resultSet.next() && !isCanceled(monitor, jobTraceEntries)) {
+
+                    if (numRowsDownloaded < maxNumRows) {
+
+                        JobTraceEntry jobTraceEntry = new JobTraceEntry();
+
+                        JobTraceEntry populatedJobTraceEntry = populateJobTraceEntry(resultSet, jobTraceEntry);
+                        populatedJobTraceEntry.internStrings(stringPool);
+                        page.add(populatedJobTraceEntry);
+                        numRowsDownloaded++;
+
+                        lastNanosSinceStarted = populatedJobTraceEntry.getNanosSinceStartedAsLong();
+                        lastRecordNumber = resultSet.getLong(RECORD_NUMBER);
+
+                    } else {
+                        isDataOverflow = true;
+                        break;
+                    }
+                }
+
+                sqlHelper.close(resultSet);
+                resultSet = null;
+
+                if (page.size() < PAGE_SIZE) {
+                    isLastPage = true;
+                }
+
+                downloadedEntries.addAll(page);
+                addJobTraceEntries(jobTraceSession, page, listener);
+
+                monitor.worked(page.size());
+            }
+
+        } finally {
+            sqlHelper.close(resultSet);
+            sqlHelper.close(preparedStatement);
+        }
+
+        return isDataOverflow;
+    }
+
+    private void addCachedJobTraceEntries(JobTraceSession jobTraceSession, List<JobTraceEntry> cachedEntries, IProgressMonitor monitor,
+        IJobTraceEntriesLoadListener listener) {
+
+        monitor.beginTask(Messages.Status_Receiving_job_trace_entries, cachedEntries.size());
+
+        JobTraceEntries jobTraceEntries = jobTraceSession.getJobTraceEntries();
+
+        int fromIndex = 0;
+        while (fromIndex < cachedEntries.size() && !isCanceled(monitor, jobTraceEntries)) {
+
+            int toIndex = Math.min(fromIndex + PAGE_SIZE, cachedEntries.size());
+            List<JobTraceEntry> page = new ArrayList<JobTraceEntry>(cachedEntries.subList(fromIndex, toIndex));
+
+            addJobTraceEntries(jobTraceSession, page, listener);
+
+            monitor.worked(page.size());
+            fromIndex = toIndex;
+        }
+    }
+
+    private void addJobTraceEntries(JobTraceSession jobTraceSession, List<JobTraceEntry> page, IJobTraceEntriesLoadListener listener) {
+
+        if (page.isEmpty()) {
+            return;
+        }
+
+        if (listener != null) {
+            listener.entriesLoaded(jobTraceSession, page);
+        } else {
+            JobTraceEntries jobTraceEntries = jobTraceSession.getJobTraceEntries();
+            for (JobTraceEntry jobTraceEntry : page) {
+                jobTraceEntries.add(jobTraceEntry);
+            }
+        }
+    }
+
     private boolean overWriteTables(SqlHelper sqlHelper) {
 
         for (String ovrDbfCmd : OVRDBF_CMD) {
@@ -247,24 +392,36 @@ public class JobTraceSQLDAO {
 
         buffer.append(SQL_STATEMENT);
 
+        buffer.append(" WHERE "); //$NON-NLS-1$
+        buffer.append(SQL_WHERE_KEYSET);
+
         if (isIBMDataExcluded) {
-            appendWhereClause(buffer);
+            buffer.append(" AND ("); //$NON-NLS-1$
+            buffer.append(sqlWhereNoIBMData);
+            buffer.append(")"); //$NON-NLS-1$
         }
 
         buffer.append(SQL_ORDER_BY);
+        buffer.append(SQL_FETCH_FIRST);
 
         return buffer.toString();
     }
 
     private String getSQLCountStatement() {
 
+        if (!isIBMDataExcluded) {
+            /*
+             * The outer joins of the statement do not change the number of
+             * rows. Therefore the rows of the index table are counted without
+             * joining the other tables.
+             */
+            return SQL_COUNT_ALL_STATEMENT;
+        }
+
         StringBuilder buffer = new StringBuilder();
 
         buffer.append(SQL_COUNT_STATEMENT);
-
-        if (isIBMDataExcluded) {
-            appendWhereClause(buffer);
-        }
+        appendWhereClause(buffer);
 
         return buffer.toString();
     }
@@ -317,11 +474,49 @@ public class JobTraceSQLDAO {
         return numRowsAvailable;
     }
 
+    /**
+     * Returns the number of rows and the last timestamp of table QAYPETIDX.
+     * These values are used for validating the local cache of the session.
+     * 
+     * @param sqlHelper - SQL helper of the connection
+     * @return session stamp or <code>null</code>, if the values could not be
+     *         retrieved
+     */
+    private SessionStamp getSessionStamp(SqlHelper sqlHelper) {
+
+        SessionStamp sessionStamp = null;
+
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+
+        try {
+
+            Connection jdbcConnection = sqlHelper.getConnection();
+            preparedStatement = jdbcConnection.prepareStatement(SQL_SESSION_STAMP_STATEMENT);
+            resultSet = preparedStatement.executeQuery();
+
+            if (resultSet.next()) {
+                sessionStamp = new SessionStamp(resultSet.getInt(1), resultSet.getTimestamp(2));
+            }
+
+        } catch (SQLException e) {
+            ISphereJobTraceExplorerCorePlugin.logError("*** Could not retrieve session stamp of job trace session " + sessionID + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            try {
+                sqlHelper.close(preparedStatement);
+                sqlHelper.close(resultSet);
+            } catch (Throwable e) {
+            }
+        }
+
+        return sessionStamp;
+    }
+
     private JobTraceEntry populateJobTraceEntry(ResultSet resultSet, JobTraceEntry jobTraceEntry) throws SQLException {
 
         // AbstractTypeDAO
         // journalEntry.setConnectionName(connectionName);
-        jobTraceEntry.setNanosSinceStarted(resultSet.getBigDecimal(ColumnsDAO.NANOS_SINE_STARTED.index()).toBigIntegerExact());
+        jobTraceEntry.setNanosSinceStarted(resultSet.getLong(ColumnsDAO.NANOS_SINE_STARTED.index()));
         jobTraceEntry.setTimestamp(resultSet.getTimestamp(ColumnsDAO.TIMESTAMP.index()));
         jobTraceEntry.setProgramName(resultSet.getString(ColumnsDAO.PGM_NAME.index()));
         jobTraceEntry.setProgramLibrary(resultSet.getString(ColumnsDAO.PGM_LIB.index()));
@@ -344,4 +539,18 @@ public class JobTraceSQLDAO {
 
         return jobTraceEntry;
     }
+
+    /**
+     * Number of rows and last timestamp of a job trace session.
+     */
+    private static class SessionStamp {
+
+        private int numRows;
+        private Timestamp lastTimestamp;
+
+        public SessionStamp(int numRows, Timestamp lastTimestamp) {
+            this.numRows = numRows;
+            this.lastTimestamp = lastTimestamp;
+        }
+    }
 }
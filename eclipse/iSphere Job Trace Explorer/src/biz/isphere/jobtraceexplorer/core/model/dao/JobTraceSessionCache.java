@@ -0,0 +1,481 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import biz.isphere.base.internal.FileHelper;
+import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+
+/**
+ * Local cache of the job trace entries of a job trace session. The entries are
+ * stored in a binary file per connection, library and session ID in the state
+ * location of the plug-in.
+ * <p>
+ * The file starts with a header, that stores the connection, library and
+ * session ID as well as the number of rows and the last timestamp of table
+ * QAYPETIDX. A cached session is only used, when these values still match the
+ * job trace session on the host. The header is followed by the table of
+ * distinct strings and by the entries. The entries are stored as records of a
+ * fixed length, with the strings replaced by their index in the string table.
+ * <p>
+ * The number of cached sessions is limited. When the limit is exceeded, the
+ * least recently used sessions are removed from the cache.
+ */
+public class JobTraceSessionCache {
+
+    private static final String CACHE_LOCATION = "sessions"; //$NON-NLS-1$
+    private static final String FILE_EXTENSION = ".jtc"; //$NON-NLS-1$
+    private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x4A544331; // JTC1
+    private static final int VERSION = 2;
+    private static final int NULL_VALUE = -1;
+
+    private String connectionName;
+    private String libraryName;
+    private String sessionID;
+    private boolean isIBMDataExcluded;
+    private String sqlWhereNoIBMData;
+    private int maxNumCachedSessions;
+
+    private boolean isOverflow;
+
+    public JobTraceSessionCache(String connectionName, String libraryName, String sessionID, boolean isIBMDataExcluded, String sqlWhereNoIBMData,
+        int maxNumCachedSessions) {
+
+        this.connectionName = nullSave(connectionName);
+        this.libraryName = nullSave(libraryName);
+        this.sessionID = nullSave(sessionID);
+        this.isIBMDataExcluded = isIBMDataExcluded;
+        this.sqlWhereNoIBMData = nullSave(sqlWhereNoIBMData);
+        this.maxNumCachedSessions = maxNumCachedSessions;
+    }
+
+    /**
+     * Removes all cached job trace sessions.
+     *
+     * @return <code>true</code>, when all cached sessions have been removed
+     */
+    public static boolean clear() {
+
+        File[] files = getCacheFiles();
+        if (files == null) {
+            return true;
+        }
+
+        boolean isCleared = true;
+        for (File file : files) {
+            if (!file.delete()) {
+                isCleared = false;
+            }
+        }
+
+        return isCleared;
+    }
+
+    /**
+     * Loads the cached job trace entries of the session.
+     *
+     * @param numRowsTotal - number of rows of table QAYPETIDX on the host
+     * @param lastTimestamp - last timestamp of table QAYPETIDX on the host
+     * @param maxNumRows - maximum number of entries to load
+     * @return cached entries or <code>null</code>, if the session is not
+     *         cached or if the cached entries are out of date
+     */
+    public List<JobTraceEntry> load(int numRowsTotal, Timestamp lastTimestamp, int maxNumRows) {
+
+        isOverflow = false;
+
+        File file = getCacheFile();
+        if (file == null || !file.exists()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        List<JobTraceEntry> jobTraceEntries = null;
+
+        try {
+
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+
+            if (!in.readUTF().equals(connectionName) || !in.readUTF().equals(libraryName) || !in.readUTF().equals(sessionID)) {
+                // Different session with the same file name.
+                return null;
+            }
+
+            if (in.readBoolean() != isIBMDataExcluded || !in.readUTF().equals(sqlWhereNoIBMData)) {
+                return null;
+            }
+
+            if (in.readInt() != numRowsTotal || !isEqual(readTimestamp(in), lastTimestamp)) {
+                return null;
+            }
+
+            boolean isCachedOverflow = in.readBoolean();
+            int numEntries = in.readInt();
+
+            if (isCachedOverflow && numEntries < maxNumRows) {
+                // Not enough rows cached.
+                return null;
+            }
+
+            int numStrings = in.readInt();
+            String[] strings = new String[numStrings];
+            for (int i = 0; i < numStrings; i++) {
+                strings[i] = in.readUTF();
+            }
+
+            int numEntriesToLoad = Math.min(numEntries, maxNumRows);
+            jobTraceEntries = new ArrayList<JobTraceEntry>(numEntriesToLoad);
+            for (int i = 0; i < numEntriesToLoad; i++) {
+                jobTraceEntries.add(readJobTraceEntry(in, strings));
+            }
+
+            isOverflow = isCachedOverflow || numEntriesToLoad < numEntries;
+
+        } catch (IOException e) {
+            ISphereJobTraceExplorerCorePlugin.logError("*** Could not load cached job trace session " + sessionID + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        } finally {
+            close(in);
+        }
+
+        // Mark the session as recently used.
+        file.setLastModified(System.currentTimeMillis());
+
+        return jobTraceEntries;
+    }
+
+    /**
+     * Returns <code>true</code>, when the entries returned by the last call
+     * of {@link #load(int, Timestamp, int)} have been limited by the maximum
+     * number of entries.
+     *
+     * @return <code>true</code>, when there are more entries available
+     */
+    public boolean isOverflow() {
+        return isOverflow;
+    }
+
+    /**
+     * Saves the job trace entries of the session. The entries are written to
+     * a temporary file first, which replaces the cache file when it has been
+     * written completely.
+     *
+     * @param numRowsTotal - number of rows of table QAYPETIDX on the host
+     * @param lastTimestamp - last timestamp of table QAYPETIDX on the host
+     * @param jobTraceEntries - job trace entries loaded from the host
+     * @param isOverflow - specifies whether the entries have been limited by
+     *        the maximum number of entries
+     */
+    public void save(int numRowsTotal, Timestamp lastTimestamp, List<JobTraceEntry> jobTraceEntries, boolean isOverflow) {
+
+        File file = getCacheFile();
+        if (file == null) {
+            return;
+        }
+
+        File tempFile = new File(file.getPath() + TEMP_FILE_EXTENSION);
+        DataOutputStream out = null;
+
+        try {
+
+            Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+            List<String> strings = new ArrayList<String>();
+            for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
+                addString(jobTraceEntry.getProgramName(), stringIndex, strings);
+                addString(jobTraceEntry.getProgramLibrary(), stringIndex, strings);
+                addString(jobTraceEntry.getModuleName(), stringIndex, strings);
+                addString(jobTraceEntry.getModuleLibrary(), stringIndex, strings);
+                addString(jobTraceEntry.getProcedureName(), stringIndex, strings);
+                addString(jobTraceEntry.getEventSubType(), stringIndex, strings);
+                addString(jobTraceEntry.getCallerProcedureName(), stringIndex, strings);
+            }
+
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(connectionName);
+            out.writeUTF(libraryName);
+            out.writeUTF(sessionID);
+            out.writeBoolean(isIBMDataExcluded);
+            out.writeUTF(sqlWhereNoIBMData);
+            out.writeInt(numRowsTotal);
+            writeTimestamp(out, lastTimestamp);
+            out.writeBoolean(isOverflow);
+            out.writeInt(jobTraceEntries.size());
+
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                out.writeUTF(string);
+            }
+
+            for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
+                writeJobTraceEntry(out, jobTraceEntry, stringIndex);
+            }
+
+            out.close();
+            out = null;
+
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Could not delete file: " + file.getPath()); //$NON-NLS-1$
+            }
+
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Could not rename file: " + tempFile.getPath()); //$NON-NLS-1$
+            }
+
+            removeLeastRecentlyUsedSessions();
+
+        } catch (IOException e) {
+            ISphereJobTraceExplorerCorePlugin.logError("*** Could not save cached job trace session " + sessionID + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            close(out);
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used sessions, when there are more sessions
+     * cached than allowed.
+     */
+    private void removeLeastRecentlyUsedSessions() {
+
+        File[] files = getCacheFiles();
+        if (files == null || files.length <= maxNumCachedSessions) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            public int compare(File file1, File file2) {
+                long lastModified1 = file1.lastModified();
+                long lastModified2 = file2.lastModified();
+                if (lastModified1 > lastModified2) {
+                    return -1;
+                } else if (lastModified1 < lastModified2) {
+                    return 1;
+                }
+                return 0;
+            }
+        });
+
+        for (int i = maxNumCachedSessions; i < files.length; i++) {
+            if (!files[i].delete()) {
+                ISphereJobTraceExplorerCorePlugin.logError("*** Could not remove cached job trace session " + files[i].getName() + " ***", null); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+    }
+
+    private void addString(String value, Map<String, Integer> stringIndex, List<String> strings) {
+
+        if (value == null || stringIndex.containsKey(value)) {
+            return;
+        }
+
+        stringIndex.put(value, new Integer(strings.size()));
+        strings.add(value);
+    }
+
+    private void writeJobTraceEntry(DataOutputStream out, JobTraceEntry jobTraceEntry, Map<String, Integer> stringIndex) throws IOException {
+
+        out.writeLong(jobTraceEntry.getNanosSinceStartedAsLong());
+        writeTimestamp(out, jobTraceEntry.getTimestamp());
+        writeString(out, jobTraceEntry.getProgramName(), stringIndex);
+        writeString(out, jobTraceEntry.getProgramLibrary(), stringIndex);
+        writeString(out, jobTraceEntry.getModuleName(), stringIndex);
+        writeString(out, jobTraceEntry.getModuleLibrary(), stringIndex);
+        out.writeInt(jobTraceEntry.getHLLStmtNbr());
+        writeString(out, jobTraceEntry.getProcedureName(), stringIndex);
+        out.writeInt(jobTraceEntry.getCallLevel());
+        writeString(out, jobTraceEntry.getEventSubType(), stringIndex);
+        out.writeInt(jobTraceEntry.getCallerHLLStmtNbr());
+        writeString(out, jobTraceEntry.getCallerProcedureName(), stringIndex);
+        out.writeInt(jobTraceEntry.getCallerCallLevel());
+    }
+
+    private JobTraceEntry readJobTraceEntry(DataInputStream in, String[] strings) throws IOException {
+
+        JobTraceEntry jobTraceEntry = new JobTraceEntry();
+
+        jobTraceEntry.setNanosSinceStarted(in.readLong());
+        jobTraceEntry.setTimestamp(readTimestamp(in));
+        jobTraceEntry.setProgramName(readString(in, strings));
+        jobTraceEntry.setProgramLibrary(readString(in, strings));
+        jobTraceEntry.setModuleName(readString(in, strings));
+        jobTraceEntry.setModuleLibrary(readString(in, strings));
+        jobTraceEntry.setHLLStmtNbr(in.readInt());
+        jobTraceEntry.setProcedureName(readString(in, strings));
+        jobTraceEntry.setCallLevel(in.readInt());
+        jobTraceEntry.setEventSubType(readString(in, strings));
+        jobTraceEntry.setCallerHLLStmtNbr(in.readInt());
+        jobTraceEntry.setCallerProcedureName(readString(in, strings));
+        jobTraceEntry.setCallerCallLevel(in.readInt());
+
+        return jobTraceEntry;
+    }
+
+    private void writeString(DataOutputStream out, String value, Map<String, Integer> stringIndex) throws IOException {
+
+        if (value == null) {
+            out.writeInt(NULL_VALUE);
+        } else {
+            out.writeInt(stringIndex.get(value).intValue());
+        }
+    }
+
+    private String readString(DataInputStream in, String[] strings) throws IOException {
+
+        int index = in.readInt();
+        if (index == NULL_VALUE) {
+            return null;
+        }
+
+        return strings[index];
+    }
+
+    private void writeTimestamp(DataOutputStream out, Timestamp timestamp) throws IOException {
+
+        if (timestamp == null) {
+            out.writeLong(Long.MIN_VALUE);
+            out.writeInt(NULL_VALUE);
+        } else {
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        }
+    }
+
+    private Timestamp readTimestamp(DataInputStream in) throws IOException {
+
+        long time = in.readLong();
+        int nanos = in.readInt();
+        if (nanos == NULL_VALUE) {
+            return null;
+        }
+
+        Timestamp timestamp = new Timestamp(time);
+        timestamp.setNanos(nanos);
+
+        return timestamp;
+    }
+
+    private boolean isEqual(Timestamp timestamp1, Timestamp timestamp2) {
+
+        if (timestamp1 == null) {
+            return timestamp2 == null;
+        }
+
+        return timestamp1.equals(timestamp2);
+    }
+
+    private File getCacheFile() {
+
+        if (maxNumCachedSessions <= 0) {
+            // Cache disabled.
+            return null;
+        }
+
+        String folder = getCacheFolder();
+        if (folder == null) {
+            return null;
+        }
+
+        return new File(folder + produceFileName() + FILE_EXTENSION);
+    }
+
+    private static File[] getCacheFiles() {
+
+        String folder = getCacheFolder();
+        if (folder == null) {
+            return null;
+        }
+
+        return new File(folder).listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(FILE_EXTENSION);
+            }
+        });
+    }
+
+    private static String getCacheFolder() {
+
+        if (ISphereJobTraceExplorerCorePlugin.getDefault() == null) {
+            // Executed, when started on a command line.
+            return null;
+        }
+
+        String folder = ISphereJobTraceExplorerCorePlugin.getDefault().getStateLocation().toFile().getAbsolutePath() + File.separator
+            + CACHE_LOCATION + File.separator;
+        FileHelper.ensureDirectory(folder);
+
+        return folder;
+    }
+
+    private String produceFileName() {
+
+        String fileName = connectionName + "_" + libraryName + "_" + sessionID; //$NON-NLS-1$ //$NON-NLS-2$
+        if (isIBMDataExcluded) {
+            fileName = fileName + "_NOIBM"; //$NON-NLS-1$
+        }
+
+        return fileName.replaceAll("[^A-Za-z0-9_.-]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private String nullSave(String value) {
+
+        if (value == null) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return value;
+    }
+
+    private void close(DataInputStream in) {
+
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    private void close(DataOutputStream out) {
+
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model.statistics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node of the call path tree of a job trace session. A node aggregates all
+ * calls of a procedure, that have been made along the same path of callers.
+ * The root node does not have a procedure.
+ */
+public class CallPathNode {
+
+    private CallPathNode parent;
+    private ProcedureStatistic procedure;
+    private Map<ProcedureStatistic, CallPathNode> children;
+
+    private int numCalls;
+    private long inclusiveNanos;
+    private long exclusiveNanos;
+
+    CallPathNode(CallPathNode parent, ProcedureStatistic procedure) {
+
+        this.parent = parent;
+        this.procedure = procedure;
+        this.children = new LinkedHashMap<ProcedureStatistic, CallPathNode>();
+    }
+
+    public CallPathNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the procedure of this node.
+     *
+     * @return procedure or <code>null</code> for the root node
+     */
+    public ProcedureStatistic getProcedure() {
+        return procedure;
+    }
+
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+
+    public List<CallPathNode> getChildren() {
+        return new ArrayList<CallPathNode>(children.values());
+    }
+
+    public int getNumCalls() {
+        return numCalls;
+    }
+
+    public long getInclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    public long getExclusiveNanos() {
+        return exclusiveNanos;
+    }
+
+    CallPathNode getChild(ProcedureStatistic procedure) {
+
+        CallPathNode child = children.get(procedure);
+        if (child == null) {
+            child = new CallPathNode(this, procedure);
+            children.put(procedure, child);
+        }
+
+        return child;
+    }
+
+    void enter() {
+        numCalls++;
+    }
+
+    void exit(long inclusiveNanos, long exclusiveNanos) {
+        this.inclusiveNanos += inclusiveNanos;
+        this.exclusiveNanos += exclusiveNanos;
+    }
+
+    @Override
+    public String toString() {
+
+        if (procedure == null) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return procedure.toString();
+    }
+}
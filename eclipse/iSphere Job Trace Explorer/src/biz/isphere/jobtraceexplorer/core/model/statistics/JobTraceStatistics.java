@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model.statistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+
+/**
+ * Statistics of the procedures of a job trace session. The statistics are
+ * computed in a single pass over the job trace entries. The procedure
+ * <b>ENTRY</b> and <b>EXIT</b> entries are paired by their call level with
+ * the help of a stack of the active procedures. The times are computed from
+ * the nanoseconds since the collection has been started.
+ * <p>
+ * Missing procedure exits, e.g. due to a limited number of job trace entries,
+ * are assumed at the time of the next entry of the same or a lower call level
+ * or at the time of the last entry. Procedure exits without a procedure entry
+ * are ignored.
+ */
+public class JobTraceStatistics {
+
+    private static final int MONITOR_INTERVAL = 10000;
+    private static final char SEPARATOR = '\u0000';
+
+    private Map<String, ProcedureStatistic> programs;
+    private Map<String, ProcedureStatistic> modules;
+    private Map<String, ProcedureStatistic> procedures;
+    private CallPathNode callPathRoot;
+
+    private int numEntries;
+    private long totalNanos;
+
+    private JobTraceStatistics() {
+
+        this.programs = new HashMap<String, ProcedureStatistic>();
+        this.modules = new HashMap<String, ProcedureStatistic>();
+        this.procedures = new HashMap<String, ProcedureStatistic>();
+        this.callPathRoot = new CallPathNode(null, null);
+    }
+
+    /**
+     * Computes the statistics of a given list of job trace entries.
+     *
+     * @param jobTraceEntries - job trace entries in the order they have been
+     *        recorded
+     * @param monitor - progress monitor
+     * @return statistics or <code>null</code>, if canceled by the user
+     */
+    public static JobTraceStatistics compute(List<JobTraceEntry> jobTraceEntries, IProgressMonitor monitor) {
+
+        JobTraceStatistics statistics = new JobTraceStatistics();
+
+        monitor.beginTask("", jobTraceEntries.size()); //$NON-NLS-1$
+
+        try {
+
+            List<Frame> callStack = new ArrayList<Frame>();
+
+            long firstNanos = 0;
+            long lastNanos = 0;
+            int count = 0;
+
+            for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
+
+                long nanos = jobTraceEntry.getNanosSinceStartedAsLong();
+                int callLevel = jobTraceEntry.getCallLevel();
+
+                if (count == 0) {
+                    firstNanos = nanos;
+                }
+
+                if (jobTraceEntry.isProcEntry()) {
+                    statistics.exitProcedures(callStack, callLevel, nanos);
+                    statistics.enterProcedure(callStack, jobTraceEntry, nanos);
+                } else if (jobTraceEntry.isProcExit()) {
+                    statistics.exitProcedures(callStack, callLevel + 1, nanos);
+                    if (!callStack.isEmpty() && getTop(callStack).callLevel == callLevel) {
+                        statistics.exitProcedure(callStack, nanos);
+                    }
+                }
+
+                lastNanos = nanos;
+                count++;
+
+                if (count % MONITOR_INTERVAL == 0) {
+                    if (monitor.isCanceled()) {
+                        return null;
+                    }
+                    monitor.worked(MONITOR_INTERVAL);
+                }
+            }
+
+            statistics.exitProcedures(callStack, Integer.MIN_VALUE, lastNanos);
+
+            statistics.numEntries = count;
+            statistics.totalNanos = Math.max(0, lastNanos - firstNanos);
+
+        } finally {
+            monitor.done();
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of a given level, e.g. of the procedures.
+     *
+     * @param level - statistics level
+     * @return list of statistics
+     */
+    public List<ProcedureStatistic> getStatistics(StatisticsLevel level) {
+
+        if (level == StatisticsLevel.PROGRAM) {
+            return new ArrayList<ProcedureStatistic>(programs.values());
+        } else if (level == StatisticsLevel.MODULE) {
+            return new ArrayList<ProcedureStatistic>(modules.values());
+        } else {
+            return new ArrayList<ProcedureStatistic>(procedures.values());
+        }
+    }
+
+    /**
+     * Returns the root node of the call path tree. The children of the root
+     * node are the procedures, that have been called first.
+     *
+     * @return root node of the call path tree
+     */
+    public CallPathNode getCallPathRoot() {
+        return callPathRoot;
+    }
+
+    /**
+     * Returns the number of job trace entries that have been processed.
+     *
+     * @return number of job trace entries
+     */
+    public int getNumEntries() {
+        return numEntries;
+    }
+
+    /**
+     * Returns the time between the first and the last job trace entry.
+     *
+     * @return total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    private void enterProcedure(List<Frame> callStack, JobTraceEntry jobTraceEntry, long nanos) {
+
+        ProcedureStatistic program = getStatistic(programs, StatisticsLevel.PROGRAM, jobTraceEntry);
+        ProcedureStatistic module = getStatistic(modules, StatisticsLevel.MODULE, jobTraceEntry);
+        ProcedureStatistic procedure = getStatistic(procedures, StatisticsLevel.PROCEDURE, jobTraceEntry);
+
+        CallPathNode parentNode;
+        if (callStack.isEmpty()) {
+            parentNode = callPathRoot;
+        } else {
+            parentNode = getTop(callStack).callPathNode;
+        }
+
+        CallPathNode callPathNode = parentNode.getChild(procedure);
+
+        program.enter();
+        module.enter();
+        procedure.enter();
+        callPathNode.enter();
+
+        callStack.add(new Frame(jobTraceEntry.getCallLevel(), nanos, program, module, procedure, callPathNode));
+    }
+
+    private void exitProcedures(List<Frame> callStack, int callLevel, long nanos) {
+
+        while (!callStack.isEmpty() && getTop(callStack).callLevel >= callLevel) {
+            exitProcedure(callStack, nanos);
+        }
+    }
+
+    private void exitProcedure(List<Frame> callStack, long nanos) {
+
+        Frame frame = callStack.remove(callStack.size() - 1);
+
+        long inclusiveNanos = Math.max(0, nanos - frame.startNanos);
+        long exclusiveNanos = Math.max(0, inclusiveNanos - frame.childNanos);
+
+        frame.program.exit(inclusiveNanos, exclusiveNanos);
+        frame.module.exit(inclusiveNanos, exclusiveNanos);
+        frame.procedure.exit(inclusiveNanos, exclusiveNanos);
+        frame.callPathNode.exit(inclusiveNanos, exclusiveNanos);
+
+        if (!callStack.isEmpty()) {
+            getTop(callStack).childNanos += inclusiveNanos;
+        }
+    }
+
+    private ProcedureStatistic getStatistic(Map<String, ProcedureStatistic> statistics, StatisticsLevel level, JobTraceEntry jobTraceEntry) {
+
+        StringBuilder key = new StringBuilder();
+        key.append(jobTraceEntry.getProgramLibrary());
+        key.append(SEPARATOR);
+        key.append(jobTraceEntry.getProgramName());
+
+        if (level != StatisticsLevel.PROGRAM) {
+            key.append(SEPARATOR);
+            key.append(jobTraceEntry.getModuleLibrary());
+            key.append(SEPARATOR);
+            key.append(jobTraceEntry.getModuleName());
+        }
+
+        if (level == StatisticsLevel.PROCEDURE) {
+            key.append(SEPARATOR);
+            key.append(jobTraceEntry.getProcedureName());
+        }
+
+        ProcedureStatistic statistic = statistics.get(key.toString());
+        if (statistic == null) {
+            if (level == StatisticsLevel.PROGRAM) {
+                statistic = new ProcedureStatistic(level, jobTraceEntry.getProgramLibrary(), jobTraceEntry.getProgramName(), null, null, null);
+            } else if (level == StatisticsLevel.MODULE) {
+                statistic = new ProcedureStatistic(level, jobTraceEntry.getProgramLibrary(), jobTraceEntry.getProgramName(),
+                    jobTraceEntry.getModuleLibrary(), jobTraceEntry.getModuleName(), null);
+            } else {
+                statistic = new ProcedureStatistic(level, jobTraceEntry.getProgramLibrary(), jobTraceEntry.getProgramName(),
+                    jobTraceEntry.getModuleLibrary(), jobTraceEntry.getModuleName(), jobTraceEntry.getProcedureName());
+            }
+            statistics.put(key.toString(), statistic);
+        }
+
+        return statistic;
+    }
+
+    private static Frame getTop(List<Frame> callStack) {
+        return callStack.get(callStack.size() - 1);
+    }
+
+    /**
+     * Procedure on the call stack.
+     */
+    private static class Frame {
+
+        private int callLevel;
+        private long startNanos;
+        private long childNanos;
+
+        private ProcedureStatistic program;
+        private ProcedureStatistic module;
+        private ProcedureStatistic procedure;
+        private CallPathNode callPathNode;
+
+        public Frame(int callLevel, long startNanos, ProcedureStatistic program, ProcedureStatistic module, ProcedureStatistic procedure,
+            CallPathNode callPathNode) {
+
+            this.callLevel = callLevel;
+            this.startNanos = startNanos;
+            this.childNanos = 0;
+            this.program = program;
+            this.module = module;
+            this.procedure = procedure;
+            this.callPathNode = callPathNode;
+        }
+    }
+}
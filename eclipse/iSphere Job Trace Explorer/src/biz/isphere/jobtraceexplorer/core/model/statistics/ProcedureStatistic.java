@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model.statistics;
+
+/**
+ * Aggregated times of a program, module or procedure of a job trace session.
+ * <p>
+ * The inclusive time is the time from the procedure entry to the procedure
+ * exit, including the time spent in called procedures. It is only counted for
+ * the outermost activation, when a procedure is called recursively, or when a
+ * procedure calls another procedure of the same program or module. The
+ * exclusive time is the time spent in the procedure itself.
+ * <p>
+ * The calls of a procedure are counted on each procedure entry. The calls of
+ * a program or module are counted only, when the program or module is entered
+ * from outside, so that calls between the procedures of the same program or
+ * module are not counted.
+ */
+public class ProcedureStatistic {
+
+    private StatisticsLevel level;
+    private String programLibrary;
+    private String programName;
+    private String moduleLibrary;
+    private String moduleName;
+    private String procedureName;
+
+    private int numCalls;
+    private long inclusiveNanos;
+    private long exclusiveNanos;
+
+    private transient int numActivations;
+
+    ProcedureStatistic(StatisticsLevel level, String programLibrary, String programName, String moduleLibrary, String moduleName,
+        String procedureName) {
+
+        this.level = level;
+        this.programLibrary = programLibrary;
+        this.programName = programName;
+        this.moduleLibrary = moduleLibrary;
+        this.moduleName = moduleName;
+        this.procedureName = procedureName;
+    }
+
+    public StatisticsLevel getLevel() {
+        return level;
+    }
+
+    public String getProgramLibrary() {
+        return programLibrary;
+    }
+
+    public String getProgramName() {
+        return programName;
+    }
+
+    public String getModuleLibrary() {
+        return moduleLibrary;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public String getProcedureName() {
+        return procedureName;
+    }
+
+    /**
+     * Returns the number of calls of the program, module or procedure.
+     *
+     * @return number of calls
+     */
+    public int getNumCalls() {
+        return numCalls;
+    }
+
+    /**
+     * Returns the time spent in the procedure, including the called
+     * procedures.
+     *
+     * @return inclusive time in nanoseconds
+     */
+    public long getInclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    /**
+     * Returns the time spent in the procedure, excluding the called
+     * procedures.
+     *
+     * @return exclusive time in nanoseconds
+     */
+    public long getExclusiveNanos() {
+        return exclusiveNanos;
+    }
+
+    void enter() {
+
+        if (level == StatisticsLevel.PROCEDURE || numActivations == 0) {
+            numCalls++;
+        }
+
+        numActivations++;
+    }
+
+    void exit(long inclusiveNanos, long exclusiveNanos) {
+
+        this.exclusiveNanos += exclusiveNanos;
+
+        numActivations--;
+        if (numActivations == 0) {
+            this.inclusiveNanos += inclusiveNanos;
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder buffer = new StringBuilder();
+
+        buffer.append(programLibrary);
+        buffer.append("/"); //$NON-NLS-1$
+        buffer.append(programName);
+
+        if (level != StatisticsLevel.PROGRAM) {
+            buffer.append(" "); //$NON-NLS-1$
+            buffer.append(moduleLibrary);
+            buffer.append("/"); //$NON-NLS-1$
+            buffer.append(moduleName);
+        }
+
+        if (level == StatisticsLevel.PROCEDURE) {
+            buffer.append(" "); //$NON-NLS-1$
+            buffer.append(procedureName);
+        }
+
+        return buffer.toString();
+    }
+}
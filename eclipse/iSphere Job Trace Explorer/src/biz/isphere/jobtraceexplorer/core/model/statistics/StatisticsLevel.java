@@ -0,0 +1,19 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.model.statistics;
+
+/**
+ * Level, at which the times of the procedures of a job trace session are
+ * aggregated.
+ */
+public enum StatisticsLevel {
+    PROGRAM,
+    MODULE,
+    PROCEDURE;
+}
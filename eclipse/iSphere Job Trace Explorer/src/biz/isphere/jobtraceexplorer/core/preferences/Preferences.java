@@ -56,6 +56,8 @@ public final class Preferences {
 
     public static final String MAX_NUM_ROWS_TO_FETCH = LIMITATIONS + "MAX_NUM_ROWS_TO_FETCH"; //$NON-NLS-1$
 
+    public static final String MAX_NUM_CACHED_SESSIONS = LIMITATIONS + "MAX_NUM_CACHED_SESSIONS"; //$NON-NLS-1$
+
     public static final String EXPORT_JOURNAL_ENTRIES = DOMAIN + "EXPORT_JOB_TRACE_ENTRIES."; //$NON-NLS-1$
 
     public static final String EXPORT_PATH = DOMAIN + "EXPORT_PATH"; //$NON-NLS-1$
@@ -112,6 +114,10 @@ public final class Preferences {
         return maxNumRows;
     }
 
+    public int getMaximumNumberOfCachedSessions() {
+        return preferenceStore.getInt(MAX_NUM_CACHED_SESSIONS);
+    }
+
     public String getExportPath() {
         return preferenceStore.getString(EXPORT_PATH);
     }
@@ -136,6 +142,10 @@ public final class Preferences {
         preferenceStore.setValue(MAX_NUM_ROWS_TO_FETCH, maxNumRows);
     }
 
+    public void setMaximumNumberOfCachedSessions(int maxNumSessions) {
+        preferenceStore.setValue(MAX_NUM_CACHED_SESSIONS, maxNumSessions);
+    }
+
     public void setExportPath(String exportPath) {
         preferenceStore.setValue(EXPORT_PATH, exportPath);
     }
@@ -163,6 +173,7 @@ public final class Preferences {
     public void initializeDefaultPreferences() {
 
         preferenceStore.setDefault(MAX_NUM_ROWS_TO_FETCH, getInitialMaximumNumberOfRowsToFetch());
+        preferenceStore.setDefault(MAX_NUM_CACHED_SESSIONS, getInitialMaximumNumberOfCachedSessions());
 
         preferenceStore.setDefault(EXPORT_PATH, getInitialExportPath());
         preferenceStore.setDefault(EXPORT_FILE_JSON, getInitialExportFileJson());
@@ -182,6 +193,10 @@ public final class Preferences {
         return 5000;
     }
 
+    public int getInitialMaximumNumberOfCachedSessions() {
+        return 10;
+    }
+
     public String getInitialExportPath() {
         return FileHelper.getDefaultRootDirectory();
     }
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.ui.actions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.action.Action;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.progress.UIJob;
+
+import biz.isphere.jobtraceexplorer.core.Messages;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceSession;
+import biz.isphere.jobtraceexplorer.core.model.statistics.JobTraceStatistics;
+import biz.isphere.jobtraceexplorer.core.ui.dialogs.ProcedureStatisticsDialog;
+
+/**
+ * Computes the procedure statistics of the job trace entries of a session in
+ * the background and displays them in the procedure statistics dialog.
+ */
+public class ProcedureStatisticsAction extends Action {
+
+    private Shell shell;
+    private JobTraceSession selectedItems;
+
+    public ProcedureStatisticsAction(Shell shell) {
+        super(Messages.MenuItem_Procedure_statistics);
+
+        this.shell = shell;
+    }
+
+    public void setSelectedItems(JobTraceSession selectedItems) {
+        this.selectedItems = selectedItems;
+    }
+
+    @Override
+    public void run() {
+        performComputeStatistics();
+    }
+
+    private void performComputeStatistics() {
+
+        if (selectedItems == null) {
+            return;
+        }
+
+        final List<JobTraceEntry> jobTraceEntries = new ArrayList<JobTraceEntry>(selectedItems.getJobTraceEntries().getItems());
+
+        Job computeJob = new Job(Messages.Status_Computing_procedure_statistics) {
+
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+
+                final JobTraceStatistics statistics = JobTraceStatistics.compute(jobTraceEntries, monitor);
+                if (statistics == null) {
+                    return Status.CANCEL_STATUS;
+                }
+
+                UIJob displayResultJob = new UIJob(Messages.MessageDialog_Procedure_Statistics_Title) {
+                    @Override
+                    public IStatus runInUIThread(IProgressMonitor monitor) {
+                        if (!shell.isDisposed()) {
+                            ProcedureStatisticsDialog dialog = new ProcedureStatisticsDialog(shell, statistics);
+                            dialog.open();
+                        }
+                        return Status.OK_STATUS;
+                    }
+                };
+
+                displayResultJob.schedule();
+
+                return Status.OK_STATUS;
+            }
+        };
+
+        computeJob.setUser(true);
+        computeJob.schedule();
+    }
+}
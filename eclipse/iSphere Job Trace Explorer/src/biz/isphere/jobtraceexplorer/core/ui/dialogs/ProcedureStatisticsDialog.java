@@ -0,0 +1,523 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.ui.dialogs;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerSorter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TabFolder;
+import org.eclipse.swt.widgets.TabItem;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeColumn;
+
+import biz.isphere.base.jface.dialogs.XDialog;
+import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
+import biz.isphere.jobtraceexplorer.core.Messages;
+import biz.isphere.jobtraceexplorer.core.model.statistics.CallPathNode;
+import biz.isphere.jobtraceexplorer.core.model.statistics.JobTraceStatistics;
+import biz.isphere.jobtraceexplorer.core.model.statistics.ProcedureStatistic;
+import biz.isphere.jobtraceexplorer.core.model.statistics.StatisticsLevel;
+
+/**
+ * Dialog, that displays the procedure statistics of a job trace session. The
+ * hot spots are displayed in a table, that can be sorted by clicking the
+ * column headers. The call paths are displayed in a tree.
+ */
+public class ProcedureStatisticsDialog extends XDialog {
+
+    private static final String STATISTICS_LEVEL = "STATISTICS_LEVEL"; //$NON-NLS-1$
+
+    private static final int COLUMN_PROGRAM_LIBRARY = 0;
+    private static final int COLUMN_PROGRAM_NAME = 1;
+    private static final int COLUMN_MODULE_LIBRARY = 2;
+    private static final int COLUMN_MODULE_NAME = 3;
+    private static final int COLUMN_PROCEDURE_NAME = 4;
+    private static final int COLUMN_CALLS = 5;
+    private static final int COLUMN_INCLUSIVE_TIME = 6;
+    private static final int COLUMN_INCLUSIVE_PERCENT = 7;
+    private static final int COLUMN_EXCLUSIVE_TIME = 8;
+    private static final int COLUMN_EXCLUSIVE_PERCENT = 9;
+
+    private static final int TREE_COLUMN_PROCEDURE = 0;
+    private static final int TREE_COLUMN_CALLS = 1;
+    private static final int TREE_COLUMN_INCLUSIVE_TIME = 2;
+    private static final int TREE_COLUMN_INCLUSIVE_PERCENT = 3;
+    private static final int TREE_COLUMN_EXCLUSIVE_TIME = 4;
+    private static final int TREE_COLUMN_EXCLUSIVE_PERCENT = 5;
+
+    private static final StatisticsLevel[] LEVELS = new StatisticsLevel[] { StatisticsLevel.PROGRAM, StatisticsLevel.MODULE,
+        StatisticsLevel.PROCEDURE };
+
+    private JobTraceStatistics statistics;
+    private DecimalFormat timeFormatter;
+    private DecimalFormat percentFormatter;
+
+    private Combo cboStatisticsLevel;
+    private TableViewer hotSpotsViewer;
+    private HotSpotsSorter hotSpotsSorter;
+    private TreeViewer callPathsViewer;
+
+    public ProcedureStatisticsDialog(Shell shell, JobTraceStatistics statistics) {
+        super(shell);
+
+        this.statistics = statistics;
+        this.timeFormatter = new DecimalFormat("#,##0.000"); //$NON-NLS-1$
+        this.percentFormatter = new DecimalFormat("0.0"); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void configureShell(Shell newShell) {
+        super.configureShell(newShell);
+        newShell.setText(Messages.MessageDialog_Procedure_Statistics_Title);
+    }
+
+    @Override
+    protected Control createDialogArea(Composite parent) {
+
+        Composite container = (Composite)super.createDialogArea(parent);
+        container.setLayout(new GridLayout(1, false));
+
+        Label labelTotalTime = new Label(container, SWT.NONE);
+        labelTotalTime.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        labelTotalTime.setText(Messages.bind(Messages.ProcedureStatisticsDialog_Total_time_A_entries_B, formatTime(statistics.getTotalNanos()),
+            statistics.getNumEntries()));
+
+        TabFolder tabFolder = new TabFolder(container, SWT.NONE);
+        tabFolder.setLayoutData(new GridData(GridData.FILL_BOTH));
+
+        TabItem tabHotSpots = new TabItem(tabFolder, SWT.NONE);
+        tabHotSpots.setText(Messages.ProcedureStatisticsDialog_Hot_spots);
+        tabHotSpots.setControl(createHotSpotsArea(tabFolder));
+
+        TabItem tabCallPaths = new TabItem(tabFolder, SWT.NONE);
+        tabCallPaths.setText(Messages.ProcedureStatisticsDialog_Call_paths);
+        tabCallPaths.setControl(createCallPathsArea(tabFolder));
+
+        loadValues();
+
+        return container;
+    }
+
+    private Composite createHotSpotsArea(Composite parent) {
+
+        Composite hotSpotsArea = new Composite(parent, SWT.NONE);
+        hotSpotsArea.setLayout(new GridLayout(2, false));
+
+        new Label(hotSpotsArea, SWT.NONE).setText(Messages.ProcedureStatisticsDialog_Aggregate_by);
+
+        cboStatisticsLevel = new Combo(hotSpotsArea, SWT.READ_ONLY);
+        cboStatisticsLevel.setItems(new String[] { Messages.ProcedureStatisticsDialog_Program, Messages.ProcedureStatisticsDialog_Module,
+            Messages.ProcedureStatisticsDialog_Procedure });
+        cboStatisticsLevel.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                setHotSpotsInput();
+            }
+        });
+
+        hotSpotsViewer = new TableViewer(hotSpotsArea, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+        Table table = hotSpotsViewer.getTable();
+        table.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true, 2, 1));
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+
+        createTableColumn(table, Messages.LongFieldName_Program_library, 90, SWT.LEFT);
+        createTableColumn(table, Messages.LongFieldName_Program_name, 90, SWT.LEFT);
+        createTableColumn(table, Messages.LongFieldName_Module_library, 90, SWT.LEFT);
+        createTableColumn(table, Messages.LongFieldName_Module_name, 90, SWT.LEFT);
+        createTableColumn(table, Messages.LongFieldName_Procedure_name, 160, SWT.LEFT);
+        createTableColumn(table, Messages.ProcedureStatisticsDialog_Calls, 70, SWT.RIGHT);
+        createTableColumn(table, Messages.ProcedureStatisticsDialog_Inclusive_time, 100, SWT.RIGHT);
+        createTableColumn(table, Messages.ProcedureStatisticsDialog_Inclusive_percent, 80, SWT.RIGHT);
+        createTableColumn(table, Messages.ProcedureStatisticsDialog_Exclusive_time, 100, SWT.RIGHT);
+        createTableColumn(table, Messages.ProcedureStatisticsDialog_Exclusive_percent, 80, SWT.RIGHT);
+
+        hotSpotsViewer.setContentProvider(new ArrayContentProvider());
+        hotSpotsViewer.setLabelProvider(new HotSpotsLabelProvider());
+
+        hotSpotsSorter = new HotSpotsSorter();
+        hotSpotsViewer.setSorter(hotSpotsSorter);
+        hotSpotsSorter.setSortColumn(table.getColumn(COLUMN_EXCLUSIVE_TIME), SWT.DOWN);
+
+        return hotSpotsArea;
+    }
+
+    private Composite createCallPathsArea(Composite parent) {
+
+        Composite callPathsArea = new Composite(parent, SWT.NONE);
+        callPathsArea.setLayout(new GridLayout(1, false));
+
+        callPathsViewer = new TreeViewer(callPathsArea, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+        Tree tree = callPathsViewer.getTree();
+        tree.setLayoutData(new GridData(GridData.FILL_BOTH));
+        tree.setHeaderVisible(true);
+        tree.setLinesVisible(true);
+
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Procedure, 400, SWT.LEFT);
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Calls, 70, SWT.RIGHT);
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Inclusive_time, 100, SWT.RIGHT);
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Inclusive_percent, 80, SWT.RIGHT);
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Exclusive_time, 100, SWT.RIGHT);
+        createTreeColumn(tree, Messages.ProcedureStatisticsDialog_Exclusive_percent, 80, SWT.RIGHT);
+
+        callPathsViewer.setContentProvider(new CallPathsContentProvider());
+        callPathsViewer.setLabelProvider(new CallPathsLabelProvider());
+        callPathsViewer.setSorter(new CallPathsSorter());
+        callPathsViewer.setInput(statistics.getCallPathRoot());
+
+        return callPathsArea;
+    }
+
+    private TableColumn createTableColumn(Table table, String text, int width, int alignment) {
+
+        final TableColumn column = new TableColumn(table, alignment);
+        column.setText(text);
+        column.setWidth(width);
+        column.setMoveable(true);
+        column.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                hotSpotsSorter.setSortColumn(column);
+                hotSpotsViewer.refresh();
+            }
+        });
+
+        return column;
+    }
+
+    private TreeColumn createTreeColumn(Tree tree, String text, int width, int alignment) {
+
+        TreeColumn column = new TreeColumn(tree, alignment);
+        column.setText(text);
+        column.setWidth(width);
+
+        return column;
+    }
+
+    private void setHotSpotsInput() {
+
+        int index = cboStatisticsLevel.getSelectionIndex();
+        if (index < 0) {
+            return;
+        }
+
+        hotSpotsViewer.setInput(statistics.getStatistics(LEVELS[index]));
+    }
+
+    private void loadValues() {
+
+        String level = loadValue(STATISTICS_LEVEL, StatisticsLevel.PROCEDURE.name());
+
+        int index = LEVELS.length - 1;
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].name().equals(level)) {
+                index = i;
+            }
+        }
+
+        cboStatisticsLevel.select(index);
+        setHotSpotsInput();
+    }
+
+    private void storeValues() {
+
+        int index = cboStatisticsLevel.getSelectionIndex();
+        if (index >= 0) {
+            storeValue(STATISTICS_LEVEL, LEVELS[index].name());
+        }
+    }
+
+    @Override
+    public boolean close() {
+        storeValues();
+        return super.close();
+    }
+
+    @Override
+    protected void createButtonsForButtonBar(Composite parent) {
+        createButton(parent, IDialogConstants.OK_ID, IDialogConstants.CLOSE_LABEL, true);
+    }
+
+    private String formatTime(long nanos) {
+        return timeFormatter.format(nanos / 1000000.0);
+    }
+
+    private String formatPercent(long nanos) {
+
+        long totalNanos = statistics.getTotalNanos();
+        if (totalNanos <= 0) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return percentFormatter.format(nanos * 100.0 / totalNanos);
+    }
+
+    private String notNull(String value) {
+
+        if (value == null) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return value;
+    }
+
+    /**
+     * Overridden make this dialog resizable {@link XDialog}.
+     */
+    @Override
+    protected boolean isResizable() {
+        return true;
+    }
+
+    /**
+     * Overridden to provide a default size to {@link XDialog}.
+     */
+    @Override
+    protected Point getDefaultSize() {
+        return new Point(1000, 600);
+    }
+
+    /**
+     * Overridden to let {@link XDialog} store the state of this dialog in a
+     * separate section of the dialog settings file.
+     */
+    @Override
+    protected IDialogSettings getDialogBoundsSettings() {
+        return super.getDialogBoundsSettings(ISphereJobTraceExplorerCorePlugin.getDefault().getDialogSettings());
+    }
+
+    private class HotSpotsLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+        public Image getColumnImage(Object element, int columnIndex) {
+            return null;
+        }
+
+        public String getColumnText(Object element, int columnIndex) {
+
+            ProcedureStatistic statistic = (ProcedureStatistic)element;
+
+            switch (columnIndex) {
+            case COLUMN_PROGRAM_LIBRARY:
+                return notNull(statistic.getProgramLibrary());
+            case COLUMN_PROGRAM_NAME:
+                return notNull(statistic.getProgramName());
+            case COLUMN_MODULE_LIBRARY:
+                return notNull(statistic.getModuleLibrary());
+            case COLUMN_MODULE_NAME:
+                return notNull(statistic.getModuleName());
+            case COLUMN_PROCEDURE_NAME:
+                return notNull(statistic.getProcedureName());
+            case COLUMN_CALLS:
+                return Integer.toString(statistic.getNumCalls());
+            case COLUMN_INCLUSIVE_TIME:
+                return formatTime(statistic.getInclusiveNanos());
+            case COLUMN_INCLUSIVE_PERCENT:
+                return formatPercent(statistic.getInclusiveNanos());
+            case COLUMN_EXCLUSIVE_TIME:
+                return formatTime(statistic.getExclusiveNanos());
+            case COLUMN_EXCLUSIVE_PERCENT:
+                return formatPercent(statistic.getExclusiveNanos());
+            default:
+                return ""; //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Sorts the hot spots by the selected column. Clicking the same column
+     * again reverses the sort order.
+     */
+    private class HotSpotsSorter extends ViewerSorter {
+
+        private int columnIndex;
+        private int direction;
+
+        public void setSortColumn(TableColumn column) {
+
+            Table table = column.getParent();
+            if (column == table.getSortColumn() && table.getSortDirection() == SWT.DOWN) {
+                setSortColumn(column, SWT.UP);
+            } else if (column == table.getSortColumn()) {
+                setSortColumn(column, SWT.DOWN);
+            } else if (table.indexOf(column) >= COLUMN_CALLS) {
+                setSortColumn(column, SWT.DOWN);
+            } else {
+                setSortColumn(column, SWT.UP);
+            }
+        }
+
+        public void setSortColumn(TableColumn column, int direction) {
+
+            Table table = column.getParent();
+            table.setSortColumn(column);
+            table.setSortDirection(direction);
+
+            this.columnIndex = table.indexOf(column);
+            this.direction = direction;
+        }
+
+        @Override
+        public int compare(Viewer viewer, Object e1, Object e2) {
+
+            ProcedureStatistic statistic1 = (ProcedureStatistic)e1;
+            ProcedureStatistic statistic2 = (ProcedureStatistic)e2;
+
+            int result;
+            switch (columnIndex) {
+            case COLUMN_PROGRAM_LIBRARY:
+                result = compare(statistic1.getProgramLibrary(), statistic2.getProgramLibrary());
+                break;
+            case COLUMN_PROGRAM_NAME:
+                result = compare(statistic1.getProgramName(), statistic2.getProgramName());
+                break;
+            case COLUMN_MODULE_LIBRARY:
+                result = compare(statistic1.getModuleLibrary(), statistic2.getModuleLibrary());
+                break;
+            case COLUMN_MODULE_NAME:
+                result = compare(statistic1.getModuleName(), statistic2.getModuleName());
+                break;
+            case COLUMN_PROCEDURE_NAME:
+                result = compare(statistic1.getProcedureName(), statistic2.getProcedureName());
+                break;
+            case COLUMN_CALLS:
+                result = compare(statistic1.getNumCalls(), statistic2.getNumCalls());
+                break;
+            case COLUMN_INCLUSIVE_TIME:
+            case COLUMN_INCLUSIVE_PERCENT:
+                result = compare(statistic1.getInclusiveNanos(), statistic2.getInclusiveNanos());
+                break;
+            default:
+                result = compare(statistic1.getExclusiveNanos(), statistic2.getExclusiveNanos());
+                break;
+            }
+
+            if (direction == SWT.DOWN) {
+                return -result;
+            }
+
+            return result;
+        }
+
+        private int compare(String value1, String value2) {
+            return notNull(value1).compareTo(notNull(value2));
+        }
+
+        private int compare(long value1, long value2) {
+
+            if (value1 < value2) {
+                return -1;
+            } else if (value1 > value2) {
+                return 1;
+            }
+
+            return 0;
+        }
+    }
+
+    private class CallPathsContentProvider implements ITreeContentProvider {
+
+        public Object[] getElements(Object inputElement) {
+            return getChildren(inputElement);
+        }
+
+        public Object[] getChildren(Object parentElement) {
+            List<CallPathNode> children = ((CallPathNode)parentElement).getChildren();
+            return children.toArray(new CallPathNode[children.size()]);
+        }
+
+        public Object getParent(Object element) {
+            return ((CallPathNode)element).getParent();
+        }
+
+        public boolean hasChildren(Object element) {
+            return ((CallPathNode)element).hasChildren();
+        }
+
+        public void dispose() {
+        }
+
+        public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+        }
+    }
+
+    private class CallPathsLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+        public Image getColumnImage(Object element, int columnIndex) {
+            return null;
+        }
+
+        public String getColumnText(Object element, int columnIndex) {
+
+            CallPathNode node = (CallPathNode)element;
+
+            switch (columnIndex) {
+            case TREE_COLUMN_PROCEDURE:
+                return node.toString();
+            case TREE_COLUMN_CALLS:
+                return Integer.toString(node.getNumCalls());
+            case TREE_COLUMN_INCLUSIVE_TIME:
+                return formatTime(node.getInclusiveNanos());
+            case TREE_COLUMN_INCLUSIVE_PERCENT:
+                return formatPercent(node.getInclusiveNanos());
+            case TREE_COLUMN_EXCLUSIVE_TIME:
+                return formatTime(node.getExclusiveNanos());
+            case TREE_COLUMN_EXCLUSIVE_PERCENT:
+                return formatPercent(node.getExclusiveNanos());
+            default:
+                return ""; //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Sorts the callees of a procedure by their inclusive time, starting with
+     * the most expensive callee.
+     */
+    private class CallPathsSorter extends ViewerSorter {
+
+        @Override
+        public int compare(Viewer viewer, Object e1, Object e2) {
+
+            long nanos1 = ((CallPathNode)e1).getInclusiveNanos();
+            long nanos2 = ((CallPathNode)e2).getInclusiveNanos();
+
+            if (nanos1 > nanos2) {
+                return -1;
+            } else if (nanos1 < nanos2) {
+                return 1;
+            }
+
+            return 0;
+        }
+    }
+}
@@ -8,13 +8,17 @@
 
 package biz.isphere.jobtraceexplorer.core.ui.preferencepages;
 
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.preference.ColorSelector;
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
@@ -27,11 +31,13 @@ import biz.isphere.base.internal.IntHelper;
 import biz.isphere.core.swt.widgets.WidgetFactory;
 import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
 import biz.isphere.jobtraceexplorer.core.Messages;
+import biz.isphere.jobtraceexplorer.core.model.dao.JobTraceSessionCache;
 import biz.isphere.jobtraceexplorer.core.preferences.Preferences;
 
 public class JobTraceExplorerPreferencePage extends PreferencePage implements IWorkbenchPreferencePage {
 
     private int maxNumRowsToFetch;
+    private int maxNumCachedSessions;
 
     private biz.isphere.jobtraceexplorer.core.preferences.Preferences preferences;
 
@@ -41,6 +47,8 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
 
     private Group groupLimits;
     private Text textMaxNumRowsToFetch;
+    private Text textMaxNumCachedSessions;
+    private Button buttonClearCache;
     private Text textSQLWhereNoIBMData;
 
     public JobTraceExplorerPreferencePage() {
@@ -125,6 +133,36 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
                 maxNumRowsToFetch = IntHelper.tryParseInt(textMaxNumRowsToFetch.getText(), preferences.getInitialMaximumNumberOfRowsToFetch());
             }
         });
+
+        Label labelMaxNumCachedSessions = new Label(groupLimits, SWT.NONE);
+        labelMaxNumCachedSessions.setText(Messages.ButtonLabel_Maximum_number_of_cached_sessions);
+        labelMaxNumCachedSessions.setToolTipText(Messages.ButtonTooltip_Maximum_number_of_cached_sessions);
+
+        textMaxNumCachedSessions = WidgetFactory.createDecimalText(groupLimits);
+        textMaxNumCachedSessions.setToolTipText(Messages.ButtonTooltip_Maximum_number_of_cached_sessions);
+        textMaxNumCachedSessions.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        textMaxNumCachedSessions.setTextLimit(3);
+        textMaxNumCachedSessions.addModifyListener(new ModifyListener() {
+            public void modifyText(ModifyEvent event) {
+                maxNumCachedSessions = IntHelper.tryParseInt(textMaxNumCachedSessions.getText(),
+                    preferences.getInitialMaximumNumberOfCachedSessions());
+            }
+        });
+
+        new Label(groupLimits, SWT.NONE);
+
+        buttonClearCache = WidgetFactory.createPushButton(groupLimits, Messages.ButtonLabel_Clear_cache);
+        buttonClearCache.setToolTipText(Messages.ButtonTooltip_Clear_cache);
+        buttonClearCache.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                if (JobTraceSessionCache.clear()) {
+                    MessageDialog.openInformation(getShell(), Messages.MessageDialog_Information, Messages.Session_cache_has_been_cleared);
+                } else {
+                    MessageDialog.openError(getShell(), Messages.E_R_R_O_R, Messages.Session_cache_could_not_be_cleared);
+                }
+            }
+        });
     }
 
     @Override
@@ -148,6 +186,7 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
     protected void setStoreToValues() {
 
         preferences.setMaximumNumberOfRowsToFetch(maxNumRowsToFetch);
+        preferences.setMaximumNumberOfCachedSessions(maxNumCachedSessions);
         preferences.setExcludeIBMDataSQLWhereClause(textSQLWhereNoIBMData.getText());
 
         preferences.setColorSeverity(HighlightColor.ATTRIBUTES, buttonAttributesColor.getColorValue());
@@ -158,6 +197,7 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
     protected void setScreenToValues() {
 
         maxNumRowsToFetch = preferences.getMaximumNumberOfRowsToFetch();
+        maxNumCachedSessions = preferences.getMaximumNumberOfCachedSessions();
         textSQLWhereNoIBMData.setText(preferences.getExcludeIBMDataSQLWhereClause());
 
         buttonAttributesColor.setColorValue(preferences.getColorSeverity(HighlightColor.ATTRIBUTES).getRGB());
@@ -170,6 +210,7 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
     protected void setScreenToDefaultValues() {
 
         maxNumRowsToFetch = preferences.getInitialMaximumNumberOfRowsToFetch();
+        maxNumCachedSessions = preferences.getInitialMaximumNumberOfCachedSessions();
         textSQLWhereNoIBMData.setText(preferences.getInitialExcludeIBMDataSQLWhereClause());
 
         buttonAttributesColor.setColorValue(preferences.getDefaultColorSeverity(HighlightColor.ATTRIBUTES));
@@ -182,6 +223,7 @@ public class JobTraceExplorerPreferencePage extends PreferencePage implements IW
     protected void setScreenValues() {
 
         textMaxNumRowsToFetch.setText(Integer.toString(maxNumRowsToFetch));
+        textMaxNumCachedSessions.setText(Integer.toString(maxNumCachedSessions));
 
         setControlsEnablement();
     }
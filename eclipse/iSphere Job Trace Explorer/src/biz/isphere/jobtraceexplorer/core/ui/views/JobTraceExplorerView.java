@@ -53,6 +53,7 @@ import biz.isphere.jobtraceexplorer.core.ui.actions.EditSqlAction;
 import biz.isphere.jobtraceexplorer.core.ui.actions.GenericRefreshAction;
 import biz.isphere.jobtraceexplorer.core.ui.actions.LoadJobTraceEntriesAction;
 import biz.isphere.jobtraceexplorer.core.ui.actions.OpenJobTraceAction;
+import biz.isphere.jobtraceexplorer.core.ui.actions.ProcedureStatisticsAction;
 import biz.isphere.jobtraceexplorer.core.ui.actions.SaveJobTraceEntriesAction;
 import biz.isphere.jobtraceexplorer.core.ui.widgets.JobTraceExplorerTab;
 
@@ -67,6 +68,7 @@ public class JobTraceExplorerView extends XViewPart implements IDataLoadPostRun,
 
     private LoadJobTraceEntriesAction loadJournalEntriesAction;
     private SaveJobTraceEntriesAction saveJournalEntriesAction;
+    private ProcedureStatisticsAction procedureStatisticsAction;
 
     private CTabFolder tabFolder;
     private ListenerList selectionChangedListeners;
@@ -184,6 +186,8 @@ public class JobTraceExplorerView extends XViewPart implements IDataLoadPostRun,
         saveJournalEntriesAction.setImageDescriptor(ISpherePlugin.getDefault().getImageRegistry().getDescriptor(ISpherePlugin.IMAGE_SAVE));
         saveJournalEntriesAction.setEnabled(false);
 
+        procedureStatisticsAction = new ProcedureStatisticsAction(getShell());
+        procedureStatisticsAction.setEnabled(false);
     }
 
     /**
@@ -197,6 +201,8 @@ public class JobTraceExplorerView extends XViewPart implements IDataLoadPostRun,
         viewMenu.add(loadJournalEntriesAction);
         viewMenu.add(new Separator());
         viewMenu.add(saveJournalEntriesAction);
+        viewMenu.add(new Separator());
+        viewMenu.add(procedureStatisticsAction);
     }
 
     private void createExplorerTab(AbstractJobTraceExplorerInput input) {
@@ -465,12 +471,16 @@ public class JobTraceExplorerView extends XViewPart implements IDataLoadPostRun,
             loadJournalEntriesAction.setEnabled(true);
             saveJournalEntriesAction.setEnabled(false);
             saveJournalEntriesAction.setSelectedItems(null);
+            procedureStatisticsAction.setEnabled(false);
+            procedureStatisticsAction.setSelectedItems(null);
         } else {
             resetColumnSizeAction.setEnabled(true);
             resetColumnSizeAction.setViewer(getSelectedViewer());
             loadJournalEntriesAction.setEnabled(true);
             saveJournalEntriesAction.setEnabled(true);
             saveJournalEntriesAction.setSelectedItems(tabItem.getJobTraceSession());
+            procedureStatisticsAction.setEnabled(!tabItem.isLoading());
+            procedureStatisticsAction.setSelectedItems(tabItem.getJobTraceSession());
         }
 
     }
@@ -33,10 +33,13 @@ import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
 
 public class JobTraceExplorerSearchPanel extends Composite {
 
+    private static final String EMPTY = ""; //$NON-NLS-1$
+
     private ContentAssistText textSearch;
 
     private Button buttonUp;
     private Button buttonDown;
+    private Label labelMatches;
 
     private List<SelectionListener> filterChangedListeners;
 
@@ -74,7 +77,7 @@ public class JobTraceExplorerSearchPanel extends Composite {
     private void createTextSearchControls(Composite parent) {
 
         Composite textSearchArea = new Composite(parent, SWT.NONE);
-        GridLayout gridLayout = createGridLayout(6, false);
+        GridLayout gridLayout = createGridLayout(7, false);
         textSearchArea.setLayout(gridLayout);
         textSearchArea.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
 
@@ -101,6 +104,9 @@ public class JobTraceExplorerSearchPanel extends Composite {
         buttonDown.setToolTipText(Messages.ButtonTooltip_Search_down);
         buttonDown.addSelectionListener(new SearchDownSelectionListener());
 
+        labelMatches = new Label(textSearchArea, SWT.NONE);
+        labelMatches.setText(EMPTY);
+
         DisplaySQLHelpListener.createLabel(textSearchArea);
 
         final Label dummy = new Label(textSearchArea, SWT.NONE);
@@ -143,6 +149,22 @@ public class JobTraceExplorerSearchPanel extends Composite {
         setChildrenEnabled(getChildren(), enabled);
     }
 
+    /**
+     * Displays the number of matches of the current search.
+     * 
+     * @param text - text that is displayed or <code>null</code> to clear the
+     *        text
+     */
+    public void setNumberOfMatches(String text) {
+
+        if (text == null) {
+            text = EMPTY;
+        }
+
+        labelMatches.setText(text);
+        labelMatches.getParent().layout(true);
+    }
+
     public void addFilterChangedListener(SelectionListener listener) {
 
         filterChangedListeners.add(listener);
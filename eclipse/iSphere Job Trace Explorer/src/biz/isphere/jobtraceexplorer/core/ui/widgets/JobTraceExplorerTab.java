@@ -55,6 +55,7 @@ import biz.isphere.core.swt.widgets.sqleditor.SqlEditor;
 import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
 import biz.isphere.jobtraceexplorer.core.Messages;
 import biz.isphere.jobtraceexplorer.core.model.AbstractJobTraceExplorerInput;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntries;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceSession;
 import biz.isphere.jobtraceexplorer.core.ui.contentproviders.JobTraceViewerContentProvider;
@@ -62,7 +63,9 @@ import biz.isphere.jobtraceexplorer.core.ui.labelproviders.JobTraceEntryLabelPro
 import biz.isphere.jobtraceexplorer.core.ui.model.JobTraceEntryColumn;
 import biz.isphere.jobtraceexplorer.core.ui.model.JobTraceViewerFactory;
 import biz.isphere.jobtraceexplorer.core.ui.views.IDataLoadPostRun;
+import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.IJobTraceEntrySearchListener;
 import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.ISearchComparer;
+import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.JobTraceEntrySearch;
 import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.SearchComparerSQL;
 import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.SearchComparerText;
 import biz.isphere.jobtraceexplorer.core.ui.widgets.jobs.OpenJobTraceSessionJob;
@@ -95,6 +98,9 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
     private String filterWhereClause;
 
     private UpdateTableViewerJob updateTableViewerJob;
+    private JobTraceEntrySearch jobTraceEntrySearch;
+    private boolean isAddingEntries;
+    private FindJobTraceEntryJob findJobTraceEntryJob;
 
     public JobTraceExplorerTab(CTabFolder parent, SelectionListener loadJobTraceEntriesSelectionListener) {
         super(parent, SWT.NONE);
@@ -348,6 +354,9 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
     public void setJobTraceSession(JobTraceSession data) {
 
         this.data = data;
+        this.isAddingEntries = false;
+
+        cancelSearch();
 
         container.layout(true);
 
@@ -364,6 +373,45 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
         tableViewer.setSelection(null);
     }
 
+    /**
+     * Adds a page of job trace entries, while the job trace session is loaded.
+     * The session is displayed with the first page. Filtering the entries is
+     * disabled, until {@link #finishAddingJobTraceEntries()} is called.
+     * 
+     * @param jobTraceSession - job trace session that is loaded
+     * @param jobTraceEntries - job trace entries of the page
+     */
+    public void addJobTraceEntries(JobTraceSession jobTraceSession, List<JobTraceEntry> jobTraceEntries) {
+
+        JobTraceEntries entries = jobTraceSession.getJobTraceEntries();
+        for (JobTraceEntry jobTraceEntry : jobTraceEntries) {
+            entries.add(jobTraceEntry);
+        }
+
+        if (data != jobTraceSession) {
+            setJobTraceSession(jobTraceSession);
+        } else {
+            tableViewer.setItemCount(entries.size());
+        }
+
+        isAddingEntries = true;
+        setSqlEditorEnabled(false);
+    }
+
+    /**
+     * Enables filtering the job trace entries, after the last page has been
+     * added.
+     */
+    public void finishAddingJobTraceEntries() {
+
+        if (!isAddingEntries) {
+            return;
+        }
+
+        isAddingEntries = false;
+        setEnabled(true);
+    }
+
     public JobTraceEntry getSelectedItem() {
 
         int index = tableViewer.getTable().getSelectionIndex();
@@ -413,6 +461,8 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
             data = null;
         }
 
+        cancelSearch();
+
         if (tableViewer != null) {
             tableViewer.getTable().dispose();
             tableViewer = null;
@@ -509,7 +559,7 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
 
     public boolean isLoading() {
 
-        if (tableViewer.getTable().isEnabled()) {
+        if (tableViewer.getTable().isEnabled() && !isAddingEntries) {
             return false;
         }
 
@@ -561,24 +611,55 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
     }
 
     private void doSearchUp(String text) {
+        doSearch(text, false);
+    }
+
+    private void doSearchDown(String text) {
+        doSearch(text, true);
+    }
+
+    private void doSearch(String text, boolean isForward) {
 
         if (StringHelper.isNullOrEmpty(text)) {
             return;
         }
 
-        boolean isSQLExpression = isSQLExpression(text);
-        doSearchUp(text, isSQLExpression, tableViewer.getTable().getSelectionIndex(), 0);
-    }
-
-    private void doSearchUp(String text, boolean isSQLExpression, int startIndex, int minIndex) {
-
         Table table = tableViewer.getTable();
         if (table == null || table.getItemCount() <= 0) {
             return;
         }
 
+        JobTraceSession session = getJobTraceSession();
+        if (session == null || session.getJobTraceEntries() == null) {
+            return;
+        }
+
+        int startIndex = table.getSelectionIndex();
+        JobTraceEntrySearch search = getSearch(text, session.getJobTraceEntries(), startIndex);
+
+        if (findJobTraceEntryJob != null) {
+            findJobTraceEntryJob.cancel();
+        }
+
+        findJobTraceEntryJob = new FindJobTraceEntryJob(search, startIndex, isForward);
+        findJobTraceEntryJob.schedule();
+    }
+
+    /**
+     * Returns the search for a given search text. The current search is
+     * reused, as long as the search text and the job trace entries have not
+     * changed. Otherwise a new search is started in the background.
+     */
+    private JobTraceEntrySearch getSearch(String text, JobTraceEntries jobTraceEntries, int startIndex) {
+
+        if (jobTraceEntrySearch != null && jobTraceEntrySearch.isSearchFor(text, jobTraceEntries)) {
+            return jobTraceEntrySearch;
+        }
+
+        cancelSearch();
+
         ISearchComparer searchConfig = null;
-        if (!isSQLExpression) {
+        if (!isSQLExpression(text)) {
             searchConfig = new SearchComparerText(tableViewer.getTable().getColumns());
             searchConfig.setWhereClause(text);
         } else {
@@ -586,76 +667,71 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
             searchConfig.setWhereClause(text);
         }
 
-        int currentIndex = startIndex;
-        if (currentIndex < 0) {
-            currentIndex = table.getItemCount();
-        }
+        jobTraceEntrySearch = new JobTraceEntrySearch(text, searchConfig, jobTraceEntries);
+        jobTraceEntrySearch.setListener(new IJobTraceEntrySearchListener() {
+            public void matchesChanged(final JobTraceEntrySearch search) {
+                if (!isDisposed()) {
+                    getDisplay().asyncExec(new Runnable() {
+                        public void run() {
+                            updateNumberOfMatches(search);
+                        }
+                    });
+                }
+            }
+        });
+        jobTraceEntrySearch.start(startIndex);
 
-        currentIndex--;
+        return jobTraceEntrySearch;
+    }
 
-        while (currentIndex >= minIndex) {
-            JobTraceEntry jobTraceEntry = getElementAt(currentIndex);
-            if (searchConfig.isMatch(jobTraceEntry)) {
-                table.setSelection(currentIndex);
-                return; // Found!
-            }
-            currentIndex--;
+    private void cancelSearch() {
+
+        if (findJobTraceEntryJob != null) {
+            findJobTraceEntryJob.cancel();
+            findJobTraceEntryJob = null;
         }
 
-        Display.getCurrent().beep();
+        if (jobTraceEntrySearch != null) {
+            jobTraceEntrySearch.cancel();
+            jobTraceEntrySearch = null;
+        }
 
-        if (startIndex < table.getItemCount() - 1) {
-            doSearchUp(text, isSQLExpression, table.getItemCount(), startIndex);
+        if (searchTextPanel != null && !searchTextPanel.isDisposed()) {
+            searchTextPanel.setNumberOfMatches(null);
         }
     }
 
-    private void doSearchDown(String text) {
+    private void updateNumberOfMatches(JobTraceEntrySearch search) {
 
-        if (StringHelper.isNullOrEmpty(text)) {
+        if (isDisposed() || search != jobTraceEntrySearch || searchTextPanel.isDisposed()) {
             return;
         }
 
-        boolean isSQLExpression = isSQLExpression(text);
-        doSearchDown(text, isSQLExpression, tableViewer.getTable().getSelectionIndex(), tableViewer.getTable().getItemCount() - 1);
+        int matchNumber = search.getMatchNumber(tableViewer.getTable().getSelectionIndex());
+        searchTextPanel.setNumberOfMatches(Messages.bind(Messages.Label_A_of_B_matches, matchNumber, search.getNumberOfMatches()));
     }
 
-    private void doSearchDown(String text, boolean isSQLExpression, int startIndex, int maxIndex) {
+    private void setSearchResult(JobTraceEntrySearch search, int startIndex, int foundIndex, boolean isForward) {
 
-        Table table = tableViewer.getTable();
-        if (table == null || table.getItemCount() <= 0) {
+        if (isDisposed() || search != jobTraceEntrySearch) {
             return;
         }
 
-        ISearchComparer searchConfig = null;
-        if (!isSQLExpression) {
-            searchConfig = new SearchComparerText(tableViewer.getTable().getColumns());
-            searchConfig.setWhereClause(text);
-        } else {
-            searchConfig = new SearchComparerSQL(JobTraceEntry.getColumnMapping());
-            searchConfig.setWhereClause(text);
-        }
-
-        int currentIndex = startIndex;
-        if (currentIndex > maxIndex) {
-            currentIndex = -1;
+        Table table = tableViewer.getTable();
+        if (table == null || table.isDisposed()) {
+            return;
         }
 
-        currentIndex++;
-
-        while (currentIndex <= maxIndex) {
-            JobTraceEntry jobTraceEntry = getElementAt(currentIndex);
-            if (searchConfig.isMatch(jobTraceEntry)) {
-                table.setSelection(currentIndex);
-                return; // Found!
+        if (foundIndex == JobTraceEntrySearch.NOT_FOUND || foundIndex >= table.getItemCount()) {
+            Display.getCurrent().beep();
+        } else {
+            if (startIndex >= 0 && (isForward && foundIndex <= startIndex || !isForward && foundIndex >= startIndex)) {
+                Display.getCurrent().beep(); // Wrapped around
             }
-            currentIndex++;
+            table.setSelection(foundIndex);
         }
 
-        Display.getCurrent().beep();
-
-        if (startIndex > 0) {
-            doSearchDown(text, isSQLExpression, -1, startIndex);
-        }
+        updateNumberOfMatches(search);
     }
 
     private boolean isSQLExpression(String searchArgument) {
@@ -725,6 +801,46 @@ public class JobTraceExplorerTab extends CTabItem implements IResizableTableColu
 
     };
 
+    private class FindJobTraceEntryJob extends Job {
+
+        private JobTraceEntrySearch search;
+        private int startIndex;
+        private boolean isForward;
+
+        public FindJobTraceEntryJob(JobTraceEntrySearch search, int startIndex, boolean isForward) {
+            super(Messages.Status_Searching_job_trace_entries);
+
+            this.search = search;
+            this.startIndex = startIndex;
+            this.isForward = isForward;
+        }
+
+        @Override
+        public IStatus run(IProgressMonitor monitor) {
+
+            final int foundIndex;
+            if (isForward) {
+                foundIndex = search.findNext(startIndex, monitor);
+            } else {
+                foundIndex = search.findPrevious(startIndex, monitor);
+            }
+
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+
+            if (!isDisposed()) {
+                getDisplay().asyncExec(new Runnable() {
+                    public void run() {
+                        setSearchResult(search, startIndex, foundIndex, isForward);
+                    }
+                });
+            }
+
+            return Status.OK_STATUS;
+        }
+    }
+
     private class UpdateTableViewerJob extends UIJob {
 
         public UpdateTableViewerJob() {
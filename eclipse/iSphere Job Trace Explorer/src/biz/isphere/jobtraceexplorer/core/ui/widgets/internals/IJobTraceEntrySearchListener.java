@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.ui.widgets.internals;
+
+public interface IJobTraceEntrySearchListener {
+
+    /**
+     * Called, when the number of matches found by a search has changed or
+     * when the search has completed. This method is not called in the UI
+     * thread.
+     *
+     * @param search - search that found the matches
+     */
+    public void matchesChanged(JobTraceEntrySearch search);
+}
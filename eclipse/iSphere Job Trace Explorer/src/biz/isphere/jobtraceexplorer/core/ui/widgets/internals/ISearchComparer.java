@@ -15,4 +15,11 @@ public interface ISearchComparer {
     public void setWhereClause(String whereClause);
 
     public boolean isMatch(JobTraceEntry jobTraceEntry);
+
+    /**
+     * Returns a copy of this comparer for use by another thread.
+     * 
+     * @return copy of the comparer with the same where clause
+     */
+    public ISearchComparer createCopy();
 }
@@ -0,0 +1,404 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.jobtraceexplorer.core.ui.widgets.internals;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import biz.isphere.jobtraceexplorer.core.ISphereJobTraceExplorerCorePlugin;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntries;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+
+/**
+ * Background search of the job trace entries of a Job Trace Explorer tab. The
+ * entries are compared in chunks by a pool of worker threads. The chunks are
+ * processed in the order of their distance to the selected entry, alternating
+ * ahead of and behind the selected entry. The matches are stored in a bitmap,
+ * so that repeated find next and find previous requests do not compare the
+ * entries again.
+ * <p>
+ * {@link #findNext(int, IProgressMonitor)} and
+ * {@link #findPrevious(int, IProgressMonitor)} wait only for the chunks they
+ * need to look at. They must not be called in the UI thread.
+ */
+public class JobTraceEntrySearch {
+
+    private static final int CHUNK_SIZE = 2048;
+    private static final long NOTIFICATION_INTERVAL = 200;
+    private static final long CANCEL_CHECK_INTERVAL = 100;
+
+    public static final int NOT_FOUND = -1;
+
+    private String searchText;
+    private JobTraceEntries jobTraceEntries;
+    private int modificationCount;
+    private JobTraceEntry[] entries;
+    private ThreadLocal<ISearchComparer> searchComparers;
+    private IJobTraceEntrySearchListener listener;
+
+    private BitSet matches;
+    private boolean[] isChunkDone;
+    private int numChunks;
+    private int numChunksDone;
+    private int numMatches;
+    private long lastNotification;
+
+    private ExecutorService executor;
+    private volatile boolean isCanceled;
+
+    /**
+     * Constructs a new search. Must be called in the UI thread, because the
+     * search comparer may need to access the table columns.
+     *
+     * @param searchText - search text or SQL where clause
+     * @param searchComparer - comparer that has been prepared for the search
+     *        text
+     * @param jobTraceEntries - job trace entries that are searched
+     */
+    public JobTraceEntrySearch(String searchText, ISearchComparer searchComparer, JobTraceEntries jobTraceEntries) {
+
+        this.searchText = searchText;
+        this.jobTraceEntries = jobTraceEntries;
+        this.modificationCount = jobTraceEntries.getModificationCount();
+        this.searchComparers = new SearchComparerThreadLocal(searchComparer);
+
+        List<JobTraceEntry> items = jobTraceEntries.getItems();
+        this.entries = items.toArray(new JobTraceEntry[items.size()]);
+
+        this.matches = new BitSet(entries.length);
+        this.numChunks = (entries.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.isChunkDone = new boolean[numChunks];
+        this.numChunksDone = 0;
+        this.numMatches = 0;
+        this.lastNotification = 0;
+        this.isCanceled = false;
+    }
+
+    public void setListener(IJobTraceEntrySearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns <code>true</code>, when this search searches the given job trace
+     * entries for the given search text and the entries have not been changed
+     * since the search has been started.
+     *
+     * @param searchText - search text or SQL where clause
+     * @param jobTraceEntries - job trace entries
+     * @return <code>true</code>, when the search can be reused
+     */
+    public boolean isSearchFor(String searchText, JobTraceEntries jobTraceEntries) {
+
+        if (isCanceled) {
+            return false;
+        }
+
+        if (this.jobTraceEntries != jobTraceEntries || this.modificationCount != jobTraceEntries.getModificationCount()) {
+            return false;
+        }
+
+        if (!this.searchText.equals(searchText)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Starts comparing the job trace entries, beginning with the chunk that
+     * contains the selected entry.
+     *
+     * @param selectedIndex - index of the selected entry
+     */
+    public void start(int selectedIndex) {
+
+        if (numChunks == 0) {
+            return;
+        }
+
+        int numThreads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), numChunks));
+        executor = Executors.newFixedThreadPool(numThreads);
+
+        int startChunk = getChunk(Math.max(0, Math.min(selectedIndex, entries.length - 1)));
+        executor.execute(new CompareChunkRunnable(startChunk));
+
+        for (int distance = 1; distance < numChunks; distance++) {
+            if (startChunk + distance < numChunks) {
+                executor.execute(new CompareChunkRunnable(startChunk + distance));
+            }
+            if (startChunk - distance >= 0) {
+                executor.execute(new CompareChunkRunnable(startChunk - distance));
+            }
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * Cancels the search.
+     */
+    public void cancel() {
+
+        isCanceled = true;
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the index of the next matching entry after a given index. The
+     * search continues at the first entry, when the end of the list has been
+     * reached.
+     *
+     * @param index - index of the selected entry or -1
+     * @param monitor - progress monitor
+     * @return index of the next matching entry or {@link #NOT_FOUND}
+     */
+    public int findNext(int index, IProgressMonitor monitor) {
+
+        int foundIndex = findNextInRange(index + 1, entries.length, monitor);
+        if (foundIndex == NOT_FOUND) {
+            foundIndex = findNextInRange(0, Math.min(index + 1, entries.length), monitor);
+        }
+
+        return foundIndex;
+    }
+
+    /**
+     * Returns the index of the previous matching entry before a given index.
+     * The search continues at the last entry, when the start of the list has
+     * been reached.
+     *
+     * @param index - index of the selected entry or -1
+     * @param monitor - progress monitor
+     * @return index of the previous matching entry or {@link #NOT_FOUND}
+     */
+    public int findPrevious(int index, IProgressMonitor monitor) {
+
+        if (index < 0 || index > entries.length) {
+            index = entries.length;
+        }
+
+        int foundIndex = findPreviousInRange(index - 1, 0, monitor);
+        if (foundIndex == NOT_FOUND) {
+            foundIndex = findPreviousInRange(entries.length - 1, index, monitor);
+        }
+
+        return foundIndex;
+    }
+
+    /**
+     * Returns the number of matching entries up to and including a given
+     * index.
+     *
+     * @param index - index of the selected entry
+     * @return number of matches
+     */
+    public synchronized int getMatchNumber(int index) {
+
+        if (index < 0) {
+            return 0;
+        }
+
+        return matches.get(0, Math.min(index + 1, entries.length)).cardinality();
+    }
+
+    /**
+     * Returns the number of matching entries found so far.
+     *
+     * @return number of matches
+     */
+    public synchronized int getNumberOfMatches() {
+        return numMatches;
+    }
+
+    /**
+     * Returns <code>true</code>, when all entries have been compared.
+     *
+     * @return <code>true</code>, when the search has completed
+     */
+    public synchronized boolean isComplete() {
+        return numChunksDone == numChunks;
+    }
+
+    private int findNextInRange(int fromIndex, int toIndex, IProgressMonitor monitor) {
+
+        if (fromIndex >= toIndex) {
+            return NOT_FOUND;
+        }
+
+        for (int chunk = getChunk(fromIndex); chunk <= getChunk(toIndex - 1); chunk++) {
+
+            if (!waitForChunk(chunk, monitor)) {
+                return NOT_FOUND;
+            }
+
+            int end = Math.min(toIndex, getChunkEnd(chunk));
+            synchronized (this) {
+                int foundIndex = matches.nextSetBit(Math.max(fromIndex, getChunkStart(chunk)));
+                if (foundIndex >= 0 && foundIndex < end) {
+                    return foundIndex;
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private int findPreviousInRange(int fromIndex, int toIndex, IProgressMonitor monitor) {
+
+        if (fromIndex < toIndex) {
+            return NOT_FOUND;
+        }
+
+        for (int chunk = getChunk(fromIndex); chunk >= getChunk(toIndex); chunk--) {
+
+            if (!waitForChunk(chunk, monitor)) {
+                return NOT_FOUND;
+            }
+
+            int start = Math.max(toIndex, getChunkStart(chunk));
+            synchronized (this) {
+                for (int i = Math.min(fromIndex, getChunkEnd(chunk) - 1); i >= start; i--) {
+                    if (matches.get(i)) {
+                        return i;
+                    }
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private synchronized boolean waitForChunk(int chunk, IProgressMonitor monitor) {
+
+        while (!isChunkDone[chunk]) {
+
+            if (isCanceled || (monitor != null && monitor.isCanceled())) {
+                return false;
+            }
+
+            try {
+                wait(CANCEL_CHECK_INTERVAL);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void chunkDone(int chunk, BitSet chunkMatches, int numChunkMatches) {
+
+        boolean isNotify;
+
+        synchronized (this) {
+
+            int offset = getChunkStart(chunk);
+            for (int i = chunkMatches.nextSetBit(0); i >= 0; i = chunkMatches.nextSetBit(i + 1)) {
+                matches.set(offset + i);
+            }
+            numMatches += numChunkMatches;
+
+            isChunkDone[chunk] = true;
+            numChunksDone++;
+
+            long now = System.currentTimeMillis();
+            if (numChunksDone == numChunks || now - lastNotification >= NOTIFICATION_INTERVAL) {
+                lastNotification = now;
+                isNotify = true;
+            } else {
+                isNotify = false;
+            }
+
+            notifyAll();
+        }
+
+        if (isNotify && listener != null && !isCanceled) {
+            listener.matchesChanged(this);
+        }
+    }
+
+    private int getChunk(int index) {
+        return index / CHUNK_SIZE;
+    }
+
+    private int getChunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private int getChunkEnd(int chunk) {
+        return Math.min(getChunkStart(chunk) + CHUNK_SIZE, entries.length);
+    }
+
+    /**
+     * Provides a private copy of the search comparer for each worker thread,
+     * so that an SQL where clause is parsed only once per thread.
+     */
+    private static class SearchComparerThreadLocal extends ThreadLocal<ISearchComparer> {
+
+        private ISearchComparer searchComparer;
+
+        public SearchComparerThreadLocal(ISearchComparer searchComparer) {
+            this.searchComparer = searchComparer;
+        }
+
+        @Override
+        protected ISearchComparer initialValue() {
+            return searchComparer.createCopy();
+        }
+    }
+
+    /**
+     * Compares the entries of a chunk with the search comparer of the worker
+     * thread.
+     */
+    private class CompareChunkRunnable implements Runnable {
+
+        private int chunk;
+
+        public CompareChunkRunnable(int chunk) {
+            this.chunk = chunk;
+        }
+
+        public void run() {
+
+            BitSet chunkMatches = new BitSet(CHUNK_SIZE);
+            int numChunkMatches = 0;
+
+            try {
+
+                ISearchComparer comparer = searchComparers.get();
+
+                int start = getChunkStart(chunk);
+                int end = getChunkEnd(chunk);
+                for (int i = start; i < end && !isCanceled; i++) {
+                    if (comparer.isMatch(entries[i])) {
+                        chunkMatches.set(i - start);
+                        numChunkMatches++;
+                    }
+                }
+
+            } catch (Throwable e) {
+                ISphereJobTraceExplorerCorePlugin.logError("*** Could not search job trace entries ***", e); //$NON-NLS-1$
+            } finally {
+                chunkDone(chunk, chunkMatches, numChunkMatches);
+            }
+        }
+    }
+}
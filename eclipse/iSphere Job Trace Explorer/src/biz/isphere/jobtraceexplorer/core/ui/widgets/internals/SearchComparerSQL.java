@@ -45,4 +45,12 @@ public class SearchComparerSQL implements ISearchComparer {
             return false;
         }
     }
+
+    public ISearchComparer createCopy() {
+
+        SearchComparerSQL searchComparer = new SearchComparerSQL(columnMapping);
+        searchComparer.setWhereClause(whereClause);
+
+        return searchComparer;
+    }
 }
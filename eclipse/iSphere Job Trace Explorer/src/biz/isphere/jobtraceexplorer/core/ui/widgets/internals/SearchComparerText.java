@@ -18,15 +18,27 @@ import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
 import biz.isphere.jobtraceexplorer.core.ui.model.JobTraceEntryColumnUI;
 import biz.isphere.jobtraceexplorer.core.ui.model.JobTraceViewerFactory;
 
+/**
+ * Compares the text columns of a job trace entry with a generic pattern. The
+ * names of the text columns are retrieved from the table columns, when the
+ * comparer is created. Therefore the comparer must be created in the UI
+ * thread, but {@link #isMatch(JobTraceEntry)} can be called from any thread.
+ */
 public class SearchComparerText implements ISearchComparer {
 
     private TableColumn[] tableColumns;
-    int[] indices;
+    private String[] columnNames;
     private String pattern;
 
     public SearchComparerText(TableColumn[] tableColumns) {
         this.tableColumns = tableColumns;
-        this.indices = getTextColumnIndices();
+        this.columnNames = getTextColumnNames();
+    }
+
+    private SearchComparerText(String[] columnNames, String pattern) {
+        this.tableColumns = null;
+        this.columnNames = columnNames;
+        this.pattern = pattern;
     }
 
     public void setWhereClause(String pattern) {
@@ -40,10 +52,8 @@ public class SearchComparerText implements ISearchComparer {
 
     public boolean isMatch(JobTraceEntry jobTraceEntry) {
 
-        for (int i = 0; i < indices.length; i++) {
-            TableColumn tableColumn = getColumn(indices[i]);
-            String columnName = JobTraceViewerFactory.getColumnName(tableColumn);
-            String uiValue = jobTraceEntry.getValueForUi(columnName);
+        for (int i = 0; i < columnNames.length; i++) {
+            String uiValue = jobTraceEntry.getValueForUi(columnNames[i]);
             if (StringHelper.matchesGeneric(uiValue.toLowerCase(), pattern)) {
                 return true;
             }
@@ -52,15 +62,15 @@ public class SearchComparerText implements ISearchComparer {
         return false;
     }
 
-    private TableColumn getColumn(int index) {
-        return getColumns()[index];
+    public ISearchComparer createCopy() {
+        return new SearchComparerText(columnNames, pattern);
     }
 
     private TableColumn[] getColumns() {
         return tableColumns;
     }
 
-    private int[] getTextColumnIndices() {
+    private String[] getTextColumnNames() {
 
         List<Integer> indices = new LinkedList<Integer>();
 
@@ -82,11 +92,11 @@ public class SearchComparerText implements ISearchComparer {
 
         }
 
-        int[] tIndices = new int[indices.size()];
+        String[] names = new String[indices.size()];
         for (int i = 0; i < indices.size(); i++) {
-            tIndices[i] = indices.get(i);
+            names[i] = JobTraceViewerFactory.getColumnName(tableColumns[indices.get(i)]);
         }
 
-        return tIndices;
+        return names;
     }
 }
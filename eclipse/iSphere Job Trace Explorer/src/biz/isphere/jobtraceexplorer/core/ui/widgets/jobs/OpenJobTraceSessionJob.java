@@ -8,6 +8,8 @@
 
 package biz.isphere.jobtraceexplorer.core.ui.widgets.jobs;
 
+import java.util.List;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -16,6 +18,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import biz.isphere.base.internal.StringHelper;
 import biz.isphere.jobtraceexplorer.core.Messages;
 import biz.isphere.jobtraceexplorer.core.model.AbstractJobTraceExplorerInput;
+import biz.isphere.jobtraceexplorer.core.model.IJobTraceEntriesLoadListener;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
 import biz.isphere.jobtraceexplorer.core.model.JobTraceSession;
 import biz.isphere.jobtraceexplorer.core.ui.views.IDataLoadPostRun;
@@ -48,7 +51,18 @@ public class OpenJobTraceSessionJob extends Job {
 
         try {
 
-            final JobTraceSession jobTraceSession = input.load(monitor);
+            /*
+             * Display the first pages, while the remaining entries are loaded.
+             * Not possible, when a filter must be applied to all entries.
+             */
+            final JobTraceEntriesLoadListener listener;
+            if (StringHelper.isNullOrEmpty(filterWhereClause)) {
+                listener = new JobTraceEntriesLoadListener();
+            } else {
+                listener = null;
+            }
+
+            final JobTraceSession jobTraceSession = input.load(monitor, listener);
 
             if (!StringHelper.isNullOrEmpty(filterWhereClause)) {
                 jobTraceSession.getJobTraceEntries().setFilterWhereClause(filterWhereClause);
@@ -58,8 +72,15 @@ public class OpenJobTraceSessionJob extends Job {
             if (!tabItem.isDisposed()) {
                 postRun.getShell().getDisplay().asyncExec(new Runnable() {
                     public void run() {
-                        tabItem.setJobTraceSession(jobTraceSession);
-                        tabItem.setSelectedItem(selectedItem);
+                        if (listener != null && listener.isDisplayed()) {
+                            tabItem.finishAddingJobTraceEntries();
+                            if (tabItem.getSelectedItem() == null) {
+                                tabItem.setSelectedItem(selectedItem);
+                            }
+                        } else {
+                            tabItem.setJobTraceSession(jobTraceSession);
+                            tabItem.setSelectedItem(selectedItem);
+                        }
                         postRun.finishDataLoading(tabItem, false);
                     }
                 });
@@ -71,6 +92,7 @@ public class OpenJobTraceSessionJob extends Job {
                 final Throwable e1 = e;
                 postRun.getShell().getDisplay().asyncExec(new Runnable() {
                     public void run() {
+                        tabItem.finishAddingJobTraceEntries();
                         tabItem.setSqlEditorEnabled(true);
                         tabItem.setFocusOnSqlEditor();
                         postRun.handleDataLoadException(tabItem, e1);
@@ -82,4 +104,37 @@ public class OpenJobTraceSessionJob extends Job {
 
         return Status.OK_STATUS;
     }
+
+    /**
+     * Adds the pages of job trace entries to the tab in the UI thread. The
+     * loader waits, until a page has been added.
+     */
+    private class JobTraceEntriesLoadListener implements IJobTraceEntriesLoadListener {
+
+        private boolean isDisplayed;
+
+        public JobTraceEntriesLoadListener() {
+            this.isDisplayed = false;
+        }
+
+        public boolean isDisplayed() {
+            return isDisplayed;
+        }
+
+        public void entriesLoaded(final JobTraceSession jobTraceSession, final List<JobTraceEntry> jobTraceEntries) {
+
+            if (tabItem.isDisposed()) {
+                return;
+            }
+
+            postRun.getShell().getDisplay().syncExec(new Runnable() {
+                public void run() {
+                    if (!tabItem.isDisposed()) {
+                        tabItem.addJobTraceEntries(jobTraceSession, jobTraceEntries);
+                        isDisplayed = true;
+                    }
+                }
+            });
+        }
+    }
 }
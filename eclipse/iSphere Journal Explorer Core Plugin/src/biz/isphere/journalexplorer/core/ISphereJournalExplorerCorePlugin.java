@@ -21,6 +21,7 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.eclipse.wb.swt.ResourceManager;
 import org.osgi.framework.BundleContext;
 
+import biz.isphere.journalexplorer.core.model.MetaDataCache;
 import biz.isphere.journalexplorer.core.preferences.Preferences;
 
 /**
@@ -91,6 +92,7 @@ public class ISphereJournalExplorerCorePlugin extends AbstractUIPlugin {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        MetaDataCache.getInstance().storeMetaData();
         plugin = null;
         super.stop(context);
     }
@@ -247,6 +247,7 @@ public class Messages extends NLS {
 
     public static String Title_Connection_A;
     public static String Title_Journal_A;
+    public static String Title_API_calls_A_bytes_transferred_B_retries_C;
     public static String Title_File_A;
     public static String Title_Files_A;
     public static String Title_Load_Journal_Entries;
@@ -294,10 +295,18 @@ public class Messages extends NLS {
     public static String Finished_exporting_data_to_file_A;
     public static String Exporting_to_Excel;
     public static String Exporting_to_Json;
+    public static String Exporting_to_Snapshot;
     public static String Display_Export_Result;
     public static String Importing_from_Json;
     public static String Display_Import_Result;
 
+    public static String Invalid_snapshot_file_A;
+    public static String Unsupported_snapshot_file_version_A;
+    public static String Unexpected_end_of_snapshot_file_A;
+    public static String Corrupted_block_in_snapshot_file_A;
+    public static String Snapshot_file_A_has_been_changed;
+    public static String Could_not_replace_file_A;
+
     public static String Status_Loading_journal_entries;
     public static String Status_Filtering_journal_entries;
     public static String Status_Loading_meta_data;
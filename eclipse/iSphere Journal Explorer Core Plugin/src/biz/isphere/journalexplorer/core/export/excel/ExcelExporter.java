@@ -21,7 +21,7 @@ import biz.isphere.base.internal.FileHelper;
 import biz.isphere.core.swt.widgets.WidgetFactory;
 import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 import biz.isphere.journalexplorer.core.Messages;
-import biz.isphere.journalexplorer.core.internals.JoesdParser;
+import biz.isphere.journalexplorer.core.internals.JoesdRecord;
 import biz.isphere.journalexplorer.core.model.JournalEntry;
 import biz.isphere.journalexplorer.core.model.MetaColumn;
 import biz.isphere.journalexplorer.core.model.MetaDataCache;
@@ -32,8 +32,6 @@ import biz.isphere.journalexplorer.core.preferences.Preferences;
 import biz.isphere.journalexplorer.core.ui.model.JournalEntryColumn;
 import biz.isphere.journalexplorer.core.ui.model.JournalEntryColumnUI;
 
-import com.ibm.as400.access.Record;
-
 public class ExcelExporter {
 
     public String export(Shell shell, JournalEntryColumn[] columns, JournalEntry[] journalEntries, String file) throws Exception {
@@ -99,7 +97,7 @@ public class ExcelExporter {
         for (JournalEntry journalEntry : journalEntries) {
 
             MetaTable metatable = MetaDataCache.getInstance().retrieveMetaData(journalEntry);
-            Record parsedJOESD = new JoesdParser(metatable).execute(journalEntry);
+            JoesdRecord parsedJOESD = metatable.getJoesdParser().execute(journalEntry);
 
             col = 0;
             for (JournalEntryColumn column : columns) {
@@ -13,11 +13,14 @@ import org.eclipse.jface.window.Window;
 import org.eclipse.swt.widgets.Shell;
 
 import biz.isphere.base.externalapi.AbstractAccess;
+import biz.isphere.journalexplorer.core.model.AbstractJournalExplorerInput;
 import biz.isphere.journalexplorer.core.model.JournalExplorerJournalInput;
 import biz.isphere.journalexplorer.core.model.JournalExplorerJsonFileInput;
 import biz.isphere.journalexplorer.core.model.JournalExplorerOutputFileInput;
+import biz.isphere.journalexplorer.core.model.JournalExplorerSnapshotFileInput;
 import biz.isphere.journalexplorer.core.model.OutputFile;
 import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesSnapshotDAO;
 import biz.isphere.journalexplorer.core.ui.dialogs.OpenJournalJsonFileDialog;
 import biz.isphere.journalexplorer.core.ui.dialogs.OpenJournalOutputFileDialog;
 import biz.isphere.journalexplorer.core.ui.views.JournalExplorerView;
@@ -108,6 +111,8 @@ public class Access extends AbstractAccess {
      * Opens the journal explorer for exploring journal entries exported as a PC
      * text file.<br>
      * The file must have been saved from the iSphere Journal Explorer view.
+     * Files with extension <code>.jsnap</code> are loaded as binary snapshot
+     * files, all other files as Json files.
      * 
      * @param shell - the parent shell.
      * @param connectionName - connection name that overwrites the connection
@@ -124,7 +129,12 @@ public class Access extends AbstractAccess {
 
         SQLWhereClause sqlWhereClause = new SQLWhereClause(whereClause);
 
-        JournalExplorerJsonFileInput input = new JournalExplorerJsonFileInput(connectionName, path, sqlWhereClause);
+        AbstractJournalExplorerInput input;
+        if (JournalEntriesSnapshotDAO.isSnapshotFile(path)) {
+            input = new JournalExplorerSnapshotFileInput(connectionName, path, sqlWhereClause);
+        } else {
+            input = new JournalExplorerJsonFileInput(connectionName, path, sqlWhereClause);
+        }
 
         JournalExplorerView.openJournal(ensureShell(shell), input, newTab);
     }
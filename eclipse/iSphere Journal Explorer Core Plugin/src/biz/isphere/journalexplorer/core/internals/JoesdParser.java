@@ -11,6 +11,12 @@
 
 package biz.isphere.journalexplorer.core.internals;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import biz.isphere.journalexplorer.base.as400.access.AS400DataLink;
 import biz.isphere.journalexplorer.base.interfaces.IJoesdParserDelegate;
 import biz.isphere.journalexplorer.core.Messages;
@@ -21,6 +27,7 @@ import biz.isphere.journalexplorer.core.model.MetaTable;
 import com.ibm.as400.access.AS400Bin2;
 import com.ibm.as400.access.AS400Bin4;
 import com.ibm.as400.access.AS400Bin8;
+import com.ibm.as400.access.AS400DataType;
 import com.ibm.as400.access.AS400Float4;
 import com.ibm.as400.access.AS400Float8;
 import com.ibm.as400.access.AS400PackedDecimal;
@@ -35,19 +42,44 @@ import com.ibm.as400.access.HexFieldDescription;
 import com.ibm.as400.access.PackedDecimalFieldDescription;
 import com.ibm.as400.access.Record;
 import com.ibm.as400.access.RecordFormat;
+import com.ibm.as400.access.VariableLengthFieldDescription;
 import com.ibm.as400.access.ZonedDecimalFieldDescription;
 
+/**
+ * Class that decodes the entry specific data (JOESD) of journal entries of a
+ * given {@link MetaTable}.
+ * <p>
+ * The parser compiles the record format of the table into a list of field
+ * decoders with precomputed buffer offsets. Binary, floating point, packed and
+ * zoned decimal fields as well as fixed length character fields of single byte
+ * CCSIDs are decoded inline. All other fields are decoded by the JTOpen
+ * {@link Record} of the entry, which is created on demand.
+ * <p>
+ * A parser is created once per table and shared by all journal entries of
+ * that table. It is thread-safe.
+ */
 public class JoesdParser {
 
+    private static final int BINARY_LENGTH_PREFIX = 2;
+
+    private static final int SINGLE_BYTE_TABLE_SIZE = 256;
+
+    private static Map<Integer, char[]> singleByteTables = new ConcurrentHashMap<Integer, char[]>();
+
     private MetaTable metadata;
 
     private RecordFormat joesdRecordFormat;
 
     private IJoesdParserDelegate joesdParserDelegate = new JoesdParserDelegate();
 
+    private FieldDecoder[] fieldDecoders;
+    private Map<String, Integer> fieldIndexes;
+    private int recordLength;
+
     public JoesdParser(MetaTable metadata) throws Exception {
         this.metadata = metadata;
         this.initialize();
+        this.compile();
     }
 
     private void initialize() throws Exception {
@@ -221,11 +253,133 @@ public class JoesdParser {
         return;
     }
 
-    public Record execute(JournalEntry journal) throws Exception {
+    /**
+     * Compiles the record format into field decoders. Inline decoders are only
+     * used, when the computed field offsets add up to the record length of the
+     * JTOpen record format. Otherwise all fields are decoded by the JTOpen
+     * record.
+     */
+    private void compile() throws Exception {
+
+        int numFields = joesdRecordFormat.getNumberOfFields();
+
+        fieldDecoders = new FieldDecoder[numFields];
+        fieldIndexes = new HashMap<String, Integer>();
+
+        int offset = 0;
+        for (int i = 0; i < numFields; i++) {
+            FieldDescription fieldDescription = joesdRecordFormat.getFieldDescription(i);
+            fieldDecoders[i] = createFieldDecoder(fieldDescription, offset);
+            fieldIndexes.put(fieldDescription.getFieldName(), new Integer(i));
+            offset += getFieldLength(fieldDescription);
+        }
+
+        recordLength = joesdRecordFormat.getNewRecord().getRecordLength();
+
+        if (offset != recordLength) {
+            for (int i = 0; i < numFields; i++) {
+                FieldDescription fieldDescription = joesdRecordFormat.getFieldDescription(i);
+                fieldDecoders[i] = new RecordFieldDecoder(fieldDescription.getDataType().getInstanceType());
+            }
+        }
+    }
+
+    private int getFieldLength(FieldDescription fieldDescription) {
+
+        int length = fieldDescription.getDataType().getByteLength();
+        if (isVariableLength(fieldDescription)) {
+            length += BINARY_LENGTH_PREFIX;
+        }
+
+        return length;
+    }
+
+    private boolean isVariableLength(FieldDescription fieldDescription) {
+
+        if (fieldDescription instanceof VariableLengthFieldDescription) {
+            return ((VariableLengthFieldDescription)fieldDescription).isVariableLength();
+        }
+
+        return false;
+    }
+
+    private FieldDecoder createFieldDecoder(FieldDescription fieldDescription, int offset) {
+
+        AS400DataType dataType = fieldDescription.getDataType();
+        int instanceType = dataType.getInstanceType();
+
+        if (isVariableLength(fieldDescription) || fieldDescription instanceof UnknownFieldDescription) {
+            return new RecordFieldDecoder(instanceType);
+        }
+
+        if (dataType instanceof AS400Bin2 || dataType instanceof AS400Bin4 || dataType instanceof AS400Bin8) {
+            return new BinaryFieldDecoder(dataType, offset);
+        } else if (dataType instanceof AS400Float4 || dataType instanceof AS400Float8) {
+            return new FloatFieldDecoder(dataType, offset);
+        } else if (dataType instanceof AS400PackedDecimal) {
+            return new PackedDecimalFieldDecoder((AS400PackedDecimal)dataType, offset);
+        } else if (dataType instanceof AS400ZonedDecimal) {
+            return new ZonedDecimalFieldDecoder((AS400ZonedDecimal)dataType, offset);
+        } else if (dataType instanceof AS400Text && fieldDescription instanceof CharacterFieldDescription) {
+            char[] table = getSingleByteTable(((AS400Text)dataType).getCcsid());
+            if (table != null) {
+                return new SingleByteTextFieldDecoder(dataType, offset, table);
+            }
+        }
+
+        return new RecordFieldDecoder(instanceType);
+    }
+
+    /**
+     * Returns the conversion table of a given single byte CCSID. The table is
+     * produced once per CCSID by converting all 256 byte values with JTOpen.
+     * 
+     * @param ccsid - CCSID of the table
+     * @return conversion table or <code>null</code>, if the CCSID is not a
+     *         single byte CCSID
+     */
+    private static char[] getSingleByteTable(int ccsid) {
+
+        if (ccsid == 65535) {
+            return null;
+        }
+
+        Integer key = new Integer(ccsid);
+        char[] table = singleByteTables.get(key);
+        if (table != null) {
+            return table.length == SINGLE_BYTE_TABLE_SIZE ? table : null;
+        }
+
+        try {
+
+            byte[] bytes = new byte[SINGLE_BYTE_TABLE_SIZE];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte)i;
+            }
+
+            String text = (String)new AS400Text(SINGLE_BYTE_TABLE_SIZE, ccsid).toObject(bytes);
+
+            // Mixed CCSIDs drop the shift-out character (0x0E)
+            if (text.length() == SINGLE_BYTE_TABLE_SIZE && text.charAt(0x0E) == '\u000E') {
+                table = text.toCharArray();
+            } else {
+                table = new char[0];
+            }
+
+        } catch (Throwable e) {
+            table = new char[0];
+        }
+
+        singleByteTables.put(key, table);
+
+        return table.length == SINGLE_BYTE_TABLE_SIZE ? table : null;
+    }
+
+    public JoesdRecord execute(JournalEntry journal) throws Exception {
 
         if (verifyJournalEntry(journal)) {
             byte[] recordData = journal.getSpecificData(metadata.getRecordLength());
-            return getJoesdRecordFormat().getNewRecord(recordData, metadata.getParsingOffset());
+            return new JoesdRecord(this, recordData, metadata.getParsingOffset());
         } else {
             throw new Exception(Messages.JoesdParser_TableMetadataDontMatchEntry);
         }
@@ -241,4 +395,301 @@ public class JoesdParser {
     public RecordFormat getJoesdRecordFormat() {
         return joesdRecordFormat;
     }
+
+    /**
+     * Returns the length of the record described by the record format.
+     * 
+     * @return record length
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    int getNumberOfFields() {
+        return fieldDecoders.length;
+    }
+
+    int getIndexOfFieldName(String name) {
+
+        Integer index = fieldIndexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("name (" + name + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        return index.intValue();
+    }
+
+    FieldDecoder getFieldDecoder(int index) {
+        return fieldDecoders[index];
+    }
+
+    /**
+     * Decoder of a field of the record buffer. A decoder returns
+     * <code>null</code>, when the field must be decoded by the JTOpen record,
+     * e.g. because of invalid decimal data.
+     */
+    static abstract class FieldDecoder {
+
+        private int instanceType;
+
+        public FieldDecoder(int instanceType) {
+            this.instanceType = instanceType;
+        }
+
+        public int getInstanceType() {
+            return instanceType;
+        }
+
+        public abstract Object decode(byte[] data, int offset);
+    }
+
+    private static class RecordFieldDecoder extends FieldDecoder {
+
+        public RecordFieldDecoder(int instanceType) {
+            super(instanceType);
+        }
+
+        @Override
+        public Object decode(byte[] data, int offset) {
+            return null;
+        }
+    }
+
+    private static abstract class FixedLengthFieldDecoder extends FieldDecoder {
+
+        private int fieldOffset;
+        private int length;
+
+        public FixedLengthFieldDecoder(AS400DataType dataType, int fieldOffset) {
+            super(dataType.getInstanceType());
+            this.fieldOffset = fieldOffset;
+            this.length = dataType.getByteLength();
+        }
+
+        protected int getLength() {
+            return length;
+        }
+
+        @Override
+        public Object decode(byte[] data, int offset) {
+
+            int start = offset + fieldOffset;
+            if (start < 0 || start + length > data.length) {
+                return null;
+            }
+
+            return decodeField(data, start);
+        }
+
+        protected abstract Object decodeField(byte[] data, int start);
+    }
+
+    private static class BinaryFieldDecoder extends FixedLengthFieldDecoder {
+
+        public BinaryFieldDecoder(AS400DataType dataType, int fieldOffset) {
+            super(dataType, fieldOffset);
+        }
+
+        @Override
+        protected Object decodeField(byte[] data, int start) {
+
+            long value = data[start];
+            for (int i = 1; i < getLength(); i++) {
+                value = (value << 8) | (data[start + i] & 0xFF);
+            }
+
+            switch (getLength()) {
+            case 2:
+                return new Short((short)value);
+            case 4:
+                return new Integer((int)value);
+            default:
+                return new Long(value);
+            }
+        }
+    }
+
+    private static class FloatFieldDecoder extends FixedLengthFieldDecoder {
+
+        public FloatFieldDecoder(AS400DataType dataType, int fieldOffset) {
+            super(dataType, fieldOffset);
+        }
+
+        @Override
+        protected Object decodeField(byte[] data, int start) {
+
+            long bits = 0;
+            for (int i = 0; i < getLength(); i++) {
+                bits = (bits << 8) | (data[start + i] & 0xFF);
+            }
+
+            if (getLength() == 4) {
+                return new Float(Float.intBitsToFloat((int)bits));
+            } else {
+                return new Double(Double.longBitsToDouble(bits));
+            }
+        }
+    }
+
+    private static abstract class DecimalFieldDecoder extends FixedLengthFieldDecoder {
+
+        private static final int MAX_LONG_DIGITS = 18;
+
+        private int numDigits;
+        private int numDecimalPositions;
+
+        public DecimalFieldDecoder(AS400DataType dataType, int fieldOffset, int numDigits, int numDecimalPositions) {
+            super(dataType, fieldOffset);
+            this.numDigits = numDigits;
+            this.numDecimalPositions = numDecimalPositions;
+        }
+
+        protected int getNumberOfDigits() {
+            return numDigits;
+        }
+
+        protected BigDecimal toBigDecimal(long unscaledValue) {
+            return new BigDecimal(BigInteger.valueOf(unscaledValue), numDecimalPositions);
+        }
+
+        protected BigDecimal toBigDecimal(char[] digits, boolean isNegative) {
+
+            BigInteger unscaledValue = new BigInteger(new String(digits));
+            if (isNegative) {
+                unscaledValue = unscaledValue.negate();
+            }
+
+            return new BigDecimal(unscaledValue, numDecimalPositions);
+        }
+
+        protected boolean fitsIntoLong() {
+            return numDigits <= MAX_LONG_DIGITS;
+        }
+
+        protected static boolean isNegativeSign(int sign) {
+            return sign == 0x0B || sign == 0x0D;
+        }
+
+        protected static boolean isPositiveSign(int sign) {
+            return sign == 0x0A || sign == 0x0C || sign == 0x0E || sign == 0x0F;
+        }
+    }
+
+    /**
+     * Decodes packed decimal fields. Two digits are stored per byte. The sign
+     * is stored in the low order nibble of the last byte.
+     */
+    private static class PackedDecimalFieldDecoder extends DecimalFieldDecoder {
+
+        public PackedDecimalFieldDecoder(AS400PackedDecimal dataType, int fieldOffset) {
+            super(dataType, fieldOffset, dataType.getNumberOfDigits(), dataType.getNumberOfDecimalPositions());
+        }
+
+        @Override
+        protected Object decodeField(byte[] data, int start) {
+
+            int length = getLength();
+            int numNibbles = length * 2 - 1;
+            int skipNibbles = numNibbles - getNumberOfDigits();
+
+            int sign = data[start + length - 1] & 0x0F;
+            if (!isNegativeSign(sign) && !isPositiveSign(sign)) {
+                return null;
+            }
+
+            if (skipNibbles > 0 && (data[start] & 0xF0) != 0) {
+                return null;
+            }
+
+            long longValue = 0;
+            char[] digits = fitsIntoLong() ? null : new char[getNumberOfDigits()];
+
+            for (int n = skipNibbles; n < numNibbles; n++) {
+                int b = data[start + n / 2];
+                int digit = (n % 2 == 0) ? (b >> 4) & 0x0F : b & 0x0F;
+                if (digit > 9) {
+                    return null;
+                }
+                if (digits == null) {
+                    longValue = longValue * 10 + digit;
+                } else {
+                    digits[n - skipNibbles] = (char)('0' + digit);
+                }
+            }
+
+            if (digits == null) {
+                return toBigDecimal(isNegativeSign(sign) ? -longValue : longValue);
+            } else {
+                return toBigDecimal(digits, isNegativeSign(sign));
+            }
+        }
+    }
+
+    /**
+     * Decodes zoned decimal fields. One digit is stored per byte. The sign is
+     * stored in the zone of the last byte.
+     */
+    private static class ZonedDecimalFieldDecoder extends DecimalFieldDecoder {
+
+        public ZonedDecimalFieldDecoder(AS400ZonedDecimal dataType, int fieldOffset) {
+            super(dataType, fieldOffset, dataType.getNumberOfDigits(), dataType.getNumberOfDecimalPositions());
+        }
+
+        @Override
+        protected Object decodeField(byte[] data, int start) {
+
+            int length = getLength();
+
+            int sign = (data[start + length - 1] >> 4) & 0x0F;
+            if (!isNegativeSign(sign) && !isPositiveSign(sign)) {
+                return null;
+            }
+
+            long longValue = 0;
+            char[] digits = fitsIntoLong() ? null : new char[length];
+
+            for (int i = 0; i < length; i++) {
+                int b = data[start + i];
+                if (i < length - 1 && ((b >> 4) & 0x0F) != 0x0F) {
+                    return null;
+                }
+                int digit = b & 0x0F;
+                if (digit > 9) {
+                    return null;
+                }
+                if (digits == null) {
+                    longValue = longValue * 10 + digit;
+                } else {
+                    digits[i] = (char)('0' + digit);
+                }
+            }
+
+            if (digits == null) {
+                return toBigDecimal(isNegativeSign(sign) ? -longValue : longValue);
+            } else {
+                return toBigDecimal(digits, isNegativeSign(sign));
+            }
+        }
+    }
+
+    private static class SingleByteTextFieldDecoder extends FixedLengthFieldDecoder {
+
+        private char[] table;
+
+        public SingleByteTextFieldDecoder(AS400DataType dataType, int fieldOffset, char[] table) {
+            super(dataType, fieldOffset);
+            this.table = table;
+        }
+
+        @Override
+        protected Object decodeField(byte[] data, int start) {
+
+            char[] chars = new char[getLength()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = table[data[start + i] & 0xFF];
+            }
+
+            return new String(chars);
+        }
+    }
 }
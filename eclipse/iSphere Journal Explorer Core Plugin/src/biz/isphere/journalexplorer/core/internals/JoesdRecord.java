@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.internals;
+
+import java.io.UnsupportedEncodingException;
+
+import com.ibm.as400.access.Record;
+
+/**
+ * Class that holds the decoded entry specific data (JOESD) of a journal entry.
+ * The fields are decoded on demand by the field decoders of the
+ * {@link JoesdParser} that produced the record. Fields that cannot be decoded
+ * inline are taken from a JTOpen {@link Record}, which is created when it is
+ * needed for the first time.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public class JoesdRecord {
+
+    private JoesdParser parser;
+    private byte[] data;
+    private int offset;
+
+    private Object[] fields;
+    private Record record;
+
+    JoesdRecord(JoesdParser parser, byte[] data, int offset) {
+
+        this.parser = parser;
+        this.data = data;
+        this.offset = offset;
+
+        this.fields = new Object[parser.getNumberOfFields()];
+        this.record = null;
+    }
+
+    /**
+     * Returns the number of fields of the record.
+     *
+     * @return number of fields
+     */
+    public int getNumberOfFields() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the value of a given field.
+     *
+     * @param name - name of the field
+     * @return field value
+     * @throws UnsupportedEncodingException
+     */
+    public Object getField(String name) throws UnsupportedEncodingException {
+        return getField(parser.getIndexOfFieldName(name));
+    }
+
+    /**
+     * Returns the value of a given field.
+     *
+     * @param index - index of the field
+     * @return field value
+     * @throws UnsupportedEncodingException
+     */
+    public Object getField(int index) throws UnsupportedEncodingException {
+
+        Object value = fields[index];
+        if (value == null) {
+            value = parser.getFieldDecoder(index).decode(data, offset);
+            if (value == null) {
+                value = getRecord().getField(index);
+            }
+            fields[index] = value;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the instance type of the data type of a given field as defined
+     * by the <code>AS400DataType</code> interface.
+     *
+     * @param name - name of the field
+     * @return instance type of the field
+     */
+    public int getInstanceType(String name) {
+        return parser.getFieldDecoder(parser.getIndexOfFieldName(name)).getInstanceType();
+    }
+
+    private Record getRecord() throws UnsupportedEncodingException {
+
+        if (record == null) {
+            record = parser.getJoesdRecordFormat().getNewRecord(data, offset);
+        }
+
+        return record;
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model;
+
+import java.util.List;
+
+/**
+ * List of journal entries, that are decoded on demand, block by block, such
+ * as the journal entries of a snapshot file.
+ * <p>
+ * Only the blocks recently accessed by {@link #get(int)} are kept in memory.
+ * Operations, that visit all journal entries, such as filtering or saving, use
+ * {@link #scanBlock(int)} instead, which does not keep the decoded blocks in
+ * memory. The list returns the same journal entry objects on each call only
+ * for pinned journal entries, which are the entries retained by
+ * {@link #retain(int, JournalEntry)} and the selected entries set by
+ * {@link #setSelectedEntries(int[])}.
+ */
+public interface ILazyJournalEntryList extends List<JournalEntry> {
+
+    /**
+     * Returns the number of blocks of the list.
+     *
+     * @return number of blocks
+     */
+    public int getNumberOfBlocks();
+
+    /**
+     * Returns the index of the first journal entry of a given block.
+     *
+     * @param block - block number
+     * @return index of the first journal entry of the block
+     */
+    public int getFirstIndex(int block);
+
+    /**
+     * Returns the journal entries of a given block. A block, that has not yet
+     * been accessed by {@link #get(int)}, is decoded, but not kept in memory.
+     * This method can be called by multiple threads concurrently.
+     *
+     * @param block - block number
+     * @return journal entries of the block
+     */
+    public JournalEntry[] scanBlock(int block);
+
+    /**
+     * Keeps a journal entry returned by {@link #scanBlock(int)} in memory, so
+     * that {@link #get(int)} returns the same object. Returns the journal
+     * entry, that must be used by the caller, which is a different object,
+     * when the block has been decoded by {@link #get(int)} in the meantime.
+     *
+     * @param index - index of the journal entry
+     * @param journalEntry - journal entry returned by scanBlock()
+     * @return journal entry kept by the list
+     */
+    public JournalEntry retain(int index, JournalEntry journalEntry);
+
+    /**
+     * Pins the journal entries selected in the viewer, so that they keep their
+     * identity, when their blocks are released. Replaces the previously
+     * selected entries. Only journal entries of blocks, that are currently
+     * kept in memory, are pinned.
+     *
+     * @param indices - indices of the selected journal entries
+     */
+    public void setSelectedEntries(int[] indices);
+}
@@ -9,13 +9,18 @@
 package biz.isphere.journalexplorer.core.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.medfoster.sqljep.ParseException;
-import org.medfoster.sqljep.RowJEP;
 
 import com.google.gson.annotations.Expose;
 
@@ -31,6 +36,7 @@ import biz.isphere.journalexplorer.core.model.adapters.JournalProperty;
 import biz.isphere.journalexplorer.core.model.api.IBMiMessage;
 import biz.isphere.journalexplorer.core.model.shared.JournaledFile;
 import biz.isphere.journalexplorer.core.model.shared.JournaledObject;
+import biz.isphere.journalexplorer.core.model.sqljep.JournalEntryFilter;
 
 /**
  * Class to hold the {@link JournalEntry} as received from a journal or a
@@ -48,6 +54,8 @@ import biz.isphere.journalexplorer.core.model.shared.JournaledObject;
  */
 public class JournalEntries implements JsonSerializable {
 
+    private static final int MIN_ENTRIES_PARALLEL_FILTERING = 10000;
+
     @Expose(serialize = true, deserialize = true)
     private List<JournalEntry> journalEntries;
     @Expose(serialize = true, deserialize = true)
@@ -157,9 +165,31 @@ public class JournalEntries implements JsonSerializable {
 
         TimeTaken timeTaken = TimeTaken.start("Filtering journal entries"); // //$NON-NLS-1$
 
-        filteredJournalEntries = new ArrayList<JournalEntry>(journalEntries.size());
+        List<JournalEntry> filteredEntries;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        if (journalEntries instanceof ILazyJournalEntryList) {
+            filteredEntries = applyFilterLazy(whereClause, (ILazyJournalEntryList)journalEntries, numThreads, monitor);
+        } else if (numThreads <= 1 || journalEntries.size() < MIN_ENTRIES_PARALLEL_FILTERING) {
+            filteredEntries = applyFilterSequential(whereClause, monitor);
+        } else {
+            filteredEntries = applyFilterParallel(whereClause, numThreads, monitor);
+        }
+
+        if (filteredEntries == null) {
+            // canceled by the user
+            removeFilter();
+        } else {
+            filteredJournalEntries = filteredEntries;
+        }
+
+        timeTaken.stop();
+    }
+
+    private List<JournalEntry> applyFilterSequential(SQLWhereClause whereClause, IProgressMonitor monitor) throws ParseException {
+
+        List<JournalEntry> filteredEntries = new ArrayList<JournalEntry>(journalEntries.size());
 
-        boolean isFound;
+        JournalEntryFilter filter = new JournalEntryFilter(whereClause);
 
         int count = 0;
         for (JournalEntry journalEntry : journalEntries) {
@@ -167,36 +197,129 @@ public class JournalEntries implements JsonSerializable {
             count++;
 
             if (monitor != null && count % 50 == 0) {
+                if (monitor.isCanceled()) {
+                    return null;
+                }
                 monitor.setTaskName(Messages.Status_Filtering_journal_entries + "(" + count + ")"); //$NON-NLS-1$ //$NON-NLS-2$
             }
 
-            RowJEP sqljep = new RowJEP(whereClause.getClause());
-            if (whereClause.hasSpecificFields() && tableDoesNotMatch(whereClause, journalEntry)) {
-                // Always not found, when the where clause includes record
-                // specific fields and the table does not match.
-                isFound = false;
-            } else {
-                // Compare JO* and record specific fields
-                sqljep.parseExpression(journalEntry.getColumnMapping());
-                Comparable<?>[] row = journalEntry.getRow();
-                isFound = (Boolean)sqljep.getValue(row);
+            if (filter.matches(journalEntry)) {
+                filteredEntries.add(journalEntry);
             }
+        }
 
-            if (isFound) {
-                filteredJournalEntries.add(journalEntry);
-            }
+        return filteredEntries;
+    }
+
+    /**
+     * Splits the journal entries into chunks, which are filtered concurrently.
+     * The results of the chunks are merged in the original order of the journal
+     * entries. Returns <code>null</code>, when the operation has been canceled.
+     */
+    private List<JournalEntry> applyFilterParallel(SQLWhereClause whereClause, int numThreads, IProgressMonitor monitor) throws ParseException {
+
+        int numChunks = numThreads * 4;
+        int chunkSize = (journalEntries.size() + numChunks - 1) / numChunks;
+
+        JournalEntryFilter filter = createSharedFilter(whereClause);
+
+        List<AbstractFilterTask> tasks = new ArrayList<AbstractFilterTask>(numChunks);
+        for (int start = 0; start < journalEntries.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, journalEntries.size());
+            tasks.add(new FilterChunkTask(filter, journalEntries.subList(start, end), monitor));
         }
 
-        timeTaken.stop();
+        return executeFilterTasks(tasks, numThreads, monitor);
     }
 
-    private boolean tableDoesNotMatch(SQLWhereClause whereClause, JournalEntry journalEntry) {
+    /**
+     * Filters journal entries, that are decoded on demand. The blocks of the
+     * list are scanned, so that only the matching journal entries are kept in
+     * memory. Large lists are split into chunks of blocks, which are filtered
+     * concurrently. Returns <code>null</code>, when the operation has been
+     * canceled.
+     */
+    private List<JournalEntry> applyFilterLazy(SQLWhereClause whereClause, ILazyJournalEntryList lazyEntries, int numThreads,
+        IProgressMonitor monitor) throws ParseException {
+
+        if (lazyEntries.size() < MIN_ENTRIES_PARALLEL_FILTERING) {
+            numThreads = 1;
+        }
+
+        int numBlocks = lazyEntries.getNumberOfBlocks();
+        int numChunks = numThreads * 4;
+        int blocksPerChunk = Math.max(1, (numBlocks + numChunks - 1) / numChunks);
+
+        JournalEntryFilter filter = createSharedFilter(whereClause);
 
-        if (!whereClause.getFile().equals(journalEntry.getObjectName()) || !whereClause.getLibrary().equals(journalEntry.getObjectLibrary())) {
-            return true;
+        List<AbstractFilterTask> tasks = new ArrayList<AbstractFilterTask>(numChunks);
+        for (int firstBlock = 0; firstBlock < numBlocks; firstBlock += blocksPerChunk) {
+            int lastBlock = Math.min(firstBlock + blocksPerChunk, numBlocks);
+            tasks.add(new FilterBlocksTask(filter, lazyEntries, firstBlock, lastBlock, monitor));
         }
 
-        return false;
+        return executeFilterTasks(tasks, numThreads, monitor);
+    }
+
+    /**
+     * Produces the filter, that is copied by the filter tasks. The record
+     * formats of the journaled files are resolved before the tasks are
+     * started, so that the tasks do not compete for the meta data cache.
+     */
+    private JournalEntryFilter createSharedFilter(SQLWhereClause whereClause) {
+
+        JournalEntryFilter filter = new JournalEntryFilter(whereClause);
+        filter.resolveRecordFormats(getJournaledObjects());
+
+        return filter;
+    }
+
+    /**
+     * Executes the filter tasks and merges their results in the order of the
+     * tasks.
+     */
+    private List<JournalEntry> executeFilterTasks(List<AbstractFilterTask> tasks, int numThreads, IProgressMonitor monitor) throws ParseException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        try {
+
+            List<Future<List<JournalEntry>>> chunks = new ArrayList<Future<List<JournalEntry>>>(tasks.size());
+            for (AbstractFilterTask task : tasks) {
+                chunks.add(executor.submit(task));
+            }
+
+            List<JournalEntry> filteredEntries = new ArrayList<JournalEntry>();
+
+            int count = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+
+                List<JournalEntry> filteredChunk = chunks.get(i).get();
+                if (filteredChunk == null) {
+                    return null;
+                }
+
+                filteredEntries.addAll(filteredChunk);
+
+                count += tasks.get(i).getNumberOfEntries();
+                if (monitor != null) {
+                    monitor.setTaskName(Messages.Status_Filtering_journal_entries + "(" + count + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+
+            return filteredEntries;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ParseException) {
+                throw (ParseException)e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     public void removeFilter() {
@@ -230,6 +353,40 @@ public class JournalEntries implements JsonSerializable {
         }
     }
 
+    /**
+     * Replaces the journal entries with a list, that decodes the entries on
+     * demand, such as the entries of a snapshot file. The journaled objects
+     * are passed in, because collecting them from the list would decode all
+     * entries.
+     * 
+     * @param journalEntries - journal entries
+     * @param journaledObjects - journaled objects of the journal entries
+     */
+    public void setItems(List<JournalEntry> journalEntries, Collection<JournaledObject> journaledObjects) {
+
+        this.journalEntries = journalEntries;
+        this.filteredJournalEntries = null;
+        this.journaledObjects = new HashSet<JournaledObject>(journaledObjects);
+    }
+
+    /**
+     * Returns the distinct list of journaled objects of the journal entries.
+     * 
+     * @return journaled objects
+     */
+    public JournaledObject[] getJournaledObjects() {
+        return journaledObjects.toArray(new JournaledObject[journaledObjects.size()]);
+    }
+
+    /**
+     * Returns all downloaded journal entries, regardless of an active filter.
+     * 
+     * @return downloaded journal entries
+     */
+    public List<JournalEntry> getDownloadedItems() {
+        return journalEntries;
+    }
+
     public JournalEntry getItem(int index) {
 
         if (getItems().size() < 0) {
@@ -239,6 +396,20 @@ public class JournalEntries implements JsonSerializable {
         return getItems().get(index);
     }
 
+    /**
+     * Keeps the selected journal entries in memory, when the journal entries
+     * are decoded on demand, so that the selected entries keep their identity.
+     * 
+     * @param indices - indices of the selected journal entries
+     */
+    public void setSelectedItems(int[] indices) {
+
+        List<JournalEntry> items = getItems();
+        if (items instanceof ILazyJournalEntryList) {
+            ((ILazyJournalEntryList)items).setSelectedEntries(indices);
+        }
+    }
+
     public boolean isOverflow() {
         return isOverflow;
     }
@@ -298,16 +469,12 @@ public class JournalEntries implements JsonSerializable {
 
                 List<JournalEntry> filteredJournalEntries = new ArrayList<JournalEntry>();
 
-                RowJEP sqljep = new RowJEP(whereClause.getClause());
+                JournalEntryFilter filter = new JournalEntryFilter(whereClause);
 
                 for (JournalEntry journalEntry : journalEntries) {
-
-                    sqljep.parseExpression(journalEntry.getColumnMapping());
-                    Comparable<?>[] row = journalEntry.getRow();
-                    if ((Boolean)sqljep.getValue(row)) {
+                    if (filter.matches(journalEntry)) {
                         filteredJournalEntries.add(journalEntry);
                     }
-
                 }
 
                 journalEntries = filteredJournalEntries;
@@ -317,9 +484,22 @@ public class JournalEntries implements JsonSerializable {
             ISpherePlugin.logError("*** Could no apply SQL where clause ***", e);
         }
 
+        finalizeJsonLoading(connectionName);
+    }
+
+    /**
+     * Finalizes loading journal entries from a Json file, when the SQL where
+     * clause has already been applied, while reading the entries.
+     * 
+     * @param connectionName - connection name that overwrites the connection
+     *        name of the Json file
+     */
+    public void finalizeJsonLoading(String connectionName) {
+
         /* Build a distinct list of journaled objects */
         journaledObjects = new HashSet<JournaledObject>();
         for (JournalEntry journalEntry : journalEntries) {
+            journalEntry.internStrings();
             if (!StringHelper.isNullOrEmpty(connectionName)) {
                 journalEntry.overwriteConnectionName(connectionName);
             }
@@ -361,4 +541,124 @@ public class JournalEntries implements JsonSerializable {
         }
 
     }
+
+    /**
+     * Base class of the tasks that filter a part of the journal entries. Each
+     * task uses its own copy of the {@link JournalEntryFilter}, because
+     * filters are not thread-safe.
+     */
+    private abstract class AbstractFilterTask implements Callable<List<JournalEntry>> {
+
+        protected JournalEntryFilter filter;
+        protected IProgressMonitor monitor;
+
+        public AbstractFilterTask(JournalEntryFilter filter, IProgressMonitor monitor) {
+            this.filter = filter.copy();
+            this.monitor = monitor;
+        }
+
+        /**
+         * Returns the number of journal entries, that are filtered by this
+         * task.
+         */
+        public abstract int getNumberOfEntries();
+
+        protected boolean isCanceled() {
+            return (monitor != null && monitor.isCanceled()) || Thread.currentThread().isInterrupted();
+        }
+    }
+
+    /**
+     * Task that filters a chunk of the journal entries.
+     */
+    private class FilterChunkTask extends AbstractFilterTask {
+
+        private List<JournalEntry> chunk;
+
+        public FilterChunkTask(JournalEntryFilter filter, List<JournalEntry> chunk, IProgressMonitor monitor) {
+            super(filter, monitor);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int getNumberOfEntries() {
+            return chunk.size();
+        }
+
+        public List<JournalEntry> call() throws Exception {
+
+            List<JournalEntry> filteredChunk = new ArrayList<JournalEntry>(chunk.size());
+
+            int count = 0;
+            for (JournalEntry journalEntry : chunk) {
+
+                count++;
+
+                if (count % 50 == 0 && isCanceled()) {
+                    return null;
+                }
+
+                if (filter.matches(journalEntry)) {
+                    filteredChunk.add(journalEntry);
+                }
+            }
+
+            return filteredChunk;
+        }
+    }
+
+    /**
+     * Task that filters a range of blocks of journal entries, that are decoded
+     * on demand. Only the matching journal entries are retained by the list.
+     */
+    private class FilterBlocksTask extends AbstractFilterTask {
+
+        private ILazyJournalEntryList lazyEntries;
+        private int firstBlock;
+        private int lastBlock;
+
+        public FilterBlocksTask(JournalEntryFilter filter, ILazyJournalEntryList lazyEntries, int firstBlock, int lastBlock,
+            IProgressMonitor monitor) {
+            super(filter, monitor);
+            this.lazyEntries = lazyEntries;
+            this.firstBlock = firstBlock;
+            this.lastBlock = lastBlock;
+        }
+
+        @Override
+        public int getNumberOfEntries() {
+
+            int end;
+            if (lastBlock >= lazyEntries.getNumberOfBlocks()) {
+                end = lazyEntries.size();
+            } else {
+                end = lazyEntries.getFirstIndex(lastBlock);
+            }
+
+            return end - lazyEntries.getFirstIndex(firstBlock);
+        }
+
+        public List<JournalEntry> call() throws Exception {
+
+            List<JournalEntry> filteredChunk = new ArrayList<JournalEntry>();
+
+            for (int block = firstBlock; block < lastBlock; block++) {
+
+                if (isCanceled()) {
+                    return null;
+                }
+
+                JournalEntry[] blockEntries = lazyEntries.scanBlock(block);
+                int start = lazyEntries.getFirstIndex(block);
+
+                for (int i = 0; i < blockEntries.length; i++) {
+                    if (filter.matches(blockEntries[i])) {
+                        filteredChunk.add(lazyEntries.retain(start + i, blockEntries[i]));
+                    }
+                }
+            }
+
+            return filteredChunk;
+        }
+    }
 }
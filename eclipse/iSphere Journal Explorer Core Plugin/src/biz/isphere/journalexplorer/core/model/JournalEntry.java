@@ -11,9 +11,9 @@
 
 package biz.isphere.journalexplorer.core.model;
 
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.SoftReference;
 import java.math.BigInteger;
-import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import biz.isphere.base.internal.IntHelper;
 import biz.isphere.base.internal.StringHelper;
+import biz.isphere.base.internal.StringPool;
 import biz.isphere.core.swt.widgets.ContentAssistProposal;
 import biz.isphere.journalexplorer.base.interfaces.IDatatypeConverterDelegate;
 import biz.isphere.journalexplorer.core.Messages;
@@ -50,6 +51,9 @@ public class JournalEntry {
 
     public static final String USER_GENERATED = "U"; //$NON-NLS-1$
 
+    private static final byte EBCDIC_ZERO = (byte)0xF0;
+    private static final byte EBCDIC_ONE = (byte)0xF1;
+
     private static final int JOCODE = 0;
     private static final int JOENTT = 1;
     private static final int JOJOB = 2;
@@ -73,6 +77,15 @@ public class JournalEntry {
     private static final int JOCCID = 19;
     private static final int JOCTRR = 20;
 
+    private static final IDatatypeConverterDelegate datatypeConverterDelegate = new DatatypeConverterDelegate();
+
+    /*
+     * Pool of the string values, that repeat across journal entries, such as
+     * job, program and object names. Values, that are unique for most
+     * entries, such as thread ID and remote address, are not pooled.
+     */
+    private static final StringPool stringPool = new StringPool();
+
     private static HashMap<String, Integer> basicColumnMappings;
     static {
         basicColumnMappings = new HashMap<String, Integer>();
@@ -277,8 +290,6 @@ public class JournalEntry {
     @Expose(serialize = true, deserialize = true)
     private byte[] specificData; // JOESD
     @Expose(serialize = true, deserialize = true)
-    private String stringSpecificData; // JOESD (String)
-    @Expose(serialize = true, deserialize = true)
     private String programAspDevice; // JOPGMDEV
     @Expose(serialize = true, deserialize = true)
     private long programAsp; // JOPGMASP
@@ -328,19 +339,12 @@ public class JournalEntry {
     private transient String qualifiedObjectName;
     private transient JournaledFile journaledFile;
     private transient String stringSpecificDataForUI;
+    private transient String stringSpecificData; // JOESD (String)
 
     // Transient values
-    private transient IDatatypeConverterDelegate datatypeConverterDelegate;
-    private transient DecimalFormat bin8Formatter;
-    private transient DecimalFormat nestedCommitLevelFormatter;
-    private transient SimpleDateFormat dateFormatter;
-    private transient SimpleDateFormat timeFormatter;
-    private transient SimpleDateFormat timestampFormatter;
-    private transient Calendar calendar;
-
-    private transient JOESDProperty joesdProperty;
+    private transient SoftReference<JOESDProperty> joesdProperty;
     private transient HashMap<String, Integer> fullColumnMapping;
-    private transient JournalProperties journalProperties;
+    private transient SoftReference<JournalProperties> journalProperties;
 
     /**
      * Produces a new JournalEntry object. This constructor is used by the Json
@@ -360,10 +364,10 @@ public class JournalEntry {
 
         // Serialised values
         if (outputFile != null) {
-            this.connectionName = outputFile.getConnectionName();
-            this.outputFileName = outputFile.getFileName();
-            this.outputFileLibraryName = outputFile.getLibraryName();
-            this.outputFileMemberName = outputFile.getMemberName();
+            this.connectionName = intern(outputFile.getConnectionName());
+            this.outputFileName = intern(outputFile.getFileName());
+            this.outputFileLibraryName = intern(outputFile.getLibraryName());
+            this.outputFileMemberName = intern(outputFile.getMemberName());
         }
 
         // Transient values, set on demand
@@ -372,15 +376,6 @@ public class JournalEntry {
         this.stringSpecificDataForUI = null;
 
         // Transient values
-        this.datatypeConverterDelegate = new DatatypeConverterDelegate();
-        this.bin8Formatter = new DecimalFormat("00000000000000000000");
-        this.nestedCommitLevelFormatter = new DecimalFormat("0000000");
-
-        this.dateFormatter = biz.isphere.core.preferences.Preferences.getInstance().getDateFormatter();
-        this.timeFormatter = biz.isphere.core.preferences.Preferences.getInstance().getTimeFormatter();
-        this.timestampFormatter = new SimpleDateFormat("yyyy-MM-dd-HH.mm.ss.SSS"); //$NON-NLS-1$
-        this.calendar = Calendar.getInstance();
-
         this.joesdProperty = null;
         this.fullColumnMapping = null;
         this.journalProperties = null;
@@ -493,27 +488,42 @@ public class JournalEntry {
     }
 
     public Comparable<?>[] getRow() {
+        return getRow(null);
+    }
 
-        Comparable<?>[] row = getBasicRow();
+    /**
+     * Returns the row of JO* and entry specific values. The values are stored
+     * in the given row buffer, if it has the required length. Otherwise a new
+     * row is returned. Callers can compare the returned array with the buffer
+     * to check whether the row format matches.
+     * 
+     * @param row - row buffer that is reused or <code>null</code>
+     * @return row of column values
+     */
+    public Comparable<?>[] getRow(Comparable<?>[] row) {
 
-        JournalProperty[] rowProperties = joesdProperty.toPropertyArray();
-        row = Arrays.copyOf(row, row.length + rowProperties.length);
+        JOESDProperty joesdProperty = getJOESDProperty();
+        int rowLength = basicColumnMappings.size() + joesdProperty.getNumberOfProperties();
 
-        int i = JOCTRR + 1;
-        for (int p = 0; p < rowProperties.length; p++) {
-            if (rowProperties[p].value instanceof String) {
-                row[i] = StringHelper.trimR((String)rowProperties[p].value);
-            } else {
-                row[i] = (Comparable<?>)rowProperties[p].value;
-            }
-            i++;
+        if (row == null || row.length != rowLength) {
+            row = new Comparable[rowLength];
         }
+
+        fillBasicRow(row);
+        joesdProperty.copyValuesToRow(row, JOCTRR + 1);
+
         return row;
     }
 
     public Comparable<?>[] getBasicRow() {
 
         Comparable<?>[] row = new Comparable[basicColumnMappings.size()];
+        fillBasicRow(row);
+
+        return row;
+    }
+
+    private void fillBasicRow(Comparable<?>[] row) {
 
         row[JOCODE] = getJournalCode();
         row[JOENTT] = getEntryType();
@@ -537,8 +547,6 @@ public class JournalEntry {
         row[JOSEQN] = getSequenceNumber();
         row[JOCCID] = getCommitmentCycle();
         row[JOCTRR] = getCountRrn();
-
-        return row;
     }
 
     // //////////////////////////////////////////////////////////
@@ -550,7 +558,55 @@ public class JournalEntry {
     }
 
     public void overwriteConnectionName(String connectionName) {
-        this.connectionName = connectionName;
+        this.connectionName = intern(connectionName);
+    }
+
+    /**
+     * Replaces the string values of this journal entry with the shared values
+     * of the {@link StringPool}. This method is called for journal entries that
+     * have been loaded from a Json file, because the Json importer does not use
+     * the setters.
+     */
+    public void internStrings() {
+
+        connectionName = intern(connectionName);
+        outputFileName = intern(outputFileName);
+        outputFileLibraryName = intern(outputFileLibraryName);
+        outputFileMemberName = intern(outputFileMemberName);
+        journalCode = intern(journalCode);
+        entryType = intern(entryType);
+        jobName = intern(jobName);
+        jobUserName = intern(jobUserName);
+        programName = intern(programName);
+        programLibrary = intern(programLibrary);
+        objectName = intern(objectName);
+        objectLibrary = intern(objectLibrary);
+        memberName = intern(memberName);
+        flag = intern(flag);
+        userProfile = intern(userProfile);
+        systemName = intern(systemName);
+        journalID = intern(journalID);
+        referentialConstraint = intern(referentialConstraint);
+        referentialConstraintText = intern(referentialConstraintText);
+        trigger = intern(trigger);
+        triggerText = intern(triggerText);
+        incompleteData = intern(incompleteData);
+        incompleteDataText = intern(incompleteDataText);
+        apyRmvJrnChg = intern(apyRmvJrnChg);
+        apyRmvJrnChgText = intern(apyRmvJrnChgText);
+        minimizedSpecificData = intern(minimizedSpecificData);
+        minimizedSpecificDataText = intern(minimizedSpecificDataText);
+        programAspDevice = intern(programAspDevice);
+        objectIndicator = intern(objectIndicator);
+        objectIndicatorText = intern(objectIndicatorText);
+        receiver = intern(receiver);
+        receiverLibrary = intern(receiverLibrary);
+        receiverAspDevice = intern(receiverAspDevice);
+        addressFamily = intern(addressFamily);
+        addressFamilyText = intern(addressFamilyText);
+        objectType = intern(objectType);
+        fileTypeIndicator = intern(fileTypeIndicator);
+        fileTypeIndicatorText = intern(fileTypeIndicatorText);
     }
 
     public String getKey() {
@@ -623,7 +679,7 @@ public class JournalEntry {
     }
 
     public void setJournalCode(String journalCode) {
-        this.journalCode = journalCode.trim();
+        this.journalCode = intern(journalCode.trim());
     }
 
     /**
@@ -638,7 +694,7 @@ public class JournalEntry {
     }
 
     public void setEntryType(String entryType) {
-        this.entryType = entryType.trim();
+        this.entryType = intern(entryType.trim());
     }
 
     /**
@@ -656,6 +712,7 @@ public class JournalEntry {
 
     private void setDate(java.sql.Timestamp timestamp) {
 
+        Calendar calendar = JournalEntryFormatters.getInstance().getCalendar();
         calendar.clear();
         calendar.setTime(timestamp);
 
@@ -686,6 +743,7 @@ public class JournalEntry {
 
     private void setTime(java.sql.Timestamp timestamp) {
 
+        Calendar calendar = JournalEntryFormatters.getInstance().getCalendar();
         calendar.clear();
         calendar.setTime(timestamp);
         calendar.set(Calendar.MILLISECOND, 0);
@@ -698,6 +756,7 @@ public class JournalEntry {
 
     public void setTimestamp(java.sql.Date date, java.sql.Time time) {
 
+        Calendar calendar = JournalEntryFormatters.getInstance().getCalendar();
         calendar.clear();
         calendar.setTime(time);
 
@@ -736,7 +795,7 @@ public class JournalEntry {
     }
 
     public void setJobName(String jobName) {
-        this.jobName = jobName.trim();
+        this.jobName = intern(jobName.trim());
     }
 
     /**
@@ -751,7 +810,7 @@ public class JournalEntry {
     }
 
     public void setJobUserName(String userName) {
-        this.jobUserName = userName.trim();
+        this.jobUserName = intern(userName.trim());
     }
 
     /**
@@ -785,7 +844,7 @@ public class JournalEntry {
     }
 
     public void setProgramName(String programName) {
-        this.programName = programName.trim();
+        this.programName = intern(programName.trim());
     }
 
     /**
@@ -801,7 +860,7 @@ public class JournalEntry {
     }
 
     public void setProgramLibrary(String programLibrary) {
-        this.programLibrary = programLibrary.trim();
+        this.programLibrary = intern(programLibrary.trim());
     }
 
     /**
@@ -817,7 +876,7 @@ public class JournalEntry {
     }
 
     public void setProgramLibraryAspDeviceName(String programAspDevice) {
-        this.programAspDevice = programAspDevice.trim();
+        this.programAspDevice = intern(programAspDevice.trim());
     }
 
     /**
@@ -848,7 +907,7 @@ public class JournalEntry {
     }
 
     public void setObjectName(String objectName) {
-        this.objectName = objectName.trim();
+        this.objectName = intern(objectName.trim());
         this.qualifiedObjectName = null;
     }
 
@@ -864,7 +923,7 @@ public class JournalEntry {
     }
 
     public void setObjectLibrary(String objectLibrary) {
-        this.objectLibrary = objectLibrary.trim();
+        this.objectLibrary = intern(objectLibrary.trim());
         this.qualifiedObjectName = null;
     }
 
@@ -880,7 +939,7 @@ public class JournalEntry {
     }
 
     public void setMemberName(String memberName) {
-        this.memberName = getValueChecked(memberName);
+        this.memberName = intern(getValueChecked(memberName));
         this.qualifiedObjectName = null;
     }
 
@@ -911,7 +970,7 @@ public class JournalEntry {
     }
 
     public void setFlag(String flag) {
-        this.flag = flag.trim();
+        this.flag = intern(flag.trim());
     }
 
     /**
@@ -942,7 +1001,7 @@ public class JournalEntry {
     }
 
     public void setUserProfile(String userProfile) {
-        this.userProfile = userProfile.trim();
+        this.userProfile = intern(userProfile.trim());
     }
 
     /**
@@ -958,7 +1017,7 @@ public class JournalEntry {
     }
 
     public void setSystemName(String systemName) {
-        this.systemName = systemName.trim();
+        this.systemName = intern(systemName.trim());
     }
 
     /**
@@ -974,7 +1033,7 @@ public class JournalEntry {
     }
 
     public void setJournalID(String journalID) {
-        this.journalID = journalID.trim();
+        this.journalID = intern(journalID.trim());
     }
 
     /**
@@ -1008,7 +1067,7 @@ public class JournalEntry {
     }
 
     public void setReferentialConstraint(String referentialConstraint) {
-        this.referentialConstraint = referentialConstraint.trim();
+        this.referentialConstraint = intern(referentialConstraint.trim());
         this.referentialConstraintText = null;
     }
 
@@ -1043,7 +1102,7 @@ public class JournalEntry {
     }
 
     public void setTrigger(String trigger) {
-        this.trigger = trigger.trim();
+        this.trigger = intern(trigger.trim());
         this.triggerText = null;
     }
 
@@ -1077,7 +1136,7 @@ public class JournalEntry {
     }
 
     public void setIncompleteData(String incompleteData) {
-        this.incompleteData = incompleteData.trim();
+        this.incompleteData = intern(incompleteData.trim());
         this.incompleteDataText = null;
     }
 
@@ -1112,7 +1171,7 @@ public class JournalEntry {
     }
 
     public void setIgnoredByApyRmvJrnChg(String apyRmvJrnChg) {
-        this.apyRmvJrnChg = apyRmvJrnChg.trim();
+        this.apyRmvJrnChg = intern(apyRmvJrnChg.trim());
         this.apyRmvJrnChgText = null;
     }
 
@@ -1144,7 +1203,7 @@ public class JournalEntry {
     }
 
     public void setMinimizedSpecificData(String minimizedSpecificData) {
-        this.minimizedSpecificData = minimizedSpecificData.trim();
+        this.minimizedSpecificData = intern(minimizedSpecificData.trim());
         this.minimizedSpecificDataText = null;
     }
 
@@ -1192,7 +1251,7 @@ public class JournalEntry {
     }
 
     public void setObjectNameIndicator(String objectIndicator) {
-        this.objectIndicator = objectIndicator.trim();
+        this.objectIndicator = intern(objectIndicator.trim());
         this.objectIndicatorText = null;
     }
 
@@ -1209,7 +1268,7 @@ public class JournalEntry {
     }
 
     public void setSystemSequenceNumber(BigInteger systemSequenceNumber) {
-        String tSystemSequenceNumber = bin8Formatter.format(systemSequenceNumber);
+        String tSystemSequenceNumber = JournalEntryFormatters.getInstance().getBin8Formatter().format(systemSequenceNumber);
         this.systemSequenceNumber = tSystemSequenceNumber;
     }
 
@@ -1230,7 +1289,7 @@ public class JournalEntry {
     }
 
     public void setReceiverName(String receiver) {
-        this.receiver = receiver.trim();
+        this.receiver = intern(receiver.trim());
     }
 
     /**
@@ -1246,7 +1305,7 @@ public class JournalEntry {
     }
 
     public void setReceiverLibraryName(String receiverLibrary) {
-        this.receiverLibrary = receiverLibrary.trim();
+        this.receiverLibrary = intern(receiverLibrary.trim());
     }
 
     /**
@@ -1262,7 +1321,7 @@ public class JournalEntry {
     }
 
     public void setReceiverLibraryASPDeviceName(String receiverAspDevice) {
-        this.receiverAspDevice = receiverAspDevice.trim();
+        this.receiverAspDevice = intern(receiverAspDevice.trim());
     }
 
     /**
@@ -1342,7 +1401,7 @@ public class JournalEntry {
     }
 
     public void setAddressFamily(String addressFamily) {
-        this.addressFamily = addressFamily.trim();
+        this.addressFamily = intern(addressFamily.trim());
         this.addressFamilyText = null;
     }
 
@@ -1431,7 +1490,7 @@ public class JournalEntry {
     }
 
     public void setObjectType(String objectType) {
-        this.objectType = objectType.trim();
+        this.objectType = intern(objectType.trim());
     }
 
     /**
@@ -1468,7 +1527,7 @@ public class JournalEntry {
     }
 
     public void setFileTypeIndicator(String fileTypeIndicator) {
-        this.fileTypeIndicator = fileTypeIndicator.trim();
+        this.fileTypeIndicator = intern(fileTypeIndicator.trim());
         this.fileTypeIndicatorText = null;
     }
 
@@ -1522,12 +1581,58 @@ public class JournalEntry {
     }
 
     /**
-     * Returns the string representation of field 'Entry Specific Data'.
+     * Sets the null value indicators from the EBCDIC representation as
+     * returned by the QjoRetrieveJournalEntries API or a DSPJRN output file.
+     * The indicators are converted to '0' and '1' without a String round trip.
+     * 
+     * @param nullIndicators - EBCDIC null value indicators
+     * @param ccsid - CCSID of the null value indicators
+     */
+    public void setNullIndicators(byte[] nullIndicators, String ccsid) {
+
+        if (nullIndicators == null) {
+            this.nullIndicators = null;
+            return;
+        }
+
+        byte[] convertedNullIndicators = new byte[nullIndicators.length];
+        for (int i = 0; i < nullIndicators.length; i++) {
+            if (nullIndicators[i] == EBCDIC_ZERO) {
+                convertedNullIndicators[i] = '0';
+            } else if (nullIndicators[i] == EBCDIC_ONE) {
+                convertedNullIndicators[i] = '1';
+            } else {
+                // Unexpected value, use the slow path.
+                try {
+                    this.nullIndicators = new String(nullIndicators, ccsid).getBytes();
+                } catch (UnsupportedEncodingException e) {
+                    this.nullIndicators = nullIndicators;
+                }
+                return;
+            }
+        }
+
+        this.nullIndicators = convertedNullIndicators;
+    }
+
+    /**
+     * Returns the string representation of field 'Entry Specific Data'. The
+     * string is produced on demand from the raw bytes and it is not stored
+     * with the journal entry to save memory.
      * 
      * @return value of field 'JOESD'.
      */
     public String getStringSpecificData() {
-        return stringSpecificData;
+
+        if (stringSpecificData != null) {
+            return stringSpecificData;
+        }
+
+        if (specificData == null) {
+            return null;
+        }
+
+        return toStringSpecificData(specificData);
     }
 
     /**
@@ -1551,9 +1656,13 @@ public class JournalEntry {
     }
 
     public void setStringSpecificData(byte[] specificData) {
+        this.stringSpecificData = toStringSpecificData(specificData);
+    }
+
+    private String toStringSpecificData(byte[] specificData) {
 
         AS400Text text = new AS400Text(specificData.length, Preferences.getInstance().getJournalEntryCcsid());
-        this.stringSpecificData = StringHelper.trimR((String)text.toObject(specificData));
+        return StringHelper.trimR((String)text.toObject(specificData));
     }
 
     public void setStringSpecificData(String specificData) {
@@ -1585,19 +1694,19 @@ public class JournalEntry {
             if (timestamp == null) {
                 return ""; //$NON-NLS-1$
             }
-            return timestampFormatter.format(timestamp);
+            return JournalEntryFormatters.getInstance().getTimestampFormatter().format(timestamp);
         } else if (ColumnsDAO.JODATE.name().equals(name)) {
             java.sql.Date date = getDate();
             if (date == null) {
                 return ""; //$NON-NLS-1$
             }
-            return dateFormatter.format(date);
+            return JournalEntryFormatters.getInstance().getDateFormatter().format(date);
         } else if (ColumnsDAO.JOTIME.name().equals(name)) {
             java.sql.Time time = getTime();
             if (time == null) {
                 return ""; //$NON-NLS-1$
             }
-            return timeFormatter.format(time);
+            return JournalEntryFormatters.getInstance().getTimeFormatter().format(time);
         } else if (ColumnsDAO.JOJOB.name().equals(name)) {
             return getJobName();
         } else if (ColumnsDAO.JOUSER.name().equals(name)) {
@@ -1699,11 +1808,11 @@ public class JournalEntry {
     }
 
     private String toString(BigInteger unsignedBin8Value) {
-        return bin8Formatter.format(unsignedBin8Value);
+        return JournalEntryFormatters.getInstance().getBin8Formatter().format(unsignedBin8Value);
     }
 
     private String toStringNestedCommitLevel(long longValue) {
-        return nestedCommitLevelFormatter.format(longValue);
+        return JournalEntryFormatters.getInstance().getNestedCommitLevelFormatter().format(longValue);
     }
 
     public synchronized String getQualifiedObjectName() {
@@ -1730,7 +1839,11 @@ public class JournalEntry {
         return "";
     }
 
-    private java.sql.Timestamp getTimestamp() {
+    private static String intern(String value) {
+        return stringPool.intern(value);
+    }
+
+    public java.sql.Timestamp getTimestamp() {
         return timestamp;
     }
 
@@ -1744,7 +1857,7 @@ public class JournalEntry {
     }
 
     public void setJoesdProperty(JOESDProperty joesdProperty) {
-        this.joesdProperty = joesdProperty;
+        this.joesdProperty = new SoftReference<JOESDProperty>(joesdProperty);
     }
 
     @Override
@@ -1752,17 +1865,30 @@ public class JournalEntry {
         return getQualifiedObjectName() + " (" + getEntryType() + ")";
     }
 
+    /**
+     * Returns the journal properties of this journal entry. The properties,
+     * including the parsed entry specific data, are produced on demand and
+     * referenced softly. Hence they can be reclaimed by the garbage collector,
+     * when memory is running low, and are rebuilt when they are needed again.
+     * 
+     * @return journal properties
+     */
     public JournalProperties getJournalProperties() {
 
-        if (journalProperties == null) {
-            this.journalProperties = new JournalProperties(this);
+        JournalProperties properties = null;
+        if (journalProperties != null) {
+            properties = journalProperties.get();
+        }
+
+        if (properties == null) {
+            properties = new JournalProperties(this);
         }
 
-        return journalProperties;
+        return properties;
     }
 
     public void setJournalProperties(JournalProperties journalProperties) {
-        this.journalProperties = journalProperties;
+        this.journalProperties = new SoftReference<JournalProperties>(journalProperties);
     }
 
     public JOESDProperty getJOESDProperty() {
@@ -1841,7 +1967,6 @@ public class JournalEntry {
         result = prime * result + remotePort;
         result = prime * result + ((sequenceNumber == null) ? 0 : sequenceNumber.hashCode());
         result = prime * result + Arrays.hashCode(specificData);
-        result = prime * result + ((stringSpecificData == null) ? 0 : stringSpecificData.hashCode());
         result = prime * result + ((systemName == null) ? 0 : systemName.hashCode());
         result = prime * result + ((systemSequenceNumber == null) ? 0 : systemSequenceNumber.hashCode());
         result = prime * result + ((threadId == null) ? 0 : threadId.hashCode());
@@ -1990,9 +2115,6 @@ public class JournalEntry {
             if (other.sequenceNumber != null) return false;
         } else if (!sequenceNumber.equals(other.sequenceNumber)) return false;
         if (!Arrays.equals(specificData, other.specificData)) return false;
-        if (stringSpecificData == null) {
-            if (other.stringSpecificData != null) return false;
-        } else if (!stringSpecificData.equals(other.stringSpecificData)) return false;
         if (systemName == null) {
             if (other.systemName != null) return false;
         } else if (!systemName.equals(other.systemName)) return false;
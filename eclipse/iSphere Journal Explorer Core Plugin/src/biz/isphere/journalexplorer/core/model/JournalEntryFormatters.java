@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model;
+
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+
+import biz.isphere.core.preferences.Preferences;
+
+/**
+ * Formatters and calendar used by the journal entries. The formatters are not
+ * thread-safe, therefore each thread gets its own set of formatters, that is
+ * shared by all journal entries.
+ * <p>
+ * The date and time formatters follow the current preferences.
+ */
+final class JournalEntryFormatters {
+
+    private static final ThreadLocal<JournalEntryFormatters> formatters = new ThreadLocal<JournalEntryFormatters>() {
+        @Override
+        protected JournalEntryFormatters initialValue() {
+            return new JournalEntryFormatters();
+        }
+    };
+
+    private DecimalFormat bin8Formatter;
+    private DecimalFormat nestedCommitLevelFormatter;
+    private SimpleDateFormat timestampFormatter;
+    private Calendar calendar;
+
+    private String dateFormatLabel;
+    private SimpleDateFormat dateFormatter;
+    private String timeFormatLabel;
+    private SimpleDateFormat timeFormatter;
+
+    private JournalEntryFormatters() {
+
+        this.bin8Formatter = new DecimalFormat("00000000000000000000"); //$NON-NLS-1$
+        this.nestedCommitLevelFormatter = new DecimalFormat("0000000"); //$NON-NLS-1$
+        this.timestampFormatter = new SimpleDateFormat("yyyy-MM-dd-HH.mm.ss.SSS"); //$NON-NLS-1$
+        this.calendar = Calendar.getInstance();
+    }
+
+    /**
+     * Returns the formatters of the current thread.
+     * 
+     * @return formatters of the current thread
+     */
+    public static JournalEntryFormatters getInstance() {
+        return formatters.get();
+    }
+
+    public DecimalFormat getBin8Formatter() {
+        return bin8Formatter;
+    }
+
+    public DecimalFormat getNestedCommitLevelFormatter() {
+        return nestedCommitLevelFormatter;
+    }
+
+    public SimpleDateFormat getTimestampFormatter() {
+        return timestampFormatter;
+    }
+
+    public Calendar getCalendar() {
+        return calendar;
+    }
+
+    public SimpleDateFormat getDateFormatter() {
+
+        String label = Preferences.getInstance().getDateFormatLabel();
+        if (dateFormatter == null || !isEqual(label, dateFormatLabel)) {
+            dateFormatter = Preferences.getInstance().getDateFormatter();
+            dateFormatLabel = label;
+        }
+
+        return dateFormatter;
+    }
+
+    public SimpleDateFormat getTimeFormatter() {
+
+        String label = Preferences.getInstance().getTimeFormatLabel();
+        if (timeFormatter == null || !isEqual(label, timeFormatLabel)) {
+            timeFormatter = Preferences.getInstance().getTimeFormatter();
+            timeFormatLabel = label;
+        }
+
+        return timeFormatter;
+    }
+
+    private boolean isEqual(String value1, String value2) {
+
+        if (value1 == null) {
+            return value2 == null;
+        }
+
+        return value1.equals(value2);
+    }
+}
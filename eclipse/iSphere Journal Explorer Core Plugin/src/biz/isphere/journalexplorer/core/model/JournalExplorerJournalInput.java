@@ -15,6 +15,7 @@ import biz.isphere.journalexplorer.core.externalapi.IJournaledObject;
 import biz.isphere.journalexplorer.core.externalapi.ISelectionCriteria;
 import biz.isphere.journalexplorer.core.internals.JournalExplorerHelper;
 import biz.isphere.journalexplorer.core.internals.QualifiedName;
+import biz.isphere.journalexplorer.core.model.api.AdaptiveBufferSize;
 import biz.isphere.journalexplorer.core.model.api.JrneToRtv;
 import biz.isphere.journalexplorer.core.model.dao.JournalDAO;
 import biz.isphere.journalexplorer.core.model.shared.Journal;
@@ -25,6 +26,7 @@ public class JournalExplorerJournalInput extends AbstractJournalExplorerInput {
 
     private QualifiedName journal;
     private JrneToRtv jrneToRtv;
+    private AdaptiveBufferSize bufferStatistics;
 
     public JournalExplorerJournalInput(String connectionName, String libraryName, String journalName) {
         this(connectionName, libraryName, journalName, new SQLWhereClause());
@@ -78,6 +80,12 @@ public class JournalExplorerJournalInput extends AbstractJournalExplorerInput {
         buffer.append("\n");
         buffer.append(Messages.bind(Messages.Title_Journal_A, getName()));
 
+        if (bufferStatistics != null) {
+            buffer.append("\n");
+            buffer.append(Messages.bind(Messages.Title_API_calls_A_bytes_transferred_B_retries_C, new Object[] {
+                bufferStatistics.getNumberOfCalls(), bufferStatistics.getNumberOfBytesTransferred(), bufferStatistics.getNumberOfRetries() }));
+        }
+
         return buffer.toString();
     }
 
@@ -91,6 +99,7 @@ public class JournalExplorerJournalInput extends AbstractJournalExplorerInput {
 
         JournalDAO journalDAO = new JournalDAO(jrneToRtv);
         JournalEntries data = journalDAO.load(getWhereClause(), monitor);
+        bufferStatistics = journalDAO.getBufferStatistics();
 
         return data;
     }
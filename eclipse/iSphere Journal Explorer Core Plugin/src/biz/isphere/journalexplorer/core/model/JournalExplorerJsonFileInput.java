@@ -12,7 +12,7 @@ import java.io.File;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
-import biz.isphere.core.json.JsonImporter;
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesJsonDAO;
 
 public class JournalExplorerJsonFileInput extends AbstractJournalExplorerInput {
 
@@ -63,12 +63,10 @@ public class JournalExplorerJsonFileInput extends AbstractJournalExplorerInput {
     @Override
     public JournalEntries load(IProgressMonitor monitor) throws Exception {
 
-        JsonImporter<JournalEntries> importer = new JsonImporter<JournalEntries>(JournalEntries.class);
-
-        JournalEntries data = importer.execute(null, getPath());
+        JournalEntriesJsonDAO journalEntriesJsonDAO = new JournalEntriesJsonDAO(getPath());
 
         // Overwrite connection name, if passed in
-        data.finalizeJsonLoading(this.connectionName, getWhereClause());
+        JournalEntries data = journalEntriesJsonDAO.load(this.connectionName, getWhereClause(), monitor);
 
         return data;
     }
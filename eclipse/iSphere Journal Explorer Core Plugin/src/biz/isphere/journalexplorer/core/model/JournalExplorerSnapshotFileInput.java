@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesSnapshotDAO;
+
+public class JournalExplorerSnapshotFileInput extends AbstractJournalExplorerInput {
+
+    private static final String INPUT_TYPE = "snapshot://"; //$NON-NLS-1$
+
+    private String connectionName;
+    private File file;
+
+    public JournalExplorerSnapshotFileInput(String connectionName, String path, SQLWhereClause whereClause) {
+        this(connectionName, new File(path), whereClause);
+    }
+
+    public JournalExplorerSnapshotFileInput(String connectionName, File file, SQLWhereClause whereClause) {
+        super(whereClause);
+        this.connectionName = connectionName;
+        this.file = file;
+    }
+
+    public String getPath() {
+
+        if (file == null) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return file.getPath();
+    }
+
+    @Override
+    public String getName() {
+
+        if (file == null) {
+            return ""; //$NON-NLS-1$
+        }
+
+        return file.getName();
+    }
+
+    @Override
+    public String getToolTipText() {
+        return getPath();
+    }
+
+    @Override
+    public String getContentId() {
+        return INPUT_TYPE + getPath();
+    }
+
+    @Override
+    public JournalEntries load(IProgressMonitor monitor) throws Exception {
+
+        JournalEntriesSnapshotDAO journalEntriesSnapshotDAO = new JournalEntriesSnapshotDAO(getPath());
+
+        // Overwrite connection name, if passed in
+        JournalEntries data = journalEntriesSnapshotDAO.load(this.connectionName, getWhereClause(), monitor);
+
+        return data;
+    }
+
+}
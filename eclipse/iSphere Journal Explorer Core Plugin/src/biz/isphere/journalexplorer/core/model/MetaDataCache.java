@@ -11,8 +11,20 @@
 
 package biz.isphere.journalexplorer.core.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -29,17 +41,36 @@ import biz.isphere.journalexplorer.core.internals.QualifiedName;
 import biz.isphere.journalexplorer.core.model.dao.MetaTableDAO;
 import biz.isphere.journalexplorer.core.model.shared.JournaledFile;
 
+/**
+ * Cache of the {@link MetaTable} objects that describe the record formats of
+ * the journaled files. The cache is safe for concurrent use. Tables are loaded
+ * at most once at a time, but different tables are loaded in parallel.
+ * <p>
+ * The column definitions are persisted in a {@link MetaDataRepository}
+ * together with the level identifier of the file. A persisted definition is
+ * reused as long as the level identifier of the file does not change.
+ * <p>
+ * When the tables of the journaled files are preloaded, the level identifiers
+ * are retrieved with one call per library and each worker thread uses its own
+ * {@link MetaTableDAO}.
+ */
 public final class MetaDataCache {
 
+    private static final int MAX_PRELOAD_THREADS = 4;
+
     /**
      * The instance of this Singleton class.
      */
     private static MetaDataCache instance;
 
-    private HashMap<String, MetaTable> cache;
+    private ConcurrentHashMap<String, MetaTable> cache;
+    private ConcurrentHashMap<String, MetaTableDAO> metaTableDAOs;
+    private MetaDataRepository repository;
 
     private MetaDataCache() {
-        this.cache = new HashMap<String, MetaTable>();
+        this.cache = new ConcurrentHashMap<String, MetaTable>();
+        this.metaTableDAOs = new ConcurrentHashMap<String, MetaTableDAO>();
+        this.repository = new MetaDataRepository();
     }
 
     /**
@@ -56,7 +87,7 @@ public final class MetaDataCache {
 
         String key = produceKey(journalEntry);
         if (!this.cache.containsKey(key)) {
-            saveMetaData(produceMetaTable(journalEntry));
+            this.cache.putIfAbsent(key, produceMetaTable(journalEntry));
         }
     }
 
@@ -73,25 +104,63 @@ public final class MetaDataCache {
             journalEntry.getObjectType());
     }
 
-    private synchronized MetaTable loadMetadata(String connectionName, String objectLibrary, String objectName, String objectType) throws Exception {
+    private MetaTable loadMetadata(String connectionName, String objectLibrary, String objectName, String objectType) throws Exception {
+        return loadMetadata(connectionName, objectLibrary, objectName, objectType, null, null);
+    }
+
+    /**
+     * Loads the meta data of a given table.
+     * 
+     * @param metaTableDAO - DAO that retrieves the meta data or
+     *        <code>null</code> to use the shared DAO of the connection
+     * @param levelIdentifiers - level identifiers, that have been retrieved in
+     *        advance or <code>null</code>
+     */
+    private MetaTable loadMetadata(String connectionName, String objectLibrary, String objectName, String objectType,
+        MetaTableDAO metaTableDAO, Map<String, String> levelIdentifiers) throws Exception {
 
         String key = produceKey(connectionName, objectLibrary, objectName, objectType);
         MetaTable metatable = this.cache.get(key);
 
         if (metatable == null) {
-            metatable = produceMetaTable(connectionName, objectLibrary, objectName, objectType);
-            this.saveMetaData(metatable);
-            this.loadMetadata(metatable, getMetaTableDAO(connectionName));
-        } else if (!metatable.isLoaded()) {
-            metatable.clearColumns();
-            this.loadMetadata(metatable, getMetaTableDAO(connectionName));
+            MetaTable newMetatable = produceMetaTable(connectionName, objectLibrary, objectName, objectType);
+            metatable = this.cache.putIfAbsent(key, newMetatable);
+            if (metatable == null) {
+                metatable = newMetatable;
+            }
+        }
+
+        if (!metatable.isLoaded()) {
+            synchronized (metatable) {
+                if (!metatable.isLoaded()) {
+                    metatable.clearColumns();
+                    if (metaTableDAO == null) {
+                        metaTableDAO = getMetaTableDAO(connectionName);
+                    }
+                    this.loadMetadata(metatable, metaTableDAO, levelIdentifiers);
+                }
+            }
         }
 
         return metatable;
     }
 
+    /**
+     * Returns the DAO that retrieves the column definitions from a given
+     * connection. The DAO is shared by all tables of that connection.
+     */
     private MetaTableDAO getMetaTableDAO(String connectionName) throws Exception {
-        return new MetaTableDAO(connectionName);
+
+        MetaTableDAO metaTableDAO = this.metaTableDAOs.get(connectionName);
+        if (metaTableDAO == null) {
+            metaTableDAO = new MetaTableDAO(connectionName);
+            MetaTableDAO existingDAO = this.metaTableDAOs.putIfAbsent(connectionName, metaTableDAO);
+            if (existingDAO != null) {
+                metaTableDAO = existingDAO;
+            }
+        }
+
+        return metaTableDAO;
     }
 
     private MetaTable produceMetaTable(JournalEntry journalEntry) {
@@ -129,13 +198,36 @@ public final class MetaDataCache {
         return wellKnownType;
     }
 
-    private void loadMetadata(MetaTable metaTable, MetaTableDAO metaTableDAO) throws Exception {
+    private void loadMetadata(MetaTable metaTable, MetaTableDAO metaTableDAO, Map<String, String> levelIdentifiers) throws Exception {
 
         try {
 
             TimeTaken timeTaken = TimeTaken.start("Loading meta table " + metaTable.getName()); // //$NON-NLS-1$
 
-            metaTableDAO.retrieveColumnsMetaData(metaTable);
+            String connectionName = metaTable.getConnectionName();
+            String library = metaTable.getDefinitionLibrary();
+            String file = metaTable.getDefinitionName();
+
+            String levelIdentifier;
+            String levelIdentifierKey = produceLevelIdentifierKey(connectionName, library, file);
+            if (levelIdentifiers != null && levelIdentifiers.containsKey(levelIdentifierKey)) {
+                levelIdentifier = levelIdentifiers.get(levelIdentifierKey);
+            } else {
+                levelIdentifier = metaTableDAO.retrieveLevelIdentifier(metaTable);
+            }
+            MetaColumn[] storedColumns = this.repository.getColumns(connectionName, library, file, levelIdentifier);
+
+            if (storedColumns != null) {
+                for (MetaColumn metaColumn : storedColumns) {
+                    metaTable.addColumn(metaColumn);
+                }
+            } else {
+                metaTableDAO.retrieveColumnsMetaData(metaTable);
+                if (metaTable.hasColumns()) {
+                    this.repository.putColumns(connectionName, library, file, levelIdentifier, metaTable.getColumns());
+                }
+            }
+
             if (metaTable.hasColumns()) {
                 metaTable.setLoaded(true);
 
@@ -147,12 +239,21 @@ public final class MetaDataCache {
 
         } catch (Exception exception) {
             metaTable.setLoaded(false);
+            this.metaTableDAOs.remove(metaTable.getConnectionName(), metaTableDAO);
             throw exception;
         }
     }
 
-    private void saveMetaData(MetaTable metaTable) {
-        this.cache.put(produceKey(metaTable), metaTable);
+    private String produceLevelIdentifierKey(String connectionName, String library, String file) {
+        return new QualifiedName(connectionName, library, file).getQualifiedName();
+    }
+
+    /**
+     * Writes the column definitions that have been retrieved from the host to
+     * disk.
+     */
+    public void storeMetaData() {
+        this.repository.save();
     }
 
     public void removeMetaData(MetaTable metaTable) {
@@ -173,35 +274,161 @@ public final class MetaDataCache {
 
         private Shell shell;
         private JournaledFile[] files;
+        private ThreadLocal<Map<String, MetaTableDAO>> workerDAOs;
 
         public PreloadTableJob(Shell shell, JournaledFile[] files) {
             super(Messages.Status_Loading_meta_data);
             this.shell = shell;
             this.files = files;
+            this.workerDAOs = new ThreadLocal<Map<String, MetaTableDAO>>() {
+                @Override
+                protected Map<String, MetaTableDAO> initialValue() {
+                    return new HashMap<String, MetaTableDAO>();
+                }
+            };
         }
 
         @Override
-        protected IStatus run(IProgressMonitor paramIProgressMonitor) {
+        protected IStatus run(IProgressMonitor monitor) {
+
+            List<JournaledFile> distinctFiles = getDistinctFiles();
+            if (distinctFiles.isEmpty()) {
+                return Status.OK_STATUS;
+            }
+
+            int numThreads = Math.min(MAX_PRELOAD_THREADS, distinctFiles.size());
+            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
 
             try {
 
                 TimeTaken timeTaken = TimeTaken.start("Pre-loading meta data"); // //$NON-NLS-1$
 
-                for (JournaledFile file : files) {
-                    String connectionName = file.getConnectionName();
-                    String fileName = file.getFileName();
-                    String libraryName = file.getLibraryName();
-                    retrieveMetaData(connectionName, libraryName, fileName, ISeries.FILE);
+                monitor.beginTask(Messages.Status_Loading_meta_data, distinctFiles.size());
+
+                final Map<String, String> levelIdentifiers = retrieveLevelIdentifiers(distinctFiles);
+
+                CompletionService<MetaTable> completionService = new ExecutorCompletionService<MetaTable>(executor);
+                List<Future<MetaTable>> futures = new ArrayList<Future<MetaTable>>();
+                for (final JournaledFile file : distinctFiles) {
+                    futures.add(completionService.submit(new Callable<MetaTable>() {
+                        public MetaTable call() throws Exception {
+                            return preloadMetaData(file, levelIdentifiers);
+                        }
+                    }));
                 }
 
-                timeTaken.stop();
+                Exception firstError = null;
+                for (int i = 0; i < futures.size() && !monitor.isCanceled(); i++) {
+                    try {
+                        completionService.take().get();
+                    } catch (ExecutionException e) {
+                        if (firstError == null && e.getCause() instanceof Exception) {
+                            firstError = (Exception)e.getCause();
+                        }
+                    }
+                    monitor.worked(1);
+                }
 
-            } catch (Exception e) {
-                MessageDialogAsync.displayError(shell, Messages.Status_Loading_meta_data, ExceptionHelper.getLocalizedMessage(e));
+                timeTaken.stop(distinctFiles.size());
+
+                storeMetaData();
+
+                if (firstError != null) {
+                    MessageDialogAsync.displayError(shell, Messages.Status_Loading_meta_data, ExceptionHelper.getLocalizedMessage(firstError));
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
+                monitor.done();
             }
 
             return Status.OK_STATUS;
         }
 
+        /**
+         * Loads the meta data of a given file with the DAO of the current
+         * worker thread. A DAO, that failed, is discarded.
+         */
+        private MetaTable preloadMetaData(JournaledFile file, Map<String, String> levelIdentifiers) throws Exception {
+
+            String connectionName = file.getConnectionName();
+
+            Map<String, MetaTableDAO> metaTableDAOs = workerDAOs.get();
+            MetaTableDAO metaTableDAO = metaTableDAOs.get(connectionName);
+            if (metaTableDAO == null) {
+                metaTableDAO = new MetaTableDAO(connectionName);
+                metaTableDAOs.put(connectionName, metaTableDAO);
+            }
+
+            try {
+                return loadMetadata(connectionName, file.getLibraryName(), file.getFileName(), ISeries.FILE, metaTableDAO, levelIdentifiers);
+            } catch (Exception e) {
+                metaTableDAOs.remove(connectionName);
+                throw e;
+            }
+        }
+
+        /**
+         * Retrieves the level identifiers of the files with one call per
+         * library. Files, whose level identifiers could not be retrieved, are
+         * left to the workers.
+         */
+        private Map<String, String> retrieveLevelIdentifiers(List<JournaledFile> distinctFiles) {
+
+            Map<String, List<String>> filesByLibrary = new LinkedHashMap<String, List<String>>();
+            for (JournaledFile file : distinctFiles) {
+                String key = file.getConnectionName() + ":" + file.getLibraryName(); //$NON-NLS-1$
+                List<String> files = filesByLibrary.get(key);
+                if (files == null) {
+                    files = new ArrayList<String>();
+                    filesByLibrary.put(key, files);
+                }
+                files.add(file.getFileName());
+            }
+
+            Map<String, String> levelIdentifiers = new HashMap<String, String>();
+
+            for (JournaledFile file : distinctFiles) {
+
+                String key = file.getConnectionName() + ":" + file.getLibraryName(); //$NON-NLS-1$
+                List<String> files = filesByLibrary.remove(key);
+                if (files == null || files.size() <= 1) {
+                    // Already retrieved or not worth a list call.
+                    continue;
+                }
+
+                try {
+                    Map<String, String> libraryLevelIdentifiers = getMetaTableDAO(file.getConnectionName()).retrieveLevelIdentifiers(
+                        file.getLibraryName(), files);
+                    for (Map.Entry<String, String> entry : libraryLevelIdentifiers.entrySet()) {
+                        levelIdentifiers.put(produceLevelIdentifierKey(file.getConnectionName(), file.getLibraryName(), entry.getKey()),
+                            entry.getValue());
+                    }
+                } catch (Exception e) {
+                    // Ignore errors. The workers retrieve the level identifiers.
+                }
+            }
+
+            return levelIdentifiers;
+        }
+
+        /**
+         * Returns the distinct files of the journaled files. Members of the
+         * same file share the meta data of the file.
+         */
+        private List<JournaledFile> getDistinctFiles() {
+
+            Map<String, JournaledFile> distinctFiles = new LinkedHashMap<String, JournaledFile>();
+            for (JournaledFile file : files) {
+                String key = produceKey(file.getConnectionName(), file.getLibraryName(), file.getFileName(), ISeries.FILE);
+                if (!distinctFiles.containsKey(key)) {
+                    distinctFiles.put(key, file);
+                }
+            }
+
+            return new ArrayList<JournaledFile>(distinctFiles.values());
+        }
     }
 }
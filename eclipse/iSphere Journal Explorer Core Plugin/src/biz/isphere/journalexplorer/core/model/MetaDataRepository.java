@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import biz.isphere.base.internal.FileHelper;
+import biz.isphere.core.ISpherePlugin;
+import biz.isphere.core.json.JsonFileHelper;
+import biz.isphere.journalexplorer.core.ISphereJournalExplorerCorePlugin;
+import biz.isphere.journalexplorer.core.internals.QualifiedName;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Class that persists the column definitions of {@link MetaTable} objects
+ * between sessions. The definitions are stored in one Json file per connection
+ * in the state location of the plug-in.
+ * <p>
+ * Each definition is stored together with the level identifier of the file
+ * that was valid, when the definition was retrieved. A stored definition is
+ * only returned, when the caller passes the same level identifier, so that
+ * definitions are invalidated as soon as the file is changed on the host.
+ * <p>
+ * The methods of this class are thread-safe.
+ */
+public final class MetaDataRepository {
+
+    private static final String REPOSITORY_LOCATION = "metadata"; //$NON-NLS-1$
+    private static final String FILE_EXTENSION = ".json"; //$NON-NLS-1$
+
+    private Map<String, Map<String, StoredMetaTable>> connections;
+    private Set<String> dirtyConnections;
+
+    public MetaDataRepository() {
+        this.connections = new HashMap<String, Map<String, StoredMetaTable>>();
+        this.dirtyConnections = new HashSet<String>();
+    }
+
+    /**
+     * Returns the stored column definitions of a given file, if the level
+     * identifier matches the stored level identifier.
+     *
+     * @param connectionName - connection that hosts the file
+     * @param library - library of the file
+     * @param file - name of the file
+     * @param levelIdentifier - current level identifier of the file
+     * @return column definitions or <code>null</code>, when there is no valid
+     *         definition
+     */
+    public synchronized MetaColumn[] getColumns(String connectionName, String library, String file, String levelIdentifier) {
+
+        if (levelIdentifier == null) {
+            return null;
+        }
+
+        StoredMetaTable storedTable = getOrLoadConnection(connectionName).get(produceKey(library, file));
+        if (storedTable == null || !levelIdentifier.equals(storedTable.levelIdentifier)) {
+            return null;
+        }
+
+        return storedTable.columns;
+    }
+
+    /**
+     * Stores the column definitions of a given file.
+     *
+     * @param connectionName - connection that hosts the file
+     * @param library - library of the file
+     * @param file - name of the file
+     * @param levelIdentifier - level identifier of the file
+     * @param columns - column definitions
+     */
+    public synchronized void putColumns(String connectionName, String library, String file, String levelIdentifier, MetaColumn[] columns) {
+
+        if (levelIdentifier == null) {
+            return;
+        }
+
+        StoredMetaTable storedTable = new StoredMetaTable();
+        storedTable.library = library;
+        storedTable.file = file;
+        storedTable.levelIdentifier = levelIdentifier;
+        storedTable.columns = columns;
+
+        getOrLoadConnection(connectionName).put(produceKey(library, file), storedTable);
+        dirtyConnections.add(connectionName);
+    }
+
+    /**
+     * Writes the definitions of all changed connections to disk.
+     */
+    public synchronized void save() {
+
+        for (String connectionName : dirtyConnections) {
+            saveConnection(connectionName, connections.get(connectionName));
+        }
+
+        dirtyConnections.clear();
+    }
+
+    private Map<String, StoredMetaTable> getOrLoadConnection(String connectionName) {
+
+        Map<String, StoredMetaTable> storedTables = connections.get(connectionName);
+        if (storedTables == null) {
+            storedTables = loadConnection(connectionName);
+            connections.put(connectionName, storedTables);
+        }
+
+        return storedTables;
+    }
+
+    private Map<String, StoredMetaTable> loadConnection(String connectionName) {
+
+        Map<String, StoredMetaTable> storedTables = new HashMap<String, StoredMetaTable>();
+
+        File file = getRepositoryFile(connectionName);
+        if (file == null || !file.exists()) {
+            return storedTables;
+        }
+
+        try {
+
+            Reader reader = JsonFileHelper.openReader(file);
+
+            try {
+
+                StoredMetaTable[] tables = new Gson().fromJson(reader, new TypeToken<StoredMetaTable[]>() {
+                }.getType());
+
+                if (tables != null) {
+                    for (StoredMetaTable table : tables) {
+                        if (table.columns != null) {
+                            storedTables.put(produceKey(table.library, table.file), table);
+                        }
+                    }
+                }
+
+            } finally {
+                reader.close();
+            }
+
+        } catch (Throwable e) {
+            ISpherePlugin.logError("*** Could not load meta data repository: " + file.getAbsolutePath() + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+            storedTables.clear();
+        }
+
+        return storedTables;
+    }
+
+    private void saveConnection(String connectionName, Map<String, StoredMetaTable> storedTables) {
+
+        File file = getRepositoryFile(connectionName);
+        if (file == null || storedTables == null) {
+            return;
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+
+        try {
+
+            Writer writer = JsonFileHelper.openWriter(tempFile.getPath());
+
+            try {
+                new Gson().toJson(storedTables.values().toArray(new StoredMetaTable[storedTables.size()]), writer);
+            } finally {
+                writer.close();
+            }
+
+            if (file.exists() && !file.delete()) {
+                ISpherePlugin.logError("*** Could not replace meta data repository: " + file.getAbsolutePath() + " ***", null); //$NON-NLS-1$ //$NON-NLS-2$
+                return;
+            }
+
+            tempFile.renameTo(file);
+
+        } catch (Throwable e) {
+            ISpherePlugin.logError("*** Could not save meta data repository: " + file.getAbsolutePath() + " ***", e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private File getRepositoryFile(String connectionName) {
+
+        if (ISphereJournalExplorerCorePlugin.getDefault() == null) {
+            // Executed, when started on a command line.
+            return null;
+        }
+
+        String folder = ISphereJournalExplorerCorePlugin.getDefault().getStateLocation().toFile().getAbsolutePath() + File.separator
+            + REPOSITORY_LOCATION + File.separator;
+        FileHelper.ensureDirectory(folder);
+
+        return new File(folder + produceFileName(connectionName) + FILE_EXTENSION);
+    }
+
+    private String produceFileName(String connectionName) {
+        return connectionName.replaceAll("[^A-Za-z0-9_.-]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private String produceKey(String library, String file) {
+        return QualifiedName.getName(library, file);
+    }
+
+    /**
+     * Class that holds the column definitions of a file as stored on disk.
+     */
+    private static class StoredMetaTable {
+
+        private String library;
+        private String file;
+        private String levelIdentifier;
+        private MetaColumn[] columns;
+    }
+}
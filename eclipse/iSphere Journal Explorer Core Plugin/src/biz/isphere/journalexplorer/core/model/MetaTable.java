@@ -22,8 +22,6 @@ import biz.isphere.journalexplorer.core.internals.QualifiedName;
 import biz.isphere.journalexplorer.core.model.dao.JournalOutputType;
 import biz.isphere.journalexplorer.core.ui.widgets.contentassist.TableColumnContentAssistProposal;
 
-import com.ibm.as400.access.Record;
-
 /**
  * This class represents the meta data of a table. It contains the name and
  * library of the table and a list of its fields. Also it contains the name and
@@ -51,12 +49,13 @@ public class MetaTable {
 
     private LinkedHashMap<String, MetaColumn> columns;
 
-    private boolean loaded;
+    private volatile boolean loaded;
     private int parsingOffset;
     private JournalOutputType outfileType;
     private int countNullableFields;
     private int lastNullableFieldIndex;
     private int recordLength;
+    private volatile JoesdParser joesdParser;
 
     private Set<String> warningMessages;
 
@@ -152,26 +151,45 @@ public class MetaTable {
 
     public void setLoaded(boolean loaded) {
 
-        Record record = null;
+        JoesdParser parser = null;
 
         if (loaded) {
             try {
-                JoesdParser parser = new JoesdParser(this);
-                record = parser.getJoesdRecordFormat().getNewRecord();
+                parser = new JoesdParser(this);
             } catch (Exception e) {
                 ISpherePlugin.logError("*** Failed to set 'loaded' attribute ***", e); //$NON-NLS-1$
                 loaded = false;
             }
         }
 
-        this.loaded = loaded;
-
         if (loaded) {
-            recordLength = record.getRecordLength();
+            recordLength = parser.getRecordLength();
         } else {
             recordLength = 0;
             warningMessages.clear();
         }
+
+        this.joesdParser = parser;
+        this.loaded = loaded;
+    }
+
+    /**
+     * Returns the parser that decodes the entry specific data of the journal
+     * entries of this table. The parser is created once and shared by all
+     * journal entries, until the columns are changed.
+     * 
+     * @return JOESD parser
+     * @throws Exception
+     */
+    public JoesdParser getJoesdParser() throws Exception {
+
+        JoesdParser parser = joesdParser;
+        if (parser == null) {
+            parser = new JoesdParser(this);
+            joesdParser = parser;
+        }
+
+        return parser;
     }
 
     public ContentAssistProposal[] getContentAssistProposals() {
@@ -214,6 +232,7 @@ public class MetaTable {
 
     public void addColumn(MetaColumn column) {
         columns.put(column.getName(), column);
+        joesdParser = null;
 
         if (column.isNullable()) {
             countNullableFields++;
@@ -241,6 +260,7 @@ public class MetaTable {
 
     public void clearColumns() {
         this.columns.clear();
+        this.joesdParser = null;
     }
 
     public boolean hasColumn(String columnName) {
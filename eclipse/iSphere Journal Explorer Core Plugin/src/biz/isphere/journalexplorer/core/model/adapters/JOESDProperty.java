@@ -14,17 +14,16 @@ package biz.isphere.journalexplorer.core.model.adapters;
 import java.util.ArrayList;
 
 import biz.isphere.base.internal.ExceptionHelper;
+import biz.isphere.base.internal.StringHelper;
 import biz.isphere.core.swt.widgets.ContentAssistProposal;
 import biz.isphere.journalexplorer.core.Messages;
-import biz.isphere.journalexplorer.core.internals.JoesdParser;
+import biz.isphere.journalexplorer.core.internals.JoesdRecord;
 import biz.isphere.journalexplorer.core.model.JournalEntry;
 import biz.isphere.journalexplorer.core.model.MetaColumn;
 import biz.isphere.journalexplorer.core.model.MetaDataCache;
 import biz.isphere.journalexplorer.core.model.MetaTable;
 import biz.isphere.journalexplorer.core.ui.model.JournalEntryColumnUI;
 
-import com.ibm.as400.access.Record;
-
 /**
  * The JOESDProperty groups the entry specific fields of a {@link JournalEntry}.
  * It is a child of {@link JournalProperties}.
@@ -37,7 +36,7 @@ public class JOESDProperty extends JournalProperty {
 
     private ArrayList<JournalProperty> specificProperties;
 
-    private Record parsedJOESD;
+    private JoesdRecord parsedJOESD;
 
     public JOESDProperty(JournalEntryColumnUI columnDef, JournalEntry journalEntry) {
         super(columnDef, null, null);
@@ -110,7 +109,7 @@ public class JOESDProperty extends JournalProperty {
 
             metatable = MetaDataCache.getInstance().retrieveMetaData(journalEntry);
 
-            parsedJOESD = new JoesdParser(metatable).execute(journalEntry);
+            parsedJOESD = metatable.getJoesdParser().execute(journalEntry);
 
             if (!metatable.hasColumns()) {
                 value = Messages.bind(Messages.Error_Meta_data_not_available_Check_file_A_B, metatable.getLibrary(), metatable.getName());
@@ -155,11 +154,63 @@ public class JOESDProperty extends JournalProperty {
     }
 
     private int getDataType(String name) {
-        return parsedJOESD.getRecordFormat().getFieldDescription(name).getDataType().getInstanceType();
+        return parsedJOESD.getInstanceType(name);
     }
 
     public JournalProperty[] toPropertyArray() {
 
+        retryParsing();
+
+        if (specificProperties != null) {
+            return specificProperties.toArray(new JournalProperty[specificProperties.size()]);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of entry specific fields.
+     * 
+     * @return number of entry specific fields
+     */
+    public int getNumberOfProperties() {
+
+        retryParsing();
+
+        if (specificProperties != null) {
+            return specificProperties.size();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Copies the values of the entry specific fields into a given row, without
+     * producing a property array. String values are trimmed on the right side.
+     * 
+     * @param row - row that receives the values
+     * @param offset - index of the first entry specific field in the row
+     */
+    public void copyValuesToRow(Comparable<?>[] row, int offset) {
+
+        if (specificProperties == null) {
+            return;
+        }
+
+        int i = offset;
+        for (int p = 0; p < specificProperties.size(); p++) {
+            Object value = specificProperties.get(p).value;
+            if (value instanceof String) {
+                row[i] = StringHelper.trimR((String)value);
+            } else {
+                row[i] = (Comparable<?>)value;
+            }
+            i++;
+        }
+    }
+
+    private void retryParsing() {
+
         if (isErrorParsing()) {
             try {
                 executeParsing();
@@ -167,12 +218,6 @@ public class JOESDProperty extends JournalProperty {
                 // Ignore errors
             }
         }
-
-        if (specificProperties != null) {
-            return specificProperties.toArray(new JournalProperty[specificProperties.size()]);
-        } else {
-            return null;
-        }
     }
 
     @Override
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model.api;
+
+import biz.isphere.base.internal.IntHelper;
+
+/**
+ * Class that computes the size of the receiver buffer of the
+ * QjoRetrieveJournalEntries API from the journal entries returned by previous
+ * calls. The buffer size is chosen to hold a target number of journal entries
+ * per call, based on the average and maximum entry length observed so far.
+ * <p>
+ * The class also counts the number of API calls, the number of bytes
+ * transferred and the number of retries because of a buffer that was too small
+ * to hold the next journal entry.
+ * <p>
+ * The methods of this class are synchronized, because the buffer size is
+ * updated by the retriever thread and read by the loading thread.
+ */
+public class AdaptiveBufferSize {
+
+    public static final int TARGET_ENTRIES_PER_CALL = 5000;
+
+    private static final int MINIMUM_SIZE = IntHelper.align16Bytes(64 * 1024);
+    private static final double SAFETY_FACTOR = 1.1;
+
+    private int bufferSize;
+    private int maximumSize;
+    private boolean isAdaptive;
+
+    private long totalEntries;
+    private long totalEntriesBytes;
+    private int maxEntryLength;
+
+    private int numCalls;
+    private long numBytesTransferred;
+    private int numRetries;
+
+    /**
+     * Produces a new AdaptiveBufferSize object.
+     *
+     * @param initialSize - initial buffer size, e.g. the learned size of a
+     *        previous session
+     * @param maximumSize - maximum buffer size accepted by the API
+     * @param isAdaptive - specifies whether the buffer size is adjusted to the
+     *        observed entry lengths
+     */
+    public AdaptiveBufferSize(int initialSize, int maximumSize, boolean isAdaptive) {
+
+        this.maximumSize = maximumSize;
+        this.isAdaptive = isAdaptive;
+        this.bufferSize = limit(initialSize);
+
+        this.totalEntries = 0;
+        this.totalEntriesBytes = 0;
+        this.maxEntryLength = 0;
+
+        this.numCalls = 0;
+        this.numBytesTransferred = 0;
+        this.numRetries = 0;
+    }
+
+    /**
+     * Returns the size of the buffer for the next API call.
+     *
+     * @return buffer size
+     */
+    public synchronized int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Updates the statistics and the buffer size from the buffer returned by
+     * the last API call.
+     *
+     * @param rjne0200 - buffer returned by the API
+     * @param numEntriesRemaining - number of entries still to retrieve
+     */
+    public synchronized void update(RJNE0200 rjne0200, int numEntriesRemaining) {
+
+        numCalls++;
+        numBytesTransferred += rjne0200.getBytesReturned();
+
+        int numEntries = rjne0200.getNbrOfEntriesRetrieved();
+        if (numEntries > 0) {
+            totalEntries += numEntries;
+            totalEntriesBytes += rjne0200.getBytesReturned();
+            maxEntryLength = Math.max(maxEntryLength, rjne0200.getMaximumEntryLength());
+        }
+
+        if (!isAdaptive) {
+            return;
+        }
+
+        if (numEntries == 0 && rjne0200.moreEntriesAvailable()) {
+            // Buffer too small for the next entry
+            numRetries++;
+            bufferSize = limit(Math.max(bufferSize * 2, maxEntryLength * 2));
+            return;
+        }
+
+        if (totalEntries > 0) {
+            bufferSize = computeBufferSize(Math.min(TARGET_ENTRIES_PER_CALL, numEntriesRemaining));
+        }
+    }
+
+    /**
+     * Returns the buffer size that is learned from the observed entry lengths.
+     * This is the size that is remembered for the next session.
+     *
+     * @return learned buffer size
+     */
+    public synchronized int getLearnedBufferSize() {
+
+        if (totalEntries == 0) {
+            return bufferSize;
+        }
+
+        return computeBufferSize(TARGET_ENTRIES_PER_CALL);
+    }
+
+    /**
+     * Returns the number of API calls, that have been made so far.
+     *
+     * @return number of API calls
+     */
+    public synchronized int getNumberOfCalls() {
+        return numCalls;
+    }
+
+    /**
+     * Returns the number of bytes, that have been returned by the API calls.
+     *
+     * @return number of bytes transferred
+     */
+    public synchronized long getNumberOfBytesTransferred() {
+        return numBytesTransferred;
+    }
+
+    /**
+     * Returns the number of API calls, that have been repeated with a larger
+     * buffer, because the buffer was too small for the next journal entry.
+     *
+     * @return number of retries
+     */
+    public synchronized int getNumberOfRetries() {
+        return numRetries;
+    }
+
+    private int computeBufferSize(int targetEntries) {
+
+        long averageEntryLength = totalEntriesBytes / totalEntries;
+        long targetSize = (long)(averageEntryLength * Math.max(1, targetEntries) * SAFETY_FACTOR);
+        targetSize = Math.max(targetSize, maxEntryLength * 2L);
+
+        return limit((int)Math.min(targetSize, Integer.MAX_VALUE));
+    }
+
+    private int limit(int size) {
+
+        if (isAdaptive) {
+            size = Math.max(size, MINIMUM_SIZE);
+        }
+
+        return IntHelper.align16Bytes(Math.min(size, maximumSize));
+    }
+}
@@ -247,6 +247,39 @@ public class RJNE0200 {
         return (Integer)tResult[2];
     }
 
+    /**
+     * RJNE0200 Format, Header:<br>
+     * Get the length of the largest journal entry of the receiver variable. The
+     * length includes the journal entry's header and all of its sections.
+     * 
+     * @return length of the largest journal entry
+     */
+    public int getMaximumEntryLength() {
+
+        byte[] outputData = getOutputData();
+        if (outputData == null) {
+            return 0;
+        }
+
+        AS400UnsignedBin4 displacementType = new AS400UnsignedBin4();
+
+        int maxEntryLength = 0;
+        int entryStartPos = getOffsetToFirstJrneHeader();
+        for (int i = 0; i < getNbrOfEntriesRetrieved(); i++) {
+            int displacement = ((Long)displacementType.toObject(outputData, entryStartPos)).intValue();
+            int entryLength;
+            if (displacement > 0) {
+                entryLength = displacement;
+            } else {
+                entryLength = getBytesReturned() - entryStartPos;
+            }
+            maxEntryLength = Math.max(maxEntryLength, entryLength);
+            entryStartPos += displacement;
+        }
+
+        return maxEntryLength;
+    }
+
     /**
      * RJNE0200 Format, Header:<br>
      * Get continuation indicator in the journal header.
@@ -268,7 +268,6 @@ public abstract class AbstractTypeDAO extends DAOBase {
         journalEntry.setProgramName(resultSet.getString(ColumnsDAO.JOPGM.name()));
         journalEntry.setSequenceNumber(resultSet.getBigDecimal(ColumnsDAO.JOSEQN.name()).toBigIntegerExact());
         journalEntry.setSpecificData(resultSet.getBytes(ColumnsDAO.JOESD.name()));
-        journalEntry.setStringSpecificData(resultSet.getString(ColumnsDAO.JOESD.name()));
 
         return journalEntry;
     }
@@ -11,10 +11,12 @@ package biz.isphere.journalexplorer.core.model.dao;
 import java.sql.Timestamp;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
-import biz.isphere.base.internal.Buffer;
 import biz.isphere.base.internal.IntHelper;
 import biz.isphere.journalexplorer.core.Messages;
 import biz.isphere.journalexplorer.core.exceptions.BufferTooSmallException;
@@ -23,6 +25,7 @@ import biz.isphere.journalexplorer.core.model.JournalEntry;
 import biz.isphere.journalexplorer.core.model.MetaDataCache;
 import biz.isphere.journalexplorer.core.model.OutputFile;
 import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+import biz.isphere.journalexplorer.core.model.api.AdaptiveBufferSize;
 import biz.isphere.journalexplorer.core.model.api.IBMiMessage;
 import biz.isphere.journalexplorer.core.model.api.JrneToRtv;
 import biz.isphere.journalexplorer.core.model.api.QjoRetrieveJournalEntries;
@@ -40,11 +43,11 @@ public class JournalDAO {
      * valid. ==> Reducing length to 15.5 MB.
      */
     private static final int BUFFER_MAXIMUM_SIZE = IntHelper.align16Bytes((int)(1024 * 1024 * 15.5)); // 15.5MB;
-    private static final int BUFFER_INCREMENT_SIZE = IntHelper.align16Bytes(Buffer.size("64k")); //$NON-NLS-1$
 
     private String connectionName;
     private int maxNumRows;
     private JrneToRtv jrneToRtv;
+    private AdaptiveBufferSize bufferSizer;
 
     public JournalDAO(JrneToRtv jrneToRtv) throws Exception {
 
@@ -54,69 +57,93 @@ public class JournalDAO {
         this.jrneToRtv = jrneToRtv.clone();
     }
 
+    /**
+     * Loads the journal entries. The QjoRetrieveJournalEntries API is called
+     * by a separate {@link RetrieverThread}, that hands the returned buffers
+     * over to this thread through a bounded queue. Hence the next API call
+     * overlaps with decoding the journal entries of the previous call.
+     */
     public JournalEntries load(SQLWhereClause whereClause, IProgressMonitor monitor) throws Exception {
 
         JournalEntries journalEntries = new JournalEntries(new OutputFile(connectionName, "QSYS", "QADSPJR5"), maxNumRows);
 
-        QjoRetrieveJournalEntries tRetriever = new QjoRetrieveJournalEntries(jrneToRtv);
-
         List<IBMiMessage> messages = null;
         RJNE0200 rjne0200 = null;
         int id = 0;
 
+        monitor.setTaskName(Messages.Calling_API);
+
+        String journalKey = getJournalKey();
         boolean isDynamicBufferSize = Preferences.getInstance().isRetrieveJournalEntriesDynamicBufferSize();
-        int bufferSize = Math.min(Preferences.getInstance().getRetrieveJournalEntriesBufferSize(), BUFFER_MAXIMUM_SIZE);
-        bufferSize = IntHelper.align16Bytes(bufferSize);
+        int bufferSize = Preferences.getInstance().getRetrieveJournalEntriesBufferSize();
+        if (isDynamicBufferSize) {
+            int learnedBufferSize = Preferences.getInstance().getRetrieveJournalEntriesLearnedBufferSize(journalKey);
+            if (learnedBufferSize > 0) {
+                bufferSize = learnedBufferSize;
+            }
+        }
+
+        bufferSizer = new AdaptiveBufferSize(bufferSize, BUFFER_MAXIMUM_SIZE, isDynamicBufferSize);
+
+        RetrieverThread retriever = new RetrieverThread(new QjoRetrieveJournalEntries(jrneToRtv), bufferSizer, isDynamicBufferSize, monitor);
+        retriever.start();
+
+        try {
 
-        do {
+            RetrievedBuffer retrievedBuffer;
 
-            // TimeTaken timeTaken1 = new TimeTaken("Calling API");
+            while ((retrievedBuffer = retriever.take()) != null && !isCanceled(monitor, journalEntries)) {
 
-            do {
-                monitor.setTaskName(Messages.Calling_API);
-                rjne0200 = tRetriever.execute(bufferSize, maxNumRows + 1);
-                if (isBufferTooSmall(rjne0200) && isDynamicBufferSize) {
-                    bufferSize = bufferSize + BUFFER_INCREMENT_SIZE;
+                if (retrievedBuffer.getException() != null) {
+                    throw retrievedBuffer.getException();
                 }
-            } while (isDynamicBufferSize && isBufferTooSmall(rjne0200) && !isBufferTooBig(bufferSize) && !isCanceled(monitor, journalEntries));
 
-            // timeTaken1.stop();
+                rjne0200 = retrievedBuffer.getRJNE0200();
+                messages = retrievedBuffer.getMessages();
 
-            if (rjne0200 != null) {
-                monitor.setTaskName(Messages.Status_Loading_journal_entries);
-                if (rjne0200.moreEntriesAvailable() && rjne0200.getNbrOfEntriesRetrieved() == 0) {
-                    messages = new LinkedList<IBMiMessage>();
-                    messages.add(new IBMiMessage(BufferTooSmallException.ID,
-                        Messages.Exception_Buffer_too_small_to_retrieve_next_journal_entry_Check_preferences));
-                } else {
-                    while (journalEntries.getNumberOfRowsDownloaded() < maxNumRows && rjne0200.nextEntry() && !isCanceled(monitor, journalEntries)) {
+                if (rjne0200 != null) {
+                    monitor.setTaskName(Messages.Status_Loading_journal_entries);
+                    if (rjne0200.moreEntriesAvailable() && rjne0200.getNbrOfEntriesRetrieved() == 0) {
+                        messages = new LinkedList<IBMiMessage>();
+                        messages.add(new IBMiMessage(BufferTooSmallException.ID,
+                            Messages.Exception_Buffer_too_small_to_retrieve_next_journal_entry_Check_preferences));
+                    } else {
+                        while (journalEntries.getNumberOfRowsDownloaded() < maxNumRows && rjne0200.nextEntry()
+                            && !isCanceled(monitor, journalEntries)) {
 
-                        id++;
+                            id++;
 
-                        JournalEntry journalEntry = new JournalEntry(journalEntries.getOutputFile());
+                            JournalEntry journalEntry = new JournalEntry(journalEntries.getOutputFile());
 
-                        JournalEntry populatedJournalEntry = populateJournalEntry(jrneToRtv.getConnectionName(), id, rjne0200, journalEntry);
-                        journalEntries.add(populatedJournalEntry);
+                            JournalEntry populatedJournalEntry = populateJournalEntry(jrneToRtv.getConnectionName(), id, rjne0200, journalEntry);
+                            journalEntries.add(populatedJournalEntry);
 
-                        if (id % 50 == 0) {
-                            monitor.setTaskName(Messages.Status_Loading_journal_entries + "(" + id + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-                        }
+                            if (id % 50 == 0) {
+                                monitor.setTaskName(Messages.Status_Loading_journal_entries + "(" + id + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                            }
 
-                        if (journalEntry.isRecordEntryType()) {
+                            if (journalEntry.isRecordEntryType()) {
 
-                            MetaDataCache.getInstance().prepareMetaData(journalEntry);
-                        }
+                                MetaDataCache.getInstance().prepareMetaData(journalEntry);
+                            }
 
+                        }
                     }
                 }
-            } else {
-                messages = tRetriever.getMessages();
+
+                if (rjne0200 == null || !rjne0200.moreEntriesAvailable() || messages != null
+                    || journalEntries.getNumberOfRowsDownloaded() >= maxNumRows) {
+                    break;
+                }
             }
 
-        } while (rjne0200 != null && rjne0200.moreEntriesAvailable() && messages == null && journalEntries.getNumberOfRowsDownloaded() < maxNumRows
-            && !isCanceled(monitor, journalEntries));
+        } finally {
+            retriever.terminate();
+        }
 
-        // broker.join();
+        if (isDynamicBufferSize && bufferSizer.getNumberOfCalls() > 0) {
+            Preferences.getInstance().setRetrieveJournalEntriesLearnedBufferSize(journalKey, bufferSizer.getLearnedBufferSize());
+        }
 
         if (rjne0200 != null && (rjne0200.hasNext() || rjne0200.moreEntriesAvailable())) {
             journalEntries.setOverflow(true, -1);
@@ -127,6 +154,22 @@ public class JournalDAO {
         return journalEntries;
     }
 
+    /**
+     * Returns the buffer statistics of the last {@link #load(SQLWhereClause, IProgressMonitor)}
+     * operation, such as the number of API calls, the number of bytes
+     * transferred and the number of retries.
+     * 
+     * @return buffer statistics or <code>null</code>, if no journal entries
+     *         have been loaded yet
+     */
+    public AdaptiveBufferSize getBufferStatistics() {
+        return bufferSizer;
+    }
+
+    private String getJournalKey() {
+        return connectionName + "." + jrneToRtv.getJournalLibraryName() + "." + jrneToRtv.getJournalName(); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
     private boolean isCanceled(IProgressMonitor monitor, JournalEntries journalEntries) {
         if (monitor.isCanceled()) {
             journalEntries.setCanceled(true);
@@ -135,6 +178,10 @@ public class JournalDAO {
         return false;
     }
 
+    private boolean isCanceled(IProgressMonitor monitor) {
+        return monitor.isCanceled();
+    }
+
     private boolean isBufferTooSmall(RJNE0200 rjne0200) {
 
         if (rjne0200 != null && rjne0200.moreEntriesAvailable() && rjne0200.getNbrOfEntriesRetrieved() == 0) {
@@ -178,8 +225,6 @@ public class JournalDAO {
 
         journalEntry.setSpecificData(journalEntryData.getEntrySpecificDataRaw());
 
-        journalEntry.setStringSpecificData(journalEntryData.getEntrySpecificDataRaw());
-
         try {
             Timestamp timestamp = journalEntryData.getTimestamp();
             journalEntry.setTimestamp(timestamp);
@@ -199,7 +244,7 @@ public class JournalDAO {
         journalEntry.setSystemName(journalEntryData.getSystemName());
 
         // Type3DAO (extends the AbstractTypeDAO)
-        journalEntry.setNullIndicators(new String(journalEntryData.getNullValueIndicators(), getJournalEntryCcsid()).getBytes());
+        journalEntry.setNullIndicators(journalEntryData.getNullValueIndicators(), getJournalEntryCcsid());
 
         // Type4DAO (extends the Type3DAO)
         journalEntry.setJournalID(journalEntryData.getJournalIdentifier());
@@ -234,4 +279,152 @@ public class JournalDAO {
     protected String getJournalEntryCcsid() {
         return Preferences.getInstance().getJournalEntryCcsid();
     }
+
+    /**
+     * Thread that calls the QjoRetrieveJournalEntries API, until all journal
+     * entries have been retrieved or the maximum number of entries has been
+     * reached. The retrieved buffers are put into a bounded queue, where they
+     * are picked up by the decoding thread.
+     */
+    private class RetrieverThread extends Thread {
+
+        private static final int QUEUE_CAPACITY = 2;
+        private static final long WAIT_MILLIS = 100;
+
+        private QjoRetrieveJournalEntries tRetriever;
+        private AdaptiveBufferSize bufferSizer;
+        private boolean isDynamicBufferSize;
+        private IProgressMonitor monitor;
+        private BlockingQueue<RetrievedBuffer> queue;
+        private volatile boolean isTerminated;
+
+        public RetrieverThread(QjoRetrieveJournalEntries tRetriever, AdaptiveBufferSize bufferSizer, boolean isDynamicBufferSize,
+            IProgressMonitor monitor) {
+            super("Retrieve journal entries"); //$NON-NLS-1$
+
+            this.tRetriever = tRetriever;
+            this.bufferSizer = bufferSizer;
+            this.isDynamicBufferSize = isDynamicBufferSize;
+            this.monitor = monitor;
+            this.queue = new ArrayBlockingQueue<RetrievedBuffer>(QUEUE_CAPACITY);
+            this.isTerminated = false;
+
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+
+            int numEntriesRetrieved = 0;
+
+            try {
+
+                RJNE0200 rjne0200;
+
+                do {
+
+                    int bufferSize;
+
+                    do {
+                        bufferSize = bufferSizer.getBufferSize();
+                        rjne0200 = tRetriever.execute(bufferSize, maxNumRows + 1);
+                        if (rjne0200 != null) {
+                            bufferSizer.update(rjne0200, maxNumRows - numEntriesRetrieved - rjne0200.getNbrOfEntriesRetrieved());
+                        }
+                    } while (isDynamicBufferSize && isBufferTooSmall(rjne0200) && !isBufferTooBig(bufferSize) && !isStopped());
+
+                    if (rjne0200 != null) {
+                        numEntriesRetrieved += rjne0200.getNbrOfEntriesRetrieved();
+                        put(new RetrievedBuffer(rjne0200, null));
+                    } else {
+                        put(new RetrievedBuffer(null, tRetriever.getMessages()));
+                    }
+
+                } while (rjne0200 != null && rjne0200.moreEntriesAvailable() && !isBufferTooSmall(rjne0200) && numEntriesRetrieved < maxNumRows
+                    && !isStopped());
+
+            } catch (InterruptedException e) {
+                // Terminated by the decoding thread
+            } catch (Exception e) {
+                try {
+                    put(new RetrievedBuffer(e));
+                } catch (InterruptedException e1) {
+                    // Terminated by the decoding thread
+                }
+            } finally {
+                try {
+                    put(RetrievedBuffer.END_OF_DATA);
+                } catch (InterruptedException e) {
+                    // Terminated by the decoding thread
+                }
+            }
+        }
+
+        /**
+         * Returns the next retrieved buffer or <code>null</code> when there are
+         * no more buffers available.
+         */
+        public RetrievedBuffer take() throws InterruptedException {
+
+            RetrievedBuffer retrievedBuffer = queue.take();
+            if (retrievedBuffer == RetrievedBuffer.END_OF_DATA) {
+                return null;
+            }
+
+            return retrievedBuffer;
+        }
+
+        public void terminate() {
+            isTerminated = true;
+            interrupt();
+        }
+
+        private void put(RetrievedBuffer retrievedBuffer) throws InterruptedException {
+            while (!isTerminated) {
+                if (queue.offer(retrievedBuffer, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isStopped() {
+            return isTerminated || isCanceled(monitor);
+        }
+    }
+
+    /**
+     * Buffer returned by the QjoRetrieveJournalEntries API. Also carries the
+     * error messages or the exception of a failed API call.
+     */
+    private static class RetrievedBuffer {
+
+        public static final RetrievedBuffer END_OF_DATA = new RetrievedBuffer(null, null);
+
+        private RJNE0200 rjne0200;
+        private List<IBMiMessage> messages;
+        private Exception exception;
+
+        public RetrievedBuffer(RJNE0200 rjne0200, List<IBMiMessage> messages) {
+            this.rjne0200 = rjne0200;
+            this.messages = messages;
+            this.exception = null;
+        }
+
+        public RetrievedBuffer(Exception exception) {
+            this(null, null);
+            this.exception = exception;
+        }
+
+        public RJNE0200 getRJNE0200() {
+            return rjne0200;
+        }
+
+        public List<IBMiMessage> getMessages() {
+            return messages;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+    }
 }
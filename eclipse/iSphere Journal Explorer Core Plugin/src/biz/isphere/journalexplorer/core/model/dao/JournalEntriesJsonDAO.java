@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model.dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.medfoster.sqljep.ParseException;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import biz.isphere.core.json.JsonFileHelper;
+import biz.isphere.journalexplorer.core.Messages;
+import biz.isphere.journalexplorer.core.helpers.TimeTaken;
+import biz.isphere.journalexplorer.core.model.JournalEntries;
+import biz.isphere.journalexplorer.core.model.JournalEntry;
+import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+import biz.isphere.journalexplorer.core.model.sqljep.JournalEntryFilter;
+import biz.isphere.journalexplorer.core.preferences.Preferences;
+
+/**
+ * This class saves and loads journal entries to and from a Json file. The
+ * journal entries are written and read one at a time, using the streaming API
+ * of Gson. Hence the Json representation of the journal entries is never held
+ * in memory as a whole. The SQL where clause is applied while the entries are
+ * read, so that entries that do not match are never kept.
+ * <p>
+ * The file format is the same as produced by the generic Json exporter, but
+ * the header values are written ahead of the journal entries. Files, whose
+ * name end with <code>.gz</code> are written gzip compressed. Compressed files
+ * are detected by their content on load.
+ * <p>
+ * The journal entries are written to a temporary file first, which replaces
+ * the Json file, when all entries have been written. Hence a canceled or
+ * failed export does not leave a truncated Json file.
+ */
+public class JournalEntriesJsonDAO {
+
+    static final String JOURNAL_ENTRIES = "journalEntries"; //$NON-NLS-1$
+
+    private static final int PROGRESS_INTERVAL = 1000;
+    private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    private String fileName;
+
+    public JournalEntriesJsonDAO(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Saves the journal entries to the Json file.
+     * 
+     * @param journalEntries - journal entries that are saved
+     * @param monitor - progress monitor
+     * @return <code>true</code> on success, <code>false</code> if canceled
+     * @throws IOException
+     */
+    public boolean save(JournalEntries journalEntries, IProgressMonitor monitor) throws IOException {
+
+        TimeTaken timeTaken = TimeTaken.start("Saving journal entries to Json file"); //$NON-NLS-1$
+
+        Gson gson = createGson(true);
+        Gson headerGson = createGson(true, JOURNAL_ENTRIES);
+
+        List<JournalEntry> items = journalEntries.getDownloadedItems();
+
+        monitor.beginTask(Messages.Exporting_to_Json, items.size());
+
+        File file = new File(fileName);
+        File tempFile = new File(fileName + TEMP_FILE_EXTENSION);
+
+        JsonWriter writer = new JsonWriter(JsonFileHelper.openWriter(tempFile.getPath(), JsonFileHelper.isCompressed(fileName)));
+
+        boolean isSaved = false;
+
+        try {
+
+            writer.beginObject();
+
+            // Header values first, so that the loader knows them before the
+            // journal entries are read.
+            JsonObject header = headerGson.toJsonTree(journalEntries).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> member : header.entrySet()) {
+                writer.name(member.getKey());
+                gson.toJson(member.getValue(), writer);
+            }
+
+            writer.name(JOURNAL_ENTRIES);
+            writer.beginArray();
+
+            int count = 0;
+            for (JournalEntry journalEntry : items) {
+
+                gson.toJson(journalEntry, JournalEntry.class, writer);
+
+                count++;
+                if (count % PROGRESS_INTERVAL == 0) {
+                    if (monitor.isCanceled()) {
+                        return false;
+                    }
+                    monitor.worked(PROGRESS_INTERVAL);
+                    monitor.setTaskName(Messages.Exporting_to_Json + " (" + count + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+
+            writer.endArray();
+            writer.endObject();
+
+            writer.close();
+
+            if (file.exists() && !file.delete()) {
+                throw new IOException(Messages.bind(Messages.Could_not_replace_file_A, file.getPath()));
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException(Messages.bind(Messages.Could_not_replace_file_A, file.getPath()));
+            }
+            isSaved = true;
+
+        } finally {
+            close(writer);
+            if (!isSaved) {
+                tempFile.delete();
+            }
+            monitor.done();
+            timeTaken.stop(items.size());
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads the journal entries from the Json file.
+     * 
+     * @param connectionName - connection name that overwrites the connection
+     *        name stored in the Json file
+     * @param whereClause - SQL where clause that is applied to the journal
+     *        entries
+     * @param monitor - progress monitor
+     * @return journal entries
+     * @throws IOException
+     * @throws ParseException
+     */
+    public JournalEntries load(String connectionName, SQLWhereClause whereClause, IProgressMonitor monitor) throws IOException, ParseException {
+
+        TimeTaken timeTaken = TimeTaken.start("Loading journal entries from Json file"); //$NON-NLS-1$
+
+        Gson gson = createGson(false);
+
+        JournalEntryFilter filter = null;
+        if (whereClause != null && whereClause.hasClause()) {
+            filter = new JournalEntryFilter(whereClause);
+        }
+
+        int maxNumRows = Preferences.getInstance().getMaximumNumberOfRowsToFetch();
+
+        monitor.beginTask(Messages.Status_Loading_journal_entries, IProgressMonitor.UNKNOWN);
+
+        JsonObject header = new JsonObject();
+        EntryCollector collector = new EntryCollector(filter, maxNumRows);
+
+        JsonReader reader = new JsonReader(JsonFileHelper.openReader(new File(fileName)));
+
+        try {
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (JOURNAL_ENTRIES.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    readJournalEntries(reader, gson, collector, monitor);
+                } else {
+                    header.add(name, gson.fromJson(reader, JsonElement.class));
+                }
+            }
+
+            if (!collector.isCanceled()) {
+                reader.endObject();
+            }
+
+        } finally {
+            reader.close();
+            monitor.done();
+        }
+
+        JournalEntries journalEntries = gson.fromJson(header, JournalEntries.class);
+        for (JournalEntry journalEntry : collector.getJournalEntries()) {
+            journalEntries.add(journalEntry);
+        }
+
+        if (collector.isOverflow()) {
+            journalEntries.setOverflow(true, collector.getNumberOfRowsAvailable());
+        }
+
+        journalEntries.setCanceled(collector.isCanceled());
+        journalEntries.finalizeJsonLoading(connectionName);
+
+        timeTaken.stop(journalEntries.size());
+
+        return journalEntries;
+    }
+
+    private void readJournalEntries(JsonReader reader, Gson gson, EntryCollector collector, IProgressMonitor monitor) throws IOException,
+        ParseException {
+
+        int count = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+
+            if (collector.isOverflow() && !collector.hasFilter()) {
+                // No need to decode the entry, just count it.
+                reader.skipValue();
+                collector.countSkipped();
+            } else {
+                JournalEntry journalEntry = gson.fromJson(reader, JournalEntry.class);
+                collector.add(journalEntry);
+            }
+
+            count++;
+            if (count % PROGRESS_INTERVAL == 0) {
+                if (monitor.isCanceled()) {
+                    collector.setCanceled();
+                    return;
+                }
+                monitor.setTaskName(Messages.Status_Loading_journal_entries + " (" + count + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Closes a Json writer. A writer that is closed before the Json document
+     * has been completed, e.g. because the export has been canceled, throws
+     * an exception, which is ignored here.
+     */
+    private void close(JsonWriter writer) {
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Produces a Gson object for journal entries. Fields of class
+     * {@link JournalEntries} can be excluded, e.g. for writing the header
+     * values only.
+     * 
+     * @param isExport - specifies whether the object is used for exporting
+     * @param excludedFields - names of fields of JournalEntries to exclude
+     * @return Gson object
+     */
+    static Gson createGson(boolean isExport, final String... excludedFields) {
+
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        if (isExport) {
+            gsonBuilder.excludeFieldsWithoutExposeAnnotation();
+        }
+
+        JsonFileHelper.registerSqlSerializers(gsonBuilder);
+
+        if (excludedFields.length > 0) {
+            gsonBuilder.setExclusionStrategies(new ExclusionStrategy() {
+
+                public boolean shouldSkipField(FieldAttributes field) {
+                    if (field.getDeclaringClass() == JournalEntries.class) {
+                        for (String excludedField : excludedFields) {
+                            if (excludedField.equals(field.getName())) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                }
+
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            });
+        }
+
+        return gsonBuilder.create();
+    }
+
+    /**
+     * Class that collects the journal entries read from the Json file. It
+     * applies the SQL where clause and the maximum number of rows.
+     */
+    private static class EntryCollector {
+
+        private JournalEntryFilter filter;
+        private int maxNumRows;
+        private List<JournalEntry> journalEntries;
+        private int numRowsAvailable;
+        private boolean isCanceled;
+
+        public EntryCollector(JournalEntryFilter filter, int maxNumRows) {
+            this.filter = filter;
+            this.maxNumRows = maxNumRows;
+            this.journalEntries = new ArrayList<JournalEntry>();
+            this.numRowsAvailable = 0;
+            this.isCanceled = false;
+        }
+
+        public boolean hasFilter() {
+            return filter != null;
+        }
+
+        public void add(JournalEntry journalEntry) throws ParseException {
+
+            if (filter != null && !filter.matches(journalEntry)) {
+                return;
+            }
+
+            numRowsAvailable++;
+
+            if (!isOverflow()) {
+                journalEntry.internStrings();
+                journalEntries.add(journalEntry);
+            }
+        }
+
+        public void countSkipped() {
+            numRowsAvailable++;
+        }
+
+        public boolean isOverflow() {
+            return numRowsAvailable > maxNumRows;
+        }
+
+        public int getNumberOfRowsAvailable() {
+            return numRowsAvailable;
+        }
+
+        public List<JournalEntry> getJournalEntries() {
+            return journalEntries;
+        }
+
+        public boolean isCanceled() {
+            return isCanceled;
+        }
+
+        public void setCanceled() {
+            this.isCanceled = true;
+        }
+    }
+}
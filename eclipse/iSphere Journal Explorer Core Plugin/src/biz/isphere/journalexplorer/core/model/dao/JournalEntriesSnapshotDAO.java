@@ -0,0 +1,1227 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.medfoster.sqljep.ParseException;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.Expose;
+
+import biz.isphere.base.internal.StringHelper;
+import biz.isphere.journalexplorer.core.Messages;
+import biz.isphere.journalexplorer.core.helpers.TimeTaken;
+import biz.isphere.journalexplorer.core.model.ILazyJournalEntryList;
+import biz.isphere.journalexplorer.core.model.JournalEntries;
+import biz.isphere.journalexplorer.core.model.JournalEntry;
+import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+import biz.isphere.journalexplorer.core.model.shared.JournaledFile;
+import biz.isphere.journalexplorer.core.model.shared.JournaledObject;
+
+/**
+ * This class saves and loads journal entries to and from a binary snapshot
+ * file. The journal entries are stored in blocks of
+ * {@link #ENTRIES_PER_BLOCK} entries. Each block is compressed on its own.
+ * The file ends with an index, that stores the position, the number of
+ * entries and the sequence number and timestamp range of each block.
+ * <p>
+ * When a snapshot file is loaded, only the header and the index are read. The
+ * blocks are read and decoded on demand, when the journal entries are
+ * accessed, e.g. when they are displayed by the virtual table of the journal
+ * explorer.
+ * <p>
+ * File layout:
+ *
+ * <pre>
+ * Header:  magic, version, entries per block, field descriptors,
+ *          header values (Json), journaled objects
+ * Blocks:  deflated journal entries
+ * Index:   number of blocks, (offset, length, entries, first/last
+ *          sequence number, first/last timestamp) per block
+ * Trailer: offset of index, magic
+ * </pre>
+ *
+ * The field descriptors store the names and types of the serialized fields
+ * of {@link JournalEntry}, so that fields can be added to the journal entry
+ * without breaking existing snapshot files.
+ * <p>
+ * Snapshot files are written to a temporary file, that replaces the snapshot
+ * file, when all journal entries have been saved.
+ */
+public class JournalEntriesSnapshotDAO {
+
+    public static final String SNAPSHOT_FILE_EXTENSION = ".jsnap"; //$NON-NLS-1$
+
+    private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+    private static final byte[] MAGIC = new byte[] { 'I', 'S', 'P', 'H', 'J', 'S', 'N', 'P' };
+    private static final int VERSION = 1;
+    private static final int ENTRIES_PER_BLOCK = 1024;
+    private static final int MAX_CACHED_BLOCKS = 8;
+    private static final int TRAILER_LENGTH = 8 + MAGIC.length;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_BIG_INTEGER = 5;
+    private static final byte TYPE_TIMESTAMP = 6;
+    private static final byte TYPE_DATE = 7;
+    private static final byte TYPE_TIME = 8;
+    private static final byte TYPE_BYTES = 9;
+
+    private String fileName;
+
+    public JournalEntriesSnapshotDAO(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Returns <code>true</code>, if a given file is a snapshot file.
+     *
+     * @param fileName - path of the file
+     * @return <code>true</code> for snapshot files
+     */
+    public static boolean isSnapshotFile(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(SNAPSHOT_FILE_EXTENSION);
+    }
+
+    /**
+     * Saves the journal entries to the snapshot file.
+     *
+     * @param journalEntries - journal entries that are saved
+     * @param monitor - progress monitor
+     * @return <code>true</code> on success, <code>false</code> if canceled
+     * @throws IOException
+     */
+    public boolean save(JournalEntries journalEntries, IProgressMonitor monitor) throws IOException {
+
+        TimeTaken timeTaken = TimeTaken.start("Saving journal entries to snapshot file"); //$NON-NLS-1$
+
+        List<JournalEntry> items = journalEntries.getDownloadedItems();
+        FieldDescriptor[] fields = FieldDescriptor.getSerializedFields();
+
+        monitor.beginTask(Messages.Exporting_to_Snapshot, items.size());
+
+        File file = new File(fileName);
+        File tempFile = new File(fileName + TEMP_FILE_EXTENSION);
+
+        FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024));
+
+        boolean isCanceled = false;
+        boolean isSaved = false;
+
+        try {
+
+            // Header
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ENTRIES_PER_BLOCK);
+
+            out.writeInt(fields.length);
+            for (FieldDescriptor field : fields) {
+                out.writeUTF(field.getName());
+                out.writeByte(field.getType());
+            }
+
+            Gson headerGson = JournalEntriesJsonDAO.createGson(true, JournalEntriesJsonDAO.JOURNAL_ENTRIES);
+            writeString(out, headerGson.toJson(journalEntries));
+
+            JournaledObject[] journaledObjects = journalEntries.getJournaledObjects();
+            out.writeInt(journaledObjects.length);
+            for (JournaledObject journaledObject : journaledObjects) {
+                writeJournaledObject(out, journaledObject);
+            }
+
+            // Blocks
+            List<BlockIndex> index = new ArrayList<BlockIndex>();
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(ENTRIES_PER_BLOCK * 512);
+
+            try {
+
+                Iterator<JournalEntry> entries = scanEntries(items);
+                List<JournalEntry> block = new ArrayList<JournalEntry>(ENTRIES_PER_BLOCK);
+
+                while (entries.hasNext() && !isCanceled) {
+
+                    block.clear();
+                    while (block.size() < ENTRIES_PER_BLOCK && entries.hasNext()) {
+                        block.add(entries.next());
+                    }
+
+                    blockBytes.reset();
+                    deflater.reset();
+                    DataOutputStream blockOut = new DataOutputStream(new DeflaterOutputStream(blockBytes, deflater));
+                    for (JournalEntry journalEntry : block) {
+                        for (FieldDescriptor field : fields) {
+                            field.write(blockOut, journalEntry);
+                        }
+                    }
+                    blockOut.close();
+
+                    out.flush();
+                    long offset = fileOutputStream.getChannel().position();
+                    blockBytes.writeTo(out);
+
+                    index.add(new BlockIndex(offset, blockBytes.size(), block.get(0), block.get(block.size() - 1), block.size()));
+
+                    monitor.worked(block.size());
+                    if (monitor.isCanceled()) {
+                        isCanceled = true;
+                    }
+                }
+
+            } finally {
+                deflater.end();
+            }
+
+            // Index
+            out.flush();
+            long indexOffset = fileOutputStream.getChannel().position();
+
+            out.writeInt(index.size());
+            for (BlockIndex blockIndex : index) {
+                blockIndex.write(out);
+            }
+
+            // Trailer
+            out.writeLong(indexOffset);
+            out.write(MAGIC);
+
+            out.close();
+
+            if (!isCanceled) {
+                if (file.exists() && !file.delete()) {
+                    throw new IOException(Messages.bind(Messages.Could_not_replace_file_A, file.getPath()));
+                }
+                if (!tempFile.renameTo(file)) {
+                    throw new IOException(Messages.bind(Messages.Could_not_replace_file_A, file.getPath()));
+                }
+                isSaved = true;
+            }
+
+        } finally {
+            close(out);
+            if (!isSaved) {
+                tempFile.delete();
+            }
+            monitor.done();
+            timeTaken.stop(items.size());
+        }
+
+        return isSaved;
+    }
+
+    /**
+     * Returns an iterator over a given list of journal entries. Lists, that
+     * decode the entries on demand, are scanned block by block, so that the
+     * blocks are not kept in memory.
+     */
+    private static Iterator<JournalEntry> scanEntries(List<JournalEntry> journalEntries) {
+
+        if (journalEntries instanceof ILazyJournalEntryList) {
+            return new ScanIterator((ILazyJournalEntryList)journalEntries);
+        }
+
+        return journalEntries.iterator();
+    }
+
+    /**
+     * Loads the journal entries from the snapshot file. Only the header and
+     * the index are read. The journal entries are decoded on demand.
+     *
+     * @param connectionName - connection name that overwrites the connection
+     *        name stored in the snapshot file
+     * @param whereClause - SQL where clause that is applied to the journal
+     *        entries
+     * @param monitor - progress monitor
+     * @return journal entries
+     * @throws IOException
+     * @throws ParseException
+     */
+    public JournalEntries load(String connectionName, SQLWhereClause whereClause, IProgressMonitor monitor) throws IOException, ParseException {
+
+        TimeTaken timeTaken = TimeTaken.start("Loading journal entries from snapshot file"); //$NON-NLS-1$
+
+        monitor.beginTask(Messages.Status_Loading_journal_entries, IProgressMonitor.UNKNOWN);
+
+        JournalEntries journalEntries;
+
+        try {
+
+            SnapshotFile snapshotFile = new SnapshotFile(new File(fileName), connectionName);
+
+            Gson gson = JournalEntriesJsonDAO.createGson(false);
+            journalEntries = gson.fromJson(snapshotFile.getHeader(), JournalEntries.class);
+            journalEntries.setItems(new SnapshotEntryList(snapshotFile), snapshotFile.getJournaledObjects());
+
+            if (!StringHelper.isNullOrEmpty(connectionName)) {
+                journalEntries.setConnectionName(connectionName);
+            }
+
+            if (whereClause != null && whereClause.hasClause()) {
+                journalEntries.applyFilter(whereClause, monitor);
+            }
+
+        } finally {
+            monitor.done();
+        }
+
+        timeTaken.stop(journalEntries.size());
+
+        return journalEntries;
+    }
+
+    private static void close(OutputStream out) {
+
+        try {
+            out.close();
+        } catch (IOException e) {
+        }
+    }
+
+    private static void writeJournaledObject(DataOutputStream out, JournaledObject journaledObject) throws IOException {
+
+        if (journaledObject instanceof JournaledFile) {
+            JournaledFile journaledFile = (JournaledFile)journaledObject;
+            out.writeBoolean(true);
+            writeString(out, journaledFile.getLibraryName());
+            writeString(out, journaledFile.getFileName());
+            writeString(out, journaledFile.getMember());
+        } else {
+            out.writeBoolean(false);
+            writeString(out, journaledObject.getLibrary());
+            writeString(out, journaledObject.getName());
+            writeString(out, journaledObject.getObjectType());
+        }
+    }
+
+    private static JournaledObject readJournaledObject(DataInputStream in, String connectionName) throws IOException {
+
+        boolean isFile = in.readBoolean();
+        String libraryName = readString(in);
+        String objectName = readString(in);
+        String memberOrObjectType = readString(in);
+
+        if (isFile) {
+            return new JournaledFile(connectionName, libraryName, objectName, memberOrObjectType);
+        } else {
+            return new JournaledObject(connectionName, libraryName, objectName, memberOrObjectType);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes("UTF-8"); //$NON-NLS-1$
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+
+        byte[] bytes = readBytes(in);
+        if (bytes == null) {
+            return null;
+        }
+
+        return new String(bytes, "UTF-8"); //$NON-NLS-1$
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return bytes;
+    }
+
+    private static void writeBigInteger(DataOutputStream out, BigInteger value) throws IOException {
+
+        if (value == null) {
+            writeBytes(out, null);
+        } else {
+            writeBytes(out, value.toByteArray());
+        }
+    }
+
+    private static BigInteger readBigInteger(DataInputStream in) throws IOException {
+
+        byte[] bytes = readBytes(in);
+        if (bytes == null) {
+            return null;
+        }
+
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * Class that describes a serialized field of a journal entry.
+     */
+    private static class FieldDescriptor {
+
+        private String name;
+        private byte type;
+        private Field field;
+
+        public FieldDescriptor(String name, byte type, Field field) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+        }
+
+        /**
+         * Returns the fields of a journal entry, that are exported to Json
+         * files.
+         */
+        public static FieldDescriptor[] getSerializedFields() {
+
+            List<FieldDescriptor> fields = new ArrayList<FieldDescriptor>();
+
+            for (Field field : JournalEntry.class.getDeclaredFields()) {
+
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                    continue;
+                }
+
+                Expose expose = field.getAnnotation(Expose.class);
+                if (expose == null || !expose.serialize()) {
+                    continue;
+                }
+
+                byte type = getType(field.getType());
+                if (type == 0) {
+                    throw new IllegalArgumentException("Unsupported field type: " + field.getName()); //$NON-NLS-1$
+                }
+
+                field.setAccessible(true);
+                fields.add(new FieldDescriptor(field.getName(), type, field));
+            }
+
+            return fields.toArray(new FieldDescriptor[fields.size()]);
+        }
+
+        /**
+         * Returns the descriptor of a field read from a snapshot file. The
+         * descriptor is bound to the field of the journal entry, if the field
+         * still exists with the same type.
+         */
+        public static FieldDescriptor getStoredField(String name, byte type) {
+
+            try {
+                Field field = JournalEntry.class.getDeclaredField(name);
+                if (getType(field.getType()) == type && !Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    return new FieldDescriptor(name, type, field);
+                }
+            } catch (NoSuchFieldException e) {
+            }
+
+            return new FieldDescriptor(name, type, null);
+        }
+
+        private static byte getType(Class<?> clazz) {
+
+            if (clazz == String.class) {
+                return TYPE_STRING;
+            } else if (clazz == int.class) {
+                return TYPE_INT;
+            } else if (clazz == long.class) {
+                return TYPE_LONG;
+            } else if (clazz == boolean.class) {
+                return TYPE_BOOLEAN;
+            } else if (clazz == BigInteger.class) {
+                return TYPE_BIG_INTEGER;
+            } else if (clazz == java.sql.Timestamp.class) {
+                return TYPE_TIMESTAMP;
+            } else if (clazz == java.sql.Date.class) {
+                return TYPE_DATE;
+            } else if (clazz == java.sql.Time.class) {
+                return TYPE_TIME;
+            } else if (clazz == byte[].class) {
+                return TYPE_BYTES;
+            }
+
+            return 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public void write(DataOutputStream out, JournalEntry journalEntry) throws IOException {
+
+            Object value;
+            try {
+                value = field.get(journalEntry);
+            } catch (IllegalAccessException e) {
+                throw new IOException(e.getLocalizedMessage());
+            }
+
+            switch (type) {
+            case TYPE_STRING:
+                writeString(out, (String)value);
+                break;
+            case TYPE_INT:
+                out.writeInt((Integer)value);
+                break;
+            case TYPE_LONG:
+                out.writeLong((Long)value);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean)value);
+                break;
+            case TYPE_BIG_INTEGER:
+                writeBigInteger(out, (BigInteger)value);
+                break;
+            case TYPE_TIMESTAMP:
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeLong(((java.sql.Timestamp)value).getTime());
+                    out.writeInt(((java.sql.Timestamp)value).getNanos());
+                }
+                break;
+            case TYPE_DATE:
+            case TYPE_TIME:
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeLong(((java.util.Date)value).getTime());
+                }
+                break;
+            case TYPE_BYTES:
+                writeBytes(out, (byte[])value);
+                break;
+            }
+        }
+
+        public void read(DataInputStream in, JournalEntry journalEntry) throws IOException {
+
+            Object value = null;
+
+            switch (type) {
+            case TYPE_STRING:
+                value = readString(in);
+                break;
+            case TYPE_INT:
+                value = in.readInt();
+                break;
+            case TYPE_LONG:
+                value = in.readLong();
+                break;
+            case TYPE_BOOLEAN:
+                value = in.readBoolean();
+                break;
+            case TYPE_BIG_INTEGER:
+                value = readBigInteger(in);
+                break;
+            case TYPE_TIMESTAMP:
+                if (in.readBoolean()) {
+                    java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                    timestamp.setNanos(in.readInt());
+                    value = timestamp;
+                }
+                break;
+            case TYPE_DATE:
+                if (in.readBoolean()) {
+                    value = new java.sql.Date(in.readLong());
+                }
+                break;
+            case TYPE_TIME:
+                if (in.readBoolean()) {
+                    value = new java.sql.Time(in.readLong());
+                }
+                break;
+            case TYPE_BYTES:
+                value = readBytes(in);
+                break;
+            default:
+                throw new IOException("Invalid field type: " + type); //$NON-NLS-1$
+            }
+
+            if (field == null) {
+                // Field no longer exists
+                return;
+            }
+
+            try {
+                field.set(journalEntry, value);
+            } catch (IllegalAccessException e) {
+                throw new IOException(e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Class that holds the index entry of a block of journal entries.
+     */
+    private static class BlockIndex {
+
+        private long offset;
+        private int length;
+        private int numEntries;
+        private BigInteger firstSequenceNumber;
+        private BigInteger lastSequenceNumber;
+        private long firstTimestamp;
+        private long lastTimestamp;
+
+        public BlockIndex(long offset, int length, JournalEntry firstEntry, JournalEntry lastEntry, int numEntries) {
+            this.offset = offset;
+            this.length = length;
+            this.numEntries = numEntries;
+            this.firstSequenceNumber = firstEntry.getSequenceNumber();
+            this.lastSequenceNumber = lastEntry.getSequenceNumber();
+            this.firstTimestamp = getTime(firstEntry);
+            this.lastTimestamp = getTime(lastEntry);
+        }
+
+        private BlockIndex() {
+        }
+
+        public static BlockIndex read(DataInputStream in) throws IOException {
+
+            BlockIndex blockIndex = new BlockIndex();
+            blockIndex.offset = in.readLong();
+            blockIndex.length = in.readInt();
+            blockIndex.numEntries = in.readInt();
+            blockIndex.firstSequenceNumber = readBigInteger(in);
+            blockIndex.lastSequenceNumber = readBigInteger(in);
+            blockIndex.firstTimestamp = in.readLong();
+            blockIndex.lastTimestamp = in.readLong();
+
+            return blockIndex;
+        }
+
+        public void write(DataOutputStream out) throws IOException {
+
+            out.writeLong(offset);
+            out.writeInt(length);
+            out.writeInt(numEntries);
+            writeBigInteger(out, firstSequenceNumber);
+            writeBigInteger(out, lastSequenceNumber);
+            out.writeLong(firstTimestamp);
+            out.writeLong(lastTimestamp);
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int getNumberOfEntries() {
+            return numEntries;
+        }
+
+        public boolean containsSequenceNumber(BigInteger sequenceNumber) {
+
+            if (firstSequenceNumber == null || lastSequenceNumber == null) {
+                return false;
+            }
+
+            return sequenceNumber.compareTo(firstSequenceNumber) >= 0 && sequenceNumber.compareTo(lastSequenceNumber) <= 0;
+        }
+
+        private static long getTime(JournalEntry journalEntry) {
+
+            if (journalEntry.getTimestamp() == null) {
+                return Long.MIN_VALUE;
+            }
+
+            return journalEntry.getTimestamp().getTime();
+        }
+    }
+
+    /**
+     * Class that provides access to the header, the index and the blocks of
+     * a snapshot file. The file is opened for reading a block and closed
+     * afterwards, so that it is not locked while it is displayed. The length
+     * and the modification time of the file are checked each time a block is
+     * read, in order to detect files, that have been replaced since they have
+     * been opened.
+     */
+    private static class SnapshotFile {
+
+        private File file;
+        private long length;
+        private long lastModified;
+        private String connectionName;
+        private FieldDescriptor[] fields;
+        private int entriesPerBlock;
+        private String header;
+        private List<JournaledObject> journaledObjects;
+        private BlockIndex[] index;
+        private int numEntries;
+
+        public SnapshotFile(File file, String connectionName) throws IOException {
+
+            this.file = file;
+            this.connectionName = connectionName;
+
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+
+            try {
+
+                FileChannel channel = randomAccessFile.getChannel();
+                long size = channel.size();
+                if (size < MAGIC.length + TRAILER_LENGTH) {
+                    throw new IOException(Messages.bind(Messages.Invalid_snapshot_file_A, file.getPath()));
+                }
+
+                this.length = size;
+                this.lastModified = file.lastModified();
+
+                // Trailer
+                DataInputStream trailer = new DataInputStream(new ByteArrayInputStream(read(channel, size - TRAILER_LENGTH, TRAILER_LENGTH)));
+                long indexOffset = trailer.readLong();
+                checkMagic(trailer);
+
+                // Header
+                channel.position(0);
+                readHeader(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+
+                // Index
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(read(channel, indexOffset, (int)(size - TRAILER_LENGTH - indexOffset))));
+                readIndex(in);
+
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public List<JournaledObject> getJournaledObjects() {
+            return journaledObjects;
+        }
+
+        public int getNumberOfEntries() {
+            return numEntries;
+        }
+
+        public int getEntriesPerBlock() {
+            return entriesPerBlock;
+        }
+
+        public int getNumberOfBlocks() {
+            return index.length;
+        }
+
+        /**
+         * Returns the number of the block that contains the journal entry
+         * with a given sequence number or -1, if the sequence number is not
+         * in the file.
+         */
+        public int findBlock(BigInteger sequenceNumber) {
+
+            for (int i = 0; i < index.length; i++) {
+                if (index[i].containsSequenceNumber(sequenceNumber)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Reads and decodes a given block of journal entries.
+         */
+        public JournalEntry[] readBlock(int block) throws IOException {
+
+            BlockIndex blockIndex = index[block];
+
+            byte[] compressed;
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+            try {
+                if (randomAccessFile.length() != length || file.lastModified() != lastModified) {
+                    throw new IOException(Messages.bind(Messages.Snapshot_file_A_has_been_changed, file.getPath()));
+                }
+                compressed = read(randomAccessFile.getChannel(), blockIndex.getOffset(), blockIndex.getLength());
+            } finally {
+                randomAccessFile.close();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(compressed)));
+
+            JournalEntry[] journalEntries = new JournalEntry[blockIndex.getNumberOfEntries()];
+            for (int i = 0; i < journalEntries.length; i++) {
+                JournalEntry journalEntry = new JournalEntry();
+                for (FieldDescriptor field : fields) {
+                    field.read(in, journalEntry);
+                }
+                journalEntry.internStrings();
+                if (!StringHelper.isNullOrEmpty(connectionName)) {
+                    journalEntry.overwriteConnectionName(connectionName);
+                }
+                journalEntries[i] = journalEntry;
+            }
+
+            return journalEntries;
+        }
+
+        private void readHeader(DataInputStream in) throws IOException {
+
+            checkMagic(in);
+
+            int version = in.readInt();
+            if (version > VERSION) {
+                throw new IOException(Messages.bind(Messages.Unsupported_snapshot_file_version_A, version));
+            }
+
+            entriesPerBlock = in.readInt();
+
+            int numFields = in.readInt();
+            fields = new FieldDescriptor[numFields];
+            for (int i = 0; i < numFields; i++) {
+                String name = in.readUTF();
+                byte type = in.readByte();
+                fields[i] = FieldDescriptor.getStoredField(name, type);
+            }
+
+            header = readString(in);
+
+            int numJournaledObjects = in.readInt();
+            journaledObjects = new ArrayList<JournaledObject>(numJournaledObjects);
+            for (int i = 0; i < numJournaledObjects; i++) {
+                journaledObjects.add(readJournaledObject(in, connectionName));
+            }
+        }
+
+        private void readIndex(DataInputStream in) throws IOException {
+
+            int numBlocks = in.readInt();
+            index = new BlockIndex[numBlocks];
+            numEntries = 0;
+            for (int i = 0; i < numBlocks; i++) {
+                index[i] = BlockIndex.read(in);
+                numEntries += index[i].getNumberOfEntries();
+            }
+        }
+
+        private void checkMagic(DataInputStream in) throws IOException {
+
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new IOException(Messages.bind(Messages.Invalid_snapshot_file_A, file.getPath()));
+                }
+            }
+        }
+
+        private byte[] read(FileChannel channel, long position, int length) throws IOException {
+
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException(Messages.bind(Messages.Unexpected_end_of_snapshot_file_A, file.getPath()));
+                }
+            }
+
+            return buffer.array();
+        }
+
+        private byte[] inflate(byte[] compressed) throws IOException {
+
+            Inflater inflater = new Inflater();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+
+            try {
+
+                inflater.setInput(compressed);
+                byte[] buffer = new byte[8192];
+                while (!inflater.finished()) {
+                    int count = inflater.inflate(buffer);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException(Messages.bind(Messages.Corrupted_block_in_snapshot_file_A, file.getPath()));
+                    }
+                    out.write(buffer, 0, count);
+                }
+
+            } catch (DataFormatException e) {
+                throw new IOException(e.getLocalizedMessage());
+            } finally {
+                inflater.end();
+            }
+
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * List of the journal entries of a snapshot file. The journal entries are
+     * decoded block by block on first access. The last
+     * {@link #MAX_CACHED_BLOCKS} decoded blocks are kept in memory, e.g. the
+     * blocks displayed by the viewer. Blocks, that are only scanned, e.g. by a
+     * filter, are not kept.
+     * <p>
+     * Only pinned journal entries keep their identity, when their block is
+     * decoded again. These are the journal entries retained by a scanner and
+     * the journal entries selected in the viewer.
+     */
+    private static class SnapshotEntryList extends AbstractList<JournalEntry> implements ILazyJournalEntryList, RandomAccess {
+
+        private SnapshotFile snapshotFile;
+        private Map<Integer, JournalEntry[]> blocks;
+        private Map<Integer, JournalEntry> retainedEntries;
+        private Map<Integer, JournalEntry> selectedEntries;
+
+        public SnapshotEntryList(SnapshotFile snapshotFile) {
+            this.snapshotFile = snapshotFile;
+            this.blocks = new BlockCache(MAX_CACHED_BLOCKS);
+            this.retainedEntries = new HashMap<Integer, JournalEntry>();
+            this.selectedEntries = new HashMap<Integer, JournalEntry>();
+        }
+
+        @Override
+        public synchronized JournalEntry get(int index) {
+
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            int block = index / snapshotFile.getEntriesPerBlock();
+
+            return getBlock(block)[index % snapshotFile.getEntriesPerBlock()];
+        }
+
+        @Override
+        public synchronized int size() {
+
+            if (snapshotFile == null) {
+                return 0;
+            }
+
+            return snapshotFile.getNumberOfEntries();
+        }
+
+        /**
+         * Removes all journal entries from the list and releases the decoded
+         * blocks. The snapshot file is not changed.
+         */
+        @Override
+        public synchronized void clear() {
+
+            snapshotFile = null;
+            blocks.clear();
+            retainedEntries.clear();
+            selectedEntries.clear();
+            modCount++;
+        }
+
+        /**
+         * Returns the index of a given journal entry. The block of the journal
+         * entry is looked up by its sequence number, which is stored for all
+         * journal entries of a snapshot file. The list is never scanned,
+         * because that would decode all blocks of the snapshot file.
+         */
+        @Override
+        public int indexOf(Object object) {
+
+            if (!(object instanceof JournalEntry)) {
+                return -1;
+            }
+
+            JournalEntry journalEntry = (JournalEntry)object;
+            if (journalEntry.getSequenceNumber() == null) {
+                return -1;
+            }
+
+            synchronized (this) {
+                if (snapshotFile == null) {
+                    return -1;
+                }
+                int block = snapshotFile.findBlock(journalEntry.getSequenceNumber());
+                if (block >= 0) {
+                    int start = block * snapshotFile.getEntriesPerBlock();
+                    JournalEntry[] journalEntries = getBlock(block);
+                    for (int i = 0; i < journalEntries.length; i++) {
+                        if (journalEntry.equals(journalEntries[i])) {
+                            return start + i;
+                        }
+                    }
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object object) {
+            return indexOf(object);
+        }
+
+        public synchronized int getNumberOfBlocks() {
+
+            if (snapshotFile == null) {
+                return 0;
+            }
+
+            return snapshotFile.getNumberOfBlocks();
+        }
+
+        public synchronized int getFirstIndex(int block) {
+
+            if (snapshotFile == null) {
+                return 0;
+            }
+
+            return block * snapshotFile.getEntriesPerBlock();
+        }
+
+        public JournalEntry[] scanBlock(int block) {
+
+            SnapshotFile snapshotFile;
+            synchronized (this) {
+                JournalEntry[] journalEntries = blocks.get(block);
+                if (journalEntries != null) {
+                    return journalEntries;
+                }
+                snapshotFile = this.snapshotFile;
+            }
+
+            // Decode the block outside of the lock, so that multiple blocks
+            // can be scanned concurrently.
+            JournalEntry[] journalEntries = readBlock(snapshotFile, block);
+
+            synchronized (this) {
+                if (this.snapshotFile != snapshotFile) {
+                    // List has been cleared in the meantime.
+                    return journalEntries;
+                }
+                replacePinnedEntries(block, journalEntries);
+            }
+
+            return journalEntries;
+        }
+
+        public synchronized JournalEntry retain(int index, JournalEntry journalEntry) {
+
+            if (snapshotFile == null) {
+                return journalEntry;
+            }
+
+            JournalEntry pinnedEntry = getPinnedEntry(index);
+            if (pinnedEntry == null) {
+                int block = index / snapshotFile.getEntriesPerBlock();
+                JournalEntry[] journalEntries = blocks.get(block);
+                if (journalEntries != null) {
+                    pinnedEntry = journalEntries[index % snapshotFile.getEntriesPerBlock()];
+                } else {
+                    pinnedEntry = journalEntry;
+                }
+            }
+
+            retainedEntries.put(index, pinnedEntry);
+
+            return pinnedEntry;
+        }
+
+        public synchronized void setSelectedEntries(int[] indices) {
+
+            selectedEntries.clear();
+
+            if (snapshotFile == null) {
+                return;
+            }
+
+            for (int index : indices) {
+                int block = index / snapshotFile.getEntriesPerBlock();
+                JournalEntry[] journalEntries = blocks.get(block);
+                if (journalEntries != null) {
+                    selectedEntries.put(index, journalEntries[index % snapshotFile.getEntriesPerBlock()]);
+                }
+            }
+        }
+
+        private JournalEntry[] getBlock(int block) {
+
+            JournalEntry[] journalEntries = blocks.get(block);
+            if (journalEntries != null) {
+                return journalEntries;
+            }
+
+            journalEntries = readBlock(snapshotFile, block);
+            replacePinnedEntries(block, journalEntries);
+
+            blocks.put(block, journalEntries);
+
+            return journalEntries;
+        }
+
+        /**
+         * Replaces the decoded journal entries of a given block by the pinned
+         * journal entries, so that the pinned entries keep their identity.
+         */
+        private void replacePinnedEntries(int block, JournalEntry[] journalEntries) {
+
+            if (retainedEntries.isEmpty() && selectedEntries.isEmpty()) {
+                return;
+            }
+
+            int start = getFirstIndex(block);
+            for (int i = 0; i < journalEntries.length; i++) {
+                JournalEntry pinnedEntry = getPinnedEntry(start + i);
+                if (pinnedEntry != null) {
+                    journalEntries[i] = pinnedEntry;
+                }
+            }
+        }
+
+        private JournalEntry getPinnedEntry(int index) {
+
+            JournalEntry pinnedEntry = retainedEntries.get(index);
+            if (pinnedEntry == null) {
+                pinnedEntry = selectedEntries.get(index);
+            }
+
+            return pinnedEntry;
+        }
+
+        private JournalEntry[] readBlock(SnapshotFile snapshotFile, int block) {
+
+            if (snapshotFile == null) {
+                throw new IndexOutOfBoundsException("Block: " + block + ", Size: 0"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            try {
+                return snapshotFile.readBlock(block);
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Cache of the decoded blocks of a snapshot file, that releases the least
+     * recently used block, when the maximum number of blocks is exceeded.
+     */
+    private static class BlockCache extends LinkedHashMap<Integer, JournalEntry[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int maxBlocks;
+
+        public BlockCache(int maxBlocks) {
+            super(maxBlocks * 2, 0.75f, true);
+            this.maxBlocks = maxBlocks;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, JournalEntry[]> eldest) {
+            return size() > maxBlocks;
+        }
+    }
+
+    /**
+     * Iterator, that scans the journal entries of a lazy list block by block.
+     */
+    private static class ScanIterator implements Iterator<JournalEntry> {
+
+        private ILazyJournalEntryList journalEntries;
+        private int numBlocks;
+        private int block;
+        private JournalEntry[] entries;
+        private int index;
+
+        public ScanIterator(ILazyJournalEntryList journalEntries) {
+            this.journalEntries = journalEntries;
+            this.numBlocks = journalEntries.getNumberOfBlocks();
+            this.block = -1;
+            this.entries = new JournalEntry[0];
+            this.index = 0;
+        }
+
+        public boolean hasNext() {
+
+            while (index >= entries.length) {
+                if (block + 1 >= numBlocks) {
+                    return false;
+                }
+                block++;
+                entries = journalEntries.scanBlock(block);
+                index = 0;
+            }
+
+            return true;
+        }
+
+        public JournalEntry next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return entries[index++];
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -13,11 +13,20 @@ package biz.isphere.journalexplorer.core.model.dao;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import biz.isphere.journalexplorer.core.api.retrievefielddescription.IQDBRTVFD;
 import biz.isphere.journalexplorer.core.model.MetaColumn;
 import biz.isphere.journalexplorer.core.model.MetaTable;
 
+import com.ibm.as400.access.ObjectDescription;
+import com.ibm.as400.access.ObjectList;
+
 public class MetaTableDAO extends DAOBase {
 
     public MetaTableDAO(String connectionName) throws Exception {
@@ -45,4 +54,89 @@ public class MetaTableDAO extends DAOBase {
             super.destroy(sqlStatement);
         }
     }
+
+    /**
+     * Returns the level identifier of the definition file of a given meta
+     * table. The level identifier is the date and time the file was last
+     * changed. It changes, whenever the record format of the file is changed.
+     * 
+     * @param metaTable - meta table whose level identifier is returned
+     * @return level identifier or <code>null</code>, if the identifier could
+     *         not be retrieved
+     */
+    public String retrieveLevelIdentifier(MetaTable metaTable) {
+
+        try {
+
+            ObjectDescription objectDescription = new ObjectDescription(getSystem(), metaTable.getDefinitionLibrary(),
+                metaTable.getDefinitionName(), "FILE"); //$NON-NLS-1$
+            Date changeDate = (Date)objectDescription.getValue(ObjectDescription.CHANGE_DATE);
+            if (changeDate == null) {
+                return null;
+            }
+
+            return Long.toString(changeDate.getTime());
+
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the level identifiers of the given files of a library. The
+     * level identifiers are retrieved with a single list objects call. The
+     * list is limited to the names, that start with the common prefix of the
+     * file names.
+     * 
+     * @param library - library of the files
+     * @param files - names of the files
+     * @return level identifiers of the files, keyed by file name
+     * @throws Exception
+     */
+    public Map<String, String> retrieveLevelIdentifiers(String library, List<String> files) throws Exception {
+
+        Map<String, String> levelIdentifiers = new HashMap<String, String>();
+        Set<String> requestedFiles = new HashSet<String>(files);
+
+        ObjectList objectList = new ObjectList(getSystem(), library, produceGenericName(files), "*FILE"); //$NON-NLS-1$
+        objectList.addObjectAttributeToRetrieve(ObjectDescription.CHANGE_DATE);
+
+        try {
+
+            objectList.load();
+
+            ObjectDescription[] objectDescriptions = objectList.getObjects(0, objectList.getLength());
+            for (ObjectDescription objectDescription : objectDescriptions) {
+                if (requestedFiles.contains(objectDescription.getName())) {
+                    Date changeDate = (Date)objectDescription.getValue(ObjectDescription.CHANGE_DATE);
+                    if (changeDate != null) {
+                        levelIdentifiers.put(objectDescription.getName(), Long.toString(changeDate.getTime()));
+                    }
+                }
+            }
+
+        } finally {
+            objectList.close();
+        }
+
+        return levelIdentifiers;
+    }
+
+    private String produceGenericName(List<String> files) {
+
+        String prefix = files.get(0);
+        for (String file : files) {
+            int length = 0;
+            while (length < prefix.length() && length < file.length() && prefix.charAt(length) == file.charAt(length)) {
+                length++;
+            }
+            prefix = prefix.substring(0, length);
+        }
+
+        if (prefix.length() == 0) {
+            return ObjectList.ALL;
+        }
+
+        return prefix + "*"; //$NON-NLS-1$
+    }
 }
@@ -64,7 +64,7 @@ public class Type3DAO extends AbstractTypeDAO {
         // single field or splitted in JODATE and JOTYPE.
         // For TYPE3+ output files it is returned as a timestamp value.
         journalEntry.setTimestamp(resultSet.getTimestamp(ColumnsDAO.JOTSTP.name()));
-        journalEntry.setNullIndicators(new String(resultSet.getBytes(ColumnsDAO.JONVI.name()), getJournalEntryCcsid()).getBytes());
+        journalEntry.setNullIndicators(resultSet.getBytes(ColumnsDAO.JONVI.name()), getJournalEntryCcsid());
 
         return journalEntry;
     }
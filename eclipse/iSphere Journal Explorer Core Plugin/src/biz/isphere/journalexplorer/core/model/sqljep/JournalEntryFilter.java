@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Team
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.journalexplorer.core.model.sqljep;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.medfoster.sqljep.ParseException;
+import org.medfoster.sqljep.RowJEP;
+
+import biz.isphere.core.internal.ISeries;
+import biz.isphere.journalexplorer.core.model.JournalEntry;
+import biz.isphere.journalexplorer.core.model.MetaDataCache;
+import biz.isphere.journalexplorer.core.model.MetaTable;
+import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+import biz.isphere.journalexplorer.core.model.shared.JournaledFile;
+import biz.isphere.journalexplorer.core.model.shared.JournaledObject;
+
+/**
+ * Class to evaluate an SQL where clause against journal entries. The where
+ * clause is parsed once per record format, that is once for the JO* columns
+ * and once for each {@link MetaTable} that contributes entry specific columns.
+ * The compiled expressions and their row buffers are cached and reused for all
+ * journal entries of the same record format.
+ * <p>
+ * The record format of a journaled file is resolved only once per filter.
+ * Consecutive journal entries of the same file reuse the format of the
+ * previous entry without a lookup. The record formats can also be resolved in
+ * advance, e.g. before the journal entries are filtered by multiple threads,
+ * so that the threads do not need to access the {@link MetaDataCache}.
+ * <p>
+ * Instances of this class are not thread-safe. Each thread must use its own
+ * filter.
+ */
+public class JournalEntryFilter {
+
+    private static final String BASIC_FORMAT = "*BASIC"; //$NON-NLS-1$
+
+    private SQLWhereClause whereClause;
+    private Map<String, CompiledExpression> compiledExpressions;
+    private Map<FileKey, String> formatKeys;
+
+    private JournalEntry lastJournalEntry;
+    private String lastFormatKey;
+
+    public JournalEntryFilter(SQLWhereClause whereClause) {
+
+        this.whereClause = whereClause;
+        this.compiledExpressions = new HashMap<String, CompiledExpression>();
+        this.formatKeys = new HashMap<FileKey, String>();
+    }
+
+    /**
+     * Produces a new filter for the same where clause, that starts with the
+     * record formats resolved by this filter. The compiled expressions are not
+     * copied, because they must not be shared between threads.
+     *
+     * @return copy of this filter
+     */
+    public JournalEntryFilter copy() {
+
+        JournalEntryFilter filter = new JournalEntryFilter(whereClause);
+        filter.formatKeys.putAll(formatKeys);
+
+        return filter;
+    }
+
+    /**
+     * Resolves the record formats of the given journaled files.
+     *
+     * @param journaledObjects - journaled objects of the journal entries, that
+     *        are filtered
+     */
+    public void resolveRecordFormats(JournaledObject[] journaledObjects) {
+
+        for (JournaledObject journaledObject : journaledObjects) {
+            if (journaledObject instanceof JournaledFile) {
+                FileKey fileKey = new FileKey(journaledObject);
+                if (!formatKeys.containsKey(fileKey)) {
+                    formatKeys.put(fileKey, resolveFormatKey(journaledObject.getConnectionName(), journaledObject.getLibrary(),
+                        journaledObject.getName(), ISeries.FILE));
+                }
+            }
+        }
+    }
+
+    public SQLWhereClause getWhereClause() {
+        return whereClause;
+    }
+
+    /**
+     * Returns <code>true</code>, when the journal entry matches the where
+     * clause, else <code>false</code>.
+     *
+     * @param journalEntry - journal entry that is tested
+     * @return <code>true</code>, if the entry matches the where clause
+     * @throws ParseException
+     */
+    public boolean matches(JournalEntry journalEntry) throws ParseException {
+
+        if (whereClause.hasSpecificFields() && tableDoesNotMatch(journalEntry)) {
+            // Always not found, when the where clause includes record
+            // specific fields and the table does not match.
+            return false;
+        }
+
+        CompiledExpression expression = getCompiledExpression(journalEntry);
+
+        Comparable<?>[] row = expression.getRow(journalEntry);
+        if (!expression.isRowBuffer(row)) {
+            // Record format does not match the cached expression. Fall back
+            // to parsing the expression for this entry.
+            RowJEP sqljep = new RowJEP(whereClause.getClause());
+            sqljep.parseExpression(journalEntry.getColumnMapping());
+            return (Boolean)sqljep.getValue(row);
+        }
+
+        return expression.matches(row);
+    }
+
+    /**
+     * Returns the number of record formats, the where clause has been compiled
+     * for.
+     *
+     * @return number of compiled expressions
+     */
+    public int getNumberOfCompiledExpressions() {
+        return compiledExpressions.size();
+    }
+
+    private boolean tableDoesNotMatch(JournalEntry journalEntry) {
+
+        if (!whereClause.getFile().equals(journalEntry.getObjectName()) || !whereClause.getLibrary().equals(journalEntry.getObjectLibrary())) {
+            return true;
+        }
+
+        return false;
+    }
+
+    private CompiledExpression getCompiledExpression(JournalEntry journalEntry) throws ParseException {
+
+        String formatKey = produceFormatKey(journalEntry);
+
+        CompiledExpression expression = compiledExpressions.get(formatKey);
+        if (expression == null) {
+            HashMap<String, Integer> columnMapping = journalEntry.getColumnMapping();
+            RowJEP sqljep = new RowJEP(whereClause.getClause());
+            sqljep.parseExpression(columnMapping);
+            expression = new CompiledExpression(sqljep, columnMapping.size());
+            compiledExpressions.put(formatKey, expression);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Produces the key of the record format of a given journal entry. Entries
+     * without record specific fields share the basic format, that consists of
+     * the JO* columns only.
+     */
+    private String produceFormatKey(JournalEntry journalEntry) {
+
+        if (!journalEntry.isRecordEntryType()) {
+            return BASIC_FORMAT;
+        }
+
+        if (lastJournalEntry != null && isSameFile(journalEntry, lastJournalEntry)) {
+            return lastFormatKey;
+        }
+
+        FileKey fileKey = new FileKey(journalEntry);
+        String formatKey = formatKeys.get(fileKey);
+        if (formatKey == null) {
+            formatKey = resolveFormatKey(journalEntry.getConnectionName(), journalEntry.getObjectLibrary(), journalEntry.getObjectName(),
+                journalEntry.getObjectType());
+            formatKeys.put(fileKey, formatKey);
+        }
+
+        lastJournalEntry = journalEntry;
+        lastFormatKey = formatKey;
+
+        return formatKey;
+    }
+
+    /**
+     * Compares the files of two journal entries. The names are compared by
+     * identity, because they are interned, when the journal entries are
+     * loaded. Hence different objects just cause an additional lookup.
+     */
+    private boolean isSameFile(JournalEntry journalEntry, JournalEntry otherJournalEntry) {
+        return journalEntry.getObjectName() == otherJournalEntry.getObjectName()
+            && journalEntry.getObjectLibrary() == otherJournalEntry.getObjectLibrary()
+            && journalEntry.getConnectionName() == otherJournalEntry.getConnectionName();
+    }
+
+    private String resolveFormatKey(String connectionName, String library, String file, String objectType) {
+
+        try {
+
+            MetaTable metaTable = MetaDataCache.getInstance().retrieveMetaData(connectionName, library, file, objectType);
+            if (metaTable == null || !metaTable.hasColumns()) {
+                return BASIC_FORMAT;
+            }
+
+            return metaTable.getQualifiedName() + ":" + metaTable.getColumns().length; //$NON-NLS-1$
+
+        } catch (Exception e) {
+            return BASIC_FORMAT;
+        }
+    }
+
+    /**
+     * Class that identifies the file of a journal entry.
+     */
+    private static class FileKey {
+
+        private String connectionName;
+        private String library;
+        private String name;
+
+        public FileKey(JournalEntry journalEntry) {
+            this.connectionName = journalEntry.getConnectionName();
+            this.library = journalEntry.getObjectLibrary();
+            this.name = journalEntry.getObjectName();
+        }
+
+        public FileKey(JournaledObject journaledObject) {
+            this.connectionName = journaledObject.getConnectionName();
+            this.library = journaledObject.getLibrary();
+            this.name = journaledObject.getName();
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((connectionName == null) ? 0 : connectionName.hashCode());
+            result = prime * result + ((library == null) ? 0 : library.hashCode());
+            result = prime * result + ((name == null) ? 0 : name.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+            FileKey other = (FileKey)obj;
+            if (connectionName == null) {
+                if (other.connectionName != null) return false;
+            } else if (!connectionName.equals(other.connectionName)) return false;
+            if (library == null) {
+                if (other.library != null) return false;
+            } else if (!library.equals(other.library)) return false;
+            if (name == null) {
+                if (other.name != null) return false;
+            } else if (!name.equals(other.name)) return false;
+            return true;
+        }
+    }
+
+    /**
+     * Class that holds the parsed expression of a given record format and the
+     * row buffer that is reused for all entries of that format.
+     */
+    private class CompiledExpression {
+
+        private RowJEP sqljep;
+        private Comparable<?>[] row;
+
+        public CompiledExpression(RowJEP sqljep, int rowLength) {
+            this.sqljep = sqljep;
+            this.row = new Comparable<?>[rowLength];
+        }
+
+        public Comparable<?>[] getRow(JournalEntry journalEntry) {
+            return journalEntry.getRow(row);
+        }
+
+        public boolean isRowBuffer(Comparable<?>[] row) {
+            return this.row == row;
+        }
+
+        public boolean matches(Comparable<?>[] row) throws ParseException {
+            return (Boolean)sqljep.getValue(row);
+        }
+    }
+}
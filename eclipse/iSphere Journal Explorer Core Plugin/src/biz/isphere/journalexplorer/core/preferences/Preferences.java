@@ -85,6 +85,8 @@ public final class Preferences {
 
     public static final String DYNAMIC_BUFFER_SIZE = LIMITATIONS + "DYNAMIC_BUFFER_SIZE"; //$NON-NLS-1$
 
+    public static final String LEARNED_BUFFER_SIZE = LIMITATIONS + "LEARNED_BUFFER_SIZE."; //$NON-NLS-1$
+
     public static final String LOAD_JOURNAL_ENTRIES = DOMAIN + "LOAD_JOURNAL_ENTRIES."; //$NON-NLS-1$
 
     public static final String EXPORT_JOURNAL_ENTRIES = DOMAIN + "EXPORT_JOURNAL_ENTRIES."; //$NON-NLS-1$
@@ -236,6 +238,19 @@ public final class Preferences {
         return preferenceStore.getBoolean(DYNAMIC_BUFFER_SIZE);
     }
 
+    /**
+     * Returns the buffer size that has been learned from the journal entries
+     * retrieved in previous sessions.
+     * 
+     * @param journal - key of the journal (connection, library and journal
+     *        name)
+     * @return learned buffer size or 0, if no buffer size has been learned yet
+     */
+    public int getRetrieveJournalEntriesLearnedBufferSize(String journal) {
+
+        return preferenceStore.getInt(getLearnedBufferSizeKey(journal));
+    }
+
     public String getExportPath() {
 
         return preferenceStore.getString(EXPORT_PATH);
@@ -302,6 +317,10 @@ public final class Preferences {
         preferenceStore.setValue(DYNAMIC_BUFFER_SIZE, enabled);
     }
 
+    public void setRetrieveJournalEntriesLearnedBufferSize(String journal, int bufferSize) {
+        preferenceStore.setValue(getLearnedBufferSizeKey(journal), bufferSize);
+    }
+
     public void setExportPath(String exportPath) {
 
         preferenceStore.setValue(EXPORT_PATH, exportPath);
@@ -344,6 +363,10 @@ public final class Preferences {
         return "R:" + color.getRed() + ",G:" + color.getGreen() + ",B:" + color.getBlue();
     }
 
+    private String getLearnedBufferSizeKey(String journal) {
+        return LEARNED_BUFFER_SIZE + journal.replace('/', '.');
+    }
+
     private String getColumnOrderKey(int index) {
         return COLUMNS_ORDER + index;
     }
@@ -31,6 +31,7 @@ import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 import biz.isphere.journalexplorer.core.ISphereJournalExplorerCorePlugin;
 import biz.isphere.journalexplorer.core.Messages;
 import biz.isphere.journalexplorer.core.export.excel.ExcelExporter;
+import biz.isphere.journalexplorer.core.model.JournalEntries;
 import biz.isphere.journalexplorer.core.model.JournalEntry;
 import biz.isphere.journalexplorer.core.model.adapters.JournalProperties;
 import biz.isphere.journalexplorer.core.preferences.Preferences;
@@ -42,6 +43,7 @@ public class ExportToExcelAction extends Action {
 
     private Shell shell;
     private JournalEntry[] selectedItems;
+    private JournalEntries journalEntries;
     private JournalEntryColumn[] columns;
 
     public ExportToExcelAction(Shell shell) {
@@ -72,10 +74,23 @@ public class ExportToExcelAction extends Action {
         }
 
         this.selectedItems = selectedItems.toArray(new JournalEntry[selectedItems.size()]);
+        this.journalEntries = null;
     }
 
     public void setSelectedItems(JournalEntry[] selectedItems) {
         this.selectedItems = selectedItems;
+        this.journalEntries = null;
+    }
+
+    /**
+     * Sets the journal entries that are exported. The entries are retrieved,
+     * when the export is executed, because they might be decoded on demand.
+     * 
+     * @param journalEntries - journal entries that are exported
+     */
+    public void setSelectedItems(JournalEntries journalEntries) {
+        this.selectedItems = null;
+        this.journalEntries = journalEntries;
     }
 
     public void setColumns(JournalEntryColumn[] columns) {
@@ -116,8 +131,13 @@ public class ExportToExcelAction extends Action {
 
                 try {
 
+                    JournalEntry[] exportItems = selectedItems;
+                    if (journalEntries != null) {
+                        exportItems = journalEntries.getItems().toArray(new JournalEntry[journalEntries.size()]);
+                    }
+
                     ExcelExporter exporter = new ExcelExporter();
-                    exporter.export(shell, columns, selectedItems, exportPath);
+                    exporter.export(shell, columns, exportItems, exportPath);
 
                     displayResultJob = new UIJob(Messages.Display_Export_Result) {
                         @Override
@@ -21,12 +21,13 @@ import org.eclipse.ui.progress.UIJob;
 
 import biz.isphere.base.internal.ExceptionHelper;
 import biz.isphere.base.internal.FileHelper;
-import biz.isphere.core.json.JsonExporter;
 import biz.isphere.core.swt.widgets.WidgetFactory;
 import biz.isphere.core.swt.widgets.extension.point.IFileDialog;
 import biz.isphere.journalexplorer.core.ISphereJournalExplorerCorePlugin;
 import biz.isphere.journalexplorer.core.Messages;
 import biz.isphere.journalexplorer.core.model.JournalEntries;
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesJsonDAO;
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesSnapshotDAO;
 import biz.isphere.journalexplorer.core.preferences.Preferences;
 
 public class SaveJournalEntriesAction extends Action {
@@ -65,8 +66,9 @@ public class SaveJournalEntriesAction extends Action {
         }
 
         IFileDialog dialog = WidgetFactory.getFileDialog(shell, SWT.SAVE);
-        dialog.setFilterNames(new String[] { "Json Files", FileHelper.getAllFilesText() }); //$NON-NLS-1$
-        dialog.setFilterExtensions(new String[] { "*.json", FileHelper.getAllFilesFilter() }); //$NON-NLS-1$
+        dialog.setFilterNames(new String[] { "Json Files", "Snapshot Files", FileHelper.getAllFilesText() }); //$NON-NLS-1$ //$NON-NLS-2$
+        dialog.setFilterExtensions(new String[] { "*.json;*.json.gz", "*" + JournalEntriesSnapshotDAO.SNAPSHOT_FILE_EXTENSION, //$NON-NLS-1$ //$NON-NLS-2$
+            FileHelper.getAllFilesFilter() });
         dialog.setFilterPath(Preferences.getInstance().getExportPath());
         dialog.setFileName(Preferences.getInstance().getExportFileJson());
         dialog.setOverwrite(true);
@@ -81,14 +83,24 @@ public class SaveJournalEntriesAction extends Action {
         Job exportJob = new Job(Messages.Exporting_to_Json) {
 
             @Override
-            protected IStatus run(IProgressMonitor arg0) {
+            protected IStatus run(IProgressMonitor monitor) {
 
                 UIJob displayResultJob = null;
 
                 try {
 
-                    JsonExporter<JournalEntries> exporter = new JsonExporter<JournalEntries>();
-                    exporter.execute(shell, selectedItems, exportPath);
+                    boolean isSaved;
+                    if (JournalEntriesSnapshotDAO.isSnapshotFile(exportPath)) {
+                        JournalEntriesSnapshotDAO journalEntriesSnapshotDAO = new JournalEntriesSnapshotDAO(exportPath);
+                        isSaved = journalEntriesSnapshotDAO.save(selectedItems, monitor);
+                    } else {
+                        JournalEntriesJsonDAO journalEntriesJsonDAO = new JournalEntriesJsonDAO(exportPath);
+                        isSaved = journalEntriesJsonDAO.save(selectedItems, monitor);
+                    }
+
+                    if (!isSaved) {
+                        return Status.CANCEL_STATUS;
+                    }
 
                     displayResultJob = new UIJob(Messages.Display_Export_Result) {
                         @Override
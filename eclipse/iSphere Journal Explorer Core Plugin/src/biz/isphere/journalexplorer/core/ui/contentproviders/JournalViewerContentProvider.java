@@ -11,16 +11,20 @@
 
 package biz.isphere.journalexplorer.core.ui.contentproviders;
 
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 
+import biz.isphere.core.ISpherePlugin;
+import biz.isphere.journalexplorer.core.Messages;
 import biz.isphere.journalexplorer.core.model.JournalEntries;
 
 public class JournalViewerContentProvider implements ILazyContentProvider {
 
     private JournalEntries inputData;
     private TableViewer viewer;
+    private boolean isErrorReported;
 
     public JournalViewerContentProvider(TableViewer viewer) {
         this.viewer = viewer;
@@ -36,6 +40,8 @@ public class JournalViewerContentProvider implements ILazyContentProvider {
         } else {
             inputData = null;
         }
+
+        isErrorReported = false;
     }
 
     public void updateElement(int index) {
@@ -44,7 +50,32 @@ public class JournalViewerContentProvider implements ILazyContentProvider {
             return;
         }
 
-        viewer.replace(inputData.getItem(index), index);
+        try {
+            viewer.replace(inputData.getItem(index), index);
+        } catch (IllegalStateException e) {
+            // Journal entries that are decoded on demand could not be read,
+            // e.g. because the snapshot file has been changed.
+            reportError(e);
+        }
+    }
+
+    private void reportError(final IllegalStateException e) {
+
+        if (isErrorReported) {
+            return;
+        }
+
+        isErrorReported = true;
+
+        ISpherePlugin.logError("*** Could not read journal entries ***", e); //$NON-NLS-1$
+
+        viewer.getControl().getDisplay().asyncExec(new Runnable() {
+            public void run() {
+                if (!viewer.getControl().isDisposed()) {
+                    MessageDialog.openError(viewer.getControl().getShell(), Messages.E_R_R_O_R, e.getLocalizedMessage());
+                }
+            }
+        });
     }
 
     public JournalEntries getInput() {
@@ -47,6 +47,7 @@ import biz.isphere.core.swt.widgets.sqleditor.SqlEditor;
 import biz.isphere.journalexplorer.core.ISphereJournalExplorerCorePlugin;
 import biz.isphere.journalexplorer.core.Messages;
 import biz.isphere.journalexplorer.core.model.JournalEntry;
+import biz.isphere.journalexplorer.core.model.dao.JournalEntriesSnapshotDAO;
 import biz.isphere.journalexplorer.core.preferences.Preferences;
 
 public class OpenJournalJsonFileDialog extends XDialog {
@@ -222,8 +223,9 @@ public class OpenJournalJsonFileDialog extends XDialog {
             @Override
             public void widgetSelected(SelectionEvent e) {
                 IFileDialog dialog = WidgetFactory.getFileDialog(getShell(), SWT.OPEN);
-                dialog.setFilterNames(new String[] { "Json Files", FileHelper.getAllFilesText() }); //$NON-NLS-1$
-                dialog.setFilterExtensions(new String[] { "*.json", FileHelper.getAllFilesFilter() }); //$NON-NLS-1$
+                dialog.setFilterNames(new String[] { "Json Files", "Snapshot Files", FileHelper.getAllFilesText() }); //$NON-NLS-1$ //$NON-NLS-2$
+                dialog.setFilterExtensions(new String[] { "*.json;*.json.gz", "*" + JournalEntriesSnapshotDAO.SNAPSHOT_FILE_EXTENSION, //$NON-NLS-1$ //$NON-NLS-2$
+                    FileHelper.getAllFilesFilter() });
 
                 dialog.setFilterPath(Preferences.getInstance().getExportPath());
                 dialog.setFileName(Preferences.getInstance().getExportFileJson());
@@ -473,7 +473,7 @@ public class JournalExplorerView extends XViewPart implements ISelectionChangedL
         } else {
             exportToExcelAction.setColumns(columns);
             exportToExcelAction.setEnabled(true);
-            exportToExcelAction.setSelectedItems(journalEntries.getItems().toArray(new JournalEntry[journalEntries.size()]));
+            exportToExcelAction.setSelectedItems(journalEntries);
             toggleHighlightUserEntriesAction.setEnabled(true);
             resetColumnSizeAction.setEnabled(true);
             resetColumnSizeAction.setViewer(getSelectedViewer());
@@ -507,6 +507,10 @@ public abstract class AbstractJournalEntriesViewerTab extends CTabItem implement
 
     public void selectionChanged(SelectionChangedEvent event) {
 
+        if (data != null) {
+            data.setSelectedItems(tableViewer.getTable().getSelectionIndices());
+        }
+
         SelectionChangedEvent newEvent = new SelectionChangedEvent(this, event.getSelection());
 
         for (ISelectionChangedListener selectionChangedListener : selectionChangedListeners) {
@@ -69,6 +69,7 @@ import biz.isphere.journalexplorer.core.model.JournalEntry;
 import biz.isphere.journalexplorer.core.model.JournalExplorerJournalInput;
 import biz.isphere.journalexplorer.core.model.JournalExplorerJsonFileInput;
 import biz.isphere.journalexplorer.core.model.JournalExplorerOutputFileInput;
+import biz.isphere.journalexplorer.core.model.JournalExplorerSnapshotFileInput;
 import biz.isphere.journalexplorer.core.model.MetaDataCache;
 import biz.isphere.journalexplorer.core.model.MetaTable;
 import biz.isphere.journalexplorer.core.model.OutputFile;
@@ -804,6 +805,8 @@ public class JournalExplorerTab extends CTabItem
                             objectType = ISeries.FILE;
                         } else if (input instanceof JournalExplorerJsonFileInput) {
                             objectType = "*JSON"; //$NON-NLS-1$
+                        } else if (input instanceof JournalExplorerSnapshotFileInput) {
+                            objectType = "*SNAPSHOT"; //$NON-NLS-1$
                         } else {
                             objectType = "*N"; //$NON-NLS-1$
                         }
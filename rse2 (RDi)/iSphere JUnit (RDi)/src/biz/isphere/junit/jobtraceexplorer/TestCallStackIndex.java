@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2023 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.jobtraceexplorer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import biz.isphere.jobtraceexplorer.core.model.CallStackIndex;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntries;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+
+public class TestCallStackIndex {
+
+    private static final int NOT_FOUND = -1;
+
+    @Test
+    public void testEmptyIndex() {
+
+        CallStackIndex index = new CallStackIndex();
+
+        assertEquals(0, index.size());
+        assertEquals(NOT_FOUND, index.getNext(0));
+        assertEquals(NOT_FOUND, index.getPrevious(0));
+    }
+
+    @Test
+    public void testNestedProcedures() {
+
+        // ENTRY A, ENTRY B, EXIT B, ENTRY C, EXIT C, EXIT A
+        CallStackIndex index = createIndex(new int[] { 1, 2, 2, 2, 2, 1 });
+
+        assertEquals(6, index.size());
+
+        assertEquals(5, index.getNext(0));
+        assertEquals(0, index.getPrevious(5));
+        assertEquals(2, index.getNext(1));
+        assertEquals(1, index.getPrevious(2));
+        assertEquals(4, index.getNext(3));
+        assertEquals(3, index.getPrevious(4));
+
+        assertEquals(NOT_FOUND, index.getPrevious(0));
+        assertEquals(NOT_FOUND, index.getNext(5));
+    }
+
+    @Test
+    public void testPositionOutOfRange() {
+
+        CallStackIndex index = createIndex(new int[] { 1, 1 });
+
+        assertEquals(NOT_FOUND, index.getNext(-1));
+        assertEquals(NOT_FOUND, index.getPrevious(-1));
+        assertEquals(NOT_FOUND, index.getNext(2));
+        assertEquals(NOT_FOUND, index.getPrevious(2));
+    }
+
+    @Test
+    public void testNegativeCallLevel() {
+
+        CallStackIndex index = createIndex(new int[] { 1, -1, -1, 1 });
+
+        assertEquals(NOT_FOUND, index.getNext(1));
+        assertEquals(NOT_FOUND, index.getPrevious(2));
+        assertEquals(3, index.getNext(0));
+    }
+
+    @Test
+    public void testGrowCapacity() {
+
+        CallStackIndex index = new CallStackIndex(1);
+
+        int numEntries = 5000;
+        int maxCallLevel = 100;
+        for (int i = 0; i < numEntries; i++) {
+            index.add(i % maxCallLevel);
+        }
+
+        assertEquals(numEntries, index.size());
+        assertEquals(maxCallLevel + 42, index.getNext(42));
+        assertEquals(numEntries - 1 - maxCallLevel, index.getPrevious(numEntries - 1));
+        assertEquals(NOT_FOUND, index.getNext(numEntries - 1));
+    }
+
+    @Test
+    public void testBuild() {
+
+        int[] callLevels = new int[] { 1, 2, 3, 3, 2, 1 };
+
+        List<JobTraceEntry> jobTraceEntries = new ArrayList<JobTraceEntry>();
+        for (int callLevel : callLevels) {
+            JobTraceEntry jobTraceEntry = new JobTraceEntry();
+            jobTraceEntry.setCallLevel(callLevel);
+            jobTraceEntries.add(jobTraceEntry);
+        }
+
+        CallStackIndex index = CallStackIndex.build(jobTraceEntries);
+
+        assertEquals(callLevels.length, index.size());
+        assertEquals(5, index.getNext(0));
+        assertEquals(4, index.getNext(1));
+        assertEquals(3, index.getNext(2));
+        assertEquals(2, index.getPrevious(3));
+    }
+
+    @Test
+    public void testFindProcEntryAndExit() {
+
+        JobTraceEntries jobTraceEntries = new JobTraceEntries();
+        for (int callLevel : new int[] { 1, 2, 2, 1 }) {
+            JobTraceEntry jobTraceEntry = new JobTraceEntry();
+            jobTraceEntry.setCallLevel(callLevel);
+            jobTraceEntries.add(jobTraceEntry);
+        }
+
+        assertEquals(3, jobTraceEntries.findProcExit(0));
+        assertEquals(2, jobTraceEntries.findProcExit(1));
+        assertEquals(1, jobTraceEntries.findProcEntry(2));
+        assertEquals(0, jobTraceEntries.findProcEntry(3));
+    }
+
+    private CallStackIndex createIndex(int[] callLevels) {
+
+        CallStackIndex index = new CallStackIndex();
+        for (int callLevel : callLevels) {
+            index.add(callLevel);
+        }
+
+        return index;
+    }
+}
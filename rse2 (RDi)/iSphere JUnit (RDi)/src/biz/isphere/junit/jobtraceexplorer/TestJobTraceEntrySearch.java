@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2023 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.jobtraceexplorer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntries;
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.ISearchComparer;
+import biz.isphere.jobtraceexplorer.core.ui.widgets.internals.JobTraceEntrySearch;
+
+public class TestJobTraceEntrySearch {
+
+    private static final String SEARCH_TEXT = "MATCH";
+    private static final int NOT_FOUND = JobTraceEntrySearch.NOT_FOUND;
+
+    /*
+     * Spans more than two chunks of the search.
+     */
+    private static final int NUM_ENTRIES = 5000;
+
+    @Test
+    public void testFindNextAndPrevious() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(NUM_ENTRIES, 10, 2500, 4999);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 2500);
+
+        assertEquals(10, search.findNext(-1, new NullProgressMonitor()));
+        assertEquals(2500, search.findNext(10, new NullProgressMonitor()));
+        assertEquals(4999, search.findNext(2500, new NullProgressMonitor()));
+
+        assertEquals(2500, search.findPrevious(4999, new NullProgressMonitor()));
+        assertEquals(10, search.findPrevious(2500, new NullProgressMonitor()));
+        assertEquals(4999, search.findPrevious(-1, new NullProgressMonitor()));
+
+        assertTrue(search.isComplete());
+        assertEquals(3, search.getNumberOfMatches());
+        assertEquals(0, search.getMatchNumber(9));
+        assertEquals(1, search.getMatchNumber(10));
+        assertEquals(2, search.getMatchNumber(4998));
+        assertEquals(3, search.getMatchNumber(4999));
+    }
+
+    @Test
+    public void testWrapAround() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(NUM_ENTRIES, 10, 4000);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 4999);
+
+        assertEquals(10, search.findNext(4000, new NullProgressMonitor()));
+        assertEquals(10, search.findNext(4999, new NullProgressMonitor()));
+        assertEquals(4000, search.findPrevious(10, new NullProgressMonitor()));
+        assertEquals(4000, search.findPrevious(0, new NullProgressMonitor()));
+    }
+
+    @Test
+    public void testSingleMatch() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(NUM_ENTRIES, 3000);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 0);
+
+        assertEquals(3000, search.findNext(3000, new NullProgressMonitor()));
+        assertEquals(3000, search.findPrevious(3000, new NullProgressMonitor()));
+    }
+
+    @Test
+    public void testNoMatches() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(NUM_ENTRIES);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 0);
+
+        assertEquals(NOT_FOUND, search.findNext(-1, new NullProgressMonitor()));
+        assertEquals(NOT_FOUND, search.findPrevious(-1, new NullProgressMonitor()));
+        assertTrue(search.isComplete());
+        assertEquals(0, search.getNumberOfMatches());
+    }
+
+    @Test
+    public void testNoEntries() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(0);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 0);
+
+        assertTrue(search.isComplete());
+        assertEquals(NOT_FOUND, search.findNext(-1, new NullProgressMonitor()));
+        assertEquals(NOT_FOUND, search.findPrevious(-1, new NullProgressMonitor()));
+    }
+
+    @Test
+    public void testIsSearchFor() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(10, 5);
+        JobTraceEntrySearch search = startSearch(jobTraceEntries, 0);
+
+        assertTrue(search.isSearchFor(SEARCH_TEXT, jobTraceEntries));
+        assertFalse(search.isSearchFor("OTHER", jobTraceEntries));
+        assertFalse(search.isSearchFor(SEARCH_TEXT, createJobTraceEntries(10, 5)));
+
+        jobTraceEntries.add(createJobTraceEntry(false));
+        assertFalse(search.isSearchFor(SEARCH_TEXT, jobTraceEntries));
+    }
+
+    @Test
+    public void testCancel() {
+
+        JobTraceEntries jobTraceEntries = createJobTraceEntries(NUM_ENTRIES, 10);
+        JobTraceEntrySearch search = new JobTraceEntrySearch(SEARCH_TEXT, new ProcedureNameComparer(), jobTraceEntries);
+        search.cancel();
+
+        assertFalse(search.isSearchFor(SEARCH_TEXT, jobTraceEntries));
+        assertEquals(NOT_FOUND, search.findNext(-1, new NullProgressMonitor()));
+    }
+
+    private JobTraceEntrySearch startSearch(JobTraceEntries jobTraceEntries, int selectedIndex) {
+
+        JobTraceEntrySearch search = new JobTraceEntrySearch(SEARCH_TEXT, new ProcedureNameComparer(), jobTraceEntries);
+        search.start(selectedIndex);
+
+        return search;
+    }
+
+    private JobTraceEntries createJobTraceEntries(int numEntries, Integer... matches) {
+
+        Set<Integer> matchingIndexes = new HashSet<Integer>(Arrays.asList(matches));
+
+        JobTraceEntries jobTraceEntries = new JobTraceEntries();
+        for (int i = 0; i < numEntries; i++) {
+            jobTraceEntries.add(createJobTraceEntry(matchingIndexes.contains(i)));
+        }
+
+        return jobTraceEntries;
+    }
+
+    private JobTraceEntry createJobTraceEntry(boolean isMatch) {
+
+        JobTraceEntry jobTraceEntry = new JobTraceEntry();
+        if (isMatch) {
+            jobTraceEntry.setProcedureName(SEARCH_TEXT);
+        } else {
+            jobTraceEntry.setProcedureName("PROCEDURE");
+        }
+
+        return jobTraceEntry;
+    }
+
+    /**
+     * Comparer that matches the entries by their procedure name.
+     */
+    private static class ProcedureNameComparer implements ISearchComparer {
+
+        private String procedureName = SEARCH_TEXT;
+
+        public void setWhereClause(String whereClause) {
+            this.procedureName = whereClause;
+        }
+
+        public boolean isMatch(JobTraceEntry jobTraceEntry) {
+            return procedureName.equals(jobTraceEntry.getProcedureName());
+        }
+
+        public ISearchComparer createCopy() {
+
+            ProcedureNameComparer comparer = new ProcedureNameComparer();
+            comparer.setWhereClause(procedureName);
+
+            return comparer;
+        }
+    }
+}
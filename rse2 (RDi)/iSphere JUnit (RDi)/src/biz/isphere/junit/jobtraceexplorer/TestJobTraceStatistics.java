@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2023 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.jobtraceexplorer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+import biz.isphere.jobtraceexplorer.core.model.JobTraceEntry;
+import biz.isphere.jobtraceexplorer.core.model.dao.ColumnsDAO;
+import biz.isphere.jobtraceexplorer.core.model.statistics.CallPathNode;
+import biz.isphere.jobtraceexplorer.core.model.statistics.JobTraceStatistics;
+import biz.isphere.jobtraceexplorer.core.model.statistics.ProcedureStatistic;
+import biz.isphere.jobtraceexplorer.core.model.statistics.StatisticsLevel;
+
+public class TestJobTraceStatistics {
+
+    private static final String LIBRARY = "ISPHERE";
+    private static final String PROGRAM = "PROGRAM";
+    private static final String MODULE = "MODULE";
+
+    private List<JobTraceEntry> jobTraceEntries = new ArrayList<JobTraceEntry>();
+
+    @Test
+    public void testEmptySession() {
+
+        JobTraceStatistics statistics = compute();
+
+        assertEquals(0, statistics.getNumEntries());
+        assertEquals(0, statistics.getTotalNanos());
+        assertTrue(statistics.getStatistics(StatisticsLevel.PROCEDURE).isEmpty());
+        assertFalse(statistics.getCallPathRoot().hasChildren());
+    }
+
+    @Test
+    public void testNestedProcedures() {
+
+        addEntry(0, 1, "A");
+        addEntry(10, 2, "B");
+        addExit(30, 2, "B");
+        addEntry(40, 2, "B");
+        addExit(45, 2, "B");
+        addExit(100, 1, "A");
+
+        JobTraceStatistics statistics = compute();
+
+        assertEquals(6, statistics.getNumEntries());
+        assertEquals(100, statistics.getTotalNanos());
+
+        assertProcedure(statistics, "A", 1, 100, 75);
+        assertProcedure(statistics, "B", 2, 25, 25);
+
+        // The calls of B are internal calls of the program.
+        List<ProcedureStatistic> programs = statistics.getStatistics(StatisticsLevel.PROGRAM);
+        assertEquals(1, programs.size());
+        assertEquals(1, programs.get(0).getNumCalls());
+        assertEquals(100, programs.get(0).getInclusiveNanos());
+        assertEquals(100, programs.get(0).getExclusiveNanos());
+
+        List<CallPathNode> callPaths = statistics.getCallPathRoot().getChildren();
+        assertEquals(1, callPaths.size());
+        assertEquals("A", callPaths.get(0).getProcedure().getProcedureName());
+
+        List<CallPathNode> childCallPaths = callPaths.get(0).getChildren();
+        assertEquals(1, childCallPaths.size());
+        assertEquals("B", childCallPaths.get(0).getProcedure().getProcedureName());
+        assertEquals(2, childCallPaths.get(0).getNumCalls());
+        assertEquals(25, childCallPaths.get(0).getInclusiveNanos());
+    }
+
+    @Test
+    public void testCallsWithinProgramAndModule() {
+
+        addEntry(0, 1, "PGM1", "MOD1", "A");
+        addEntry(10, 2, "PGM1", "MOD2", "B");
+        addExit(20, 2, "PGM1", "MOD2", "B");
+        addEntry(30, 2, "PGM2", "MOD3", "C");
+        addExit(40, 2, "PGM2", "MOD3", "C");
+        addExit(50, 1, "PGM1", "MOD1", "A");
+        addEntry(60, 1, "PGM1", "MOD1", "A");
+        addExit(70, 1, "PGM1", "MOD1", "A");
+
+        JobTraceStatistics statistics = compute();
+
+        assertStatistic(statistics, StatisticsLevel.PROGRAM, "PGM1", 2, 60, 50);
+        assertStatistic(statistics, StatisticsLevel.PROGRAM, "PGM2", 1, 10, 10);
+
+        assertStatistic(statistics, StatisticsLevel.MODULE, "MOD1", 2, 60, 40);
+        assertStatistic(statistics, StatisticsLevel.MODULE, "MOD2", 1, 10, 10);
+        assertStatistic(statistics, StatisticsLevel.MODULE, "MOD3", 1, 10, 10);
+
+        assertProcedure(statistics, "A", 2, 60, 40);
+        assertProcedure(statistics, "B", 1, 10, 10);
+        assertProcedure(statistics, "C", 1, 10, 10);
+    }
+
+    @Test
+    public void testRecursion() {
+
+        addEntry(0, 1, "A");
+        addEntry(10, 2, "A");
+        addExit(20, 2, "A");
+        addExit(50, 1, "A");
+
+        JobTraceStatistics statistics = compute();
+
+        // The inclusive time of the recursive call is counted only once.
+        assertProcedure(statistics, "A", 2, 50, 50);
+    }
+
+    @Test
+    public void testMissingProcedureExits() {
+
+        addEntry(0, 1, "A");
+        addEntry(10, 2, "B");
+        addEntry(50, 2, "C");
+        addEntry(80, 1, "D");
+
+        JobTraceStatistics statistics = compute();
+
+        assertEquals(80, statistics.getTotalNanos());
+
+        assertProcedure(statistics, "A", 1, 80, 10);
+        assertProcedure(statistics, "B", 1, 40, 40);
+        assertProcedure(statistics, "C", 1, 30, 30);
+        assertProcedure(statistics, "D", 1, 0, 0);
+    }
+
+    @Test
+    public void testProcedureExitWithoutEntry() {
+
+        addExit(0, 3, "X");
+        addEntry(10, 1, "A");
+        addExit(20, 2, "Y");
+        addExit(30, 1, "A");
+
+        JobTraceStatistics statistics = compute();
+
+        assertEquals(4, statistics.getNumEntries());
+        assertEquals(1, statistics.getStatistics(StatisticsLevel.PROCEDURE).size());
+        assertProcedure(statistics, "A", 1, 20, 20);
+        assertNull(findProcedure(statistics, "X"));
+        assertNull(findProcedure(statistics, "Y"));
+    }
+
+    private void addEntry(long nanos, int callLevel, String procedureName) {
+        addEntry(nanos, callLevel, PROGRAM, MODULE, procedureName);
+    }
+
+    private void addEntry(long nanos, int callLevel, String programName, String moduleName, String procedureName) {
+        addJobTraceEntry(nanos, callLevel, programName, moduleName, procedureName, ColumnsDAO.EVENT_SUB_TYPE_PRCENTRY);
+    }
+
+    private void addExit(long nanos, int callLevel, String procedureName) {
+        addExit(nanos, callLevel, PROGRAM, MODULE, procedureName);
+    }
+
+    private void addExit(long nanos, int callLevel, String programName, String moduleName, String procedureName) {
+        addJobTraceEntry(nanos, callLevel, programName, moduleName, procedureName, ColumnsDAO.EVENT_SUB_TYPE_PRCEXIT);
+    }
+
+    private void addJobTraceEntry(long nanos, int callLevel, String programName, String moduleName, String procedureName,
+        String eventSubType) {
+
+        JobTraceEntry jobTraceEntry = new JobTraceEntry();
+        jobTraceEntry.setNanosSinceStarted(nanos);
+        jobTraceEntry.setCallLevel(callLevel);
+        jobTraceEntry.setProgramLibrary(LIBRARY);
+        jobTraceEntry.setProgramName(programName);
+        jobTraceEntry.setModuleLibrary(LIBRARY);
+        jobTraceEntry.setModuleName(moduleName);
+        jobTraceEntry.setProcedureName(procedureName);
+        jobTraceEntry.setEventSubType(eventSubType);
+
+        jobTraceEntries.add(jobTraceEntry);
+    }
+
+    private JobTraceStatistics compute() {
+
+        JobTraceStatistics statistics = JobTraceStatistics.compute(jobTraceEntries, new NullProgressMonitor());
+        assertNotNull(statistics);
+
+        return statistics;
+    }
+
+    private void assertProcedure(JobTraceStatistics statistics, String procedureName, int numCalls, long inclusiveNanos,
+        long exclusiveNanos) {
+
+        ProcedureStatistic procedure = findProcedure(statistics, procedureName);
+
+        assertNotNull("Procedure not found: " + procedureName, procedure);
+        assertEquals(numCalls, procedure.getNumCalls());
+        assertEquals(inclusiveNanos, procedure.getInclusiveNanos());
+        assertEquals(exclusiveNanos, procedure.getExclusiveNanos());
+    }
+
+    private void assertStatistic(JobTraceStatistics statistics, StatisticsLevel level, String name, int numCalls, long inclusiveNanos,
+        long exclusiveNanos) {
+
+        ProcedureStatistic statistic = null;
+        for (ProcedureStatistic item : statistics.getStatistics(level)) {
+            if ((level == StatisticsLevel.PROGRAM && name.equals(item.getProgramName()))
+                || (level == StatisticsLevel.MODULE && name.equals(item.getModuleName()))) {
+                statistic = item;
+            }
+        }
+
+        assertNotNull(level + " not found: " + name, statistic);
+        assertEquals(numCalls, statistic.getNumCalls());
+        assertEquals(inclusiveNanos, statistic.getInclusiveNanos());
+        assertEquals(exclusiveNanos, statistic.getExclusiveNanos());
+    }
+
+    private ProcedureStatistic findProcedure(JobTraceStatistics statistics, String procedureName) {
+
+        for (ProcedureStatistic procedure : statistics.getStatistics(StatisticsLevel.PROCEDURE)) {
+            if (procedureName.equals(procedure.getProcedureName())) {
+                return procedure;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.journalexplorer;
+
+import java.math.BigInteger;
+
+import biz.isphere.journalexplorer.core.model.JournalEntries;
+import biz.isphere.journalexplorer.core.model.JournalEntry;
+import biz.isphere.journalexplorer.core.model.SQLWhereClause;
+
+/**
+ * Benchmark that filters a synthetic set of journal entries and reports the
+ * number of entries filtered per second. The entries do not have entry specific
+ * data, therefore no host connection is required.
+ */
+public class JournalEntriesFilterBenchmark {
+
+    private static final int NUM_ENTRIES = 1000000;
+    private static final int NUM_RUNS = 5;
+
+    private static final String WHERE_CLAUSE = "JOENTT = 'PR' AND JOSEQN > 500000 AND JOUSER = 'USER3'";
+
+    public static void main(String[] args) {
+
+        JournalEntriesFilterBenchmark main = new JournalEntriesFilterBenchmark();
+        main.run();
+
+    }
+
+    private void run() {
+
+        System.out.println("Creating " + NUM_ENTRIES + " journal entries ...");
+        JournalEntries journalEntries = createJournalEntries(NUM_ENTRIES);
+
+        SQLWhereClause whereClause = new SQLWhereClause(WHERE_CLAUSE);
+
+        try {
+
+            for (int i = 1; i <= NUM_RUNS; i++) {
+
+                journalEntries.removeFilter();
+
+                long startTime = System.nanoTime();
+                journalEntries.applyFilter(whereClause, null);
+                long elapsed = System.nanoTime() - startTime;
+
+                long entriesPerSecond = (long)(NUM_ENTRIES / (elapsed / 1000000000.0));
+
+                System.out.println("Run " + i + ": " + journalEntries.size() + " of " + journalEntries.getNumberOfRowsDownloaded()
+                    + " entries selected in " + (elapsed / 1000000) + " mSecs (" + entriesPerSecond + " entries/second)");
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private JournalEntries createJournalEntries(int count) {
+
+        JournalEntries journalEntries = new JournalEntries(null, count);
+
+        long now = new java.util.Date().getTime();
+
+        for (int i = 1; i <= count; i++) {
+
+            JournalEntry journalEntry = new JournalEntry(null);
+            journalEntry.setId(i);
+            journalEntry.setJournalCode("J"); // JOCODE
+            journalEntry.setEntryType((i % 2 == 0) ? "PR" : "NR"); // JOENTT
+            journalEntry.setJobName("JOB" + (i % 10)); // JOJOB
+            journalEntry.setJobUserName("USER" + (i % 5)); // JOUSER
+            journalEntry.setJobNumber(i % 999999); // JONBR
+            journalEntry.setObjectLibrary("LIBRARY"); // JOLIB;
+            journalEntry.setObjectName("OBJECT"); // JOOBJ
+            journalEntry.setMemberName(""); // JOMBR
+            journalEntry.setTimestamp(new java.sql.Timestamp(now + i)); // JODATE/JOTIME
+            journalEntry.setProgramName("PROGRAM"); // JOPGM
+            journalEntry.setProgramLibrary("*OMITTED"); // JOPGMLIB
+            journalEntry.setObjectType("*N"); // JOOBJTYP
+            journalEntry.setFileTypeIndicator(""); // JOFILTYP
+            journalEntry.setSystemName("SYSTEM"); // JOSYNM
+            journalEntry.setReceiverName("RCV0001"); // JORCV
+            journalEntry.setReceiverLibraryName("LIBRARY"); // JORCVLIB
+            journalEntry.setUserProfile("USER" + (i % 5)); // JOUSPF
+            journalEntry.setSequenceNumber(BigInteger.valueOf(i)); // JOSEQN
+            journalEntry.setCommitmentCycle(BigInteger.ZERO); // JOCCID
+            journalEntry.setCountRrn(BigInteger.valueOf(i)); // JOCTRR
+
+            journalEntries.add(journalEntry);
+        }
+
+        return journalEntries;
+    }
+}
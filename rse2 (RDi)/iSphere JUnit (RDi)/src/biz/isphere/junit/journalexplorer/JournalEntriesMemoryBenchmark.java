@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.journalexplorer;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import biz.isphere.journalexplorer.core.model.JournalEntry;
+
+/**
+ * Benchmark that reports the heap used by a synthetic set of journal entries
+ * with entry specific data. The heap is measured after loading the entries and
+ * again after the string representation of the entry specific data has been
+ * requested for all entries, which is what happens when the entries are
+ * exported or displayed.
+ */
+public class JournalEntriesMemoryBenchmark {
+
+    private static final int NUM_ENTRIES = 100000;
+    private static final int SPECIFIC_DATA_LENGTH = 512;
+
+    public static void main(String[] args) {
+
+        JournalEntriesMemoryBenchmark main = new JournalEntriesMemoryBenchmark();
+        main.run();
+
+    }
+
+    private void run() {
+
+        long baseline = getUsedMemory();
+
+        System.out.println("Creating " + NUM_ENTRIES + " journal entries ...");
+        List<JournalEntry> journalEntries = createJournalEntries(NUM_ENTRIES);
+
+        long loaded = getUsedMemory();
+        printMemory("Loaded entries", loaded - baseline);
+
+        long startTime = System.nanoTime();
+        long totalLength = 0;
+        for (JournalEntry journalEntry : journalEntries) {
+            totalLength += journalEntry.getStringSpecificData().length();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        long accessed = getUsedMemory();
+        printMemory("After getStringSpecificData()", accessed - baseline);
+        System.out.println("Decoded " + totalLength + " characters in " + (elapsed / 1000000) + " mSecs");
+
+        // Keep the entries reachable until the end of the measurement.
+        System.out.println("Entries: " + journalEntries.size());
+    }
+
+    private List<JournalEntry> createJournalEntries(int count) {
+
+        List<JournalEntry> journalEntries = new ArrayList<JournalEntry>(count);
+
+        long now = new java.util.Date().getTime();
+
+        for (int i = 1; i <= count; i++) {
+
+            JournalEntry journalEntry = new JournalEntry(null);
+            journalEntry.setId(i);
+            journalEntry.setJournalCode("R"); // JOCODE
+            journalEntry.setEntryType("PT"); // JOENTT
+            journalEntry.setJobName("JOB" + (i % 10)); // JOJOB
+            journalEntry.setJobUserName("USER" + (i % 5)); // JOUSER
+            journalEntry.setJobNumber(i % 999999); // JONBR
+            journalEntry.setObjectLibrary("LIBRARY"); // JOLIB;
+            journalEntry.setObjectName("OBJECT"); // JOOBJ
+            journalEntry.setMemberName("OBJECT"); // JOMBR
+            journalEntry.setTimestamp(new java.sql.Timestamp(now + i)); // JODATE/JOTIME
+            journalEntry.setSequenceNumber(BigInteger.valueOf(i)); // JOSEQN
+            journalEntry.setCountRrn(BigInteger.valueOf(i)); // JOCTRR
+            journalEntry.setSpecificData(createSpecificData(i)); // JOESD
+            journalEntry.setNullIndicators(new byte[] { (byte)0xF0, (byte)0xF1, (byte)0xF0 }, "IBM037"); // JONVI
+
+            journalEntries.add(journalEntry);
+        }
+
+        return journalEntries;
+    }
+
+    private byte[] createSpecificData(int id) {
+
+        byte[] specificData = new byte[SPECIFIC_DATA_LENGTH];
+        for (int i = 0; i < specificData.length; i++) {
+            // EBCDIC 'A' to 'I'
+            specificData[i] = (byte)(0xC1 + ((id + i) % 9));
+        }
+
+        return specificData;
+    }
+
+    private long getUsedMemory() {
+
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void printMemory(String label, long bytes) {
+        System.out.println(label + ": " + (bytes / 1024) + " KB (" + (bytes / NUM_ENTRIES) + " bytes/entry)");
+    }
+}
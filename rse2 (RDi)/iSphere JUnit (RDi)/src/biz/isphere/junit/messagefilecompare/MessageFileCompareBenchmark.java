@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.messagefilecompare;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import biz.isphere.core.messagefilecompare.rse.MessageFileCompareItem;
+import biz.isphere.core.messagefileeditor.MessageDescription;
+
+/**
+ * Benchmark that compares two synthetic message files and reports the time
+ * spent for building the compare items and for comparing the message
+ * descriptions. The first run computes the content hashes, the following runs
+ * reuse the cached hashes. No host connection is required.
+ */
+public class MessageFileCompareBenchmark {
+
+    private static final int NUM_MESSAGES = 10000;
+    private static final int NUM_RUNS = 5;
+
+    public static void main(String[] args) {
+
+        MessageFileCompareBenchmark main = new MessageFileCompareBenchmark();
+        main.run();
+
+    }
+
+    private void run() {
+
+        System.out.println("Creating 2 x " + NUM_MESSAGES + " message descriptions ...");
+        List<MessageDescription> leftMessageDescriptions = createMessageDescriptions("LEFT", NUM_MESSAGES, 0);
+        List<MessageDescription> rightMessageDescriptions = createMessageDescriptions("RIGHT", NUM_MESSAGES, 7);
+
+        long startTime = System.nanoTime();
+        List<MessageFileCompareItem> compareItems = createCompareItems(leftMessageDescriptions, rightMessageDescriptions);
+        long elapsed = System.nanoTime() - startTime;
+
+        System.out.println("Created " + compareItems.size() + " compare items in " + (elapsed / 1000000) + " mSecs");
+
+        for (int i = 1; i <= NUM_RUNS; i++) {
+
+            int numEqual = 0;
+            int numNotEqual = 0;
+            int numSingles = 0;
+
+            startTime = System.nanoTime();
+
+            for (MessageFileCompareItem compareItem : compareItems) {
+                int status = compareItem.compareMessageDescriptions();
+                if (status == MessageFileCompareItem.LEFT_EQUALS_RIGHT) {
+                    numEqual++;
+                } else if (status == MessageFileCompareItem.NOT_EQUAL) {
+                    numNotEqual++;
+                } else {
+                    numSingles++;
+                }
+            }
+
+            elapsed = System.nanoTime() - startTime;
+
+            System.out.println("Run " + i + ": " + numEqual + " equal, " + numNotEqual + " not equal, " + numSingles + " singles compared in "
+                + (elapsed / 1000000) + " mSecs");
+        }
+    }
+
+    private List<MessageFileCompareItem> createCompareItems(List<MessageDescription> leftMessageDescriptions,
+        List<MessageDescription> rightMessageDescriptions) {
+
+        Map<String, MessageFileCompareItem> compareItems = new LinkedHashMap<String, MessageFileCompareItem>();
+
+        for (MessageDescription leftMessageDescription : leftMessageDescriptions) {
+            compareItems.put(leftMessageDescription.getMessageId(), new MessageFileCompareItem(leftMessageDescription, null));
+        }
+
+        for (MessageDescription rightMessageDescription : rightMessageDescriptions) {
+            MessageFileCompareItem item = compareItems.get(rightMessageDescription.getMessageId());
+            if (item == null) {
+                compareItems.put(rightMessageDescription.getMessageId(), new MessageFileCompareItem(null, rightMessageDescription));
+            } else {
+                item.setRightMessageDescription(rightMessageDescription);
+            }
+        }
+
+        return new ArrayList<MessageFileCompareItem>(compareItems.values());
+    }
+
+    private List<MessageDescription> createMessageDescriptions(String messageFile, int count, int modulo) {
+
+        List<MessageDescription> messageDescriptions = new ArrayList<MessageDescription>();
+
+        for (int i = 1; i <= count; i++) {
+
+            if (modulo > 0 && i % (modulo * 11) == 0) {
+                // Message missing on this side
+                continue;
+            }
+
+            MessageDescription messageDescription = new MessageDescription();
+            messageDescription.setConnection("CONNECTION");
+            messageDescription.setLibrary("LIBRARY");
+            messageDescription.setMessageFile(messageFile);
+            messageDescription.setMessageId("ABC" + String.format("%04X", i));
+            if (modulo > 0 && i % modulo == 0) {
+                messageDescription.setMessage("Changed message text of message " + i + ".");
+            } else {
+                messageDescription.setMessage("Message text of message " + i + ".");
+            }
+            messageDescription.setHelpText("Second level text of message " + i + ". This text explains the cause and the recovery.");
+            messageDescription.setSeverity(i % 100);
+            messageDescription.setCcsid(65535);
+
+            messageDescriptions.add(messageDescription);
+        }
+
+        return messageDescriptions;
+    }
+}
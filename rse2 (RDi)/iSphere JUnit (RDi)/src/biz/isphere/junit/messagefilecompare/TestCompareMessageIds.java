@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2023 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.messagefilecompare;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import biz.isphere.core.messagefilecompare.MessageFileCompareEditorInput;
+
+public class TestCompareMessageIds {
+
+    @Test
+    public void testEqualMessageIds() {
+
+        assertEquals(0, MessageFileCompareEditorInput.compareMessageIds("CPF0001", "CPF0001"));
+        assertEquals(0, MessageFileCompareEditorInput.compareMessageIds("", ""));
+    }
+
+    @Test
+    public void testDigits() {
+
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPF0001", "CPF0002") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPF9999", "CPF0001") > 0);
+    }
+
+    @Test
+    public void testLettersSortBeforeDigits() {
+
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPFA001", "CPF0001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPF9999", "CPFZ999") > 0);
+    }
+
+    @Test
+    public void testLetterGaps() {
+
+        // The EBCDIC letters are split into the ranges A-I, J-R and S-Z.
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("MSGI001", "MSGJ001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("MSGR001", "MSGS001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("MSGZ001", "MSG0001") < 0);
+    }
+
+    @Test
+    public void testSpecialCharactersSortBeforeLetters() {
+
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("$SG0001", "#SG0001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("#SG0001", "@SG0001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("@SG0001", "ASG0001") < 0);
+    }
+
+    @Test
+    public void testDifferentLength() {
+
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPF", "CPF0001") < 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("CPF0001", "CPF") > 0);
+        assertTrue(MessageFileCompareEditorInput.compareMessageIds("", "CPF0001") < 0);
+    }
+
+    @Test
+    public void testSortOrder() {
+
+        List<String> expected = Arrays.asList(new String[] { "$SG0001", "#SG0001", "@SG0001", "ABCA001", "ABCZ001", "ABC0001", "ABC1000",
+            "JKL0001", "SYS0001", "USR9999", "0000001" });
+
+        List<String> actual = new ArrayList<String>(expected);
+        Collections.reverse(actual);
+        Collections.sort(actual, new Comparator<String>() {
+            public int compare(String messageId1, String messageId2) {
+                return MessageFileCompareEditorInput.compareMessageIds(messageId1, messageId2);
+            }
+        });
+
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.spooledfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import biz.isphere.core.preferencepages.IPreferences;
+import biz.isphere.core.spooledfiles.SpooledFile;
+import biz.isphere.core.spooledfiles.SpooledFileBatchConverter;
+import biz.isphere.core.spooledfiles.SpooledFileConversionContext;
+import biz.isphere.core.spooledfiles.SpooledFileTransformerText;
+
+import com.ibm.as400.access.AS400;
+import com.ibm.as400.access.PrintParameterList;
+import com.ibm.as400.access.QSYSObjectPathName;
+
+/**
+ * Benchmark that converts a batch of synthetic spooled files to text files
+ * with an increasing number of worker threads and host connections. The host
+ * print transform is replaced by a local stand-in, that waits for a fixed
+ * latency and then returns a recorded-like *SCS data stream. No host
+ * connection is required.
+ */
+public class SpooledFileBatchConverterBenchmark {
+
+    private static final int NUM_SPOOLED_FILES = 200;
+    private static final int NUM_PAGES = 20;
+    private static final int NUM_LINES_PER_PAGE = 66;
+    private static final long HOST_LATENCY = 50;
+    private static final int[] NUM_THREADS = new int[] { 1, 2, 4, 8 };
+
+    private static final String SYSTEM_NAME = "STANDIN";
+
+    private byte[] transformedStream;
+
+    public static void main(String[] args) throws Exception {
+
+        SpooledFileBatchConverterBenchmark main = new SpooledFileBatchConverterBenchmark();
+        main.run();
+
+    }
+
+    private void run() throws Exception {
+
+        transformedStream = createTransformedStream();
+
+        System.out.println("Converting " + NUM_SPOOLED_FILES + " spooled files with " + NUM_PAGES + " pages (" + transformedStream.length
+            + " bytes) each, host latency: " + HOST_LATENCY + " mSecs ...");
+
+        SpooledFile[] spooledFiles = createSpooledFiles(NUM_SPOOLED_FILES);
+
+        for (int numThreads : NUM_THREADS) {
+
+            File directory = createDirectory();
+
+            try {
+
+                StandInBatchConverter converter = new StandInBatchConverter(numThreads, numThreads);
+
+                long startTime = System.nanoTime();
+                IStatus status = converter.saveToDirectory(spooledFiles, IPreferences.OUTPUT_FORMAT_TEXT, directory.getPath(), new NullProgressMonitor());
+                long elapsed = System.nanoTime() - startTime;
+
+                double filesPerSecond = NUM_SPOOLED_FILES / (elapsed / 1000000000.0);
+
+                System.out.println("Threads: " + numThreads + ", status: " + status.getSeverity() + ", elapsed: " + (elapsed / 1000000)
+                    + " mSecs, throughput: " + String.format("%.1f", filesPerSecond) + " files/sec");
+
+            } finally {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private SpooledFile[] createSpooledFiles(int count) {
+
+        AS400 system = new AS400(SYSTEM_NAME);
+
+        SpooledFile[] spooledFiles = new SpooledFile[count];
+        for (int i = 0; i < spooledFiles.length; i++) {
+            SpooledFile spooledFile = new SpooledFile();
+            spooledFile.setAS400(system);
+            spooledFile.setFile("INVOICE");
+            spooledFile.setFileNumber(i + 1);
+            spooledFile.setJobName("QPADEV0001");
+            spooledFile.setJobUser("USER");
+            spooledFile.setJobNumber(String.format("%06d", 100000 + i));
+            spooledFile.setJobSystem(SYSTEM_NAME);
+            spooledFiles[i] = spooledFile;
+        }
+
+        return spooledFiles;
+    }
+
+    private byte[] createTransformedStream() throws UnsupportedEncodingException {
+
+        StringBuilder buffer = new StringBuilder();
+
+        for (int page = 1; page <= NUM_PAGES; page++) {
+            for (int line = 1; line <= NUM_LINES_PER_PAGE; line++) {
+                if (line == 1 && page > 1) {
+                    buffer.append("\f");
+                }
+                if (line == 3) {
+                    // Bold printing: CR (DC1) and overprint
+                    buffer.append("Invoice 4711                  Page " + page);
+                    buffer.append("\u0011");
+                    buffer.append("Invoice 4711                  Page " + page);
+                    buffer.append("\u0011");
+                } else {
+                    buffer.append(String.format("%5d  Article %-20s  %10.2f  %10.2f", line, "ABC" + line, line * 1.5, line * 3.0));
+                }
+                buffer.append("\r\n");
+            }
+        }
+
+        return buffer.toString().getBytes("ISO-8859-1");
+    }
+
+    private File createDirectory() {
+
+        File directory = new File(System.getProperty("java.io.tmpdir"), "iSphereBatchConverterBenchmark_" + System.nanoTime());
+        directory.mkdirs();
+
+        return directory;
+    }
+
+    private void deleteDirectory(File directory) {
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        directory.delete();
+    }
+
+    /**
+     * Batch converter that uses the stand-in transformer instead of the host.
+     */
+    private class StandInBatchConverter extends SpooledFileBatchConverter {
+
+        public StandInBatchConverter(int maxConnections, int maxThreads) {
+            super(maxConnections, maxThreads);
+        }
+
+        @Override
+        protected String convert(SpooledFile spooledFile, String format, String directory, AS400 system, SpooledFileConversionContext context) {
+
+            File target = new File(directory, spooledFile.getQualifiedName() + ".txt");
+
+            StandInTransformer transformer = new StandInTransformer();
+            transformer.setConversionContext(context);
+
+            try {
+                if (!transformer.transformSpooledFile(target.getPath())) {
+                    return "Could not convert spooled file: " + spooledFile.getQualifiedName();
+                }
+            } catch (Exception e) {
+                return e.getLocalizedMessage();
+            }
+
+            return null;
+        }
+
+        @Override
+        protected AS400 createConnection(AS400 system) {
+            return new AS400(SYSTEM_NAME);
+        }
+
+        @Override
+        protected void closeConnection(AS400 connection) {
+        }
+    }
+
+    /**
+     * Transformer that reads the recorded data stream instead of the
+     * transformed spooled file of the host.
+     */
+    private class StandInTransformer extends SpooledFileTransformerText {
+
+        public StandInTransformer() {
+            super(SYSTEM_NAME, null);
+        }
+
+        @Override
+        protected QSYSObjectPathName getWorkstationCustomizationObject() {
+            return new QSYSObjectPathName("ISPHERE", "SPLFTXT", "WSCST");
+        }
+
+        @Override
+        protected InputStream openTransformedInputStream(PrintParameterList transformParameters) throws Exception {
+            Thread.sleep(HOST_LATENCY);
+            return new ByteArrayInputStream(transformedStream);
+        }
+
+        @Override
+        protected int getJobCcsid() {
+            return 37;
+        }
+    }
+}
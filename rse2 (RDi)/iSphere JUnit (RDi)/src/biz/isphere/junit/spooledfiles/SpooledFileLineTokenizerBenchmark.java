@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2022 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.spooledfiles;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import biz.isphere.core.spooledfiles.SpooledFileLineTokenizer;
+
+/**
+ * Benchmark that compares the line processing of the spooled file
+ * transformers, which was based on <code>BufferedReader.readLine()</code> and
+ * string operations, with the {@link SpooledFileLineTokenizer}. Both
+ * implementations must produce the same print lines and form feeds.
+ * <p>
+ * The benchmark reads the transformed data streams of spooled files, that
+ * have been recorded with <code>SpooledFile.getTransformedInputStream()</code>
+ * and the SPLFTXT *WSCST object. The paths of the recorded data streams are
+ * passed as arguments. Without arguments a synthetic data stream of 20,000
+ * pages is used.
+ */
+public class SpooledFileLineTokenizerBenchmark {
+
+    private static final String CODEPAGE = "Cp1252";
+    private static final int NUM_PAGES = 20000;
+    private static final int NUM_LINES_PER_PAGE = 66;
+    private static final int NUM_RUNS = 5;
+
+    private static final String FF = "\f";
+    private static final char DC1 = 0x11;
+
+    public static void main(String[] args) throws Exception {
+
+        SpooledFileLineTokenizerBenchmark main = new SpooledFileLineTokenizerBenchmark();
+        main.run(args);
+
+    }
+
+    private void run(String[] args) throws Exception {
+
+        checkEdgeCases();
+
+        List<byte[]> streams = new ArrayList<byte[]>();
+        List<String> names = new ArrayList<String>();
+
+        if (args.length == 0) {
+            streams.add(createSyntheticStream());
+            names.add("Synthetic stream (" + NUM_PAGES + " pages)");
+        } else {
+            for (String path : args) {
+                streams.add(readStream(new File(path)));
+                names.add(path);
+            }
+        }
+
+        for (int i = 0; i < streams.size(); i++) {
+
+            byte[] stream = streams.get(i);
+
+            System.out.println(names.get(i) + ", " + stream.length + " bytes:");
+
+            PrintSink legacySink = new PrintSink();
+            PrintSink tokenizerSink = new PrintSink();
+            processLegacy(stream, legacySink);
+            processTokenizer(stream, tokenizerSink);
+
+            if (!legacySink.equals(tokenizerSink)) {
+                throw new IllegalStateException("Tokenizer output differs from legacy output: " + legacySink + " <-> " + tokenizerSink);
+            }
+
+            System.out.println("  Output: " + tokenizerSink);
+
+            for (int run = 1; run <= NUM_RUNS; run++) {
+
+                long startTime = System.nanoTime();
+                processLegacy(stream, new PrintSink());
+                long legacyElapsed = System.nanoTime() - startTime;
+
+                startTime = System.nanoTime();
+                processTokenizer(stream, new PrintSink());
+                long tokenizerElapsed = System.nanoTime() - startTime;
+
+                System.out.println("  Run " + run + ": legacy: " + (legacyElapsed / 1000000) + " mSecs (" + getThroughput(stream, legacyElapsed)
+                    + " MB/sec), tokenizer: " + (tokenizerElapsed / 1000000) + " mSecs (" + getThroughput(stream, tokenizerElapsed) + " MB/sec)");
+            }
+        }
+    }
+
+    private String getThroughput(byte[] stream, long elapsed) {
+        return String.format("%.1f", (stream.length / (1024.0 * 1024.0)) / (elapsed / 1000000000.0));
+    }
+
+    /**
+     * Compares both implementations with data streams, that contain the
+     * special cases of the transformed data stream.
+     */
+    private void checkEdgeCases() throws IOException {
+
+        String[] edgeCases = new String[] { "", "\n", "\r\n\r\n", "\r", "A\u0011", "A\u0011\n", "\f", "\f\n\f\f\n", "\fA\u0011\n",
+            "\fAB\u0011\f\n", "AB\u0011\f\nCD\u0011\n", "AB   \u0011  CD\u0011\n", "A B C\u0011_____\u0011\n", "A B C\u0011 X Y Z\u0011\n",
+            "ABC  \t\u0011  XYZ123\u0011tail\r\n", "AB\u0011\u0011\u0011CD EF\u0011\n", "no DC1 at all\nnext\rline\r\nend", "\u000bA\u0011\n" };
+
+        for (String edgeCase : edgeCases) {
+
+            byte[] stream = edgeCase.getBytes(CODEPAGE);
+
+            PrintSink legacySink = new PrintSink();
+            PrintSink tokenizerSink = new PrintSink();
+            processLegacy(stream, legacySink);
+            processTokenizer(stream, tokenizerSink);
+
+            if (!legacySink.equals(tokenizerSink)) {
+                throw new IllegalStateException("Tokenizer output differs from legacy output for: " + edgeCase.replaceAll("\\p{Cntrl}", "?"));
+            }
+        }
+
+        System.out.println("Checked " + edgeCases.length + " edge cases.");
+    }
+
+    private void processTokenizer(byte[] stream, PrintSink sink) throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = new SpooledFileLineTokenizer(new InputStreamReader(new ByteArrayInputStream(stream), CODEPAGE));
+
+        boolean isDelayedFormfeed = false;
+        while (tokenizer.nextLine()) {
+            if (isDelayedFormfeed) {
+                sink.formfeed();
+                isDelayedFormfeed = false;
+            }
+
+            if (tokenizer.isFormfeedBefore()) {
+                sink.formfeed();
+                if (tokenizer.getLineLength() > 1) {
+                    sink.print(tokenizer.getLine(), 0, tokenizer.getLineLength());
+                    sink.newLine();
+                }
+            } else if (tokenizer.isFormfeedAfter()) {
+                if (tokenizer.getLineLength() > 1) {
+                    sink.print(tokenizer.getLine(), 0, tokenizer.getLineLength());
+                    sink.newLine();
+                }
+                isDelayedFormfeed = true;
+            } else {
+                sink.print(tokenizer.getLine(), 0, tokenizer.getLineLength());
+                sink.newLine();
+            }
+        }
+    }
+
+    /**
+     * Line processing of the spooled file transformers before the
+     * {@link SpooledFileLineTokenizer} has been introduced.
+     */
+    private void processLegacy(byte[] stream, PrintSink sink) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(stream), CODEPAGE));
+
+        String line;
+        boolean isDelayedFormfeed = false;
+        while ((line = reader.readLine()) != null) {
+            if (isDelayedFormfeed) {
+                sink.formfeed();
+                isDelayedFormfeed = false;
+            }
+
+            if (line.startsWith(FF)) {
+                line = line.substring(1);
+                sink.formfeed();
+                line = handleDC1(line);
+                if (line.length() > 1) {
+                    sink.print(line);
+                    sink.newLine();
+                }
+            } else if (line.endsWith(FF)) {
+                line = line.substring(0, line.length() - 1);
+                line = handleDC1(line);
+                if (line.length() > 1) {
+                    sink.print(line);
+                    sink.newLine();
+                }
+                isDelayedFormfeed = true;
+            } else {
+                line = handleDC1(line);
+                sink.print(line);
+                sink.newLine();
+            }
+        }
+    }
+
+    private String handleDC1(String line) {
+
+        if (line.length() <= 0) {
+            return line;
+        }
+
+        StringBuilder buffer = new StringBuilder();
+
+        int start = 0;
+        int end = line.indexOf(DC1, start);
+        int linePartCount = 0;
+
+        while ((end = line.indexOf(DC1, start)) >= 0) {
+
+            linePartCount++;
+            String linePart = line.substring(start, end).replaceAll("\\s+$", "");
+
+            if (linePartCount == 1) {
+                buffer.append(linePart);
+            } else {
+
+                if (linePart.length() == 0) {
+                    // Ignore empty line parts
+                } else if (linePart.trim().replaceAll("_", "").length() == 0) {
+                    // Ignore underline printing
+                } else {
+                    int length = Math.min(buffer.length(), linePart.length());
+                    for (int offset = 0; offset < length; offset++) {
+                        String linePartChar = linePart.substring(offset, offset + 1);
+                        if (" ".equals(buffer.substring(offset, offset + 1)) && !" ".equals(linePartChar)) {
+                            buffer.replace(offset, offset + 1, linePartChar);
+                        }
+                    }
+                    if (length < linePart.length()) {
+                        buffer.append(linePart.substring(length));
+                    }
+                }
+            }
+
+            start = start + linePart.length();
+            start = start + 1; // DC1
+            end = line.indexOf(DC1, start);
+        }
+
+        return buffer.toString();
+    }
+
+    private byte[] createSyntheticStream() throws IOException {
+
+        StringBuilder buffer = new StringBuilder();
+
+        for (int page = 1; page <= NUM_PAGES; page++) {
+            for (int line = 1; line <= NUM_LINES_PER_PAGE; line++) {
+                if (line == 1 && page > 1) {
+                    buffer.append(FF);
+                }
+                if (line == 3) {
+                    // Bold printing
+                    buffer.append("Invoice 4711                  Page " + page + "   ").append(DC1);
+                    buffer.append("Invoice 4711                  Page " + page).append(DC1);
+                } else if (line == 5) {
+                    // Underline printing
+                    buffer.append("Article              Quantity       Price").append(DC1);
+                    buffer.append("_______              ________       _____").append(DC1);
+                } else {
+                    buffer.append(String.format("%5d  Article %-20s  %10.2f  %10.2f   ", line, "ABC" + line, line * 1.5, line * 3.0)).append(DC1);
+                }
+                buffer.append("\r\n");
+            }
+        }
+
+        return buffer.toString().getBytes(CODEPAGE);
+    }
+
+    private byte[] readStream(File file) throws IOException {
+
+        InputStream in = new FileInputStream(file);
+
+        try {
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+
+            return out.toByteArray();
+
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Printer stand-in, that computes a checksum of the printed data.
+     */
+    private static class PrintSink {
+
+        private int numLines;
+        private int numFormfeeds;
+        private long numChars;
+        private int hash = 1;
+
+        public void print(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            numChars = numChars + text.length();
+        }
+
+        public void print(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + buffer[i];
+            }
+            numChars = numChars + length;
+        }
+
+        public void newLine() {
+            hash = 31 * hash + '\n';
+            numLines++;
+        }
+
+        public void formfeed() {
+            hash = 31 * hash + '\f';
+            numFormfeeds++;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof PrintSink)) {
+                return false;
+            }
+            PrintSink other = (PrintSink)object;
+            return numLines == other.numLines && numFormfeeds == other.numFormfeeds && numChars == other.numChars && hash == other.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return numLines + " lines, " + numFormfeeds + " form feeds, " + numChars + " chars, checksum: " + Integer.toHexString(hash);
+        }
+    }
+}
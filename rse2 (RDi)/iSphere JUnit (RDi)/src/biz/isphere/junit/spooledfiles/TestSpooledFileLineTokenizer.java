@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2023 iSphere Project Owners
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Common Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/cpl-v10.html
+ *******************************************************************************/
+
+package biz.isphere.junit.spooledfiles;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import biz.isphere.core.spooledfiles.SpooledFileLineTokenizer;
+
+public class TestSpooledFileLineTokenizer {
+
+    private static final String DC1 = "\u0011";
+
+    @Test
+    public void testEmptyStream() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("");
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testLineDelimiters() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("A" + DC1 + "\nB" + DC1 + "\rC" + DC1 + "\r\nD" + DC1);
+
+        assertLine(tokenizer, "A", false, false);
+        assertLine(tokenizer, "B", false, false);
+        assertLine(tokenizer, "C", false, false);
+        assertLine(tokenizer, "D", false, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testEmptyLines() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("\r\n\r\n");
+
+        assertLine(tokenizer, "", false, false);
+        assertLine(tokenizer, "", false, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testDataAfterLastDC1IsIgnored() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("no DC1 at all\nnext\rline\r\nend");
+
+        assertLine(tokenizer, "", false, false);
+        assertLine(tokenizer, "", false, false);
+        assertLine(tokenizer, "", false, false);
+        assertLine(tokenizer, "", false, false);
+        assertFalse(tokenizer.nextLine());
+
+        tokenizer = createTokenizer("ABC  \t" + DC1 + "tail\n");
+
+        assertLine(tokenizer, "ABC", false, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testFormfeedBefore() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("\f\n\fA" + DC1 + "\n\fAB" + DC1 + "\f\n\f");
+
+        assertLine(tokenizer, "", true, false);
+        assertLine(tokenizer, "A", true, false);
+        assertLine(tokenizer, "AB", true, false);
+        assertLine(tokenizer, "", true, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testFormfeedAfter() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("AB" + DC1 + "\f\nCD" + DC1 + "\n");
+
+        assertLine(tokenizer, "AB", false, true);
+        assertLine(tokenizer, "CD", false, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testBoldPrinting() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("A B C" + DC1 + " X Y Z" + DC1 + "\n");
+        assertLine(tokenizer, "AXBYCZ", false, false);
+
+        tokenizer = createTokenizer("AB   " + DC1 + "  CD" + DC1 + "\n");
+        assertLine(tokenizer, "ABCD", false, false);
+
+        tokenizer = createTokenizer("ABC  \t" + DC1 + "  XYZ123" + DC1 + "\n");
+        assertLine(tokenizer, "ABCYZ123", false, false);
+    }
+
+    @Test
+    public void testEmptyAndUnderlineSegmentsAreIgnored() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer("AB" + DC1 + DC1 + DC1 + "CD EF" + DC1 + "\n");
+        assertLine(tokenizer, "AB EF", false, false);
+
+        tokenizer = createTokenizer("A B C" + DC1 + "_____" + DC1 + "\n");
+        assertLine(tokenizer, "A B C", false, false);
+
+        tokenizer = createTokenizer("  ABC" + DC1 + "  ___  " + DC1 + "\n");
+        assertLine(tokenizer, "  ABC", false, false);
+    }
+
+    @Test
+    public void testLongLine() throws IOException {
+
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            longLine.append((char)('A' + i % 26));
+        }
+
+        SpooledFileLineTokenizer tokenizer = createTokenizer(longLine + DC1 + "\r\nX" + DC1 + "\n");
+
+        assertLine(tokenizer, longLine.toString(), false, false);
+        assertLine(tokenizer, "X", false, false);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void testLineDelimiterSplitAcrossReads() throws IOException {
+
+        SpooledFileLineTokenizer tokenizer = new SpooledFileLineTokenizer(new SingleCharReader("A" + DC1 + "\r\n\r\nB" + DC1 + "\f\r\n"));
+
+        assertLine(tokenizer, "A", false, false);
+        assertLine(tokenizer, "", false, false);
+        assertLine(tokenizer, "B", false, true);
+        assertFalse(tokenizer.nextLine());
+    }
+
+    private SpooledFileLineTokenizer createTokenizer(String stream) {
+        return new SpooledFileLineTokenizer(new StringReader(stream));
+    }
+
+    private void assertLine(SpooledFileLineTokenizer tokenizer, String expectedLine, boolean isFormfeedBefore, boolean isFormfeedAfter)
+        throws IOException {
+
+        assertTrue(tokenizer.nextLine());
+        assertEquals(expectedLine, new String(tokenizer.getLine(), 0, tokenizer.getLineLength()));
+        assertEquals(isFormfeedBefore, tokenizer.isFormfeedBefore());
+        assertEquals(isFormfeedAfter, tokenizer.isFormfeedAfter());
+    }
+
+    /**
+     * Reader that returns one character per read request.
+     */
+    private static class SingleCharReader extends Reader {
+
+        private StringReader reader;
+
+        public SingleCharReader(String data) {
+            this.reader = new StringReader(data);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return reader.read(buffer, offset, Math.min(1, length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
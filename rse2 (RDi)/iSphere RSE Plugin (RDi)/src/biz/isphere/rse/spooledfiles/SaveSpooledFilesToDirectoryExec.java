@@ -10,10 +10,10 @@ package biz.isphere.rse.spooledfiles;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 import biz.isphere.core.spooledfiles.SpooledFile;
+import biz.isphere.core.spooledfiles.SpooledFileBatchConverter;
 import biz.isphere.rse.Messages;
 
 /**
@@ -43,31 +43,14 @@ public class SaveSpooledFilesToDirectoryExec {
         }
 
         /**
-         * Deletes spooled files while displaying a progress monitor to keep the
-         * user up to date.
+         * Saves spooled files while displaying a progress monitor to keep the
+         * user up to date. The spooled files are converted in parallel by the
+         * {@link SpooledFileBatchConverter}.
          */
         @Override
         public IStatus run(IProgressMonitor aMonitor) {
 
-            IStatus status = Status.OK_STATUS;
-
-            aMonitor.beginTask("", spooledFiles.length); //$NON-NLS-1$
-
-            for (SpooledFile spooledFile : spooledFiles) {
-
-                if (aMonitor.isCanceled()) {
-                    status = Status.CANCEL_STATUS;
-                    break;
-                }
-
-                spooledFile.saveToDirectory(format, directory);
-
-                aMonitor.worked(1);
-            }
-
-            aMonitor.done();
-
-            return status;
+            return new SpooledFileBatchConverter().saveToDirectory(spooledFiles, format, directory, aMonitor);
 
         }
 